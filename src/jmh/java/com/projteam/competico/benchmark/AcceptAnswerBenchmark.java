@@ -0,0 +1,46 @@
+package com.projteam.competico.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.projteam.competico.domain.game.tasks.Task;
+import com.projteam.competico.domain.game.tasks.answers.TaskAnswer;
+
+//Grading a fully correct answer to the largest shipped task of each type
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AcceptAnswerBenchmark
+{
+	@Param({"ChoiceWordFill", "ChronologicalOrder", "ListChoiceWordFill", "ListSentenceForming",
+		"ListWordFill", "OptionSelect", "WordConnect", "WordFill"})
+	public String taskName;
+
+	private Task task;
+	private TaskAnswer answer;
+
+	@Setup
+	public void setup()
+	{
+		task = TaskFixtures.load().getLargest(taskName);
+		answer = TaskFixtures.correctAnswer(task);
+	}
+
+	@Benchmark
+	public double acceptAnswer()
+	{
+		return task.acceptAnswer(answer);
+	}
+}
@@ -0,0 +1,86 @@
+package com.projteam.competico.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.projteam.competico.domain.Account;
+import com.projteam.competico.domain.game.Game;
+import com.projteam.competico.domain.game.PlayerRef;
+import com.projteam.competico.domain.game.tasks.Task;
+import com.projteam.competico.dto.game.GameResultTotalDuringGameDTO;
+
+//A whole game played round by round: every player answers once, then the scoreboard is read
+//A game can only be played once, so each measured iteration is one fresh game of TASK_COUNT rounds
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, batchSize = GameBenchmark.TASK_COUNT)
+@Measurement(iterations = 50, batchSize = GameBenchmark.TASK_COUNT)
+@Fork(2)
+public class GameBenchmark
+{
+	public static final int TASK_COUNT = 20;
+
+	@Param({"5", "50", "200"})
+	public int playerCount;
+
+	private List<Account> players;
+	private List<PlayerRef> playerRefs;
+	private List<Task> tasks;
+	private Game game;
+	private int round;
+
+	@Setup(Level.Trial)
+	public void setupPlayers()
+	{
+		players = new ArrayList<>();
+		for (int i = 0; i < playerCount; i++)
+			players.add(new Account.Builder()
+					.withID(UUID.randomUUID())
+					.withEmail("player" + i + "@benchmark.pl")
+					.withUsername("Player" + i)
+					.withPassword("QWERTY")
+					.withRoles(List.of(Account.PLAYER_ROLE))
+					.build());
+		playerRefs = players.stream()
+				.map(player -> PlayerRef.of(player))
+				.collect(Collectors.toList());
+		tasks = TaskFixtures.load()
+				.getAll()
+				.subList(0, TASK_COUNT);
+	}
+	@Setup(Level.Iteration)
+	public void setupGame()
+	{
+		game = new Game(playerRefs, List.of(), TASK_COUNT, players.stream()
+				.collect(Collectors.toMap(player -> player.getId(), player -> tasks)));
+		round = 0;
+	}
+
+	@Benchmark
+	public Map<UUID, GameResultTotalDuringGameDTO> playRound()
+	{
+		double completion = ((double) (round++ % 4)) / 3;
+		for (Account player: players)
+		{
+			game.getCurrentTask(player);
+			game.advance(player, game.getCurrentTaskNumber(player), completion);
+		}
+		return game.getCurrentResultsWithIDs();
+	}
+}
@@ -0,0 +1,45 @@
+package com.projteam.competico.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.projteam.competico.domain.game.tasks.Task;
+import com.projteam.competico.utils.Initializable;
+
+//Walking the entity graphs of every shipped task of a type, as done after each task is loaded
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class InitializeBenchmark
+{
+	@Param({"ChoiceWordFill", "ChronologicalOrder", "ListChoiceWordFill", "ListSentenceForming",
+		"ListWordFill", "OptionSelect", "WordConnect", "WordFill"})
+	public String taskName;
+
+	private List<Task> tasks;
+
+	@Setup
+	public void setup()
+	{
+		tasks = TaskFixtures.load().getAll(taskName);
+	}
+
+	@Benchmark
+	public void initialize()
+	{
+		Initializable.initialize(tasks);
+	}
+}
@@ -0,0 +1,169 @@
+package com.projteam.competico.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projteam.competico.domain.game.tasks.ChoiceWordFill;
+import com.projteam.competico.domain.game.tasks.ChronologicalOrder;
+import com.projteam.competico.domain.game.tasks.ListChoiceWordFill;
+import com.projteam.competico.domain.game.tasks.ListSentenceForming;
+import com.projteam.competico.domain.game.tasks.ListWordFill;
+import com.projteam.competico.domain.game.tasks.OptionSelect;
+import com.projteam.competico.domain.game.tasks.Task;
+import com.projteam.competico.domain.game.tasks.WordConnect;
+import com.projteam.competico.domain.game.tasks.WordFill;
+import com.projteam.competico.domain.game.tasks.answers.ChoiceWordFillAnswer;
+import com.projteam.competico.domain.game.tasks.answers.ChronologicalOrderAnswer;
+import com.projteam.competico.domain.game.tasks.answers.ListChoiceWordFillAnswer;
+import com.projteam.competico.domain.game.tasks.answers.ListSentenceFormingAnswer;
+import com.projteam.competico.domain.game.tasks.answers.ListWordFillAnswer;
+import com.projteam.competico.domain.game.tasks.answers.OptionSelectAnswer;
+import com.projteam.competico.domain.game.tasks.answers.TaskAnswer;
+import com.projteam.competico.domain.game.tasks.answers.WordConnectAnswer;
+import com.projteam.competico.domain.game.tasks.answers.WordFillAnswer;
+
+//Tasks shipped in tasks/tasks.json, read the same way the application imports them at startup
+public final class TaskFixtures
+{
+	public static final String TASKS_RESOURCE = "/tasks/tasks.json";
+	private static final ObjectMapper ANSWER_MAPPER = new ObjectMapper();
+
+	private final List<Task> tasks;
+
+	private TaskFixtures(List<Task> tasks)
+	{
+		this.tasks = tasks;
+	}
+
+	public static TaskFixtures load()
+	{
+		ObjectMapper mapperByField = new ObjectMapper();
+		mapperByField.setVisibility(mapperByField.getSerializationConfig()
+				.getDefaultVisibilityChecker()
+				.withFieldVisibility(Visibility.ANY)
+				.withGetterVisibility(Visibility.NONE)
+				.withSetterVisibility(Visibility.NONE)
+				.withCreatorVisibility(Visibility.NONE));
+
+		try (InputStream in = TaskFixtures.class.getResourceAsStream(TASKS_RESOURCE))
+		{
+			List<Task> ret = new ArrayList<>();
+			for (JsonNode taskInfo: mapperByField.readTree(in))
+			{
+				Class<? extends Task> taskClass = Class.forName(Task.class.getPackageName()
+						+ "." + taskInfo.get("taskName").textValue())
+						.asSubclass(Task.class);
+				ret.add(mapperByField.treeToValue(taskInfo.get("taskContent"), taskClass));
+			}
+			//The shipped tasks have no single-row choice fills, those are taken from the list variants
+			ret.addAll(ret.stream()
+					.filter(t -> t instanceof ListChoiceWordFill)
+					.flatMap(t -> ((ListChoiceWordFill) t).getRows()
+							.stream()
+							.map(row -> new ChoiceWordFill(UUID.randomUUID(),
+									t.getInstruction(), t.getTags(), row, t.getDifficulty())))
+					.collect(Collectors.toList()));
+			return new TaskFixtures(List.copyOf(ret));
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+		catch (ClassNotFoundException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public List<Task> getAll()
+	{
+		return tasks;
+	}
+	public List<Task> getAll(String taskName)
+	{
+		return tasks.stream()
+				.filter(t -> t.getClass().getSimpleName().equals(taskName))
+				.collect(Collectors.toList());
+	}
+	//The task of the given type with the largest answer to grade
+	public Task getLargest(String taskName)
+	{
+		return getAll(taskName)
+				.stream()
+				.max(Comparator.comparingInt(TaskFixtures::answerSize))
+				.orElseThrow(() -> new IllegalArgumentException("No fixtures of type " + taskName));
+	}
+
+	public static TaskAnswer correctAnswer(Task task)
+	{
+		if (task instanceof WordConnect)
+		{
+			WordConnect wc = (WordConnect) task;
+			return new WordConnectAnswer(wc.getCorrectMapping()
+					.entrySet()
+					.stream()
+					.collect(Collectors.toMap(
+							e -> wc.getLeftWords().get(e.getKey()),
+							e -> wc.getRightWords().get(e.getValue()),
+							(a, b) -> a)));
+		}
+		if (task instanceof ChronologicalOrder)
+			return new ChronologicalOrderAnswer(((ChronologicalOrder) task).getSentences());
+		if (task instanceof OptionSelect)
+			return new OptionSelectAnswer(((OptionSelect) task).getContent().getCorrectAnswers());
+		if (task instanceof WordFill)
+			return new WordFillAnswer(((WordFill) task).getEmptySpaces()
+					.stream()
+					.map(es -> es.getAnswer())
+					.collect(Collectors.toList()));
+		if (task instanceof ChoiceWordFill)
+			return new ChoiceWordFillAnswer(((ChoiceWordFill) task).getWordChoices()
+					.stream()
+					.map(wc -> wc.getCorrectAnswer())
+					.collect(Collectors.toList()));
+		if (task instanceof ListWordFill)
+			return new ListWordFillAnswer(((ListWordFill) task).getRows()
+					.stream()
+					.map(row -> row.getEmptySpaces()
+							.stream()
+							.map(es -> es.getAnswer())
+							.collect(Collectors.toList()))
+					.collect(Collectors.toList()));
+		if (task instanceof ListChoiceWordFill)
+			return new ListChoiceWordFillAnswer(((ListChoiceWordFill) task).getRows()
+					.stream()
+					.map(row -> row.getWordChoices()
+							.stream()
+							.map(wc -> wc.getCorrectAnswer())
+							.collect(Collectors.toList()))
+					.collect(Collectors.toList()));
+		if (task instanceof ListSentenceForming)
+			return new ListSentenceFormingAnswer(((ListSentenceForming) task).getRows()
+					.stream()
+					.map(row -> row.getWords())
+					.collect(Collectors.toList()));
+		throw new IllegalArgumentException("Unknown task type " + task.getClass().getName());
+	}
+
+	//Serialized length of the correct answer, as a measure of how much there is to grade
+	private static int answerSize(Task task)
+	{
+		try
+		{
+			return ANSWER_MAPPER.writeValueAsBytes(correctAnswer(task)).length;
+		}
+		catch (JsonProcessingException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+}
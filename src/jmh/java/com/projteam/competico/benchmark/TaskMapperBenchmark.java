@@ -0,0 +1,67 @@
+package com.projteam.competico.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.projteam.competico.domain.game.tasks.Task;
+import com.projteam.competico.dto.game.tasks.create.TaskDTO;
+import com.projteam.competico.service.game.tasks.mappers.GenericTaskMapper;
+import com.projteam.competico.service.game.tasks.mappers.create.ChoiceWordFillMapper;
+import com.projteam.competico.service.game.tasks.mappers.create.ChronologicalOrderMapper;
+import com.projteam.competico.service.game.tasks.mappers.create.ListChoiceWordFillMapper;
+import com.projteam.competico.service.game.tasks.mappers.create.ListSentenceFormingMapper;
+import com.projteam.competico.service.game.tasks.mappers.create.ListWordFillMapper;
+import com.projteam.competico.service.game.tasks.mappers.create.OptionSelectMapper;
+import com.projteam.competico.service.game.tasks.mappers.create.WordConnectMapper;
+import com.projteam.competico.service.game.tasks.mappers.create.WordFillMapper;
+
+//Converting the largest shipped task of each type to its editor DTO and back
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TaskMapperBenchmark
+{
+	@Param({"ChoiceWordFill", "ChronologicalOrder", "ListChoiceWordFill", "ListSentenceForming",
+		"ListWordFill", "OptionSelect", "WordConnect", "WordFill"})
+	public String taskName;
+
+	private GenericTaskMapper taskMapper;
+	private Task task;
+	private TaskDTO dto;
+
+	@Setup
+	public void setup()
+	{
+		taskMapper = new GenericTaskMapper(List.of(
+				new ChoiceWordFillMapper(), new ChronologicalOrderMapper(),
+				new ListChoiceWordFillMapper(), new ListSentenceFormingMapper(),
+				new ListWordFillMapper(), new OptionSelectMapper(),
+				new WordConnectMapper(), new WordFillMapper()));
+		task = TaskFixtures.load().getLargest(taskName);
+		dto = taskMapper.toDTO(task);
+	}
+
+	@Benchmark
+	public TaskDTO toDTO()
+	{
+		return taskMapper.toDTO(task);
+	}
+	@Benchmark
+	public Task toEntity()
+	{
+		return taskMapper.toEntity(dto);
+	}
+}
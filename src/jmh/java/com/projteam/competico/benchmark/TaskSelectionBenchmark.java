@@ -0,0 +1,64 @@
+package com.projteam.competico.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.projteam.competico.domain.game.tasks.Task;
+import com.projteam.competico.service.game.GlobalTaskCatalog;
+import com.projteam.competico.service.game.TaskPool;
+
+//Drawing a player's task list, from a lobby's tasksets and from the global task catalog
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TaskSelectionBenchmark
+{
+	@Param({"10", "25"})
+	public int taskCount;
+
+	@Param({"100", "250"})
+	public double targetDifficulty;
+
+	private List<Task> tasks;
+	private TaskPool pool;
+	private GlobalTaskCatalog catalog;
+
+	@Setup
+	public void setup()
+	{
+		tasks = TaskFixtures.load().getAll();
+		pool = new TaskPool(List.of(tasks), targetDifficulty);
+		catalog = new GlobalTaskCatalog();
+		catalog.rebuild(tasks);
+	}
+
+	@Benchmark
+	public TaskPool buildPool()
+	{
+		return new TaskPool(List.of(tasks), targetDifficulty);
+	}
+	@Benchmark
+	public List<Task> drawFromPool()
+	{
+		return pool.drawTaskList(taskCount, ThreadLocalRandom.current());
+	}
+	@Benchmark
+	public Task pickFromCatalog()
+	{
+		return catalog.pickNear(targetDifficulty, ThreadLocalRandom.current()).orElse(null);
+	}
+}
@@ -0,0 +1,203 @@
+package com.projteam.competico.load;
+
+import static com.projteam.competico.load.LoadSettings.GAME_PING_INTERVAL_MILLI;
+import static com.projteam.competico.load.LoadSettings.LOBBY_POLL_INTERVAL_MILLI;
+import static com.projteam.competico.load.LoadSettings.SCORE_POLL_INTERVAL_MILLI;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import com.fasterxml.jackson.databind.JsonNode;
+
+//One lecturer hosting a lobby and the students of their class playing a single game in it
+public class Classroom
+{
+	private final LoadSettings settings;
+	private final VirtualUser lecturer;
+	private final List<VirtualUser> students;
+	private final CompletableFuture<String> gameCode = new CompletableFuture<>();
+	private final long startDelayMillis;
+	private long deadline;
+
+	public Classroom(LoadSettings settings, VirtualUser lecturer, List<VirtualUser> students)
+	{
+		this.settings = settings;
+		this.lecturer = lecturer;
+		this.students = students;
+		startDelayMillis = settings.rampUpMillis > 0?
+				(long) (lecturer.getRandom().nextDouble() * settings.rampUpMillis):
+				0;
+	}
+
+	public List<Callable<Boolean>> getParticipants()
+	{
+		deadline = System.currentTimeMillis() + settings.timeoutMillis;
+		List<Callable<Boolean>> ret = new ArrayList<>();
+		ret.add(this::host);
+		for (VirtualUser student: students)
+			ret.add(() -> play(student));
+		return ret;
+	}
+
+	private boolean host() throws IOException, InterruptedException
+	{
+		try
+		{
+			Thread.sleep(startDelayMillis);
+			lecturer.signIn();
+			String code = lecturer.post("/api/v1/lobby", null).body();
+			lecturer.put("/api/v1/lobby/{gameCode}",
+					Map.of("maxPlayers", students.size(), "allowsRandomPlayers", false), code);
+			gameCode.complete(code);
+
+			int joined = 0;
+			while (joined < students.size())
+			{
+				sleepUntilNextPoll(LOBBY_POLL_INTERVAL_MILLI);
+				JsonNode changes = lecturer.getJson("/api/v1/lobby/{gameCode}/changes", code);
+				if (changes.path("lobbyContentChanged").asBoolean())
+					joined = lecturer.getJson("/api/v1/lobby/{gameCode}", code)
+						.path("players")
+						.size();
+			}
+			if (!lecturer.postJson("/api/v1/lobby/{gameCode}/start", null, code).asBoolean())
+				throw new IllegalStateException("Game " + code + " could not be started");
+
+			String gameID = lecturer.getJson("/api/v1/lobby/{gameCode}/changes", code)
+					.path("gameID")
+					.asText();
+			watchScores(lecturer, gameID);
+			return true;
+		}
+		catch (Exception e)
+		{
+			//Students waiting for the lobby code would otherwise wait until the timeout
+			gameCode.completeExceptionally(e);
+			throw e;
+		}
+	}
+	private boolean play(VirtualUser student) throws Exception
+	{
+		student.signIn();
+		String code = gameCode.get(settings.timeoutMillis, TimeUnit.MILLISECONDS);
+		if (settings.joinWindowMillis > 0)
+			Thread.sleep((long) (student.getRandom().nextDouble() * settings.joinWindowMillis));
+		if (student.post("/api/v1/lobby/join/{gameCode}", null, code).statusCode() != 200)
+			throw new IllegalStateException(student.getUsername() + " could not join " + code);
+
+		String gameID = null;
+		while (gameID == null)
+		{
+			sleepUntilNextPoll(LOBBY_POLL_INTERVAL_MILLI);
+			JsonNode changes = student.getJson("/api/v1/lobby/{gameCode}/changes", code);
+			if (changes.path("gameStarted").asBoolean())
+				gameID = changes.path("gameID").asText();
+			else if (!changes.path("lobbyExists").asBoolean(true))
+				throw new IllegalStateException("Lobby " + code + " closed before the game started");
+		}
+
+		long lastPing = System.currentTimeMillis();
+		while (true)
+		{
+			JsonNode taskInfo = student.getJson("/api/v1/game/{gameCode}/tasks/current", code);
+			if (taskInfo.isMissingNode() || taskInfo.path("hasGameFinished").asBoolean())
+				break;
+			student.think(settings.thinkTimeMillis);
+			student.post("/api/v1/game/{gameCode}/tasks/answer",
+					answerTo(taskInfo, student.getRandom()), code);
+			if (System.currentTimeMillis() - lastPing >= GAME_PING_INTERVAL_MILLI)
+			{
+				student.post("/api/v1/game/{gameCode}/ping", null, code);
+				lastPing = System.currentTimeMillis();
+			}
+			checkDeadline();
+		}
+		watchScores(student, gameID);
+		student.get("/api/v1/scores/{gameID}/personal", gameID);
+		return true;
+	}
+	private void watchScores(VirtualUser user, String gameID) throws IOException, InterruptedException
+	{
+		while (true)
+		{
+			JsonNode changes = user.getJson("/api/v1/scores/{gameID}/total/changes", gameID);
+			if (changes.isMissingNode() || !changes.path("gameExists").asBoolean(true))
+				break;
+			if (changes.path("haveResultsChanged").asBoolean())
+				user.get("/api/v1/scores/{gameID}/total", gameID);
+			sleepUntilNextPoll(SCORE_POLL_INTERVAL_MILLI);
+		}
+		user.get("/api/v1/scores/{gameID}/total", gameID);
+	}
+	private void sleepUntilNextPoll(long interval) throws InterruptedException
+	{
+		checkDeadline();
+		Thread.sleep(interval);
+	}
+	private void checkDeadline()
+	{
+		if (System.currentTimeMillis() > deadline)
+			throw new IllegalStateException("Classroom did not finish within " + settings.timeoutMillis + "ms");
+	}
+
+	//A well-formed answer picked at random from what the task shows, like a student guessing
+	static Map<String, Object> answerTo(JsonNode taskInfo, Random random)
+	{
+		JsonNode task = taskInfo.path("task");
+		switch (taskInfo.path("taskName").asText())
+		{
+			case "WordFill":
+				return Map.of("answers", pick(task.path("possibleAnswers"),
+						task.path("emptySpaceCount").asInt(), random));
+			case "ListWordFill":
+				List<List<String>> lwfAnswers = new ArrayList<>();
+				JsonNode possibleAnswers = task.path("possibleAnswers");
+				for (int i = 0; i < possibleAnswers.size(); i++)
+					lwfAnswers.add(pick(possibleAnswers.get(i),
+							task.path("emptySpaceCount").path(i).asInt(), random));
+				return Map.of("answers", lwfAnswers);
+			case "ChoiceWordFill":
+				return Map.of("answers", pickEach(task.path("wordChoices"), random));
+			case "ListChoiceWordFill":
+				List<List<String>> lcwfAnswers = new ArrayList<>();
+				for (JsonNode row: task.path("wordChoices"))
+					lcwfAnswers.add(pickEach(row, random));
+				return Map.of("answers", lcwfAnswers);
+			case "OptionSelect":
+				return Map.of("answers", pick(task.path("answers"), 1, random));
+			case "WordConnect":
+				List<String> right = new ArrayList<>();
+				for (int i = 0; i < task.path("rightWords").size(); i++)
+					right.add(String.valueOf(i));
+				Map<String, String> mapping = new HashMap<>();
+				for (int i = 0; (i < task.path("leftWords").size()) && !right.isEmpty(); i++)
+					mapping.put(String.valueOf(i), right.remove(random.nextInt(right.size())));
+				return Map.of("answerMapping", mapping);
+			case "ChronologicalOrder":
+				return Map.of("answers", task.path("sentences"));
+			case "ListSentenceForming":
+				return Map.of("answers", task.path("words"));
+			default:
+				throw new IllegalArgumentException("Unknown task " + taskInfo.path("taskName").asText());
+		}
+	}
+	private static List<String> pick(JsonNode options, int count, Random random)
+	{
+		List<String> ret = new ArrayList<>();
+		for (int i = 0; (i < count) && (options.size() > 0); i++)
+			ret.add(options.get(random.nextInt(options.size())).asText());
+		return ret;
+	}
+	private static List<String> pickEach(JsonNode optionLists, Random random)
+	{
+		List<String> ret = new ArrayList<>();
+		for (JsonNode options: optionLists)
+			ret.addAll(pick(options, 1, random));
+		return ret;
+	}
+}
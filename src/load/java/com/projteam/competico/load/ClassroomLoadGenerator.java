@@ -0,0 +1,222 @@
+package com.projteam.competico.load;
+
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projteam.competico.SpringApp;
+
+//Boots the application and plays whole classroom games against it over HTTP, see the loadtest profile in pom.xml
+public class ClassroomLoadGenerator
+{
+	private static final long HEAP_SAMPLE_INTERVAL_MILLI = 100;
+
+	public static void main(String[] args) throws Exception
+	{
+		setDefault("server.port", "0");
+		setDefault("server.ssl.enabled", "false");
+		setDefault("spring.datasource.url", "jdbc:h2:mem:competico-load;DB_CLOSE_DELAY=-1");
+		setDefault("spring.jpa.hibernate.ddl-auto", "create");
+		setDefault("spring.session.store-type", "jdbc");
+		setDefault("spring.session.jdbc.initialize-schema", "always");
+		setDefault("app.journal.enabled", "false");
+		setDefault("app.generateAdminPass", "false");
+		setDefault("logging.level.root", "WARN");
+		System.setProperty("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+				QueryCounter.class.getName());
+
+		LoadSettings settings = new LoadSettings();
+		LoadReport report = new LoadReport();
+
+		FilterRegistrationBean<QueryCounter.RequestFilter> queryCountFilter =
+				new FilterRegistrationBean<>(new QueryCounter.RequestFilter(report));
+		queryCountFilter.setOrder(Ordered.HIGHEST_PRECEDENCE);
+
+		ConfigurableApplicationContext ctx = new SpringApplicationBuilder(SpringApp.class)
+				.initializers(context -> context.getBeanFactory()
+						.registerSingleton("loadQueryCountFilter", queryCountFilter))
+				.run(args);
+		boolean success;
+		try
+		{
+			String baseUrl = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port");
+			success = run(settings, report, baseUrl);
+		}
+		finally
+		{
+			ctx.close();
+		}
+		System.exit(success? 0: 1);
+	}
+
+	private static boolean run(LoadSettings settings, LoadReport report, String baseUrl) throws Exception
+	{
+		ObjectMapper mapper = new ObjectMapper();
+		HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(10))
+				.build();
+
+		//Every user gets its own seed, so think times and answers repeat from run to run
+		Random seeds = new Random(settings.seed);
+		List<Classroom> classrooms = new ArrayList<>();
+		for (int c = 0; c < settings.classCount; c++)
+		{
+			VirtualUser lecturer = new VirtualUser(client, baseUrl, report, mapper,
+					"class" + c + "_lecturer", false, seeds.nextLong());
+			List<VirtualUser> students = new ArrayList<>();
+			for (int s = 0; s < settings.studentsPerClass; s++)
+				students.add(new VirtualUser(client, baseUrl, report, mapper,
+						"class" + c + "_student" + s, true, seeds.nextLong()));
+			classrooms.add(new Classroom(settings, lecturer, students));
+		}
+
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		AtomicLong peakHeap = new AtomicLong();
+		ScheduledExecutorService heapSampler = Executors.newSingleThreadScheduledExecutor();
+		heapSampler.scheduleAtFixedRate(
+				() -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+				0, HEAP_SAMPLE_INTERVAL_MILLI, TimeUnit.MILLISECONDS);
+
+		long startHeap = memory.getHeapMemoryUsage().getUsed();
+		long startQueries = QueryCounter.getTotal();
+		long[] startGc = gcTotals();
+		long start = System.currentTimeMillis();
+
+		List<Callable<Boolean>> participants = new ArrayList<>();
+		for (Classroom classroom: classrooms)
+			participants.addAll(classroom.getParticipants());
+		ExecutorService users = Executors.newFixedThreadPool(participants.size());
+		List<Future<Boolean>> results = users.invokeAll(participants,
+				settings.rampUpMillis + settings.timeoutMillis, TimeUnit.MILLISECONDS);
+		users.shutdownNow();
+
+		long durationMillis = System.currentTimeMillis() - start;
+		long[] endGc = gcTotals();
+		heapSampler.shutdownNow();
+
+		int failedUsers = 0;
+		int completedClasses = 0;
+		int index = 0;
+		for (Classroom classroom: classrooms)
+		{
+			boolean completed = true;
+			for (int i = 0; i <= settings.studentsPerClass; i++)
+			{
+				if (!succeeded(results.get(index++)))
+				{
+					failedUsers++;
+					completed = false;
+				}
+			}
+			if (completed)
+				completedClasses++;
+		}
+
+		long queries = QueryCounter.getTotal() - startQueries;
+		long attributedQueries = report.getAttributedQueryCount();
+
+		Map<String, Object> database = new LinkedHashMap<>();
+		database.put("queries", queries);
+		database.put("requestQueries", attributedQueries);
+		database.put("backgroundQueries", queries - attributedQueries);
+
+		Map<String, Object> heap = new LinkedHashMap<>();
+		heap.put("maxBytes", memory.getHeapMemoryUsage().getMax());
+		heap.put("startUsedBytes", startHeap);
+		heap.put("peakUsedBytes", peakHeap.get());
+		heap.put("endUsedBytes", memory.getHeapMemoryUsage().getUsed());
+		heap.put("gcCount", endGc[0] - startGc[0]);
+		heap.put("gcTimeMillis", endGc[1] - startGc[1]);
+
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("settings", settings.toMap());
+		result.put("durationMillis", durationMillis);
+		result.put("completedClasses", completedClasses);
+		result.put("failedUsers", failedUsers);
+		result.put("requests", report.getRequestCount());
+		result.put("errors", report.getErrorCount());
+		result.put("throughput", report.getRequestCount() * 1000.0 / durationMillis);
+		result.put("database", database);
+		result.put("heap", heap);
+		result.put("endpoints", report.summarize(durationMillis));
+
+		File resultFile = new File(settings.resultFile);
+		if (resultFile.getParentFile() != null)
+			resultFile.getParentFile().mkdirs();
+		mapper.writerWithDefaultPrettyPrinter().writeValue(resultFile, result);
+		print(result);
+		System.out.println("Results written to " + resultFile.getAbsolutePath());
+
+		return failedUsers == 0;
+	}
+
+	private static boolean succeeded(Future<Boolean> result) throws InterruptedException
+	{
+		try
+		{
+			return result.get();
+		}
+		catch (ExecutionException e)
+		{
+			System.err.println("Virtual user failed: " + e.getCause());
+			return false;
+		}
+		catch (CancellationException e)
+		{
+			return false;
+		}
+	}
+	private static long[] gcTotals()
+	{
+		long[] ret = new long[2];
+		for (GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans())
+		{
+			ret[0] += Math.max(gc.getCollectionCount(), 0);
+			ret[1] += Math.max(gc.getCollectionTime(), 0);
+		}
+		return ret;
+	}
+	@SuppressWarnings("unchecked")
+	private static void print(Map<String, Object> result)
+	{
+		System.out.println();
+		System.out.printf("%-50s %8s %6s %9s %9s %9s %9s %7s%n",
+				"endpoint", "requests", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms", "q/req");
+		((Map<String, Map<String, Object>>) result.get("endpoints")).forEach((endpoint, stats) ->
+			System.out.printf("%-50s %8d %6d %9.1f %9.1f %9.1f %9.1f %7.1f%n", endpoint,
+					stats.get("requests"), stats.get("errors"),
+					stats.get("p50Millis"), stats.get("p90Millis"), stats.get("p99Millis"),
+					stats.get("maxMillis"), stats.get("queriesPerRequest")));
+		System.out.println();
+		for (String key: List.of("durationMillis", "completedClasses", "failedUsers",
+				"requests", "errors", "throughput", "database", "heap"))
+			System.out.println(key + ": " + result.get(key));
+	}
+	private static void setDefault(String key, String value)
+	{
+		if (System.getProperty(key) == null)
+			System.setProperty(key, value);
+	}
+}
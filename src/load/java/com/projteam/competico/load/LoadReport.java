@@ -0,0 +1,125 @@
+package com.projteam.competico.load;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+//Client-side latencies and server-side query counts, both keyed by "METHOD /path/{template}"
+public class LoadReport
+{
+	private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+	public void recordRequest(String endpoint, long nanos, boolean success)
+	{
+		endpoints.computeIfAbsent(endpoint, e -> new EndpointStats())
+			.recordRequest(nanos, success);
+	}
+	public void recordQueries(String endpoint, long queries)
+	{
+		endpoints.computeIfAbsent(endpoint, e -> new EndpointStats())
+			.recordQueries(queries);
+	}
+
+	public long getRequestCount()
+	{
+		return endpoints.values()
+				.stream()
+				.mapToLong(stats -> stats.getCount())
+				.sum();
+	}
+	public long getErrorCount()
+	{
+		return endpoints.values()
+				.stream()
+				.mapToLong(stats -> stats.getErrors())
+				.sum();
+	}
+	public long getAttributedQueryCount()
+	{
+		return endpoints.values()
+				.stream()
+				.mapToLong(stats -> stats.getQueries())
+				.sum();
+	}
+	public Map<String, Object> summarize(long durationMillis)
+	{
+		Map<String, Object> ret = new LinkedHashMap<>();
+		new TreeMap<>(endpoints).forEach((endpoint, stats) ->
+			ret.put(endpoint, stats.summarize(durationMillis)));
+		return ret;
+	}
+
+	private static class EndpointStats
+	{
+		private long[] latencies = new long[64];
+		private int count;
+		private int errors;
+		private long queries;
+		private long servedRequests;
+
+		public synchronized void recordRequest(long nanos, boolean success)
+		{
+			if (count == latencies.length)
+				latencies = Arrays.copyOf(latencies, count * 2);
+			latencies[count++] = nanos;
+			if (!success)
+				errors++;
+		}
+		public synchronized void recordQueries(long queries)
+		{
+			this.queries += queries;
+			servedRequests++;
+		}
+		public synchronized int getCount()
+		{
+			return count;
+		}
+		public synchronized int getErrors()
+		{
+			return errors;
+		}
+		public synchronized long getQueries()
+		{
+			return queries;
+		}
+		public synchronized Map<String, Object> summarize(long durationMillis)
+		{
+			long[] sorted = Arrays.copyOf(latencies, count);
+			Arrays.sort(sorted);
+
+			Map<String, Object> ret = new LinkedHashMap<>();
+			ret.put("requests", count);
+			ret.put("errors", errors);
+			ret.put("throughput", durationMillis > 0?
+					count * 1000.0 / durationMillis:
+					0);
+			ret.put("meanMillis", toMillis((long) Arrays.stream(sorted)
+					.average()
+					.orElse(0)));
+			ret.put("p50Millis", toMillis(percentile(sorted, 0.50)));
+			ret.put("p90Millis", toMillis(percentile(sorted, 0.90)));
+			ret.put("p99Millis", toMillis(percentile(sorted, 0.99)));
+			ret.put("maxMillis", toMillis(count > 0? sorted[count - 1]: 0));
+			ret.put("queries", queries);
+			ret.put("queriesPerRequest", servedRequests > 0?
+					(double) queries / servedRequests:
+					0);
+			return ret;
+		}
+
+		private static long percentile(long[] sorted, double p)
+		{
+			if (sorted.length == 0)
+				return 0;
+			int index = (int) Math.ceil(p * sorted.length) - 1;
+			return sorted[Math.max(index, 0)];
+		}
+		private static double toMillis(long nanos)
+		{
+			return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+		}
+	}
+}
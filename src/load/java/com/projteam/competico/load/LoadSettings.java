@@ -0,0 +1,46 @@
+package com.projteam.competico.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Read from -Dload.* system properties, see the loadtest profile in pom.xml for the defaults
+public class LoadSettings
+{
+	//Polling intervals used by the web client
+	public static final long LOBBY_POLL_INTERVAL_MILLI = 1000;
+	public static final long SCORE_POLL_INTERVAL_MILLI = 5000;
+	public static final long GAME_PING_INTERVAL_MILLI = 10000;
+
+	final int classCount;
+	final int studentsPerClass;
+	final long rampUpMillis;
+	final long joinWindowMillis;
+	final long thinkTimeMillis;
+	final long timeoutMillis;
+	final long seed;
+	final String resultFile;
+
+	public LoadSettings()
+	{
+		classCount = Integer.getInteger("load.classes", 4);
+		studentsPerClass = Integer.getInteger("load.students", 25);
+		rampUpMillis = Long.getLong("load.rampUp", 5000);
+		joinWindowMillis = Long.getLong("load.joinWindow", 10000);
+		thinkTimeMillis = Long.getLong("load.thinkTime", 8000);
+		timeoutMillis = Long.getLong("load.timeout", 600000);
+		seed = Long.getLong("load.seed", 1);
+		resultFile = System.getProperty("load.result", "target/load-result.json");
+	}
+
+	public Map<String, Object> toMap()
+	{
+		Map<String, Object> ret = new LinkedHashMap<>();
+		ret.put("classes", classCount);
+		ret.put("studentsPerClass", studentsPerClass);
+		ret.put("rampUpMillis", rampUpMillis);
+		ret.put("joinWindowMillis", joinWindowMillis);
+		ret.put("thinkTimeMillis", thinkTimeMillis);
+		ret.put("seed", seed);
+		return ret;
+	}
+}
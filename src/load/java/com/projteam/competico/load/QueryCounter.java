@@ -0,0 +1,67 @@
+package com.projteam.competico.load;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.servlet.HandlerMapping;
+
+//Installed through hibernate.session_factory.statement_inspector, sees every SQL statement Hibernate prepares
+public class QueryCounter implements StatementInspector
+{
+	private static final long serialVersionUID = 1L;
+
+	private static final AtomicLong total = new AtomicLong();
+	private static final ThreadLocal<long[]> perRequest = new ThreadLocal<>();
+
+	@Override
+	public String inspect(String sql)
+	{
+		total.incrementAndGet();
+		long[] counter = perRequest.get();
+		if (counter != null)
+			counter[0]++;
+		return sql;
+	}
+
+	public static long getTotal()
+	{
+		return total.get();
+	}
+
+	//Attributes the statements run on a request thread to the endpoint that handled the request
+	public static class RequestFilter implements Filter
+	{
+		private final LoadReport report;
+
+		public RequestFilter(LoadReport report)
+		{
+			this.report = report;
+		}
+
+		@Override
+		public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+				throws IOException, ServletException
+		{
+			long[] counter = new long[1];
+			perRequest.set(counter);
+			try
+			{
+				chain.doFilter(request, response);
+			}
+			finally
+			{
+				perRequest.remove();
+				HttpServletRequest req = (HttpServletRequest) request;
+				Object pattern = req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+				report.recordQueries(req.getMethod() + " "
+						+ (pattern != null? pattern: req.getRequestURI()), counter[0]);
+			}
+		}
+	}
+}
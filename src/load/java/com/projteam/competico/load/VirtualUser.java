@@ -0,0 +1,164 @@
+package com.projteam.competico.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+//One browser session: its own session cookie and think times, a client shared with everyone else
+public class VirtualUser
+{
+	private static final String PASSWORD = "LoadTest1";
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+	private final HttpClient client;
+	private final String baseUrl;
+	private final LoadReport report;
+	private final ObjectMapper mapper;
+	private final String username;
+	private final boolean isPlayer;
+	private final Random random;
+	private String sessionCookie;
+
+	public VirtualUser(HttpClient client, String baseUrl, LoadReport report, ObjectMapper mapper,
+			String username, boolean isPlayer, long seed)
+	{
+		this.client = client;
+		this.baseUrl = baseUrl;
+		this.report = report;
+		this.mapper = mapper;
+		this.username = username;
+		this.isPlayer = isPlayer;
+		random = new Random(seed);
+	}
+
+	public String getUsername()
+	{
+		return username;
+	}
+	public Random getRandom()
+	{
+		return random;
+	}
+
+	//Accounts are kept between runs against a persistent database, those are logged into instead
+	//Security only lets these through with the trailing slash the web client uses
+	public void signIn() throws IOException, InterruptedException
+	{
+		HttpResponse<String> res = post("/api/v1/register/", Map.of(
+				"email", username + "@load.competico.pl",
+				"username", username,
+				"password", PASSWORD,
+				"isPlayer", isPlayer));
+		if (res.statusCode() == 201)
+			return;
+		res = post("/api/v1/login/", Map.of(
+				"email", username,
+				"password", PASSWORD));
+		if (res.statusCode() != 200)
+			throw new IllegalStateException("Cannot sign in as " + username + ": " + res.body());
+	}
+
+	public HttpResponse<String> get(String template, Object... params)
+			throws IOException, InterruptedException
+	{
+		return send("GET", template, null, params);
+	}
+	public JsonNode getJson(String template, Object... params)
+			throws IOException, InterruptedException
+	{
+		return toJson(get(template, params));
+	}
+	public HttpResponse<String> post(String template, Object body, Object... params)
+			throws IOException, InterruptedException
+	{
+		return send("POST", template, body, params);
+	}
+	public JsonNode postJson(String template, Object body, Object... params)
+			throws IOException, InterruptedException
+	{
+		return toJson(post(template, body, params));
+	}
+	public HttpResponse<String> put(String template, Object body, Object... params)
+			throws IOException, InterruptedException
+	{
+		return send("PUT", template, body, params);
+	}
+
+	public void think(long meanMillis) throws InterruptedException
+	{
+		if (meanMillis > 0)
+			Thread.sleep((long) (meanMillis * (0.5 + random.nextDouble())));
+	}
+
+	private HttpResponse<String> send(String method, String template, Object body, Object... params)
+			throws IOException, InterruptedException
+	{
+		HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(baseUrl + expand(template, params)))
+				.timeout(REQUEST_TIMEOUT)
+				.method(method, body == null?
+						BodyPublishers.noBody():
+						BodyPublishers.ofByteArray(body instanceof String?
+								((String) body).getBytes(StandardCharsets.UTF_8):
+								mapper.writeValueAsBytes(body)))
+				.header("Content-Type", "application/json");
+		if (sessionCookie != null)
+			req.header("Cookie", sessionCookie);
+
+		String endpoint = method + " " + template;
+		long start = System.nanoTime();
+		HttpResponse<String> res;
+		try
+		{
+			res = client.send(req.build(), BodyHandlers.ofString());
+		}
+		catch (IOException e)
+		{
+			report.recordRequest(endpoint, System.nanoTime() - start, false);
+			throw e;
+		}
+		report.recordRequest(endpoint, System.nanoTime() - start, res.statusCode() < 300);
+
+		Optional<String> cookie = res.headers()
+				.allValues("Set-Cookie")
+				.stream()
+				.filter(value -> value.startsWith("JSESSIONID=") || value.startsWith("SESSION="))
+				.findFirst();
+		if (cookie.isPresent())
+			sessionCookie = cookie.get().split(";", 2)[0];
+		return res;
+	}
+	private JsonNode toJson(HttpResponse<String> res) throws IOException
+	{
+		if ((res.statusCode() / 100 != 2) || res.body().isEmpty())
+			return MissingNode.getInstance();
+		return mapper.readTree(res.body());
+	}
+	private static String expand(String template, Object... params)
+	{
+		StringBuilder sb = new StringBuilder();
+		int param = 0;
+		int i = 0;
+		while (i < template.length())
+		{
+			int open = template.indexOf('{', i);
+			if (open < 0)
+				break;
+			int close = template.indexOf('}', open);
+			sb.append(template, i, open).append(params[param++]);
+			i = close + 1;
+		}
+		return sb.append(template.substring(i)).toString();
+	}
+}
@@ -0,0 +1,56 @@
+package com.projteam.competico.api;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+//Strong entity tags for the endpoints clients poll. The tag is checked before the body is built,
+//so polling something that has not changed only costs a header comparison.
+final class EntityTags
+{
+	private EntityTags()
+	{
+	}
+
+	static boolean isNotModified(WebRequest request, String tag)
+	{
+		String[] values = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+		if (values == null)
+			return false;
+		String quoted = quote(tag);
+		for (String value: values)
+		{
+			for (String match: value.split(","))
+			{
+				match = match.trim();
+				//If-None-Match uses weak comparison
+				if (match.startsWith("W/"))
+					match = match.substring(2);
+				if (match.equals("*") || match.equals(quoted))
+					return true;
+			}
+		}
+		return false;
+	}
+	static <T> ResponseEntity<T> notModified(String tag)
+	{
+		return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+				.eTag(quote(tag))
+				.cacheControl(CacheControl.noCache())
+				.build();
+	}
+	//Browsers keep the response, but revalidate it on every request
+	static ResponseEntity.BodyBuilder tagged(String tag)
+	{
+		return ResponseEntity.ok()
+				.eTag(quote(tag))
+				.cacheControl(CacheControl.noCache());
+	}
+
+	private static String quote(String tag)
+	{
+		return "\"" + tag + "\"";
+	}
+}
@@ -1,20 +1,22 @@
 package com.projteam.competico.api;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.view.RedirectView;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.projteam.competico.dto.game.GameResultDTO;
 import com.projteam.competico.dto.game.GameResultTotalDuringGameDTO;
 import com.projteam.competico.dto.game.LeaderboardEntryDTO;
@@ -67,13 +69,23 @@ public class GameAPI
 	@ApiResponses(
 	{
 		@ApiResponse(code = 200, message = "Current task"),
+		@ApiResponse(code = 304, message = "The task has not changed since the provided ETag"),
 	})
 	@GetMapping("api/v1/game/{gameCode}/tasks/current")
-	public Object getCurrentTask(@PathVariable String gameCode)
+	public ResponseEntity<Object> getCurrentTask(@PathVariable String gameCode, WebRequest request)
 	{
 		if (gameService.hasGameFinished(gameCode))
-			return Map.of("hasGameFinished", true);
-		return gameService.getCurrentTaskInfo(gameCode);
+			return ResponseEntity.ok(Map.of("hasGameFinished", true));
+		Optional<String> tag = gameService.getCurrentTaskTag(gameCode);
+		if (tag.isPresent() && EntityTags.isNotModified(request, tag.get()))
+			return EntityTags.notModified(tag.get());
+		byte[] payload = gameService.getCurrentTaskPayload(gameCode);
+		if (payload == null)
+			return ResponseEntity.ok().build();
+		return tag.map(t -> EntityTags.tagged(t))
+				.orElseGet(() -> ResponseEntity.ok())
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(payload);
 	}
 	
 	@ApiOperation(value = "Send answers to the current task", code = 200)
@@ -83,7 +95,7 @@ public class GameAPI
 		@ApiResponse(code = 400, message = "Invalid answer content")
 	})
 	@PostMapping("api/v1/game/{gameCode}/tasks/answer")
-	public ResponseEntity<Object> answer(@PathVariable String gameCode, @RequestBody JsonNode answer)
+	public ResponseEntity<Object> answer(@PathVariable String gameCode, InputStream answer)
 	{
 		try
 		{
@@ -100,16 +112,31 @@ public class GameAPI
 	@ApiOperation(value = "Get total results of this game", code = 200)
 	@ApiResponses(
 	{
-		@ApiResponse(code = 200, message = "Total results of this game")
+		@ApiResponse(code = 200, message = "Total results of this game"),
+		@ApiResponse(code = 304, message = "The results have not changed since the provided ETag")
 	})
 	@GetMapping("api/v1/scores/{gameID}/total")
-	public List<? extends GameResultDTO> getTotalResults(@PathVariable UUID gameID)
+	public ResponseEntity<List<? extends GameResultDTO>> getTotalResults(@PathVariable UUID gameID,
+			WebRequest request)
 	{
-		Optional<List<GameResultTotalDuringGameDTO>> ret =
-				gameService.getCurrentResults(gameID);
-		if (ret.isEmpty())
-			return gameService.getResults(gameID).orElse(null);
-		return ret.get();
+		Optional<String> currentTag = gameService.getCurrentResultsTag(gameID);
+		//Unknown games have no saved results tag, so they are never reported as unchanged
+		Optional<String> savedTag = currentTag.isPresent()?Optional.empty():gameService.getSavedResultsTag(gameID);
+		Optional<String> tag = currentTag.or(() -> savedTag);
+		if (tag.isPresent() && EntityTags.isNotModified(request, tag.get()))
+			return EntityTags.notModified(tag.get());
+		
+		Optional<List<GameResultTotalDuringGameDTO>> ret = gameService.getCurrentResults(gameID);
+		if (ret.isPresent())
+			return currentTag.map(t -> EntityTags.tagged(t))
+					.orElseGet(() -> ResponseEntity.ok())
+					.body(ret.get());
+		return gameService.getResults(gameID)
+				.<ResponseEntity<List<? extends GameResultDTO>>>map(results ->
+						savedTag.map(t -> EntityTags.tagged(t))
+							.orElseGet(() -> ResponseEntity.ok())
+							.body(results))
+				.orElseGet(() -> ResponseEntity.ok().build());
 	}
 	@ApiOperation(value = "Get personal results of this game", code = 200)
 	@ApiResponses(
@@ -155,6 +182,20 @@ public class GameAPI
 		}
 	}
 	
+	@ApiOperation(value = "Stream total results of this game as they change", code = 200)
+	@ApiResponses(
+	{
+		@ApiResponse(code = 200, message = "Stream of total result events for this game"),
+		@ApiResponse(code = 404, message = "The game does not exist or the user is not a participant")
+	})
+	@GetMapping(path = "api/v1/scores/{gameID}/total/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> streamTotalResults(@PathVariable UUID gameID)
+	{
+		return gameService.subscribeToScoreboard(gameID)
+				.map(emitter -> ResponseEntity.ok(emitter))
+				.orElse(ResponseEntity.notFound().build());
+	}
+	
 	@ApiOperation(value = "Notify the server that the user is still in a game", code = 200)
 	@ApiResponses(
 	{
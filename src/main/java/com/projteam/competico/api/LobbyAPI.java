@@ -6,6 +6,7 @@ import java.util.Map;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,7 +16,10 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import com.projteam.competico.domain.Account;
+import com.projteam.competico.domain.game.PlayerRef;
 import com.projteam.competico.dto.lobby.LobbyOptionsDTO;
 import com.projteam.competico.service.AccountService;
 import com.projteam.competico.service.game.GameService;
@@ -83,14 +87,25 @@ public class LobbyAPI
 	@ApiResponses(
 	{
 		@ApiResponse(code = 200, message = "Current status of the lobby"),
+		@ApiResponse(code = 304, message = "The lobby has not changed since the provided ETag"),
 	})
 	@GetMapping("api/v1/lobby/{gameCode}")
-	public Map<String, Object> lobbyStatus(@PathVariable String gameCode)
+	public ResponseEntity<Map<String, Object>> lobbyStatus(@PathVariable String gameCode,
+			WebRequest request)
+	{
+		Optional<String> tag = lobbyService.getStatusTag(gameCode);
+		if (tag.isPresent() && EntityTags.isNotModified(request, tag.get()))
+			return EntityTags.notModified(tag.get());
+		Map<String, Object> status = lobbyStatus(gameCode);
+		return tag.map(t -> EntityTags.tagged(t).body(status))
+				.orElseGet(() -> ResponseEntity.ok(status));
+	}
+	private Map<String, Object> lobbyStatus(String gameCode)
 	{
 		boolean exists = lobbyService.lobbyExists(gameCode);
 		if (!exists)
 			return Map.of("exists", exists);
-		Account host = lobbyService.getHost(gameCode);
+		PlayerRef host = lobbyService.getHost(gameCode);
 		Map<String, Object> ret = new HashMap<>();
 		ret.putAll(Map.of(
 				"exists", exists,
@@ -179,6 +194,21 @@ public class LobbyAPI
 					"gameStarted", false);
 	}
 	
+	@ApiOperation(value = "Stream lobby status as it changes", code = 200)
+	@ApiResponses(
+	{
+		@ApiResponse(code = 200, message = "Stream of lobby status and game start events"),
+		@ApiResponse(code = 404, message = "The lobby does not exist or the user is not in it"),
+	})
+	@GetMapping(path = "api/v1/lobby/{gameCode}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> streamLobbyStatus(@PathVariable String gameCode)
+	{
+		return lobbyService.subscribeToLobby(gameCode, getAuthenticatedAccount(),
+					() -> lobbyStatus(gameCode))
+				.map(emitter -> ResponseEntity.ok(emitter))
+				.orElse(ResponseEntity.notFound().build());
+	}
+	
 	@ApiOperation(value = "Remove a player from the lobby", code = 200)
 	@ApiResponses(
 	{
@@ -0,0 +1,43 @@
+package com.projteam.competico.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Configuration
+@EnableScheduling
+public class SchedulingConfig implements SchedulingConfigurer, DisposableBean
+{
+	//Stream pushes block on slow clients and plan preparation hits the database,
+	//so they get a pool of their own instead of sharing one thread
+	private static final int POOL_SIZE = 4;
+
+	private final ThreadPoolTaskScheduler scheduler;
+
+	public SchedulingConfig()
+	{
+		scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setPoolSize(POOL_SIZE);
+		scheduler.setThreadNamePrefix("scheduled-");
+		scheduler.setErrorHandler(ex -> log.error("Uncaught scheduled task exception - {}: {}",
+				ex.getClass().getTypeName(),
+				ex.getMessage()));
+		scheduler.initialize();
+	}
+
+	@Override
+	public void configureTasks(ScheduledTaskRegistrar registrar)
+	{
+		registrar.setTaskScheduler(scheduler);
+	}
+	@Override
+	public void destroy()
+	{
+		scheduler.shutdown();
+	}
+}
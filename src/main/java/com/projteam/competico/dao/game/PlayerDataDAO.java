@@ -1,5 +1,7 @@
 package com.projteam.competico.dao.game;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +11,9 @@ import com.projteam.competico.domain.game.PlayerData;
 public interface PlayerDataDAO extends JpaRepository<PlayerData, UUID>
 {
 	public Optional<PlayerData> findByAccount_id(UUID id);
+	@Query("select pd from PlayerData pd join fetch pd.account "
+			+ "where pd.account.id in :ids")
+	public List<PlayerData> findAllByAccountIDs(Collection<UUID> ids);
 	@Query("select count(*) from PlayerData pd "
 			+ "where pd.rating > :rating "
 			+ "or (pd.rating = :rating and pd.account.username > :username)")
@@ -1,8 +1,13 @@
 package com.projteam.competico.dao.game.tasks;
 
+import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import com.projteam.competico.domain.game.tasks.ListChoiceWordFill;
 
 public interface ListChoiceWordFillDAO extends JpaRepository<ListChoiceWordFill, UUID>
-{}
\ No newline at end of file
+{
+	@Query("select t.id from ListChoiceWordFill t")
+	public List<UUID> findAllIds();
+}
\ No newline at end of file
@@ -1,8 +1,13 @@
 package com.projteam.competico.dao.game.tasks;
 
+import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import com.projteam.competico.domain.game.tasks.ListSentenceForming;
 
 public interface ListSentenceFormingDAO extends JpaRepository<ListSentenceForming, UUID>
-{}
+{
+	@Query("select t.id from ListSentenceForming t")
+	public List<UUID> findAllIds();
+}
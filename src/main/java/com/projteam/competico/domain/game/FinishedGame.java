@@ -0,0 +1,47 @@
+package com.projteam.competico.domain.game;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+public class FinishedGame
+{
+	private final GameResult gameResult;
+	private final UUID groupID;
+	private final Map<UUID, Long> totalScores;
+
+	public FinishedGame(GameResult gameResult, Optional<UUID> groupID, Map<UUID, Long> totalScores)
+	{
+		this.gameResult = gameResult;
+		this.groupID = groupID.orElse(null);
+		this.totalScores = Map.copyOf(totalScores);
+	}
+	public static FinishedGame of(Game game)
+	{
+		return new FinishedGame(game.createGameResult(),
+				game.getGroupId(),
+				game.getCurrentResultsWithIDs()
+					.entrySet()
+					.stream()
+					.collect(Collectors.toMap(e -> e.getKey(),
+							e -> e.getValue().getTotalScore())));
+	}
+
+	public UUID getGameID()
+	{
+		return gameResult.getGameID();
+	}
+	public GameResult getGameResult()
+	{
+		return gameResult;
+	}
+	public Optional<UUID> getGroupId()
+	{
+		return Optional.ofNullable(groupID);
+	}
+	public Map<UUID, Long> getTotalScores()
+	{
+		return totalScores;
+	}
+}
@@ -1,20 +1,18 @@
 package com.projteam.competico.domain.game;
 
-import static java.util.Collections.synchronizedList;
-import static java.util.Collections.synchronizedMap;
-import static java.util.stream.Collectors.toMap;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import com.projteam.competico.domain.Account;
 import com.projteam.competico.domain.game.tasks.Task;
 import com.projteam.competico.dto.game.GameResultPersonalDTO;
@@ -22,60 +20,41 @@ import com.projteam.competico.dto.game.GameResultTotalDuringGameDTO;
 
 public class Game
 {
-	private UUID gameID;
-	private List<Account> originalPlayers;
-	private List<Account> activePlayers;
-	private List<Account> spectators;
-	private int taskCount;
-	private Map<UUID, Integer> currentTaskNumber;
-	private Map<UUID, List<Task>> taskMap;
-	private Map<UUID, Map<Integer, Double>> taskCompletionMap;
+	private final UUID gameID;
+	private final int taskCount;
+	private final PlayerState[] playerStates;
+	private final Map<UUID, Integer> playerOrdinals;
+	private final Set<UUID> spectatorIDs;
+	private final Set<UUID> participantIDs;
 	
-	private int stateChangeCount;
-	private Map<UUID, Integer> lastResultCheckForAccount;
+	//All mutations of player state go through this lock, so every game has a single writer at a time
+	private final Object writeLock;
+	private volatile int activePlayerCount;
+	private volatile int unfinishedActivePlayerCount;
+	private final Map<UUID, Long> lastResultCheckForAccount;
 	
-	private Map<UUID, Long> lastInteractions;
-	
-	private Map<UUID, Optional<Long>> taskStartTime;
-	private Map<UUID, Map<Integer, Long>> timeTakenForTasks;
+	//Scoreboard entries and player ordinals in rank order, kept up to date by the writer
+	private final GameResultTotalDuringGameDTO[] scoreboardEntries;
+	private final int[] ranking;
+	private final int[] rankOf;
+	//Replaced as a whole, so the version always matches the entries published with it
+	private volatile Scoreboard scoreboard;
 	
 	private UUID groupID;
+	private volatile GameProgressListener progressListener;
 	
 	private static final long NANOS_IN_MILLI = 1000000;
+	private static final long NO_TIME = Long.MIN_VALUE;
 	
-	public Game(List<Account> players,
-			List<Account> spectators,
+	public Game(List<PlayerRef> players,
+			List<PlayerRef> spectators,
 			int taskCount,
 			Map<UUID, List<Task>> taskMap)
 	{
-		gameID = UUID.randomUUID();
-		originalPlayers = syncList(players);
-		activePlayers = syncList(players);
-		this.spectators = syncList(spectators);
-		this.taskCount = taskCount;
-		currentTaskNumber = syncMap();
-		currentTaskNumber.putAll(players.stream()
-				.collect(toMap(k -> k.getId(), v -> 0)));
-		this.taskMap = syncMap(taskMap.entrySet()
-				.stream()
-				.collect(toMap(Entry::getKey, e -> syncList(e.getValue()))));
-		taskCompletionMap = syncMap();
-		taskCompletionMap.putAll(players.stream()
-				.collect(toMap(k -> k.getId(), v -> syncMap())));
-		
-		stateChangeCount = 0;
-		lastResultCheckForAccount = syncMap();
-		
-		lastInteractions = syncMap();
-		players.forEach(p -> noteInteraction(p));
-		
-		taskStartTime = syncMap(players.stream()
-				.collect(Collectors.toMap(p -> p.getId(), p -> Optional.empty())));
-		timeTakenForTasks = syncMap(players.stream()
-				.collect(Collectors.toMap(p -> p.getId(), p -> syncMap())));
+		this(UUID.randomUUID(), players, spectators, taskCount, taskMap);
 	}
-	public Game(List<Account> players,
-			List<Account> spectators,
+	public Game(List<PlayerRef> players,
+			List<PlayerRef> spectators,
 			int taskCount,
 			Map<UUID, List<Task>> taskMap,
 			UUID groupId)
@@ -84,70 +63,185 @@ public class Game
 		
 		this.groupID = Objects.requireNonNull(groupId);
 	}
+	private Game(UUID gameID,
+			List<PlayerRef> players,
+			List<PlayerRef> spectators,
+			int taskCount,
+			Map<UUID, List<Task>> taskMap)
+	{
+		this.gameID = gameID;
+		this.taskCount = taskCount;
+		
+		int playerCount = players.size();
+		playerStates = new PlayerState[playerCount];
+		Map<UUID, Integer> ordinals = new HashMap<>();
+		long now = System.nanoTime();
+		for (int i = 0; i < playerCount; i++)
+		{
+			PlayerRef player = players.get(i);
+			UUID playerId = player.getId();
+			playerStates[i] = new PlayerState(player,
+					taskMap.getOrDefault(playerId, List.of()),
+					now);
+			ordinals.put(playerId, i);
+		}
+		playerOrdinals = Map.copyOf(ordinals);
+		
+		spectatorIDs = spectators.stream()
+				.map(acc -> acc.getId())
+				.collect(Collectors.toUnmodifiableSet());
+		participantIDs = Stream.concat(players.stream(), spectators.stream())
+				.map(acc -> acc.getId())
+				.collect(Collectors.toUnmodifiableSet());
+		
+		writeLock = new Object();
+		activePlayerCount = playerCount;
+		unfinishedActivePlayerCount = (taskCount > 0)?playerCount:0;
+		lastResultCheckForAccount = new ConcurrentHashMap<>();
+		
+		scoreboardEntries = new GameResultTotalDuringGameDTO[playerCount];
+		ranking = new int[playerCount];
+		rankOf = new int[playerCount];
+		for (int i = 0; i < playerCount; i++)
+		{
+			scoreboardEntries[i] = createScoreboardEntry(playerStates[i]);
+			ranking[i] = i;
+			rankOf[i] = i;
+		}
+		publishScoreboard();
+	}
+	public static Game restore(UUID gameID,
+			List<PlayerRef> players,
+			List<PlayerRef> spectators,
+			int taskCount,
+			Map<UUID, List<Task>> taskMap,
+			Optional<UUID> groupId)
+	{
+		Game game = new Game(gameID, players, spectators, taskCount, taskMap);
+		game.groupID = groupId.orElse(null);
+		return game;
+	}
 	
 	public UUID getID()
 	{
 		return gameID;
 	}
+	public int getTaskCount()
+	{
+		return taskCount;
+	}
+	public void setProgressListener(GameProgressListener progressListener)
+	{
+		this.progressListener = progressListener;
+	}
+	public Set<UUID> getParticipantIDs()
+	{
+		return participantIDs;
+	}
+	public Set<UUID> getPlayerIDs()
+	{
+		return playerOrdinals.keySet();
+	}
 	public Task getCurrentTask(Account player)
 	{
-		UUID id = player.getId();
-		noteInteraction(id);
-		if (taskStartTime.get(id).isEmpty())
-			taskStartTime.put(id, Optional.of(System.nanoTime()));
-		return taskMap.get(id).get(currentTaskNumber.get(id));
+		PlayerState ps = getPlayerState(player.getId());
+		if (ps == null)
+			return null;
+		ps.noteInteraction();
+		int taskNumber = ps.currentTask;
+		if (taskNumber >= ps.tasks.size())
+			return null;
+		if (ps.taskStartTime == NO_TIME)
+		{
+			synchronized (writeLock)
+			{
+				if ((ps.taskStartTime == NO_TIME) && (ps.currentTask == taskNumber))
+					ps.taskStartTime = System.nanoTime();
+			}
+		}
+		return ps.tasks.get(taskNumber);
 	}
 
-	public void advance(Account player, double completion)
+	//Answers are graded before the lock is taken, so one graded against a task the player already left is dropped
+	public boolean advance(Account player, int taskNumber, double completion)
 	{
-		UUID playerId = player.getId();
-		noteInteraction(playerId);
-		Integer taskNumber = currentTaskNumber.get(playerId);
+		PlayerState ps = getPlayerState(player.getId());
+		if (ps == null)
+			return false;
+		synchronized (writeLock)
+		{
+			long now = System.nanoTime();
+			if (ps.active)
+				ps.lastInteraction = now;
+			if ((ps.currentTask != taskNumber) || (taskNumber >= ps.completion.length))
+				return false;
 		
-		taskCompletionMap.get(playerId).put(taskNumber, completion);
-		currentTaskNumber.put(playerId, taskNumber + 1);
+			long timeTaken = (ps.taskStartTime == NO_TIME)?
+					0:((now - ps.taskStartTime) / NANOS_IN_MILLI);
+			applyAdvance(ps, completion, timeTaken);
 		
-		timeTakenForTasks.get(playerId).put(taskNumber,
-				taskStartTime.get(playerId)
-					.map(t -> (System.nanoTime() - t) / NANOS_IN_MILLI)
-					.orElse(0l));
-		taskStartTime.put(playerId, Optional.empty());
+			GameProgressListener listener = progressListener;
+			if (listener != null)
+				listener.playerAdvanced(this, ps.player.getId(), taskNumber, completion, timeTaken);
+			return true;
+		}
+	}
+	public void restoreAdvance(UUID playerID, int taskNumber, double completion, long timeTaken)
+	{
+		PlayerState ps = getPlayerState(playerID);
+		if (ps == null)
+			return;
+		synchronized (writeLock)
+		{
+			if ((ps.currentTask == taskNumber) && (taskNumber < ps.completion.length))
+				applyAdvance(ps, completion, timeTaken);
+		}
+	}
+	private void applyAdvance(PlayerState ps, double completion, long timeTaken)
+	{
+		int taskNumber = ps.currentTask;
+		ps.completion[taskNumber] = completion;
+		ps.timeTaken[taskNumber] = timeTaken;
+		ps.totalScore += calculateScore(completion,
+				ps.tasks.get(taskNumber).getDifficulty(), timeTaken);
+		ps.totalTime += timeTaken;
+		ps.taskStartTime = NO_TIME;
+		ps.currentTask = taskNumber + 1;
+		
+		if (ps.active && (taskNumber + 1 == taskCount))
+			unfinishedActivePlayerCount--;
 		
-		stateChangeCount++;
+		int ordinal = playerOrdinals.get(ps.player.getId());
+		scoreboardEntries[ordinal] = createScoreboardEntry(ps);
+		updateRank(ordinal);
+		publishScoreboard();
 	}
 
 	public boolean hasGameFinishedFor(Account player)
 	{
-		UUID id = player.getId();
-		noteInteraction(id);
-		return currentTaskNumber.containsKey(id)?
-				(currentTaskNumber.get(id) >= taskCount):true;
+		PlayerState ps = getPlayerState(player.getId());
+		if (ps == null)
+			return true;
+		ps.noteInteraction();
+		return ps.currentTask >= taskCount;
 	}
 	public boolean hasGameFinished()
 	{
-		Set<UUID> activePlayerIDs = new HashSet<>(activePlayers
-				.stream()
-				.map(acc -> acc.getId())
-				.collect(Collectors.toSet()));
-		return currentTaskNumber.entrySet()
-				.stream()
-				.filter(e -> activePlayerIDs.contains(e.getKey()))
-				.map(e -> e.getValue())
-				.allMatch(taskNum -> taskNum >= taskCount);
+		return unfinishedActivePlayerCount <= 0;
 	}
 
 	public int getCurrentTaskNumber(Account player)
 	{
-		UUID id = player.getId();
-		noteInteraction(id);
-		return currentTaskNumber.get(id);
+		PlayerState ps = getPlayerState(player.getId());
+		ps.noteInteraction();
+		return ps.currentTask;
 	}
 
 	public int getTaskCount(Account player)
 	{
-		UUID id = player.getId();
-		noteInteraction(id);
-		return taskMap.get(id).size();
+		PlayerState ps = getPlayerState(player.getId());
+		ps.noteInteraction();
+		return ps.tasks.size();
 	}
 	public Optional<UUID> getGroupId()
 	{
@@ -156,21 +250,27 @@ public class Game
 	public GameResult createGameResult()
 	{
 		GameResult gr = new GameResult(gameID);
-		for (Account player: originalPlayers)
+		for (PlayerState ps: playerStates)
 		{
 			UUID gameResultId = UUID.randomUUID();
-			UUID playerId = player.getId();
-			Map<Integer, Double> completion = new HashMap<>(taskCompletionMap.get(playerId));
+			UUID playerId = ps.player.getId();
+			int answered = ps.currentTask;
+			Map<Integer, Double> completion = new HashMap<>();
+			Map<Integer, Long> timeTaken = new HashMap<>();
+			for (int i = 0; i < answered; i++)
+			{
+				completion.put(i, ps.completion[i]);
+				timeTaken.put(i, ps.timeTaken[i]);
+			}
 			Map<Integer, Double> difficulty = new HashMap<>();
 			int i = 0;
-			for (Task t: taskMap.get(playerId))
+			for (Task t: ps.tasks)
 			{
 				difficulty.put(i, t.getDifficulty());
 				i++;
 			}
-			Map<Integer, Long> timeTaken = new HashMap<>(timeTakenForTasks.get(playerId));
 			
-			boolean removedForInactivity = !activePlayers.contains(player);
+			boolean removedForInactivity = !ps.active;
 			
 			PlayerResult pr = new PlayerResult(
 					gameResultId, playerId, completion,
@@ -182,78 +282,35 @@ public class Game
 
 	public List<GameResultTotalDuringGameDTO> getCurrentResults()
 	{
-		return new ArrayList<>(getCurrentResultsWithIDs()
-				.entrySet()
-				.stream()
-				.map(e -> e.getValue())
-				.sorted((r1, r2) -> -Long.compare(
-						r1.getTotalScore(),
-						r2.getTotalScore()))
-				.collect(Collectors.toList()));
+		return scoreboard.ranked;
 	}
 	public Map<UUID, GameResultTotalDuringGameDTO> getCurrentResultsWithIDs()
 	{
-		Map<UUID, GameResultTotalDuringGameDTO> ret = new HashMap<>();
-		for (Account player: originalPlayers)
-		{
-			UUID playerId = player.getId();
-			int currentTask = currentTaskNumber.get(playerId);
-			
-			List<Task> tasks = taskMap.get(playerId);
-			Map<Integer, Double> completion = taskCompletionMap.get(playerId);
-			double score = 0;
-			
-			Map<Integer, Long> timeTaken = timeTakenForTasks.get(playerId);
-			long totalTime = 0;
-			for (int i = 0; i < currentTask; i++)
-			{
-				long time =  timeTaken.get(i);
-				score += calculateScore(completion.get(i), tasks.get(i).getDifficulty(), time);
-				totalTime += time;
-			}
-			boolean hasFinished = currentTask >= taskCount;
-			boolean isActive = activePlayers.contains(player);
-			
-			ret.put(playerId,
-					new GameResultTotalDuringGameDTO(
-						player.getUsername(),
-						player.getNickname(), 
-						(long) score,
-						totalTime,
-						hasFinished,
-						!isActive));
-		}
-		return ret;
+		return scoreboard.byPlayer;
+	}
+	//Bumped every time the scoreboard changes, never goes back
+	public long getVersion()
+	{
+		return scoreboard.version;
 	}
 	public List<GameResultPersonalDTO> getPersonalResults(Account player)
 	{
-		UUID playerId = player.getId();
-		if (!originalPlayers.contains(player))
+		PlayerState ps = getPlayerState(player.getId());
+		if (ps == null)
 			return null;
 		
 		List<GameResultPersonalDTO> ret = new ArrayList<>();
 		
-		List<Task> tasks = taskMap.get(playerId);
-		Map<Integer, Double> completion = taskCompletionMap.get(playerId);
-		
-		var difficulty = tasks.stream()
-				.map(task -> task.getDifficulty())
-				.collect(Collectors.toList());
-		
-		Map<Integer, Long> timeTaken = timeTakenForTasks.get(playerId);
-		int l = Math.min(completion.size(),
-				Math.min(difficulty.size(),
-						timeTaken.size()));
-		
 		//TODO include in game result
-//		boolean isActive = activePlayers.contains(player);
+//		boolean isActive = ps.active;
 		
+		int l = ps.currentTask;
 		for (int i = 0; i < l; i++)
 		{
 			ret.add(new GameResultPersonalDTO(
-					completion.get(i),
-					timeTaken.get(i),
-					difficulty.get(i)));
+					ps.completion[i],
+					ps.timeTaken[i],
+					ps.tasks.get(i).getDifficulty()));
 		}
 		return ret;
 	}
@@ -273,97 +330,215 @@ public class Game
 
 	public boolean containsPlayer(Account acc)
 	{
-		return originalPlayers.contains(acc);
+		return playerOrdinals.containsKey(acc.getId());
 	}
 	public boolean isPlayerActive(Account acc)
 	{
-		return activePlayers.contains(acc);
+		PlayerState ps = getPlayerState(acc.getId());
+		return (ps != null) && ps.active;
 	}
 	public boolean containsSpectator(Account acc)
 	{
-		return spectators.contains(acc);
+		return spectatorIDs.contains(acc.getId());
 	}
 	public boolean containsPlayerOrSpectator(Account acc)
 	{
-		return containsPlayer(acc) || containsSpectator(acc);
+		return participantIDs.contains(acc.getId());
 	}
 	public Optional<Boolean> hasStateChanged(UUID gameID, Account acc)
 	{
 		if (!containsPlayerOrSpectator(acc))
 			return Optional.empty();
 		
-		UUID id = acc.getId();
-		if (lastResultCheckForAccount.containsKey(id))
-		{
-			int ret = lastResultCheckForAccount.get(id);
-			lastResultCheckForAccount.put(id, stateChangeCount);
-			return Optional.of(ret != stateChangeCount);
-		}
-		lastResultCheckForAccount.put(id, stateChangeCount);
-		return Optional.of(true);
+		long current = getVersion();
+		Long last = lastResultCheckForAccount.put(acc.getId(), current);
+		return Optional.of((last == null) || (last != current));
 	}
 	
 	public void noteInteraction(Account account)
 	{
-		noteInteraction(account.getId());
+		PlayerState ps = getPlayerState(account.getId());
+		if (ps != null)
+			ps.noteInteraction();
 	}
-	private void noteInteraction(UUID accountID)
+
+	public boolean removeIfInactive(UUID playerID, long maxTimeSinceLastInteractionMilli)
 	{
-		synchronized (activePlayers)
+		PlayerState ps = getPlayerState(playerID);
+		if (ps == null)
+			return false;
+		synchronized (writeLock)
 		{
-			if (activePlayers.stream()
-					.anyMatch(acc -> acc.getId().equals(accountID))
-					|| spectators.stream()
-						.anyMatch(acc -> acc.getId().equals(accountID)))
-				lastInteractions.put(accountID, System.nanoTime());
+			if (!ps.active
+					|| !ps.isInactive(System.nanoTime(), maxTimeSinceLastInteractionMilli)
+					|| (ps.currentTask >= taskCount))
+				return false;
+			deactivate(ps);
+			publishScoreboard();
+			GameProgressListener listener = progressListener;
+			if (listener != null)
+				listener.playerRemoved(this, playerID);
+			return true;
 		}
 	}
-	
-	public void removeInactivePlayers(long maxTimeSinceLastInteractionMilli)
+	//The System.nanoTime() after which the player counts as inactive, empty once they can no longer be removed
+	public OptionalLong getInactivityDeadline(UUID playerID, long maxTimeSinceLastInteractionMilli)
+	{
+		PlayerState ps = getPlayerState(playerID);
+		if ((ps == null) || !ps.active || (ps.currentTask >= taskCount))
+			return OptionalLong.empty();
+		long last = ps.lastInteraction;
+		if (last == NO_TIME)
+			return OptionalLong.of(System.nanoTime());
+		return OptionalLong.of(last + (maxTimeSinceLastInteractionMilli + 1) * NANOS_IN_MILLI);
+	}
+	public void restoreRemoval(UUID playerID)
 	{
-		synchronized (activePlayers)
+		PlayerState ps = getPlayerState(playerID);
+		if (ps == null)
+			return;
+		synchronized (writeLock)
 		{
-			Iterator<Account> it = activePlayers.iterator();
-			while (it.hasNext())
+			if (ps.active && (ps.currentTask < taskCount))
 			{
-				Account player = it.next();
-				if (isPlayerInactive(player, maxTimeSinceLastInteractionMilli)
-						&& !hasGameFinishedFor(player))
-				{
-					it.remove();
-					stateChangeCount++;
-				}
+				deactivate(ps);
+				publishScoreboard();
 			}
 		}
 	}
-	private boolean isPlayerInactive(Account acc, long maxTimeSinceLastInteractionMilli)
+	private void deactivate(PlayerState ps)
 	{
-		UUID id = acc.getId();
-		if (!lastInteractions.containsKey(id))
-			return true;
-		long diff = System.nanoTime() - lastInteractions.get(id);
-		return (diff / NANOS_IN_MILLI) > maxTimeSinceLastInteractionMilli;
+		ps.active = false;
+		activePlayerCount--;
+		unfinishedActivePlayerCount--;
+		scoreboardEntries[playerOrdinals.get(ps.player.getId())] =
+				createScoreboardEntry(ps);
 	}
 
 	public boolean isInactive()
 	{
-		return activePlayers.isEmpty();
+		return activePlayerCount <= 0;
 	}
 	public void markInactive(Account acc)
 	{
-		lastInteractions.remove(acc.getId());
+		PlayerState ps = getPlayerState(acc.getId());
+		if (ps != null)
+			ps.lastInteraction = NO_TIME;
 	}
 	
-	private <T, U> Map<T, U> syncMap()
+	private GameResultTotalDuringGameDTO createScoreboardEntry(PlayerState ps)
+	{
+		return new GameResultTotalDuringGameDTO(
+				ps.player.getUsername(),
+				ps.player.getNickname(),
+				(long) ps.totalScore,
+				ps.totalTime,
+				ps.currentTask >= taskCount,
+				!ps.active);
+	}
+	private void updateRank(int ordinal)
 	{
-		return synchronizedMap(new HashMap<>());
+		int rank = rankOf[ordinal];
+		long score = scoreboardEntries[ordinal].getTotalScore();
+		while (rank > 0
+				&& scoreboardEntries[ranking[rank - 1]].getTotalScore() < score)
+		{
+			swapRanks(rank, rank - 1);
+			rank--;
+		}
+		while (rank < ranking.length - 1
+				&& scoreboardEntries[ranking[rank + 1]].getTotalScore() > score)
+		{
+			swapRanks(rank, rank + 1);
+			rank++;
+		}
+	}
+	private void swapRanks(int rank1, int rank2)
+	{
+		int ordinal1 = ranking[rank1];
+		int ordinal2 = ranking[rank2];
+		ranking[rank1] = ordinal2;
+		ranking[rank2] = ordinal1;
+		rankOf[ordinal2] = rank1;
+		rankOf[ordinal1] = rank2;
+	}
+	private void publishScoreboard()
+	{
+		GameResultTotalDuringGameDTO[] ranked = new GameResultTotalDuringGameDTO[ranking.length];
+		Map<UUID, GameResultTotalDuringGameDTO> byPlayer = new HashMap<>();
+		for (int rank = 0; rank < ranking.length; rank++)
+		{
+			int ordinal = ranking[rank];
+			ranked[rank] = scoreboardEntries[ordinal];
+			byPlayer.put(playerStates[ordinal].player.getId(), scoreboardEntries[ordinal]);
+		}
+		Scoreboard previous = scoreboard;
+		scoreboard = new Scoreboard((previous == null)?0:(previous.version + 1),
+				List.of(ranked),
+				Collections.unmodifiableMap(byPlayer));
+	}
+
+	private PlayerState getPlayerState(UUID playerId)
+	{
+		Integer ordinal = playerOrdinals.get(playerId);
+		return (ordinal == null)?null:playerStates[ordinal];
 	}
-	private <T, U> Map<T, U> syncMap(Map<T, U> map)
+
+	private static final class Scoreboard
 	{
-		return synchronizedMap(new HashMap<>(map));
+		private final long version;
+		private final List<GameResultTotalDuringGameDTO> ranked;
+		private final Map<UUID, GameResultTotalDuringGameDTO> byPlayer;
+		
+		private Scoreboard(long version,
+				List<GameResultTotalDuringGameDTO> ranked,
+				Map<UUID, GameResultTotalDuringGameDTO> byPlayer)
+		{
+			this.version = version;
+			this.ranked = ranked;
+			this.byPlayer = byPlayer;
+		}
 	}
-	private <T> List<T> syncList(List<T> list)
+
+	private static final class PlayerState
 	{
-		return synchronizedList(new ArrayList<>(list));
+		private final PlayerRef player;
+		private final List<Task> tasks;
+		//Entries below currentTask are written before currentTask is published and never change afterwards
+		private final double[] completion;
+		private final long[] timeTaken;
+		private double totalScore;
+		private long totalTime;
+		private volatile int currentTask;
+		private volatile long taskStartTime;
+		private volatile long lastInteraction;
+		private volatile boolean active;
+		
+		private PlayerState(PlayerRef player, List<Task> tasks, long now)
+		{
+			this.player = player;
+			this.tasks = List.copyOf(tasks);
+			completion = new double[this.tasks.size()];
+			timeTaken = new long[this.tasks.size()];
+			totalScore = 0;
+			totalTime = 0;
+			currentTask = 0;
+			taskStartTime = NO_TIME;
+			lastInteraction = now;
+			active = true;
+		}
+		
+		private void noteInteraction()
+		{
+			if (active)
+				lastInteraction = System.nanoTime();
+		}
+		private boolean isInactive(long now, long maxTimeSinceLastInteractionMilli)
+		{
+			long last = lastInteraction;
+			if (last == NO_TIME)
+				return true;
+			return ((now - last) / NANOS_IN_MILLI) > maxTimeSinceLastInteractionMilli;
+		}
 	}
 }
@@ -0,0 +1,10 @@
+package com.projteam.competico.domain.game;
+
+import java.util.UUID;
+
+public interface GameProgressListener
+{
+	//Called while the game holds its write lock, in the order the changes were applied
+	public void playerAdvanced(Game game, UUID playerID, int taskNumber, double completion, long timeTaken);
+	public void playerRemoved(Game game, UUID playerID);
+}
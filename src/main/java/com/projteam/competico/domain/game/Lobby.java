@@ -2,33 +2,44 @@ package com.projteam.competico.domain.game;
 
 import static com.projteam.competico.domain.Account.PLAYER_ROLE;
 import static com.projteam.competico.domain.Account.LECTURER_ROLE;
-import static java.util.Collections.synchronizedList;
 import static java.util.Collections.synchronizedMap;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
-import javax.transaction.Transactional;
 import com.projteam.competico.domain.Account;
 import com.projteam.competico.domain.group.GroupLobbySettings;
 
 public class Lobby
 {
 	private String gameCode;
-	private Account host;
-	private List<Account> players;
+	private PlayerRef host;
+	//In joining order, looked up by account ID
+	private Map<UUID, PlayerRef> players;
 	private int maxPlayerCount;
 	private GroupLobbySettings groupLobbySettings;
 	
-	private int changeCount;
-	private Map<UUID, Integer> playerLastChangeCounts;
+	//Bumped after every change visible in the lobby's status, never goes back
+	private final AtomicLong version;
+	private Map<UUID, Long> playerLastSeenVersions;
+	private volatile Runnable changeListener;
 	
 	private Map<UUID, Long> lastInteractions;
 	
+	//Guarded by the players lock, every change publishes a new profile
+	private Map<UUID, Integer> ratings;
+	private TreeMap<Integer, Integer> ratingCounts;
+	private long ratingSum;
+	private volatile RatingProfile ratingProfile;
+	
 	private static final long NANOS_IN_MILLI = 1000000;
 	private static final int DEFAULT_MAX_PLAYER_COUNT = 20;
 	
@@ -39,17 +50,22 @@ public class Lobby
 	public Lobby(String gameCode, Account host, int maxPlayerCount)
 	{
 		this.gameCode = gameCode;
-		this.host = host;
-		players = syncList();
+		this.host = PlayerRef.of(host);
+		players = synchronizedMap(new LinkedHashMap<>());
 		
 		this.maxPlayerCount = maxPlayerCount;
 		
-		changeCount = 0;
-		playerLastChangeCounts = syncMap();
+		version = new AtomicLong();
+		playerLastSeenVersions = syncMap();
 		
 		lastInteractions = syncMap();
 		
-		noteInteraction(host);
+		ratings = new HashMap<>();
+		ratingCounts = new TreeMap<>();
+		ratingSum = 0;
+		ratingProfile = RatingProfile.EMPTY;
+		
+		noteInteraction(host.getId());
 	}
 	
 	public Lobby(String gameCode, Account host, UUID groupId, String groupCode)
@@ -61,57 +77,63 @@ public class Lobby
 	{
 		this(gameCode, host, maxPlayerCount);
 		
-		groupLobbySettings = new GroupLobbySettings(groupId, groupCode, null);
+		groupLobbySettings = new GroupLobbySettings(groupId, groupCode, null, null);
 	}
 	
-	public Account getHost()
+	public PlayerRef getHost()
 	{
 		return host;
 	}
-	public List<Account> getPlayers()
+	public List<PlayerRef> getPlayers()
 	{
-		List<Account> ret = new ArrayList<>(players);
+		List<PlayerRef> ret;
+		synchronized (players)
+		{
+			ret = new ArrayList<>(players.values());
+		}
 		if (host.hasRole(PLAYER_ROLE))
 			ret.add(host);
 		return ret;
 	}
-	public boolean addPlayer(Account player)
+	public boolean addPlayer(Account player, int rating)
 	{
 		if (isHost(player))
 			return false;
-		if (players.contains(player))
-			return false;
-		if (!canAcceptPlayer())
+		if (!(player.hasRole(PLAYER_ROLE)
+				|| player.hasRole(LECTURER_ROLE)))
 			return false;
 		synchronized (players)
 		{
-			if ((player.hasRole(PLAYER_ROLE)
-				|| player.hasRole(LECTURER_ROLE))
-					&& players.add(player))
-			{
-				changeOccurred();
-				noteInteraction(player.getId());
-				return true;
-			}
-			return false;
+			if (players.containsKey(player.getId())
+					|| !canAcceptPlayer())
+				return false;
+			players.put(player.getId(), PlayerRef.of(player));
+			addRating(player.getId(), rating);
+			changeOccurred();
+			noteInteraction(player.getId());
+			return true;
 		}
 	}
 	public boolean removePlayer(Account player)
 	{
-		if (players.remove(player))
+		synchronized (players)
 		{
-			UUID id = player.getId();
-			playerLastChangeCounts.remove(id);
-			lastInteractions.remove(id);
-			changeOccurred();
-			return true;
+			if (players.remove(player.getId()) != null)
+			{
+				UUID id = player.getId();
+				playerLastSeenVersions.remove(id);
+				lastInteractions.remove(id);
+				removeRating(id);
+				changeOccurred();
+				return true;
+			}
+			return false;
 		}
-		return false;
 	}
 	public boolean removePlayer(Account player, Account requestSource)
 	{
 		noteInteraction(requestSource.getId());
-		if (host.equals(requestSource))
+		if (isHost(requestSource))
 			return removePlayer(player);
 		return false;
 	}
@@ -126,10 +148,24 @@ public class Lobby
 		if (players.size() <= maxPlayers)
 		{
 			maxPlayerCount = maxPlayers;
+			changeOccurred();
 			return true;
 		}
 		return false;
 	}
+	//Only a host who plays counts towards the lobby's rating
+	public void rateHost(int rating)
+	{
+		synchronized (players)
+		{
+			if (host.hasRole(PLAYER_ROLE) && !ratings.containsKey(host.getId()))
+				addRating(host.getId(), rating);
+		}
+	}
+	public RatingProfile getRatingProfile()
+	{
+		return ratingProfile;
+	}
 	public boolean isGroupLobby()
 	{
 		return groupLobbySettings != null;
@@ -137,29 +173,28 @@ public class Lobby
 	public List<String> getTasksetNames()
 	{
 		return Optional.ofNullable(groupLobbySettings)
-				.map(gls -> Optional.ofNullable(gls.getSelectedTasksets()))
-				.map(v -> v.stream())
-				.map(v -> v.flatMap(list -> list.stream()))
-				.map(v -> v.map(ts -> ts.getName()))
-				.map(v -> v.collect(Collectors.toList()))
+				.map(gls -> Objects.requireNonNullElseGet(gls.getSelectedTasksetNames(), () -> List.<String>of()))
 				.orElse(null);
 	}
-	public List<TaskSet> getTasksets()
+	public List<UUID> getTasksetIDs()
 	{
 		return Optional.ofNullable(groupLobbySettings)
-				.map(gls -> Optional.ofNullable(gls.getSelectedTasksets()))
-				.map(v -> v.stream())
-				.map(v -> v.flatMap(list -> list.stream()))
-				.map(v -> v.collect(Collectors.toList()))
+				.map(gls -> Objects.requireNonNullElseGet(gls.getSelectedTasksetIDs(), () -> List.<UUID>of()))
 				.orElse(null);
 	}
-	@Transactional
+	//Only the IDs and names are kept, the tasks are loaded when the game is planned
 	public void setTasksets(List<TaskSet> tasksets)
 	{
 		GroupLobbySettings gls = Optional.ofNullable(groupLobbySettings)
 				.orElseThrow(() -> new IllegalArgumentException("NOT_GROUP_LOBBY"));
 		
-		gls.setSelectedTasksets(new ArrayList<>(tasksets));
+		gls.setSelectedTasksetIDs(tasksets.stream()
+				.map(ts -> ts.getId())
+				.collect(Collectors.toUnmodifiableList()));
+		gls.setSelectedTasksetNames(tasksets.stream()
+				.map(ts -> ts.getName())
+				.collect(Collectors.toUnmodifiableList()));
+		changeOccurred();
 	}
 	public Optional<UUID> getGroupId()
 	{
@@ -181,34 +216,52 @@ public class Lobby
 	}
 	public boolean containsPlayer(Account player)
 	{
-		return players.contains(player);
+		return containsPlayer(player.getId());
+	}
+	public boolean containsPlayer(UUID accountID)
+	{
+		return players.containsKey(accountID);
 	}
 	public boolean containsPlayerOrHost(Account player)
 	{
-		return containsPlayer(player) || isHost(player);
+		return containsPlayerOrHost(player.getId());
+	}
+	private boolean containsPlayerOrHost(UUID accountID)
+	{
+		return host.getId().equals(accountID) || players.containsKey(accountID);
 	}
 	public boolean isHost(Account player)
 	{
-		return host.equals(player);
+		return host.refersTo(player);
 	}
 	
+	//For options kept outside the lobby, such as whether it accepts random players
+	public void optionsChanged()
+	{
+		changeOccurred();
+	}
 	private void changeOccurred()
 	{
-		changeCount++;
+		version.incrementAndGet();
+		Runnable listener = changeListener;
+		if (listener != null)
+			listener.run();
+	}
+	public void setChangeListener(Runnable changeListener)
+	{
+		this.changeListener = changeListener;
+	}
+	public long getVersion()
+	{
+		return version.get();
 	}
 	public boolean hasAnthingChanged(UUID accountID)
 	{
 		noteInteraction(accountID);
 		
-		if (!playerLastChangeCounts.containsKey(accountID))
-		{
-			playerLastChangeCounts.put(accountID, changeCount);
-			return true;
-		}
-		boolean ret = changeCount != playerLastChangeCounts.get(accountID);
-		if (ret)
-			playerLastChangeCounts.put(accountID, changeCount);
-		return ret;
+		long current = version.get();
+		Long last = playerLastSeenVersions.put(accountID, current);
+		return (last == null) || (last != current);
 	}
 	
 	public void noteInteraction(Account account)
@@ -219,44 +272,74 @@ public class Lobby
 	{
 		synchronized (players)
 		{
-			if (host.getId().equals(accountID)
-					|| players.stream()
-						.anyMatch(acc -> acc.getId().equals(accountID)))
+			if (containsPlayerOrHost(accountID))
 				lastInteractions.put(accountID, System.nanoTime());
 		}
 	}
 	
-	private <T, U> Map<T, U> syncMap()
+	private void addRating(UUID accountID, int rating)
 	{
-		return synchronizedMap(new HashMap<>());
+		Integer previous = ratings.put(accountID, rating);
+		if (previous != null)
+			uncountRating(previous);
+		ratingCounts.merge(rating, 1, Integer::sum);
+		ratingSum += rating;
+		publishRatingProfile();
 	}
-	private <T> List<T> syncList()
+	private void removeRating(UUID accountID)
 	{
-		return synchronizedList(new ArrayList<>());
+		Integer rating = ratings.remove(accountID);
+		if (rating == null)
+			return;
+		uncountRating(rating);
+		publishRatingProfile();
+	}
+	private void uncountRating(int rating)
+	{
+		ratingCounts.computeIfPresent(rating, (r, count) -> (count > 1)?(count - 1):null);
+		ratingSum -= rating;
+	}
+	private void publishRatingProfile()
+	{
+		ratingProfile = ratings.isEmpty()?
+				RatingProfile.EMPTY:
+				new RatingProfile(ratings.size(), ratingSum,
+						ratingCounts.firstKey(), ratingCounts.lastKey());
 	}
 	
-	public void removeInactivePlayers(long maxTimeSinceLastInteractionMilli)
+	private <T, U> Map<T, U> syncMap()
+	{
+		return synchronizedMap(new HashMap<>());
+	}
+	
+	public boolean removeIfInactive(UUID playerID, long maxTimeSinceLastInteractionMilli)
 	{
 		synchronized (players)
 		{
-			Iterator<Account> it = players.iterator();
-			while (it.hasNext())
-			{
-				Account player = it.next();
-				if (isAccountInactive(player, maxTimeSinceLastInteractionMilli))
-				{
-					it.remove();
-					UUID id = player.getId();
-					playerLastChangeCounts.remove(id);
-					lastInteractions.remove(id);
-					changeOccurred();
-				}
-			}
+			if (!players.containsKey(playerID)
+					|| !isAccountInactive(playerID, maxTimeSinceLastInteractionMilli))
+				return false;
+			players.remove(playerID);
+			playerLastSeenVersions.remove(playerID);
+			lastInteractions.remove(playerID);
+			removeRating(playerID);
+			changeOccurred();
+			return true;
 		}
 	}
+	//The System.nanoTime() after which the account counts as inactive, empty if it is not in the lobby
+	public OptionalLong getInactivityDeadline(UUID accountID, long maxTimeSinceLastInteractionMilli)
+	{
+		if (!containsPlayerOrHost(accountID))
+			return OptionalLong.empty();
+		Long last = lastInteractions.get(accountID);
+		if (last == null)
+			return OptionalLong.of(System.nanoTime());
+		return OptionalLong.of(last + (maxTimeSinceLastInteractionMilli + 1) * NANOS_IN_MILLI);
+	}
 	public boolean isInactive(long maxTimeSinceLastInteractionMilli)
 	{
-		return isAccountInactive(host,maxTimeSinceLastInteractionMilli);
+		return isAccountInactive(host.getId(), maxTimeSinceLastInteractionMilli);
 	}
 	public void markInactive(Account acc)
 	{
@@ -265,12 +348,12 @@ public class Lobby
 			lastInteractions.remove(acc.getId());
 		}
 	}
-	private boolean isAccountInactive(Account acc, long maxTimeSinceLastInteractionMilli)
+	private boolean isAccountInactive(UUID accountID, long maxTimeSinceLastInteractionMilli)
 	{
-		UUID id = acc.getId();
-		if (!lastInteractions.containsKey(id))
+		Long last = lastInteractions.get(accountID);
+		if (last == null)
 			return true;
-		long diff = System.nanoTime() - lastInteractions.get(id);
+		long diff = System.nanoTime() - last;
 		return (diff / NANOS_IN_MILLI) > maxTimeSinceLastInteractionMilli;
 	}
 }
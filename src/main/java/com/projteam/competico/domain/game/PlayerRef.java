@@ -0,0 +1,89 @@
+package com.projteam.competico.domain.game;
+
+import static com.projteam.competico.domain.Account.LECTURER_ROLE;
+import static com.projteam.competico.domain.Account.PLAYER_ROLE;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import com.projteam.competico.domain.Account;
+
+//What lobbies and games keep of an account instead of the entity itself.
+//Taken when the account joins, equal by ID, so later changes to the account do not affect membership.
+public final class PlayerRef
+{
+	private static final List<String> ROLES = List.of(PLAYER_ROLE, LECTURER_ROLE);
+
+	private final UUID id;
+	private final String username;
+	private final String nickname;
+	private final int roleBits;
+
+	private PlayerRef(UUID id, String username, String nickname, int roleBits)
+	{
+		this.id = id;
+		this.username = username;
+		this.nickname = nickname;
+		this.roleBits = roleBits;
+	}
+	public static PlayerRef of(Account account)
+	{
+		int roleBits = 0;
+		for (int i = 0; i < ROLES.size(); i++)
+			if (account.hasRole(ROLES.get(i)))
+				roleBits |= 1 << i;
+		return new PlayerRef(account.getId(),
+				account.getUsername(),
+				account.getNickname(),
+				roleBits);
+	}
+
+	public UUID getId()
+	{
+		return id;
+	}
+	public String getUsername()
+	{
+		return username;
+	}
+	public String getNickname()
+	{
+		return nickname;
+	}
+	public boolean hasRole(String role)
+	{
+		int bit = ROLES.indexOf(role);
+		return (bit >= 0) && ((roleBits & (1 << bit)) != 0);
+	}
+	public List<String> getRoles()
+	{
+		List<String> ret = new ArrayList<>();
+		for (int i = 0; i < ROLES.size(); i++)
+			if ((roleBits & (1 << i)) != 0)
+				ret.add(ROLES.get(i));
+		return ret;
+	}
+	public boolean refersTo(Account account)
+	{
+		return id.equals(account.getId());
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj)
+			return true;
+		if (!(obj instanceof PlayerRef))
+			return false;
+		return id.equals(((PlayerRef) obj).id);
+	}
+	@Override
+	public int hashCode()
+	{
+		return id.hashCode();
+	}
+	@Override
+	public String toString()
+	{
+		return "PlayerRef[id=" + id + ", username=" + username + "]";
+	}
+}
@@ -0,0 +1,55 @@
+package com.projteam.competico.domain.game;
+
+//Immutable summary of the ratings players had when they joined a lobby
+public final class RatingProfile
+{
+	public static final RatingProfile EMPTY = new RatingProfile(0, 0, 0, 0);
+
+	private final int count;
+	private final long sum;
+	private final int min;
+	private final int max;
+
+	public RatingProfile(int count, long sum, int min, int max)
+	{
+		this.count = count;
+		this.sum = sum;
+		this.min = min;
+		this.max = max;
+	}
+
+	public boolean isEmpty()
+	{
+		return count == 0;
+	}
+	public int getCount()
+	{
+		return count;
+	}
+	public long getSum()
+	{
+		return sum;
+	}
+	public double getAverage(double ifEmpty)
+	{
+		return isEmpty()?ifEmpty:((double) sum / count);
+	}
+	public int getMin()
+	{
+		return min;
+	}
+	public int getMax()
+	{
+		return max;
+	}
+	public int getSpread()
+	{
+		return max - min;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "RatingProfile[count=" + count + ", sum=" + sum + ", min=" + min + ", max=" + max + "]";
+	}
+}
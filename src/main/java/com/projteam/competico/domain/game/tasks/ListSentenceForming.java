@@ -1,8 +1,10 @@
 package com.projteam.competico.domain.game.tasks;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import javax.persistence.Access;
 import javax.persistence.AccessType;
 import javax.persistence.Column;
@@ -16,9 +18,12 @@ import com.projteam.competico.domain.game.tasks.answers.TaskAnswer;
 import com.projteam.competico.dto.game.tasks.show.ListSentenceFormingDTO;
 import com.projteam.competico.dto.game.tasks.show.TaskInfoDTO;
 import com.projteam.competico.utils.Initializable;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @NoArgsConstructor
@@ -34,44 +39,18 @@ public class ListSentenceForming implements Task
 
 	private double difficulty;
 	
+	private final transient @Getter(AccessLevel.NONE) @ToString.Exclude
+		AtomicReference<RowsAnswerKey> answerKey = new AtomicReference<>();
+	private final transient @Getter(AccessLevel.NONE) @ToString.Exclude
+		AtomicLong revision = new AtomicLong();
+	
 	@Override
 	public double acceptAnswer(TaskAnswer answer)
 	{
 		if (!(answer instanceof ListSentenceFormingAnswer))
 			throw new IllegalArgumentException("Invalid answer type: " + answer.getClass().getTypeName());
 		
-		List<List<String>> answers = ((ListSentenceFormingAnswer) answer).getAnswers();
-		if (answers == null)
-			return 0;
-		
-		Iterator<List<String>> iter = rows.stream()
-				.map(row -> row.getWords())
-				.iterator();
-		
-		long l = rows.stream()
-				.mapToLong(row -> row.getWords().size())
-				.sum();
-		if (l == 0)
-			return 1;
-		
-		long score = 0;
-		
-		for (List<String> row: answers)
-		{
-			if (row == null)
-				continue;
-			List<String> currList = iter.next();
-			if (row.size() != currList.size())
-				continue;
-			Iterator<String> currIt = currList.iterator();
-			for (String ans: row)
-			{
-				if (currIt.next().equals(ans))
-					score++;
-			}
-		}
-		
-		return ((double) score) / l;
+		return answerKey().grade(((ListSentenceFormingAnswer) answer).getAnswers());
 	}
 	@Override
 	public Class<? extends TaskAnswer> getAnswerType()
@@ -85,8 +64,31 @@ public class ListSentenceForming implements Task
 				new ListSentenceFormingDTO(this));
 	}
 	@Override
+	public long getRevision()
+	{
+		return revision.get();
+	}
+	@Override
+	public void setRevision(long revision)
+	{
+		this.revision.set(revision);
+	}
+	@Override
 	public void initialize()
 	{
 		Initializable.initialize(tags, rows);
 	}
+	private RowsAnswerKey answerKey()
+	{
+		RowsAnswerKey ret = answerKey.get();
+		if ((ret == null) || !ret.isCompiledFrom(rows))
+		{
+			ret = new RowsAnswerKey(rows, rows
+					.stream()
+					.map(row -> row.getWords())
+					.collect(Collectors.toList()));
+			answerKey.set(ret);
+		}
+		return ret;
+	}
 }
@@ -1,8 +1,9 @@
 package com.projteam.competico.domain.game.tasks;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.persistence.Access;
 import javax.persistence.AccessType;
 import javax.persistence.Column;
@@ -15,9 +16,12 @@ import com.projteam.competico.domain.game.tasks.answers.TaskAnswer;
 import com.projteam.competico.dto.game.tasks.show.OptionSelectDTO;
 import com.projteam.competico.dto.game.tasks.show.TaskInfoDTO;
 import com.projteam.competico.utils.Initializable;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @NoArgsConstructor
@@ -33,35 +37,18 @@ public class OptionSelect implements Task
 	
 	private double difficulty;
 	
+	private final transient @Getter(AccessLevel.NONE) @ToString.Exclude
+		AtomicReference<SequenceAnswerKey> answerKey = new AtomicReference<>();
+	private final transient @Getter(AccessLevel.NONE) @ToString.Exclude
+		AtomicLong revision = new AtomicLong();
+	
 	@Override
 	public double acceptAnswer(TaskAnswer answer)
 	{
 		if (!(answer instanceof OptionSelectAnswer))
 			throw new IllegalArgumentException("Invalid answer type: " + answer.getClass().getTypeName());
 		
-		List<String> ansList = ((OptionSelectAnswer) answer).getAnswers();
-		Iterator<String> iter = content.getCorrectAnswers()
-				.iterator();
-		
-		if (ansList == null)
-			return 0;
-		
-		int aL = ansList.size();
-		
-		if (aL != content.getCorrectAnswers().size())
-			return 0;
-		if (aL == 0)
-			return 1;
-		
-		long score = 0;
-		
-		for (String s: ansList)
-		{
-			if (iter.next().equals(s))
-				score++;
-		}
-		
-		return ((double) score) / aL;
+		return answerKey().grade(((OptionSelectAnswer) answer).getAnswers());
 	}
 	@Override
 	public Class<? extends TaskAnswer> getAnswerType()
@@ -75,8 +62,29 @@ public class OptionSelect implements Task
 				new OptionSelectDTO(content));
 	}
 	@Override
+	public long getRevision()
+	{
+		return revision.get();
+	}
+	@Override
+	public void setRevision(long revision)
+	{
+		this.revision.set(revision);
+	}
+	@Override
 	public void initialize()
 	{
 		Initializable.initialize(tags, content);
 	}
+	private SequenceAnswerKey answerKey()
+	{
+		List<String> correctAnswers = content.getCorrectAnswers();
+		SequenceAnswerKey ret = answerKey.get();
+		if ((ret == null) || !ret.isCompiledFrom(correctAnswers))
+		{
+			ret = new SequenceAnswerKey(correctAnswers, correctAnswers);
+			answerKey.set(ret);
+		}
+		return ret;
+	}
 }
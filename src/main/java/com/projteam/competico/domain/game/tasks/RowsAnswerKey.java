@@ -0,0 +1,61 @@
+package com.projteam.competico.domain.game.tasks;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+//Correct answers of a task answered row by row, each row compared position by position
+final class RowsAnswerKey
+{
+	private final Object source;
+	private final String[][] rows;
+	private final long answerCount;
+
+	RowsAnswerKey(Object source, List<List<String>> rows)
+	{
+		this.source = source;
+		this.rows = new String[rows.size()][];
+		long count = 0;
+		for (int i = 0; i < this.rows.length; i++)
+		{
+			this.rows[i] = rows.get(i).toArray(new String[0]);
+			count += this.rows[i].length;
+		}
+		answerCount = count;
+	}
+
+	boolean isCompiledFrom(Object source)
+	{
+		return this.source == source;
+	}
+
+	double grade(List<List<String>> answers)
+	{
+		if (answers == null)
+			return 0;
+		if (answerCount == 0)
+			return 1;
+
+		long score = 0;
+		int rowIndex = 0;
+
+		for (List<String> row: answers)
+		{
+			//Missing rows are skipped without moving on to the next correct row
+			if (row == null)
+				continue;
+			if (rowIndex == rows.length)
+				throw new NoSuchElementException();
+			String[] correctRow = rows[rowIndex++];
+			if (row.size() != correctRow.length)
+				continue;
+			int i = 0;
+			for (String ans: row)
+			{
+				if (correctRow[i++].equals(ans))
+					score++;
+			}
+		}
+
+		return ((double) score) / answerCount;
+	}
+}
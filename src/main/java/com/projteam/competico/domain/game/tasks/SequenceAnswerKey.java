@@ -0,0 +1,45 @@
+package com.projteam.competico.domain.game.tasks;
+
+import java.util.List;
+
+//Correct answers of a task answered with a single list, compared position by position
+final class SequenceAnswerKey
+{
+	private final Object source;
+	private final String[] answers;
+
+	SequenceAnswerKey(Object source, List<String> answers)
+	{
+		this.source = source;
+		this.answers = answers.toArray(new String[0]);
+	}
+
+	boolean isCompiledFrom(Object source)
+	{
+		return this.source == source;
+	}
+
+	double grade(List<String> ansList)
+	{
+		if (ansList == null)
+			return 0;
+
+		int aL = ansList.size();
+
+		if (aL != answers.length)
+			return 0;
+		if (aL == 0)
+			return 1;
+
+		long score = 0;
+		int i = 0;
+
+		for (String s: ansList)
+		{
+			if (answers[i++].equals(s))
+				score++;
+		}
+
+		return ((double) score) / aL;
+	}
+}
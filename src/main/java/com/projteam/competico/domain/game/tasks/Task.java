@@ -16,4 +16,6 @@ public interface Task extends Initializable
 	public double acceptAnswer(TaskAnswer answer);
 	public Class<? extends TaskAnswer> getAnswerType();
 	public TaskInfoDTO prepareTaskInfo(int currentTaskNumber, int taskCount);
+	public long getRevision();
+	public void setRevision(long revision);
 }
@@ -2,9 +2,9 @@ package com.projteam.competico.domain.game.tasks;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Map.Entry;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.persistence.Access;
 import javax.persistence.AccessType;
 import javax.persistence.Column;
@@ -17,9 +17,12 @@ import com.projteam.competico.domain.game.tasks.answers.WordConnectAnswer;
 import com.projteam.competico.dto.game.tasks.show.TaskInfoDTO;
 import com.projteam.competico.dto.game.tasks.show.WordConnectDTO;
 import com.projteam.competico.utils.Initializable;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @NoArgsConstructor
@@ -37,37 +40,18 @@ public class WordConnect implements Task
 	
 	private double difficulty;
 	
+	private final transient @Getter(AccessLevel.NONE) @ToString.Exclude
+		AtomicReference<WordConnectAnswerKey> answerKey = new AtomicReference<>();
+	private final transient @Getter(AccessLevel.NONE) @ToString.Exclude
+		AtomicLong revision = new AtomicLong();
+	
 	@Override
 	public double acceptAnswer(TaskAnswer answer)
 	{
 		if (!(answer instanceof WordConnectAnswer))
 			throw new IllegalArgumentException("Invalid answer type: " + answer.getClass().getTypeName());
 		
-		Map<String, String> answerMapping = ((WordConnectAnswer) answer).getAnswerMapping();
-		
-		if (answerMapping == null)
-			return 0;
-		
-		int l = correctMapping.size();
-		if (l == 0)
-			return 1;
-		
-		long score = 0;
-		
-		for (Entry<String, String> e: answerMapping.entrySet())
-		{
-			Integer leftIndex = Optional.ofNullable(e.getKey())
-					.map(s -> leftWords.indexOf(s))
-					.orElse(-1);
-			Integer rightIndex = Optional.ofNullable(e.getValue())
-					.map(s -> rightWords.indexOf(s))
-					.orElse(-1);
-			if (correctMapping.containsKey(leftIndex)
-					&& (correctMapping.get(leftIndex) == rightIndex))
-				score++;
-		}
-		
-		return ((double) score) / l;
+		return answerKey().grade(((WordConnectAnswer) answer).getAnswerMapping());
 	}
 	@Override
 	public Class<? extends TaskAnswer> getAnswerType()
@@ -81,8 +65,28 @@ public class WordConnect implements Task
 				new WordConnectDTO(this));
 	}
 	@Override
+	public long getRevision()
+	{
+		return revision.get();
+	}
+	@Override
+	public void setRevision(long revision)
+	{
+		this.revision.set(revision);
+	}
+	@Override
 	public void initialize()
 	{
 		Initializable.initialize(tags, leftWords, rightWords, correctMapping);
 	}
+	private WordConnectAnswerKey answerKey()
+	{
+		WordConnectAnswerKey ret = answerKey.get();
+		if ((ret == null) || !ret.isCompiledFrom(leftWords, rightWords, correctMapping))
+		{
+			ret = new WordConnectAnswerKey(leftWords, rightWords, correctMapping);
+			answerKey.set(ret);
+		}
+		return ret;
+	}
 }
@@ -0,0 +1,92 @@
+package com.projteam.competico.domain.game.tasks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+//Correct pairs of a word connecting task, with the words indexed for constant time lookups
+final class WordConnectAnswerKey
+{
+	private static final int NOT_FOUND = -1;
+	private static final int NO_MATCH = Integer.MIN_VALUE;
+
+	private final List<String> leftWords;
+	private final List<String> rightWords;
+	private final Map<Integer, Integer> correctMapping;
+
+	private final Map<String, Integer> leftIndices;
+	private final Map<String, Integer> rightIndices;
+	private final int[] correctRightIndices;
+	//Paired with words that are not on the left side, as an unknown word has no index
+	private final int correctRightIndexOfUnknown;
+	private final int pairCount;
+
+	WordConnectAnswerKey(List<String> leftWords, List<String> rightWords,
+			Map<Integer, Integer> correctMapping)
+	{
+		this.leftWords = leftWords;
+		this.rightWords = rightWords;
+		this.correctMapping = correctMapping;
+
+		leftIndices = indexWords(leftWords);
+		rightIndices = indexWords(rightWords);
+		correctRightIndices = new int[leftWords.size()];
+		for (int i = 0; i < correctRightIndices.length; i++)
+			correctRightIndices[i] = correctRightIndex(correctMapping, i);
+		correctRightIndexOfUnknown = correctRightIndex(correctMapping, NOT_FOUND);
+		pairCount = correctMapping.size();
+	}
+
+	boolean isCompiledFrom(List<String> leftWords, List<String> rightWords,
+			Map<Integer, Integer> correctMapping)
+	{
+		return (this.leftWords == leftWords)
+				&& (this.rightWords == rightWords)
+				&& (this.correctMapping == correctMapping);
+	}
+
+	double grade(Map<String, String> answerMapping)
+	{
+		if (answerMapping == null)
+			return 0;
+		if (pairCount == 0)
+			return 1;
+
+		long score = 0;
+
+		for (Entry<String, String> e: answerMapping.entrySet())
+		{
+			int leftIndex = indexOf(leftIndices, e.getKey());
+			int rightIndex = indexOf(rightIndices, e.getValue());
+			int correctRightIndex = (leftIndex == NOT_FOUND)?
+					correctRightIndexOfUnknown:
+					correctRightIndices[leftIndex];
+			if (correctRightIndex == rightIndex)
+				score++;
+		}
+
+		return ((double) score) / pairCount;
+	}
+
+	private static Map<String, Integer> indexWords(List<String> words)
+	{
+		Map<String, Integer> ret = new HashMap<>();
+		int i = 0;
+		for (String word: words)
+			ret.putIfAbsent(word, i++);
+		return ret;
+	}
+	private static int indexOf(Map<String, Integer> indices, String word)
+	{
+		if (word == null)
+			return NOT_FOUND;
+		Integer ret = indices.get(word);
+		return (ret == null)?NOT_FOUND:ret;
+	}
+	private static int correctRightIndex(Map<Integer, Integer> correctMapping, int leftIndex)
+	{
+		Integer ret = correctMapping.get(leftIndex);
+		return (ret == null)?NO_MATCH:ret;
+	}
+}
@@ -1,8 +1,10 @@
 package com.projteam.competico.domain.game.tasks;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import javax.persistence.Access;
 import javax.persistence.AccessType;
 import javax.persistence.Column;
@@ -16,9 +18,12 @@ import com.projteam.competico.domain.game.tasks.answers.WordFillAnswer;
 import com.projteam.competico.dto.game.tasks.show.TaskInfoDTO;
 import com.projteam.competico.dto.game.tasks.show.WordFillElementDTO;
 import com.projteam.competico.utils.Initializable;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @NoArgsConstructor
@@ -34,6 +39,11 @@ public class WordFill implements Task
 	
 	private double difficulty;
 	
+	private final transient @Getter(AccessLevel.NONE) @ToString.Exclude
+		AtomicReference<SequenceAnswerKey> answerKey = new AtomicReference<>();
+	private final transient @Getter(AccessLevel.NONE) @ToString.Exclude
+		AtomicLong revision = new AtomicLong();
+	
 	public List<String> getText()
 	{
 		return content.getText();
@@ -53,31 +63,7 @@ public class WordFill implements Task
 		if (!(answer instanceof WordFillAnswer))
 			throw new IllegalArgumentException("Invalid answer type: " + answer.getClass().getTypeName());
 		
-		List<String> ansList = ((WordFillAnswer) answer).getAnswers();
-		Iterator<String> iter = getEmptySpaces()
-				.stream()
-				.map(wc -> wc.getAnswer())
-				.iterator();
-		
-		if (ansList == null)
-			return 0;
-		
-		int aL = ansList.size();
-		
-		if (aL != getEmptySpaces().size())
-			return 0;
-		if (aL == 0)
-			return 1;
-		
-		long score = 0;
-		
-		for (String s: ansList)
-		{
-			if (iter.next().equals(s))
-				score++;
-		}
-		
-		return ((double) score) / aL;
+		return answerKey().grade(((WordFillAnswer) answer).getAnswers());
 	}
 	@Override
 	public Class<? extends TaskAnswer> getAnswerType()
@@ -91,8 +77,32 @@ public class WordFill implements Task
 				new WordFillElementDTO(content));
 	}
 	@Override
+	public long getRevision()
+	{
+		return revision.get();
+	}
+	@Override
+	public void setRevision(long revision)
+	{
+		this.revision.set(revision);
+	}
+	@Override
 	public void initialize()
 	{
 		Initializable.initialize(tags, content);
 	}
+	private SequenceAnswerKey answerKey()
+	{
+		List<EmptySpace> emptySpaces = getEmptySpaces();
+		SequenceAnswerKey ret = answerKey.get();
+		if ((ret == null) || !ret.isCompiledFrom(emptySpaces))
+		{
+			ret = new SequenceAnswerKey(emptySpaces, emptySpaces
+					.stream()
+					.map(es -> es.getAnswer())
+					.collect(Collectors.toList()));
+			answerKey.set(ret);
+		}
+		return ret;
+	}
 }
@@ -2,7 +2,6 @@ package com.projteam.competico.domain.group;
 
 import java.util.List;
 import java.util.UUID;
-import com.projteam.competico.domain.game.TaskSet;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,5 +13,6 @@ public class GroupLobbySettings
 {
 	private UUID groupId;
 	private String groupCode;
-	private List<TaskSet> selectedTasksets;
+	private List<UUID> selectedTasksetIDs;
+	private List<String> selectedTasksetNames;
 }
@@ -5,6 +5,7 @@ import static com.projteam.competico.domain.Account.LECTURER_ROLE;
 import static com.projteam.competico.domain.Account.PLAYER_ROLE;
 import static com.projteam.competico.domain.Account.SWAGGER_ADMIN;
 import static com.projteam.competico.domain.Account.TASK_DATA_ADMIN;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
@@ -249,6 +250,13 @@ public class AccountService implements UserDetailsService
 		return init(accDao.findById(id));
 	}
 	@Transactional
+	public List<Account> findAllByID(Collection<UUID> ids)
+	{
+		List<Account> ret = accDao.findAllById(ids);
+		ret.forEach(acc -> Initializable.initialize(acc));
+		return ret;
+	}
+	@Transactional
 	public Optional<Account> findByUsername(String username)
 	{
 		return init(accDao.findByUsername(username));
@@ -0,0 +1,141 @@
+package com.projteam.competico.service;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+//Hands out lobby, game and group codes without rerolling.
+//Every code is a counter value run through a permutation keyed at startup, so codes look random
+//but a running instance never produces the same code twice. The reserved set only has to catch
+//codes that came from elsewhere, such as games restored from the journal.
+@Component
+public class CodeAllocator
+{
+	public static final int GAME_CODE_LENGTH = 8;
+	public static final int GROUP_CODE_LENGTH = 9;
+
+	private static final char[] CODE_CHARS =
+			"0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+	private static final int ROUNDS = 4;
+	private static final int MAX_ALLOCATION_ATTEMPTS = 100;
+
+	private final Sequence gameCodes;
+	private final Sequence groupCodes;
+	private final Set<String> reserved;
+
+	@Autowired
+	public CodeAllocator()
+	{
+		this(new SecureRandom());
+	}
+	public CodeAllocator(Random keys)
+	{
+		gameCodes = new Sequence(GAME_CODE_LENGTH, keys);
+		groupCodes = new Sequence(GROUP_CODE_LENGTH, keys);
+		reserved = ConcurrentHashMap.newKeySet();
+	}
+
+	//Reserved until released
+	public String allocateGameCode()
+	{
+		for (int i = 0; i < MAX_ALLOCATION_ATTEMPTS; i++)
+		{
+			String code = gameCodes.next();
+			if (reserved.add(code))
+				return code;
+		}
+		throw new IllegalStateException("CANNOT_GENERATE_GAME_CODE");
+	}
+	//Group codes live in the database, which only needs checking for codes issued before a restart
+	public String allocateGroupCode(Predicate<String> isFree)
+	{
+		for (int i = 0; i < MAX_ALLOCATION_ATTEMPTS; i++)
+		{
+			String code = groupCodes.next();
+			if (isFree.test(code))
+				return code;
+		}
+		throw new IllegalArgumentException("CANNOT_GENERATE_GROUP_CODE");
+	}
+	public boolean reserve(String code)
+	{
+		return reserved.add(code);
+	}
+	public void release(String code)
+	{
+		reserved.remove(code);
+	}
+	public boolean isReserved(String code)
+	{
+		return reserved.contains(code);
+	}
+	public int getReservedCount()
+	{
+		return reserved.size();
+	}
+
+	//A Feistel network over the two halves of the code's digits is a bijection on every code
+	//of the given length, so consecutive counter values map to distinct, unrelated codes
+	private static final class Sequence
+	{
+		private final int length;
+		private final long leftSize;
+		private final long rightSize;
+		private final long[] roundKeys;
+		private final AtomicLong counter;
+
+		private Sequence(int length, Random keys)
+		{
+			this.length = length;
+			leftSize = pow(CODE_CHARS.length, length / 2);
+			rightSize = pow(CODE_CHARS.length, length - length / 2);
+			roundKeys = new long[ROUNDS];
+			for (int i = 0; i < ROUNDS; i++)
+				roundKeys[i] = keys.nextLong();
+			counter = new AtomicLong(Math.floorMod(keys.nextLong(), leftSize * rightSize));
+		}
+
+		private String next()
+		{
+			long index = counter.getAndIncrement() % (leftSize * rightSize);
+			long left = index / rightSize;
+			long right = index % rightSize;
+			//Halves swap every round, so after an even number of rounds they are back in their ranges
+			for (int round = 0; round < ROUNDS; round++)
+			{
+				long size = ((round % 2) == 0)?leftSize:rightSize;
+				long mixed = (left + Math.floorMod(mix(right ^ roundKeys[round]), size)) % size;
+				left = right;
+				right = mixed;
+			}
+			long value = left * rightSize + right;
+
+			char[] ret = new char[length];
+			for (int i = length - 1; i >= 0; i--)
+			{
+				ret[i] = CODE_CHARS[(int) (value % CODE_CHARS.length)];
+				value /= CODE_CHARS.length;
+			}
+			return new String(ret);
+		}
+
+		private static long mix(long z)
+		{
+			z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+			z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+			return z ^ (z >>> 31);
+		}
+		private static long pow(long base, int exponent)
+		{
+			long ret = 1;
+			for (int i = 0; i < exponent; i++)
+				ret *= base;
+			return ret;
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package com.projteam.competico.service.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import lombok.extern.slf4j.Slf4j;
+
+//Wakes up exactly when the earliest inactivity deadline of a lobby or game participant passes.
+//Interactions only move a participant's deadline, the entry is moved when it comes due and turns out early.
+@Component
+@Slf4j
+public class ExpiryScheduler
+{
+	public static final long NO_DEADLINE = Long.MIN_VALUE;
+
+	@FunctionalInterface
+	public interface Expiry
+	{
+		//Expires the entry if it is due, otherwise returns the System.nanoTime() deadline to check it again at
+		long expireIfDue(long now);
+	}
+
+	private final DelayQueue<Entry> queue;
+	private final Executor finalizer;
+	private final Thread worker;
+	private volatile boolean running;
+
+	@Autowired
+	public ExpiryScheduler()
+	{
+		this(Executors.newSingleThreadExecutor(runnable ->
+		{
+			Thread thread = new Thread(runnable, "expiry-finalizer");
+			thread.setDaemon(true);
+			return thread;
+		}));
+	}
+	ExpiryScheduler(Executor finalizer)
+	{
+		this.finalizer = finalizer;
+		queue = new DelayQueue<>();
+		worker = new Thread(this::expireScheduled, "expiry-scheduler");
+		worker.setDaemon(true);
+		running = false;
+	}
+
+	@PostConstruct
+	public void start()
+	{
+		running = true;
+		worker.start();
+	}
+	@PreDestroy
+	public void stop()
+	{
+		running = false;
+		worker.interrupt();
+	}
+
+	public void schedule(long deadline, Expiry expiry)
+	{
+		queue.offer(new Entry(expiry, deadline));
+	}
+	//Work resulting from an expiry, such as ending a game, runs here instead of on the scheduler thread
+	public void execute(Runnable task)
+	{
+		finalizer.execute(() ->
+		{
+			try
+			{
+				task.run();
+			}
+			catch (RuntimeException e)
+			{
+				log.error("Unexpected error while finalizing an expired entry", e);
+			}
+		});
+	}
+	public void expireDue()
+	{
+		List<Entry> due = new ArrayList<>();
+		queue.drainTo(due);
+		due.forEach(this::check);
+	}
+	public int size()
+	{
+		return queue.size();
+	}
+
+	private void expireScheduled()
+	{
+		while (running)
+		{
+			try
+			{
+				check(queue.take());
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+	private void check(Entry entry)
+	{
+		long next;
+		try
+		{
+			next = entry.expiry.expireIfDue(System.nanoTime());
+		}
+		catch (RuntimeException e)
+		{
+			log.error("Unexpected error while checking an expiry", e);
+			return;
+		}
+		if (next == NO_DEADLINE)
+			return;
+		entry.deadline = next;
+		queue.offer(entry);
+	}
+
+	private static final class Entry implements Delayed
+	{
+		private final Expiry expiry;
+		private long deadline;
+
+		private Entry(Expiry expiry, long deadline)
+		{
+			this.expiry = expiry;
+			this.deadline = deadline;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit)
+		{
+			return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+		@Override
+		public int compareTo(Delayed other)
+		{
+			//nanoTime values may wrap around, only their differences are meaningful
+			return Long.signum(deadline - ((Entry) other).deadline);
+		}
+	}
+}
@@ -0,0 +1,591 @@
+package com.projteam.competico.service.game;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.projteam.competico.domain.game.Game;
+import com.projteam.competico.domain.game.GameProgressListener;
+import com.projteam.competico.domain.game.PlayerRef;
+import com.projteam.competico.domain.game.tasks.Task;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class GameJournal implements GameProgressListener
+{
+	private final boolean enabled;
+	private final Path journalFile;
+	private final int minJournalSize;
+
+	//Appends only copy the record into the mapped file, the flusher forces them to disk in groups
+	//and checkpoints the journal before it fills up, so neither happens under the append lock
+	private final Object appendLock;
+	private FileChannel channel;
+	private MappedByteBuffer buffer;
+	private int position;
+	private long appendedRecords;
+	private MappedByteBuffer forcedBuffer;
+	private int forcedPosition;
+	//Callers that acknowledge a record to a player wait until it is counted here
+	private final Object forceLock;
+	private long forcedRecords;
+
+	private List<JournaledGame> recoveredGames;
+	private final Thread flusher;
+	private volatile boolean running;
+
+	private static final String JOURNAL_FILE_NAME = "games.journal";
+	private static final String CHECKPOINT_FILE_NAME = JOURNAL_FILE_NAME + ".tmp";
+	private static final String BACKGROUND_CHECKPOINT_FILE_NAME = JOURNAL_FILE_NAME + ".next";
+	private static final byte GAME_CREATED = 1;
+	private static final byte PLAYER_ADVANCED = 2;
+	private static final byte PLAYER_REMOVED = 3;
+	private static final byte GAME_ENDED = 4;
+	private static final int HEADER_SIZE = 8;
+	private static final long FLUSH_INTERVAL_MILLI = 20;
+	private static final long CLOSE_TIMEOUT_MILLI = 5000;
+	private static final double CHECKPOINT_THRESHOLD = 0.75;
+
+	@Autowired
+	public GameJournal(@Value("${app.journal.enabled:true}") boolean enabled,
+			@Value("${app.journal.dir:journal}") String directory,
+			@Value("${app.journal.size:16777216}") int minJournalSize)
+	{
+		this.enabled = enabled;
+		journalFile = Path.of(directory).toAbsolutePath().resolve(JOURNAL_FILE_NAME);
+		this.minJournalSize = minJournalSize;
+
+		appendLock = new Object();
+		forceLock = new Object();
+		recoveredGames = List.of();
+		flusher = new Thread(this::flushPeriodically, "game-journal-flusher");
+		flusher.setDaemon(true);
+		running = false;
+	}
+
+	@PostConstruct
+	public void open()
+	{
+		if (!enabled)
+			return;
+		try
+		{
+			Files.createDirectories(journalFile.getParent());
+			//Holds only records appended after an unfinished background checkpoint, none of them were flushed
+			Files.deleteIfExists(journalFile.resolveSibling(BACKGROUND_CHECKPOINT_FILE_NAME));
+			Map<UUID, JournaledGame> live = Files.exists(journalFile)?
+					parse(ByteBuffer.wrap(Files.readAllBytes(journalFile))):
+					new LinkedHashMap<>();
+			synchronized (appendLock)
+			{
+				rewrite(live.values());
+			}
+			recoveredGames = new ArrayList<>(live.values());
+			if (!recoveredGames.isEmpty())
+				log.info("Recovered {} unfinished games from the journal", recoveredGames.size());
+		}
+		catch (IOException e)
+		{
+			log.error("Could not open the game journal, running games will not survive a restart", e);
+			return;
+		}
+		running = true;
+		flusher.start();
+	}
+	@PreDestroy
+	public void close()
+	{
+		if (!running)
+			return;
+		running = false;
+		flusher.interrupt();
+		try
+		{
+			flusher.join(CLOSE_TIMEOUT_MILLI);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		synchronized (appendLock)
+		{
+			try
+			{
+				//Checkpoint, so the next start only replays games that are still running
+				compact();
+				channel.close();
+				markForced(appendedRecords);
+			}
+			catch (IOException e)
+			{
+				log.error("Could not checkpoint the game journal", e);
+			}
+			buffer = null;
+		}
+		synchronized (forceLock)
+		{
+			forceLock.notifyAll();
+		}
+	}
+
+	//Returns once everything journaled so far is on disk, so it can be acknowledged without being lost in a crash.
+	//Records are forced in groups every FLUSH_INTERVAL_MILLI, callers must not hold a game's lock while waiting.
+	public void awaitFlush()
+	{
+		if (!running)
+			return;
+		long target;
+		synchronized (appendLock)
+		{
+			target = appendedRecords;
+		}
+		long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT_MILLI;
+		synchronized (forceLock)
+		{
+			while (running && (forcedRecords < target))
+			{
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0)
+				{
+					log.warn("Timed out waiting for the game journal to be flushed");
+					return;
+				}
+				try
+				{
+					forceLock.wait(remaining);
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	//Whether games journaled now will still be there to restore after a restart
+	public boolean isEnabled()
+	{
+		return running;
+	}
+	public List<JournaledGame> takeRecoveredGames()
+	{
+		List<JournaledGame> ret = recoveredGames;
+		recoveredGames = List.of();
+		return ret;
+	}
+
+	public void gameCreated(String gameCode, Game game,
+			List<PlayerRef> players, List<PlayerRef> spectators,
+			Map<UUID, List<Task>> taskMap)
+	{
+		if (!enabled)
+			return;
+		append(encode(out ->
+		{
+			out.writeByte(GAME_CREATED);
+			writeUUID(out, game.getID());
+			out.writeUTF(gameCode);
+			Optional<UUID> groupId = game.getGroupId();
+			out.writeBoolean(groupId.isPresent());
+			if (groupId.isPresent())
+				writeUUID(out, groupId.get());
+			out.writeInt(game.getTaskCount());
+			out.writeInt(players.size());
+			for (PlayerRef player: players)
+			{
+				writeUUID(out, player.getId());
+				List<Task> tasks = taskMap.getOrDefault(player.getId(), List.of());
+				out.writeInt(tasks.size());
+				for (Task task: tasks)
+				{
+					writeUUID(out, task.getId());
+					out.writeDouble(task.getDifficulty());
+				}
+			}
+			out.writeInt(spectators.size());
+			for (PlayerRef spectator: spectators)
+				writeUUID(out, spectator.getId());
+		}));
+	}
+	@Override
+	public void playerAdvanced(Game game, UUID playerID, int taskNumber, double completion, long timeTaken)
+	{
+		if (!enabled)
+			return;
+		append(encode(out ->
+		{
+			out.writeByte(PLAYER_ADVANCED);
+			writeUUID(out, game.getID());
+			writeUUID(out, playerID);
+			out.writeInt(taskNumber);
+			out.writeDouble(completion);
+			out.writeLong(timeTaken);
+		}));
+	}
+	@Override
+	public void playerRemoved(Game game, UUID playerID)
+	{
+		if (!enabled)
+			return;
+		append(encode(out ->
+		{
+			out.writeByte(PLAYER_REMOVED);
+			writeUUID(out, game.getID());
+			writeUUID(out, playerID);
+		}));
+	}
+	public void gameEnded(UUID gameID)
+	{
+		if (!enabled)
+			return;
+		append(encode(out ->
+		{
+			out.writeByte(GAME_ENDED);
+			writeUUID(out, gameID);
+		}));
+	}
+
+	private void append(byte[] record)
+	{
+		synchronized (appendLock)
+		{
+			if (buffer == null)
+				return;
+			try
+			{
+				//Only when the flusher could not checkpoint in time
+				if (buffer.remaining() < HEADER_SIZE + record.length)
+					compact();
+				if (buffer.remaining() < HEADER_SIZE + record.length)
+				{
+					log.error("Game journal record of {} bytes does not fit in the journal", record.length);
+					return;
+				}
+				put(buffer, record);
+				position = buffer.position();
+				appendedRecords++;
+			}
+			catch (IOException e)
+			{
+				log.error("Could not write to the game journal", e);
+			}
+		}
+	}
+	private void compact() throws IOException
+	{
+		ByteBuffer written = buffer.duplicate();
+		written.flip();
+		rewrite(parse(written).values());
+	}
+	private void rewrite(Collection<JournaledGame> live) throws IOException
+	{
+		Path tmp = journalFile.resolveSibling(CHECKPOINT_FILE_NAME);
+		Segment next = writeSegment(tmp, live);
+		//The live records reach the disk before the old journal is replaced, so a crash mid-checkpoint leaves it intact
+		next.buffer.force();
+		Files.move(tmp, journalFile, ATOMIC_MOVE, REPLACE_EXISTING);
+		switchTo(next);
+	}
+	//Same as compact, but only the hand-over to the new file holds the append lock.
+	//Records appended while the live ones were written aside are copied over after them.
+	private void checkpoint() throws IOException
+	{
+		MappedByteBuffer source;
+		ByteBuffer written;
+		synchronized (appendLock)
+		{
+			if ((buffer == null) || (position < buffer.capacity() * CHECKPOINT_THRESHOLD))
+				return;
+			source = buffer;
+			written = buffer.duplicate();
+			written.flip();
+		}
+		int checkpointed = written.limit();
+		Path tmp = journalFile.resolveSibling(BACKGROUND_CHECKPOINT_FILE_NAME);
+		Segment next = writeSegment(tmp, parse(written).values());
+		if (!handOver(source, checkpointed, next))
+		{
+			next.close();
+			Files.deleteIfExists(tmp);
+			return;
+		}
+		next.buffer.force();
+		synchronized (appendLock)
+		{
+			//Otherwise it was compacted in place meanwhile, which already replaced the journal
+			if (buffer == next.buffer)
+			{
+				Files.move(tmp, journalFile, ATOMIC_MOVE, REPLACE_EXISTING);
+				return;
+			}
+		}
+		Files.deleteIfExists(tmp);
+	}
+	private boolean handOver(MappedByteBuffer source, int checkpointed, Segment next) throws IOException
+	{
+		synchronized (appendLock)
+		{
+			if (buffer != source)
+				return false;
+			ByteBuffer appended = buffer.duplicate();
+			appended.limit(position);
+			appended.position(checkpointed);
+			if (appended.remaining() > next.buffer.remaining())
+				return false;
+			next.buffer.put(appended);
+			switchTo(next);
+			return true;
+		}
+	}
+	private Segment writeSegment(Path file, Collection<JournaledGame> live) throws IOException
+	{
+		int liveSize = live.stream()
+				.flatMap(jg -> jg.getRecords().stream())
+				.mapToInt(record -> HEADER_SIZE + record.length)
+				.sum();
+		int size = Math.max(minJournalSize, liveSize * 2);
+
+		FileChannel segmentChannel = FileChannel.open(file, CREATE, READ, WRITE, TRUNCATE_EXISTING);
+		try
+		{
+			MappedByteBuffer segmentBuffer = segmentChannel.map(MapMode.READ_WRITE, 0, size);
+			for (JournaledGame jg: live)
+				for (byte[] record: jg.getRecords())
+					put(segmentBuffer, record);
+			return new Segment(segmentChannel, segmentBuffer);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			segmentChannel.close();
+			throw e;
+		}
+	}
+	private void switchTo(Segment next) throws IOException
+	{
+		if (channel != null)
+			channel.close();
+		channel = next.channel;
+		buffer = next.buffer;
+		position = buffer.position();
+	}
+
+	private void flushPeriodically()
+	{
+		while (running)
+		{
+			try
+			{
+				Thread.sleep(FLUSH_INTERVAL_MILLI);
+			}
+			catch (InterruptedException e)
+			{
+				return;
+			}
+			try
+			{
+				checkpoint();
+			}
+			catch (IOException e)
+			{
+				log.error("Could not checkpoint the game journal", e);
+			}
+			MappedByteBuffer toForce;
+			int toPosition;
+			long toRecords;
+			synchronized (appendLock)
+			{
+				toForce = buffer;
+				toPosition = position;
+				toRecords = appendedRecords;
+			}
+			if ((toForce == null)
+					|| ((toForce == forcedBuffer) && (toPosition == forcedPosition)))
+				continue;
+			toForce.force();
+			forcedBuffer = toForce;
+			forcedPosition = toPosition;
+			markForced(toRecords);
+		}
+	}
+	private void markForced(long records)
+	{
+		synchronized (forceLock)
+		{
+			forcedRecords = Math.max(forcedRecords, records);
+			forceLock.notifyAll();
+		}
+	}
+
+	private Map<UUID, JournaledGame> parse(ByteBuffer data)
+	{
+		Map<UUID, JournaledGame> live = new LinkedHashMap<>();
+		CRC32 crc = new CRC32();
+		while (data.remaining() >= HEADER_SIZE)
+		{
+			int offset = data.position();
+			int length = data.getInt();
+			int checksum = data.getInt();
+			if ((length <= 0) || (length > data.remaining()))
+				break;
+			byte[] record = new byte[length];
+			data.get(record);
+			crc.reset();
+			crc.update(record);
+			if ((int) crc.getValue() != checksum)
+			{
+				log.warn("Game journal is torn at offset {}, ignoring the rest", offset);
+				break;
+			}
+			try
+			{
+				apply(record, live);
+			}
+			catch (IOException e)
+			{
+				log.warn("Skipping unreadable game journal record at offset {}", offset, e);
+			}
+		}
+		return live;
+	}
+	private void apply(byte[] record, Map<UUID, JournaledGame> live) throws IOException
+	{
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+		byte type = in.readByte();
+		UUID gameID = readUUID(in);
+		switch (type)
+		{
+			case GAME_CREATED:
+			{
+				String gameCode = in.readUTF();
+				UUID groupID = in.readBoolean()?readUUID(in):null;
+				JournaledGame jg = new JournaledGame(gameCode, gameID, groupID, in.readInt());
+				int playerCount = in.readInt();
+				for (int i = 0; i < playerCount; i++)
+				{
+					UUID playerID = readUUID(in);
+					int taskCount = in.readInt();
+					List<Entry<UUID, Double>> tasks = new ArrayList<>();
+					for (int j = 0; j < taskCount; j++)
+						tasks.add(Map.entry(readUUID(in), in.readDouble()));
+					jg.getPlayerTasks().put(playerID, tasks);
+				}
+				int spectatorCount = in.readInt();
+				for (int i = 0; i < spectatorCount; i++)
+					jg.getSpectatorIDs().add(readUUID(in));
+				jg.addRecord(record);
+				live.put(gameID, jg);
+				break;
+			}
+			case PLAYER_ADVANCED:
+			{
+				UUID playerID = readUUID(in);
+				int taskNumber = in.readInt();
+				double completion = in.readDouble();
+				long timeTaken = in.readLong();
+				JournaledGame jg = live.get(gameID);
+				if (jg == null)
+					break;
+				jg.addProgress(game -> game.restoreAdvance(playerID, taskNumber, completion, timeTaken));
+				jg.addRecord(record);
+				break;
+			}
+			case PLAYER_REMOVED:
+			{
+				UUID playerID = readUUID(in);
+				JournaledGame jg = live.get(gameID);
+				if (jg == null)
+					break;
+				jg.addProgress(game -> game.restoreRemoval(playerID));
+				jg.addRecord(record);
+				break;
+			}
+			case GAME_ENDED:
+				live.remove(gameID);
+				break;
+			default:
+				throw new IOException("Unknown record type " + type);
+		}
+	}
+
+	private static void put(ByteBuffer target, byte[] record)
+	{
+		CRC32 crc = new CRC32();
+		crc.update(record);
+		target.putInt(record.length);
+		target.putInt((int) crc.getValue());
+		target.put(record);
+	}
+	private static byte[] encode(RecordWriter writer)
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try
+		{
+			writer.write(new DataOutputStream(bytes));
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+	private static void writeUUID(DataOutputStream out, UUID id) throws IOException
+	{
+		out.writeLong(id.getMostSignificantBits());
+		out.writeLong(id.getLeastSignificantBits());
+	}
+	private static UUID readUUID(DataInputStream in) throws IOException
+	{
+		return new UUID(in.readLong(), in.readLong());
+	}
+
+	private interface RecordWriter
+	{
+		public void write(DataOutputStream out) throws IOException;
+	}
+	private static class Segment
+	{
+		private final FileChannel channel;
+		private final MappedByteBuffer buffer;
+
+		private Segment(FileChannel channel, MappedByteBuffer buffer)
+		{
+			this.channel = channel;
+			this.buffer = buffer;
+		}
+
+		private void close() throws IOException
+		{
+			channel.close();
+		}
+	}
+}
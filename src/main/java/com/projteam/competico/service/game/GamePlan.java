@@ -0,0 +1,92 @@
+package com.projteam.competico.service.game;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import com.projteam.competico.domain.game.PlayerRef;
+import com.projteam.competico.domain.game.tasks.Task;
+
+//Everything needed to start a game from a lobby, prepared while the lobby is still forming
+class GamePlan
+{
+	private final List<PlayerRef> players;
+	private final List<PlayerRef> spectators;
+	private final List<UUID> ratedIDs;
+	private final int taskCount;
+	private final double targetDifficulty;
+	private final List<UUID> tasksetIDs;
+	private final long tasksetRevision;
+	private final List<List<Task>> tasksetTasks;
+	private final TaskPool pool;
+	private final Map<UUID, List<Task>> taskMap;
+
+	GamePlan(List<PlayerRef> players, List<PlayerRef> spectators,
+			List<UUID> ratedIDs,
+			int taskCount, double targetDifficulty,
+			List<UUID> tasksetIDs, long tasksetRevision,
+			List<List<Task>> tasksetTasks, TaskPool pool,
+			Map<UUID, List<Task>> taskMap)
+	{
+		this.players = players;
+		this.spectators = spectators;
+		this.ratedIDs = ratedIDs;
+		this.taskCount = taskCount;
+		this.targetDifficulty = targetDifficulty;
+		this.tasksetIDs = tasksetIDs;
+		this.tasksetRevision = tasksetRevision;
+		this.tasksetTasks = tasksetTasks;
+		this.pool = pool;
+		this.taskMap = taskMap;
+	}
+
+	public List<PlayerRef> getPlayers()
+	{
+		return players;
+	}
+	public List<PlayerRef> getSpectators()
+	{
+		return spectators;
+	}
+	public int getTaskCount()
+	{
+		return taskCount;
+	}
+	public double getTargetDifficulty()
+	{
+		return targetDifficulty;
+	}
+	public List<List<Task>> getTasksetTasks()
+	{
+		return tasksetTasks;
+	}
+	public TaskPool getPool()
+	{
+		return pool;
+	}
+	public Map<UUID, List<Task>> getTaskMap()
+	{
+		return taskMap;
+	}
+
+	public boolean hasTasksets(List<UUID> tasksetIDs, long tasksetRevision)
+	{
+		return this.tasksetIDs.equals(tasksetIDs)
+				&& (this.tasksetRevision == tasksetRevision);
+	}
+	public boolean isUpToDate(List<PlayerRef> players, List<PlayerRef> spectators,
+			List<UUID> ratedIDs, List<UUID> tasksetIDs, long tasksetRevision)
+	{
+		return ids(this.players).equals(ids(players))
+				&& ids(this.spectators).equals(ids(spectators))
+				&& this.ratedIDs.equals(ratedIDs)
+				&& hasTasksets(tasksetIDs, tasksetRevision);
+	}
+
+	private static List<UUID> ids(List<PlayerRef> refs)
+	{
+		return refs.stream()
+				.map(ref -> ref.getId())
+				.collect(Collectors.toList());
+	}
+}
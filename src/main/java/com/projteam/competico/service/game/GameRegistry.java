@@ -0,0 +1,88 @@
+package com.projteam.competico.service.game;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import com.projteam.competico.domain.game.Game;
+import com.projteam.competico.service.CodeAllocator;
+import com.projteam.competico.service.game.PresenceIndex.Role;
+
+@Component
+public class GameRegistry
+{
+	private final Map<String, Game> games;
+	private final Map<UUID, String> gameCodesByID;
+	private final CodeAllocator codes;
+	private final PresenceIndex presence;
+
+	@Autowired
+	public GameRegistry(CodeAllocator codes, PresenceIndex presence)
+	{
+		this.codes = codes;
+		this.presence = presence;
+		games = new ConcurrentHashMap<>();
+		gameCodesByID = new ConcurrentHashMap<>();
+	}
+
+	public boolean register(String gameCode, Game game)
+	{
+		if (games.putIfAbsent(gameCode, game) != null)
+			return false;
+		//A game takes over its lobby's code, restored games claim theirs before any new code is issued
+		codes.reserve(gameCode);
+		gameCodesByID.put(game.getID(), gameCode);
+		Set<UUID> playerIDs = game.getPlayerIDs();
+		game.getParticipantIDs()
+			.forEach(accId -> presence.enterGame(accId, gameCode,
+					playerIDs.contains(accId)?Role.PLAYER:Role.SPECTATOR));
+		return true;
+	}
+	public boolean remove(String gameCode, Game game)
+	{
+		if (!games.remove(gameCode, game))
+			return false;
+		codes.release(gameCode);
+		gameCodesByID.remove(game.getID(), gameCode);
+		game.getParticipantIDs()
+			.forEach(accId -> presence.leaveGame(accId, gameCode));
+		return true;
+	}
+
+	public boolean contains(String gameCode)
+	{
+		return games.containsKey(gameCode);
+	}
+	public Game get(String gameCode)
+	{
+		return games.get(gameCode);
+	}
+	public Optional<Game> findByID(UUID gameID)
+	{
+		return findGameCodeByID(gameID)
+				.map(gameCode -> games.get(gameCode))
+				.filter(game -> game.getID().equals(gameID));
+	}
+	public Optional<String> findGameCodeByID(UUID gameID)
+	{
+		return Optional.ofNullable(gameCodesByID.get(gameID));
+	}
+	public Optional<String> findGameCodeForAccount(UUID accountID)
+	{
+		return presence.findGame(accountID)
+				.map(p -> p.getGameCode())
+				.filter(gameCode -> games.containsKey(gameCode));
+	}
+	public Collection<String> getGameCodes()
+	{
+		return games.keySet();
+	}
+	public int size()
+	{
+		return games.size();
+	}
+}
@@ -0,0 +1,288 @@
+package com.projteam.competico.service.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.projteam.competico.dao.group.GroupDAO;
+import com.projteam.competico.domain.game.FinishedGame;
+import com.projteam.competico.domain.group.GroupGameResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class GameResultWriter
+{
+	private EntityManager entityManager;
+	private GroupDAO groupDao;
+	private PlayerDataService pdServ;
+	private GameJournal journal;
+	private TransactionTemplate transaction;
+
+	private final BlockingQueue<FinishedGame> queue;
+	//Results stay readable from here until they are committed to the database
+	private final Map<UUID, FinishedGame> pendingResults;
+	//Results that failed every attempt, written again once their backoff runs out
+	private final Map<UUID, FailedResult> failedResults;
+	private final Thread worker;
+	private volatile boolean running;
+
+	private final Counter writtenGames;
+	private final Counter retriedBatches;
+	private final Counter failedGames;
+	private final Counter droppedGames;
+	private final Counter writtenByCaller;
+
+	public static final int QUEUE_CAPACITY = 1000;
+	private static final int BATCH_SIZE = 20;
+	private static final int MAX_ATTEMPTS = 3;
+	private static final long RETRY_DELAY_MILLI = 500;
+	private static final long POLL_TIMEOUT_MILLI = 200;
+	private static final long DRAIN_TIMEOUT_MILLI = 30000;
+	private static final long RETRY_CHECK_INTERVAL_MILLI = 5000;
+	private static final long FIRST_RETRY_DELAY_MILLI = 10000;
+	private static final long MAX_RETRY_DELAY_MILLI = 300000;
+	//Without the journal nothing else holds the results, so they are only kept for this many rounds
+	private static final int MAX_UNJOURNALED_ROUNDS = 5;
+
+	@Autowired
+	public GameResultWriter(EntityManager entityManager,
+			GroupDAO groupDao,
+			PlayerDataService pdServ,
+			GameJournal journal,
+			PlatformTransactionManager transactionManager,
+			MeterRegistry meterRegistry)
+	{
+		this.entityManager = entityManager;
+		this.groupDao = groupDao;
+		this.pdServ = pdServ;
+		this.journal = journal;
+		transaction = new TransactionTemplate(transactionManager);
+		transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+		queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		pendingResults = new ConcurrentHashMap<>();
+		failedResults = new ConcurrentHashMap<>();
+		worker = new Thread(this::writeQueuedResults, "game-result-writer");
+		running = false;
+
+		meterRegistry.gaugeCollectionSize("competico.results.queue.size", List.of(), queue);
+		writtenGames = meterRegistry.counter("competico.results.written");
+		retriedBatches = meterRegistry.counter("competico.results.retries");
+		failedGames = meterRegistry.counter("competico.results.failed");
+		droppedGames = meterRegistry.counter("competico.results.dropped");
+		writtenByCaller = meterRegistry.counter("competico.results.writtenByCaller");
+	}
+
+	@PostConstruct
+	public void start()
+	{
+		running = true;
+		worker.start();
+	}
+	@PreDestroy
+	public void drain()
+	{
+		running = false;
+		try
+		{
+			worker.join(DRAIN_TIMEOUT_MILLI);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		if (!queue.isEmpty())
+			log.warn("Shutting down with {} game results not written", queue.size());
+		if (!failedResults.isEmpty())
+			log.warn("Shutting down with {} game results that could not be written", failedResults.size());
+	}
+
+	public void submit(FinishedGame finishedGame)
+	{
+		pendingResults.put(finishedGame.getGameID(), finishedGame);
+		if (running && queue.offer(finishedGame))
+			return;
+
+		//Queue is full or not running, write on the caller's thread instead of dropping the result
+		writtenByCaller.increment();
+		write(List.of(finishedGame));
+	}
+	public Optional<FinishedGame> findPending(UUID gameID)
+	{
+		return Optional.ofNullable(pendingResults.get(gameID));
+	}
+	public int getQueueSize()
+	{
+		return queue.size();
+	}
+	@Scheduled(fixedDelay = RETRY_CHECK_INTERVAL_MILLI)
+	public void retryFailedResults()
+	{
+		retryFailedResults(System.currentTimeMillis());
+	}
+	void retryFailedResults(long now)
+	{
+		for (FailedResult failed: failedResults.values())
+		{
+			if ((failed.retryAt > now)
+					|| !failedResults.replace(failed.game.getGameID(), failed, failed.inFlight()))
+				continue;
+			if (!running || !queue.offer(failed.game))
+				write(List.of(failed.game));
+		}
+	}
+
+	private void writeQueuedResults()
+	{
+		while (running || !queue.isEmpty())
+		{
+			try
+			{
+				FinishedGame first = queue.poll(POLL_TIMEOUT_MILLI, TimeUnit.MILLISECONDS);
+				if (first == null)
+					continue;
+				List<FinishedGame> batch = new ArrayList<>();
+				batch.add(first);
+				queue.drainTo(batch, BATCH_SIZE - 1);
+				write(batch);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (RuntimeException e)
+			{
+				log.error("Unexpected error while writing game results", e);
+			}
+		}
+	}
+	private void write(List<FinishedGame> batch)
+	{
+		for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++)
+		{
+			try
+			{
+				transaction.executeWithoutResult(status -> persist(batch));
+				writtenGames.increment(batch.size());
+				batch.forEach(fg -> written(fg));
+				return;
+			}
+			catch (RuntimeException e)
+			{
+				log.warn("Writing {} game results failed (attempt {} of {})",
+						batch.size(), attempt, MAX_ATTEMPTS, e);
+				if (attempt < MAX_ATTEMPTS)
+				{
+					retriedBatches.increment();
+					sleep(RETRY_DELAY_MILLI * attempt);
+				}
+			}
+		}
+
+		//Retry one by one, so a single bad result does not lose the whole batch
+		if (batch.size() > 1)
+		{
+			batch.forEach(fg -> write(List.of(fg)));
+			return;
+		}
+		batch.forEach(fg -> failed(fg));
+		failedGames.increment(batch.size());
+	}
+	private void written(FinishedGame fg)
+	{
+		failedResults.remove(fg.getGameID());
+		pendingResults.remove(fg.getGameID());
+		journal.gameEnded(fg.getGameID());
+	}
+	//Failed results stay readable and are retried with a growing delay.
+	//Journaled ones are retried until they are written, the rest are dropped after a few rounds
+	private void failed(FinishedGame fg)
+	{
+		FailedResult previous = failedResults.get(fg.getGameID());
+		int round = (previous == null)?1:(previous.round + 1);
+		boolean journaled = journal.isEnabled();
+		if (!journaled && (round > MAX_UNJOURNALED_ROUNDS))
+		{
+			log.error("Could not write results of game {}, dropping them", fg.getGameID());
+			failedResults.remove(fg.getGameID());
+			pendingResults.remove(fg.getGameID());
+			droppedGames.increment();
+			return;
+		}
+		long delay = Math.min(FIRST_RETRY_DELAY_MILLI << Math.min(round - 1, 30), MAX_RETRY_DELAY_MILLI);
+		failedResults.put(fg.getGameID(), new FailedResult(fg, round, System.currentTimeMillis() + delay));
+		if (journaled)
+			log.error("Could not write results of game {}, keeping them journaled and retrying in {}ms",
+					fg.getGameID(), delay);
+		else
+			log.error("Could not write results of game {}, retrying in {}ms (round {} of {})",
+					fg.getGameID(), delay, round, MAX_UNJOURNALED_ROUNDS);
+	}
+	private void persist(List<FinishedGame> batch)
+	{
+		//Results always carry fresh IDs, so they are persisted directly -
+		//saving them through a repository would merge, and look up every row before inserting it
+		batch.forEach(fg -> fg.getGameResult()
+				.getResults()
+				.values()
+				.forEach(pr -> entityManager.persist(pr)));
+		batch.forEach(fg -> entityManager.persist(fg.getGameResult()));
+		batch.forEach(fg -> fg.getGroupId()
+				.flatMap(groupId -> groupDao.findById(groupId))
+				.ifPresent(group -> entityManager.persist(
+						new GroupGameResult(
+							UUID.randomUUID(),
+							group, fg.getGameResult()))));
+
+		batch.forEach(fg -> pdServ.updateRatings(fg.getTotalScores()));
+	}
+	private void sleep(long millis)
+	{
+		try
+		{
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static class FailedResult
+	{
+		private final FinishedGame game;
+		private final int round;
+		private final long retryAt;
+
+		private FailedResult(FinishedGame game, int round, long retryAt)
+		{
+			this.game = game;
+			this.round = round;
+			this.retryAt = retryAt;
+		}
+
+		//Already handed back to the writer, so it is not picked up again before it fails or is written
+		private FailedResult inFlight()
+		{
+			return new FailedResult(game, round, Long.MAX_VALUE);
+		}
+	}
+}
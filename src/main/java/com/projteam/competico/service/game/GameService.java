@@ -2,14 +2,14 @@ package com.projteam.competico.service.game;
 
 import static com.projteam.competico.domain.Account.PLAYER_ROLE;
 import static com.projteam.competico.domain.Account.LECTURER_ROLE;
-import static java.util.Collections.synchronizedMap;
+import java.io.IOException;
+import java.io.InputStream;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -19,42 +19,43 @@ import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Order;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.projteam.competico.dao.game.GameResultDAO;
-import com.projteam.competico.dao.game.PlayerResultDAO;
-import com.projteam.competico.dao.group.GroupDAO;
-import com.projteam.competico.dao.group.GroupGameResultDAO;
 import com.projteam.competico.domain.Account;
+import com.projteam.competico.domain.game.FinishedGame;
 import com.projteam.competico.domain.game.Game;
 import com.projteam.competico.domain.game.GameResult;
-import com.projteam.competico.domain.game.PlayerData;
+import com.projteam.competico.domain.game.PlayerRef;
 import com.projteam.competico.domain.game.PlayerResult;
-import com.projteam.competico.domain.game.TaskSet;
+import com.projteam.competico.domain.game.RatingProfile;
 import com.projteam.competico.domain.game.tasks.Task;
 import com.projteam.competico.domain.game.tasks.answers.TaskAnswer;
-import com.projteam.competico.domain.group.GroupGameResult;
 import com.projteam.competico.dto.game.GameResultPersonalDTO;
 import com.projteam.competico.dto.game.GameResultTotalDTO;
 import com.projteam.competico.dto.game.GameResultTotalDuringGameDTO;
 import com.projteam.competico.dto.game.tasks.show.TaskInfoDTO;
 import com.projteam.competico.service.AccountService;
 import com.projteam.competico.service.group.GroupService;
-import com.projteam.competico.utils.Initializable;
+import lombok.extern.slf4j.Slf4j;
 
 @Service
+@Slf4j
 public class GameService
 {
 	private AccountService accServ;
@@ -62,23 +63,29 @@ public class GameService
 	private GameTaskDataService gtdServ;
 	private TaskSetDataService tsdServ;
 	private PlayerDataService pdServ;
-	private PlayerResultDAO prDAO;
 	private GameResultDAO grDAO;
 	
 	private GroupService groupServ;
-	private GroupDAO groupDao;
-	private GroupGameResultDAO ggrDao;
 	
-	private Map<String, Game> games;
+	private GameRegistry games;
+	private ScoreboardStreamService scoreboardStream;
+	private LobbyStreamService lobbyStream;
+	private GameResultWriter resultWriter;
+	private GameJournal journal;
+	private TaskPayloadCache payloadCache;
+	private ExpiryScheduler expiry;
+	
+	private Map<String, GamePlan> gamePlans;
 	
 	private DateFormat df = new SimpleDateFormat("EEEE, d MMM yyyy HH:mm", new Locale("pl"));
 	
 	public static final int HISTORY_PAGE_SIZE = 30;
 	private static final long MAX_TIME_SINCE_LAST_INTERACTION_MILLI = 90000;
-	private static final int GAME_VALUE = 32;
 	private static final int RETRY_LIMIT = 100;
+	private static final long PLAN_REFRESH_INTERVAL_MILLI = 1000;
 	
 	private final ObjectMapper mapper = new ObjectMapper();
+	private final Map<Class<? extends TaskAnswer>, ObjectReader> answerReaders = new ConcurrentHashMap<>();
 	
 	@Autowired
 	public GameService(AccountService accServ,
@@ -86,24 +93,32 @@ public class GameService
 			GameTaskDataService gtdServ,
 			TaskSetDataService tsdServ,
 			PlayerDataService pdServ,
-			PlayerResultDAO prDAO,
 			GameResultDAO grDAO,
 			GroupService groupServ,
-			GroupDAO groupDao,
-			GroupGameResultDAO ggrDao)
+			GameRegistry games,
+			ScoreboardStreamService scoreboardStream,
+			LobbyStreamService lobbyStream,
+			GameResultWriter resultWriter,
+			GameJournal journal,
+			TaskPayloadCache payloadCache,
+			ExpiryScheduler expiry)
 	{
 		this.accServ = accServ;
 		this.lobbyServ = lobbyServ;
 		this.gtdServ = gtdServ;
 		this.tsdServ = tsdServ;
 		this.pdServ = pdServ;
-		this.prDAO = prDAO;
 		this.grDAO = grDAO;
 		this.groupServ = groupServ;
-		this.groupDao = groupDao;
-		this.ggrDao = ggrDao;
+		this.games = games;
+		this.scoreboardStream = scoreboardStream;
+		this.lobbyStream = lobbyStream;
+		this.resultWriter = resultWriter;
+		this.journal = journal;
+		this.payloadCache = payloadCache;
+		this.expiry = expiry;
 		
-		games = syncMap();
+		gamePlans = new ConcurrentHashMap<>();
 	}
 	
 	public boolean createGameFromLobby(String gameCode)
@@ -119,13 +134,78 @@ public class GameService
 		if (!lobbyServ.isHost(gameCode, requestSource))
 			return false;
 		
-		List<Account> accs = new ArrayList<>(lobbyServ.getPlayers(gameCode));
+		//Whatever the lobby already prepared is reused, only the parts that went stale are recomputed
+		GamePlan plan = prepareGamePlan(gameCode, gamePlans.remove(gameCode));
+		List<PlayerRef> players = plan.getPlayers();
+		List<PlayerRef> spectators = plan.getSpectators();
+		int taskCount = plan.getTaskCount();
+		Map<UUID, List<Task>> taskMap = plan.getTaskMap();
+		
+		if (players.size() < 1)
+			return false;
+		
+		Optional<UUID> groupId = lobbyServ.getGroupId(gameCode);
+		Optional<String> groupCode = lobbyServ.getGroupCode(gameCode);
+		
+		Game game = groupId
+				.map(id -> new Game(players, spectators, taskCount, taskMap, id))
+				.orElseGet(() -> new Game(players, spectators, taskCount, taskMap));
+		
+		lobbyStream.gameStarting(gameCode);
+		if (!lobbyServ.deleteLobby(gameCode, requestSource))
+		{
+			lobbyStream.gameStartAborted(gameCode);
+			return false;
+		}
+		journal.gameCreated(gameCode, game, players, spectators, taskMap);
+		game.setProgressListener(journal);
+		if (!games.register(gameCode, game))
+		{
+			journal.gameEnded(game.getID());
+			lobbyStream.gameStartAborted(gameCode);
+			lobbyStream.lobbyClosed(gameCode);
+			return false;
+		}
+		trackPlayers(gameCode, game);
+		lobbyStream.gameStarted(gameCode, game.getID());
+		
+		if (groupId.isPresent())
+			groupServ.removeGroupLobby(groupCode.get(), gameCode);
+		return true;
+	}
+	@Scheduled(fixedDelay = PLAN_REFRESH_INTERVAL_MILLI)
+	public void prewarmGamePlans()
+	{
+		gamePlans.keySet().removeIf(gameCode -> !lobbyServ.lobbyExists(gameCode));
+		for (String gameCode: lobbyServ.getLobbyCodes())
+		{
+			try
+			{
+				GamePlan previous = gamePlans.get(gameCode);
+				GamePlan plan = prepareGamePlan(gameCode, previous);
+				if ((plan != previous) && lobbyServ.lobbyExists(gameCode))
+					gamePlans.put(gameCode, plan);
+			}
+			catch (RuntimeException e)
+			{
+				//The lobby most likely closed or started while its plan was prepared
+				log.debug("Could not prepare game plan for lobby {}: {}", gameCode, e.getMessage());
+			}
+		}
+	}
+	public boolean hasGamePlan(String gameCode)
+	{
+		return gamePlans.containsKey(gameCode);
+	}
+	private GamePlan prepareGamePlan(String gameCode, GamePlan previous)
+	{
+		List<PlayerRef> lobbyPlayers = lobbyServ.getPlayers(gameCode);
+		List<PlayerRef> accs = new ArrayList<>(lobbyPlayers);
 		Optional.ofNullable(lobbyServ.getHost(gameCode))
-			.filter(h -> accs.stream()
-					.noneMatch(a -> a.getId().equals(h.getId())))
+			.filter(h -> !accs.contains(h))
 			.ifPresent(h -> accs.add(h));
-		List<Account> players = new ArrayList<>();
-		List<Account> spectators = new ArrayList<>();
+		List<PlayerRef> players = new ArrayList<>();
+		List<PlayerRef> spectators = new ArrayList<>();
 		
 		accs.forEach(acc ->
 		{
@@ -135,16 +215,26 @@ public class GameService
 				spectators.add(acc);
 		});
 		
-		Optional<UUID> groupId = lobbyServ.getGroupId(gameCode);
-		Optional<String> groupCode = lobbyServ.getGroupCode(gameCode);
-		List<TaskSet> tasksets = lobbyServ.getTasksets(gameCode);
+		List<UUID> ratedIDs = lobbyPlayers
+				.stream()
+				.map(acc -> acc.getId())
+				.collect(Collectors.toList());
+		//Empty tasksets are skipped when their tasks are loaded
+		List<UUID> tasksetIDs = Objects.requireNonNullElseGet(lobbyServ.getTasksetIDs(gameCode), () -> List.<UUID>of());
+		long tasksetRevision = tasksetIDs.isEmpty()?0:tsdServ.getRevision();
 		
-		if (players.size() < 1)
-			return false;
+		if ((previous != null)
+				&& previous.isUpToDate(players, spectators, ratedIDs, tasksetIDs, tasksetRevision))
+			return previous;
 		
-		double avgRating = lobbyServ.getAverageRating(gameCode);
+		//Ratings were snapshotted as players joined the lobby
+		double avgRating = lobbyServ.getRatingProfile(gameCode)
+				.orElse(RatingProfile.EMPTY)
+				.getAverage(PlayerDataService.DEFAULT_RATING);
 		
-		int taskCount = 5 + (int) (Math.random() * 3); //TODO export to properties
+		int taskCount = (previous != null)?
+				previous.getTaskCount():
+				5 + (int) (Math.random() * 3); //TODO export to properties
 		
 		//TODO refactor
 		//Assuming nonnegative rating, true lower limit is s(-0.2, -100, 200) = about 38
@@ -152,52 +242,52 @@ public class GameService
 				0.8 * (avgRating / PlayerDataService.DEFAULT_RATING) - 0.2,
 				-100, 200);
 		
+		boolean sameTasksets = (previous != null)
+				&& previous.hasTasksets(tasksetIDs, tasksetRevision);
+		List<List<Task>> tasksetTasks = sameTasksets?
+				previous.getTasksetTasks():
+				(tasksetIDs.isEmpty()?List.of():tsdServ.getTasksByTaskset(tasksetIDs));
+		boolean samePool = sameTasksets
+				&& (previous.getTargetDifficulty() == targetDifficulty);
+		TaskPool pool = samePool?
+				previous.getPool():
+				new TaskPool(tasksetTasks, targetDifficulty);
+		
+		//Task lists drawn from an unchanged pool stay valid for players who were already in the lobby
 		Map<UUID, List<Task>> taskMap = new HashMap<>();
-		taskMap.putAll(players.stream()
-				.collect(Collectors.toMap(player -> player.getId(),
-						player -> generateTaskList(taskCount, targetDifficulty, tasksets))));
+		List<PlayerRef> unplannedPlayers = new ArrayList<>();
+		players.forEach(player -> Optional.ofNullable(samePool?
+					previous.getTaskMap().get(player.getId()):null)
+				.ifPresentOrElse(tasks -> taskMap.put(player.getId(), tasks),
+						() -> unplannedPlayers.add(player)));
+		taskMap.putAll(generateTaskLists(unplannedPlayers, taskCount, targetDifficulty, pool));
 		
-		if (!lobbyServ.deleteLobby(gameCode, requestSource))
-			return false;
+		return new GamePlan(players, spectators, ratedIDs,
+				taskCount, targetDifficulty,
+				tasksetIDs, tasksetRevision,
+				tasksetTasks, pool, taskMap);
+	}
+	private Map<UUID, List<Task>> generateTaskLists(List<PlayerRef> players,
+			int taskCount, double targetDifficulty, TaskPool pool)
+	{
+		if (pool.isEmpty())
+			return players.stream()
+					.collect(Collectors.toMap(player -> player.getId(),
+							player -> generateTaskList(taskCount, targetDifficulty)));
 		
-		if (groupId.isPresent())
-		{
-			games.put(gameCode, new Game(players, spectators, taskCount, taskMap, groupId.get()));
-			groupServ.removeGroupLobby(groupCode.get(), gameCode);
-		}
-		else
-			games.put(gameCode, new Game(players, spectators, taskCount, taskMap));
-		return true;
+		//The pool is loaded once per game and never touches the database, so players are served in parallel
+		return players.parallelStream()
+				.collect(Collectors.toConcurrentMap(player -> player.getId(),
+						player -> pool.drawTaskList(taskCount, ThreadLocalRandom.current())));
 	}
-	private List<Task> generateTaskList(int taskCount, double targetDifficulty, List<TaskSet> tasksets)
+	private List<Task> generateTaskList(int taskCount, double targetDifficulty)
 	{
 		Random rand = new Random();
 		List<Task> ret = new ArrayList<>();
 		Map<String, Integer> taskCounts = new HashMap<>();
 		Set<UUID> taskIDs = new HashSet<>();
 		String lastName = "";
-		tasksets = Objects.requireNonNullElseGet(tasksets, () -> List.of());
-		List<TaskSet> tasksetList = new ArrayList<>(tasksets
-					.stream()
-					.filter(ts -> !ts.getTaskInfos().isEmpty())
-					.collect(Collectors.toList()));
-		int tasksetLen = tasksetList.size();
-		Supplier<Task> taskGen = tasksetList.isEmpty()?
-				(() -> gtdServ.generateRandomTask(targetDifficulty)):
-				(() ->
-				{
-					for (int i = 0; i < RETRY_LIMIT; i++)
-					{
-						Task ta = tsdServ.getRandomTask(
-							tasksetList.get(rand.nextInt(tasksetLen))
-							.getId(), rand)
-							.orElse(null);
-						if (ta != null)
-							return Initializable.init(ta);
-					}
-					
-					return gtdServ.generateRandomTask(targetDifficulty);
-				});
+		Supplier<Task> taskGen = () -> gtdServ.generateRandomTask(targetDifficulty);
 		
 		for (int i = 0; i < taskCount; i++)
 		{
@@ -251,7 +341,7 @@ public class GameService
 	
 	public boolean gameExists(String gameCode)
 	{
-		return games.containsKey(gameCode);
+		return games.contains(gameCode);
 	}
 	
 	public TaskInfoDTO getCurrentTaskInfo(String gameCode)
@@ -264,11 +354,31 @@ public class GameService
 					.map(task -> task.prepareTaskInfo(getTaskNumber(gameCode, player), getTaskCount(gameCode)))
 					.orElse(null);
 	}
+	public byte[] getCurrentTaskPayload(String gameCode)
+	{
+		return getCurrentTaskPayload(gameCode, getAccount());
+	}
+	public byte[] getCurrentTaskPayload(String gameCode, Account player)
+	{
+		return Optional.ofNullable(getCurrentTask(gameCode, player))
+					.map(task -> payloadCache.getTaskInfo(task, player.getId().hashCode(),
+							getTaskNumber(gameCode, player), getTaskCount(gameCode, player)))
+					.orElse(null);
+	}
 	
-	private Task getCurrentTask(String gameCode)
+	public Optional<String> getCurrentTaskTag(String gameCode)
 	{
-		return getCurrentTask(gameCode, getAccount());
+		return getCurrentTaskTag(gameCode, getAccount());
+	}
+	//Fetching the task starts its timer even when the client already has the payload
+	public Optional<String> getCurrentTaskTag(String gameCode, Account player)
+	{
+		Game game = games.get(gameCode);
+		if ((game == null) || (game.getCurrentTask(player) == null))
+			return Optional.empty();
+		return Optional.of(game.getID() + "." + player.getId() + "." + game.getCurrentTaskNumber(player));
 	}
+	
 	private Task getCurrentTask(String gameCode, Account player)
 	{
 		if (!gameExists(gameCode))
@@ -296,17 +406,42 @@ public class GameService
 	}
 	private boolean acceptAnswer(String gameCode, TaskAnswer answer, Account player)
 	{
-		if (!gameExists(gameCode))
+		Game game = games.get(gameCode);
+		if ((game == null) || game.hasGameFinishedFor(player))
 			return false;
 		
+		//Read before the task, so a task that moved on in between fails the number check instead of being scored
+		int taskNumber = game.getCurrentTaskNumber(player);
+		return acceptAnswer(gameCode, game, taskNumber, game.getCurrentTask(player), answer, player);
+	}
+	@Transactional
+	public boolean acceptAnswer(String gameCode, InputStream answer) throws IOException
+	{
+		return acceptAnswer(gameCode, answer, getAccount());
+	}
+	public boolean acceptAnswer(String gameCode, InputStream answer, Account player) throws IOException
+	{
 		Game game = games.get(gameCode);
-		if (game.hasGameFinishedFor(player))
+		if ((game == null) || game.hasGameFinishedFor(player))
 			return false;
+		
+		//The answer is decoded straight into the type the player's current task expects
+		int taskNumber = game.getCurrentTaskNumber(player);
 		Task task = game.getCurrentTask(player);
+		TaskAnswer decoded = getAnswerReader(task.getAnswerType()).readValue(answer);
+		return acceptAnswer(gameCode, game, taskNumber, task, decoded, player);
+	}
+	private boolean acceptAnswer(String gameCode, Game game, int taskNumber, Task task,
+			TaskAnswer answer, Account player)
+	{
 		double completion = task.acceptAnswer(answer);
-		game.advance(player, completion);
+		if (!game.advance(player, taskNumber, completion))
+			return false;
+		scoreboardStream.markChanged(game);
 		
 		checkIfGameFinished(gameCode, game);
+		//Only acknowledged once the answer would survive a crash
+		journal.awaitFlush();
 		return true;
 	}
 	public Class<? extends TaskAnswer> getCurrentAnswerClass(String gameCode, Account player)
@@ -322,106 +457,19 @@ public class GameService
 	}
 	private void checkIfGameFinished(String gameCode, Game game)
 	{
-		if (game.hasGameFinished())
-		{
+		if (game.hasGameFinished() && games.remove(gameCode, game))
 			finishGame(game);
-			games.remove(gameCode);
-		}
 	}
 	private void finishGame(Game game)
 	{
-		GameResult gr = game.createGameResult();
-		for (PlayerResult pr: gr.getResults().values())
-			prDAO.save(pr);
-		grDAO.save(gr);
-		
-		game.getGroupId()
-			.flatMap(groupId -> groupDao.findById(groupId))
-			.ifPresent(group -> ggrDao.save(
-					new GroupGameResult(
-						UUID.randomUUID(),
-						group, gr)));
-		
-		updateRatings(game);
-	}
-	private void updateRatings(Game game)
-	{
-		/*
-		 * O(n^2) time complexity, but way better accuracy than
-		 * just running the algorithm against 1 player higher and 1 player lower.
-		 * Still, better algorithms should be possible.
-		 * 
-		 * Idea 1: compute the average rating of the game (once outside of the loop), 
-		 * compute the expected result from that and the current player's rating,
-		 * use his overall position as the actual result (mapped to [-1, 1]).
-		 * 
-		 * Total completion should also be a factor in computing the rating:
-		 * - A player with 0% completion should never win rating
-		 * - A player with 100% completion should never lose rating
-		 * - The implementation must not introduce any
-		 * noticeable inflation or deflation to the system
-		 */
-		
-		Map<UUID, GameResultTotalDuringGameDTO> scores =
-				game.getCurrentResultsWithIDs();
-		
-		Map<UUID, PlayerData> playerDataMap = new HashMap<>();
-		Map<UUID, Integer> newRatings = new HashMap<>();
-		
-		scores.forEach((playerID, playerScore) ->
-		{
-			PlayerData playerPD = pdServ.getPlayerData(accServ
-					.findByID(playerID)
-					.orElse(null))
-					.orElse(null);
-			if (playerPD == null)
-				return;
-			
-			int playerRating = playerPD.getRating();
-			
-			double scoreDeltaTotal = 0;
-			int eligibleOpponentsCount = 0;
-			for (Entry<UUID, GameResultTotalDuringGameDTO> e:
-				scores.entrySet())
-			{
-				UUID pID = e.getKey();
-				if (pID.equals(playerID))
-					continue;
-				
-				PlayerData pPD = pdServ.getPlayerData(accServ
-						.findByID(pID)
-						.orElse(null))
-						.orElse(null);
-				if (pPD == null)
-					continue;
-				
-				int pRating = playerPD.getRating();
-				
-				double real = (
-						Math.signum(
-							playerScore.getTotalScore()
-							- e.getValue().getTotalScore())
-						+ 1) / 2.0;
-				double expected = 1 / (1 + Math.pow(10,
-						(pRating - playerRating) / 400.0));
-				
-				scoreDeltaTotal += (real - expected);
-				eligibleOpponentsCount++;
-			}
-			
-			if (eligibleOpponentsCount == 0)
-				return;
-			
-			playerDataMap.put(playerID, playerPD);
-			newRatings.put(playerID, (int) Math.round(playerRating +
-					GAME_VALUE * (scoreDeltaTotal / eligibleOpponentsCount)));
-		});
-		
-		playerDataMap.forEach((playerID, playerPD) ->
-		{
-			playerPD.setRating(newRatings.getOrDefault(playerID, playerPD.getRating()));
-			pdServ.savePlayerData(playerPD);
-		});
+		scoreboardStream.gameEnded(game);
+		resultWriter.submit(FinishedGame.of(game));
+	}
+	private Optional<GameResult> findGameResult(UUID gameID)
+	{
+		return resultWriter.findPending(gameID)
+				.map(fg -> fg.getGameResult())
+				.or(() -> grDAO.findById(gameID));
 	}
 	
 	private Account getAccount()
@@ -435,19 +483,9 @@ public class GameService
 				.orElseThrow(() -> new IllegalArgumentException("User does not exist."));
 	}
 
-	private TaskAnswer convertRawAnswer(String gameCode, JsonNode answer) throws JsonProcessingException
-	{
-		if (!gameExists(gameCode))
-			return null;
-		if (answer == null)
-			return mapper.treeToValue(
-					JsonNodeFactory.instance.nullNode(),
-					getCurrentTask(gameCode).getAnswerType());
-		return mapper.treeToValue(answer, getCurrentTask(gameCode).getAnswerType());
-	}
-	public boolean acceptAnswer(String gameCode, JsonNode answer) throws JsonProcessingException
+	private ObjectReader getAnswerReader(Class<? extends TaskAnswer> answerType)
 	{
-		return acceptAnswer(gameCode, convertRawAnswer(gameCode, answer));
+		return answerReaders.computeIfAbsent(answerType, type -> mapper.readerFor(type));
 	}
 
 	public int getTaskNumber(String gameCode)
@@ -477,7 +515,7 @@ public class GameService
 	@Transactional
 	public Optional<List<GameResultTotalDTO>> getResults(UUID gameID)
 	{
-		return grDAO.findById(gameID)
+		return findGameResult(gameID)
 				.map(gr ->
 				{
 					List<GameResultTotalDTO> ret = new ArrayList<>();
@@ -517,12 +555,21 @@ public class GameService
 	}
 	public Optional<List<GameResultTotalDuringGameDTO>> getCurrentResults(UUID gameID)
 	{
-		return games.values()
-			.stream()
-			.filter(game -> game.getID().equals(gameID))
-			.findFirst()
+		return games.findByID(gameID)
 			.map(game -> game.getCurrentResults());
 	}
+	public Optional<String> getCurrentResultsTag(UUID gameID)
+	{
+		return games.findByID(gameID)
+			.map(game -> gameID + "." + game.getVersion());
+	}
+	//Saved results never change, a game without any gets no tag to match
+	public Optional<String> getSavedResultsTag(UUID gameID)
+	{
+		if (resultWriter.findPending(gameID).isEmpty() && !grDAO.existsById(gameID))
+			return Optional.empty();
+		return Optional.of(gameID + ".final");
+	}
 	@Transactional
 	public Optional<List<GameResultPersonalDTO>> getPersonalResults(UUID gameID)
 	{
@@ -531,13 +578,10 @@ public class GameService
 	@Transactional
 	public Optional<List<GameResultPersonalDTO>> getPersonalResults(UUID gameID, Account player)
 	{
-		Optional<List<GameResultPersonalDTO>> ret = games.values()
-				.stream()
-				.filter(game -> game.getID().equals(gameID))
-				.findFirst()
+		Optional<List<GameResultPersonalDTO>> ret = games.findByID(gameID)
 				.map(game -> game.getPersonalResults(player));
 		if (ret.isEmpty())
-			return grDAO.findById(gameID)
+			return findGameResult(gameID)
 					.map(gr ->
 					{
 						return gr.getResults()
@@ -588,10 +632,7 @@ public class GameService
 		if (player == null)
 			return (Optional.empty());
 		
-		Optional<Game> game = games.values()
-			.stream()
-			.filter(g -> g.getID().equals(gameID))
-			.findFirst();
+		Optional<Game> game = games.findByID(gameID);
 		
 		if (game.isPresent())
 		{
@@ -599,7 +640,7 @@ public class GameService
 					.isEmpty())
 				return Optional.empty();
 		}
-		else if (!grDAO.findById(gameID)
+		else if (!findGameResult(gameID)
 				.map(gr -> gr.getResults()
 						.values()
 						.stream()
@@ -617,13 +658,20 @@ public class GameService
 	}
 	public Optional<Boolean> haveResultsChanged(UUID gameID, Account acc)
 	{
-		return games.values()
-				.stream()
-				.filter(game -> game.getID().equals(gameID))
-				.findFirst()
+		return games.findByID(gameID)
 				.map(game -> game.hasStateChanged(gameID, acc))
 				.orElse(Optional.empty());
 	}
+	public Optional<SseEmitter> subscribeToScoreboard(UUID gameID)
+	{
+		return subscribeToScoreboard(gameID, getAccount());
+	}
+	public Optional<SseEmitter> subscribeToScoreboard(UUID gameID, Account acc)
+	{
+		return games.findByID(gameID)
+				.filter(game -> game.containsPlayerOrSpectator(acc))
+				.map(game -> scoreboardStream.subscribe(game));
+	}
 
 	public UUID getGameID(String gameCode)
 	{
@@ -633,13 +681,12 @@ public class GameService
 	}
 	public Optional<String> getGameForAccount(Account acc)
 	{
-		return games.entrySet()
-				.stream()
-				.filter(e -> e.getValue().containsPlayerOrSpectator(acc))
-				.filter(e -> !acc.hasRole(PLAYER_ROLE)
-						|| !e.getValue().hasGameFinishedFor(acc))
-				.map(e -> e.getKey())
-				.findAny();
+		return games.findGameCodeForAccount(acc.getId())
+				.filter(gameCode -> Optional.ofNullable(games.get(gameCode))
+						.filter(game -> game.containsPlayerOrSpectator(acc))
+						.filter(game -> !acc.hasRole(PLAYER_ROLE)
+								|| !game.hasGameFinishedFor(acc))
+						.isPresent());
 	}
 	@Transactional
 	public Page<Map<String, String>> getHistory(int page)
@@ -687,27 +734,124 @@ public class GameService
 		if (game == null)
 			return;
 		game.markInactive(acc);
+		UUID playerID = acc.getId();
+		expiry.schedule(System.nanoTime(), now -> checkPlayer(gameCode, game, playerID));
+	}
+	private void trackPlayers(String gameCode, Game game)
+	{
+		for (UUID playerID: game.getPlayerIDs())
+		{
+			game.getInactivityDeadline(playerID, MAX_TIME_SINCE_LAST_INTERACTION_MILLI)
+				.ifPresent(deadline -> expiry.schedule(deadline,
+						now -> checkPlayer(gameCode, game, playerID)));
+		}
+	}
+	private long checkPlayer(String gameCode, Game game, UUID playerID)
+	{
+		if (games.get(gameCode) != game)
+			return ExpiryScheduler.NO_DEADLINE;
+		if (game.removeIfInactive(playerID, MAX_TIME_SINCE_LAST_INTERACTION_MILLI))
+		{
+			expiry.execute(() -> playerRemoved(gameCode, game));
+			return ExpiryScheduler.NO_DEADLINE;
+		}
+		return game.getInactivityDeadline(playerID, MAX_TIME_SINCE_LAST_INTERACTION_MILLI)
+				.orElse(ExpiryScheduler.NO_DEADLINE);
+	}
+	private void playerRemoved(String gameCode, Game game)
+	{
+		scoreboardStream.markChanged(game);
+		if (game.isInactive())
+		{
+			if (games.remove(gameCode, game))
+			{
+				scoreboardStream.gameEnded(game);
+				journal.gameEnded(game.getID());
+			}
+		}
+		else
+			checkIfGameFinished(gameCode, game);
 	}
-	@Scheduled(fixedDelay = 30000)
+	@EventListener(ApplicationReadyEvent.class)
 	@Transactional
-	public void removeInactive()
+	public void restoreJournaledGames()
+	{
+		for (JournaledGame jg: journal.takeRecoveredGames())
+		{
+			try
+			{
+				restoreGame(jg);
+			}
+			catch (RuntimeException e)
+			{
+				log.warn("Could not restore game {}", jg.getGameID(), e);
+				journal.gameEnded(jg.getGameID());
+			}
+		}
+	}
+	private void restoreGame(JournaledGame jg)
 	{
-		synchronized (games)
+		//Results were written before the journal noted the end of the game
+		if (grDAO.existsById(jg.getGameID()))
+		{
+			journal.gameEnded(jg.getGameID());
+			return;
+		}
+		
+		Map<UUID, Account> accounts = accServ.findAllByID(jg.getParticipantIDs())
+				.stream()
+				.collect(Collectors.toMap(acc -> acc.getId(), acc -> acc));
+		List<PlayerRef> players = jg.getPlayerTasks()
+				.keySet()
+				.stream()
+				.filter(id -> accounts.containsKey(id))
+				.map(id -> PlayerRef.of(accounts.get(id)))
+				.collect(Collectors.toList());
+		List<PlayerRef> spectators = jg.getSpectatorIDs()
+				.stream()
+				.filter(id -> accounts.containsKey(id))
+				.map(id -> PlayerRef.of(accounts.get(id)))
+				.collect(Collectors.toList());
+		if (players.isEmpty())
+		{
+			journal.gameEnded(jg.getGameID());
+			return;
+		}
+		
+		Map<UUID, List<Task>> taskMap = new HashMap<>();
+		for (Entry<UUID, List<Entry<UUID, Double>>> playerTasks: jg.getPlayerTasks().entrySet())
 		{
-			Iterator<Game> it = games.values().iterator();
-			while (it.hasNext())
+			List<Task> tasks = new ArrayList<>();
+			for (Entry<UUID, Double> journaledTask: playerTasks.getValue())
 			{
-				Game game = it.next();
-				game.removeInactivePlayers(MAX_TIME_SINCE_LAST_INTERACTION_MILLI);
-				if (game.isInactive())
-					it.remove();
-				else if (game.hasGameFinished())
+				Optional<Task> task = gtdServ.findTask(journaledTask.getKey());
+				//Any other task would not match the answers its player was already scored on
+				if (task.isEmpty())
 				{
-					finishGame(game);
-					it.remove();
+					log.warn("Not restoring game {}, its task {} no longer exists",
+							jg.getGameID(), journaledTask.getKey());
+					journal.gameEnded(jg.getGameID());
+					return;
 				}
+				tasks.add(task.get());
 			}
+			taskMap.put(playerTasks.getKey(), tasks);
+		}
+		
+		Game game = Game.restore(jg.getGameID(), players, spectators,
+				jg.getTaskCount(), taskMap, jg.getGroupId());
+		jg.replay(game);
+		
+		if (game.hasGameFinished())
+		{
+			finishGame(game);
+			return;
 		}
+		game.setProgressListener(journal);
+		if (games.register(jg.getGameCode(), game))
+			trackPlayers(jg.getGameCode(), game);
+		else
+			journal.gameEnded(jg.getGameID());
 	}
 	public boolean isPlayerActive(String gameCode, Account acc)
 	{
@@ -717,7 +861,7 @@ public class GameService
 		return game.isPlayerActive(acc);
 	}
 	
-	private double sigmoid(double x, double min, double max)
+	static double sigmoid(double x, double min, double max)
 	{
 		return (((max - min) * ((x / Math.sqrt(1 + (x * x))) + 1)) / 2) + min;
 	}
@@ -726,9 +870,4 @@ public class GameService
 	{
 		return df.format(date);
 	}
-	
-	private <T, U> Map<T, U> syncMap()
-	{
-		return synchronizedMap(new HashMap<>());
-	}
 }
@@ -8,8 +8,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.transaction.Transactional;
@@ -19,7 +20,6 @@ import org.springframework.context.event.EventListener;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
@@ -49,8 +49,10 @@ import com.projteam.competico.dto.game.tasks.create.TaskDTO;
 import com.projteam.competico.dto.game.tasks.create.WordConnectDTO;
 import com.projteam.competico.dto.game.tasks.create.WordFillDTO;
 import com.projteam.competico.service.AccountService;
+import com.projteam.competico.service.game.tasks.TaskDirectory;
 import com.projteam.competico.service.game.tasks.TaskService;
 import com.projteam.competico.service.game.tasks.mappers.GenericTaskMapper;
+import com.projteam.competico.utils.Initializable;
 
 @Service
 public class GameTaskDataService
@@ -69,6 +71,9 @@ public class GameTaskDataService
 	private GlobalTaskDAO gtDao;
 	private TaskInfoDAO tiDao;
 	
+	private GlobalTaskCatalog catalog;
+	private TaskDirectory taskDirectory;
+	
 	private final ObjectMapper mapperByField;
 	
 	@Autowired
@@ -76,13 +81,17 @@ public class GameTaskDataService
 			AccountService accServ,
 			GenericTaskMapper taskMapper,
 			GlobalTaskDAO gtDao,
-			TaskInfoDAO tiDao)
+			TaskInfoDAO tiDao,
+			GlobalTaskCatalog catalog,
+			TaskDirectory taskDirectory)
 	{
 		taskServices = new ArrayList<>(taskServiceList);
 		accountService = accServ;
 		this.taskMapper = taskMapper;
 		this.gtDao = gtDao;
 		this.tiDao = tiDao; 
+		this.catalog = catalog;
+		this.taskDirectory = taskDirectory;
 		
 		globalImportedTasks = new HashMap<>();
 		
@@ -117,6 +126,17 @@ public class GameTaskDataService
 			}
 		}
 		gtDao.flush();
+		
+		refreshGlobalTaskCatalog();
+	}
+	@Transactional
+	public void refreshGlobalTaskCatalog()
+	{
+		Set<UUID> taskIds = gtDao.findAll()
+				.stream()
+				.map(gt -> gt.getTaskID())
+				.collect(Collectors.toSet());
+		catalog.rebuild(taskDirectory.findTasks(taskIds).values());
 	}
 	@Transactional
 	public void saveTask(Task task)
@@ -127,6 +147,7 @@ public class GameTaskDataService
 			{
 				if (!ts.genericExistsById(task.getId()))
 					ts.genericSave(task);
+				taskDirectory.register(task.getId(), ts);
 				return;
 			}
 		}
@@ -138,30 +159,17 @@ public class GameTaskDataService
 				+ ", no applicable service.");
 	}
 	
-	@Transactional
 	public Task generateRandomTask(double targetDifficulty)
 	{
-		Random r = new Random();
-		
-		long count = gtDao.count();
-		int index = r.nextInt((int) count);
-		UUID taskId = gtDao.findAll(PageRequest.of(index, 1))
-				.get()
-				.findAny()
-				.map(gt -> gt.getTaskID())
-				.orElse(null);
-		
-		if (taskId != null)
-		{
-			for (TaskService taskServ: taskServices)
-			{
-				Task ret = taskServ.genericFindById(taskId);
-				if (ret != null)
-					return ret;
-			}
-		}
-		
-		return defaultTask(targetDifficulty);
+		return catalog.pickNear(targetDifficulty, ThreadLocalRandom.current())
+				.orElseGet(() -> defaultTask(targetDifficulty));
+	}
+	
+	@Transactional
+	public Optional<Task> findTask(UUID taskId)
+	{
+		return taskDirectory.findTask(taskId)
+				.map(Initializable::init);
 	}
 	
 	public Task defaultTask(double targetDifficulty)
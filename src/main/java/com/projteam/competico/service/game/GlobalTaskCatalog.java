@@ -0,0 +1,138 @@
+package com.projteam.competico.service.game;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+import com.projteam.competico.domain.game.tasks.Task;
+
+//In-memory copy of the global tasks, sorted by difficulty so tasks near a target can be picked without a database hit
+@Component
+public class GlobalTaskCatalog
+{
+	private volatile Snapshot snapshot = new Snapshot(List.of());
+
+	public static final double DIFFICULTY_BAND = 50;
+	public static final int MIN_CANDIDATES = 8;
+
+	public synchronized void rebuild(Collection<Task> tasks)
+	{
+		snapshot = new Snapshot(tasks);
+	}
+	public void put(Task task)
+	{
+		update(List.of(task), List.of());
+	}
+	public void remove(UUID taskID)
+	{
+		update(List.of(), List.of(taskID));
+	}
+	//Every change to the snapshot re-sorts it, so changes made together are applied in one go
+	public synchronized void update(Collection<Task> changed, Collection<UUID> removed)
+	{
+		if (changed.isEmpty() && removed.stream().noneMatch(id -> snapshot.byID.containsKey(id)))
+			return;
+		Map<UUID, Task> tasks = new LinkedHashMap<>(snapshot.byID);
+		changed.forEach(task -> tasks.put(task.getId(), task));
+		removed.forEach(id -> tasks.remove(id));
+		snapshot = new Snapshot(tasks.values());
+	}
+	public boolean contains(UUID taskID)
+	{
+		return snapshot.byID.containsKey(taskID);
+	}
+	public int size()
+	{
+		return snapshot.byID.size();
+	}
+
+	public Optional<Task> pickNear(double targetDifficulty, Random rand)
+	{
+		return snapshot.all.pickNear(targetDifficulty, rand);
+	}
+	public Optional<Task> pickNear(double targetDifficulty, Class<? extends Task> taskType, Random rand)
+	{
+		return Optional.ofNullable(snapshot.byType.get(taskType))
+				.flatMap(index -> index.pickNear(targetDifficulty, rand));
+	}
+
+	private static class Snapshot
+	{
+		private final Map<UUID, Task> byID;
+		private final DifficultyIndex all;
+		private final Map<Class<? extends Task>, DifficultyIndex> byType;
+
+		private Snapshot(Collection<Task> tasks)
+		{
+			byID = new LinkedHashMap<>();
+			tasks.forEach(task -> byID.put(task.getId(), task));
+			all = new DifficultyIndex(byID.values());
+
+			Map<Class<? extends Task>, List<Task>> typeLists = new HashMap<>();
+			byID.values().forEach(task -> typeLists
+					.computeIfAbsent(task.getClass(), k -> new ArrayList<>())
+					.add(task));
+			byType = new HashMap<>();
+			typeLists.forEach((type, list) -> byType.put(type, new DifficultyIndex(list)));
+		}
+	}
+	private static class DifficultyIndex
+	{
+		private final Task[] tasks;
+		private final double[] difficulties;
+
+		private DifficultyIndex(Collection<Task> taskList)
+		{
+			tasks = taskList.stream()
+					.sorted(Comparator.comparingDouble(Task::getDifficulty))
+					.toArray(Task[]::new);
+			difficulties = new double[tasks.length];
+			for (int i = 0; i < tasks.length; i++)
+				difficulties[i] = tasks[i].getDifficulty();
+		}
+
+		private Optional<Task> pickNear(double targetDifficulty, Random rand)
+		{
+			if (tasks.length == 0)
+				return Optional.empty();
+
+			//Every task within the band is a candidate, widened towards the closest tasks if there are too few
+			int low = lowerBound(targetDifficulty - DIFFICULTY_BAND);
+			int high = lowerBound(Math.nextUp(targetDifficulty + DIFFICULTY_BAND));
+			int minCandidates = Math.min(MIN_CANDIDATES, tasks.length);
+			while (high - low < minCandidates)
+			{
+				if (low == 0)
+					high++;
+				else if (high == tasks.length)
+					low--;
+				else if (targetDifficulty - difficulties[low - 1] <= difficulties[high] - targetDifficulty)
+					low--;
+				else
+					high++;
+			}
+			return Optional.of(tasks[low + rand.nextInt(high - low)]);
+		}
+		private int lowerBound(double difficulty)
+		{
+			int low = 0;
+			int high = difficulties.length;
+			while (low < high)
+			{
+				int mid = (low + high) >>> 1;
+				if (difficulties[mid] < difficulty)
+					low = mid + 1;
+				else
+					high = mid;
+			}
+			return low;
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.projteam.competico.service.game;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import com.projteam.competico.domain.game.Game;
+
+//A game rebuilt from the journal, along with the raw records needed to write it again on compaction
+class JournaledGame
+{
+	private final String gameCode;
+	private final UUID gameID;
+	private final UUID groupID;
+	private final int taskCount;
+	private final Map<UUID, List<Entry<UUID, Double>>> playerTasks;
+	private final List<UUID> spectatorIDs;
+	private final List<Consumer<Game>> progress;
+	private final List<byte[]> records;
+
+	JournaledGame(String gameCode, UUID gameID, UUID groupID, int taskCount)
+	{
+		this.gameCode = gameCode;
+		this.gameID = gameID;
+		this.groupID = groupID;
+		this.taskCount = taskCount;
+		playerTasks = new LinkedHashMap<>();
+		spectatorIDs = new ArrayList<>();
+		progress = new ArrayList<>();
+		records = new ArrayList<>();
+	}
+
+	public String getGameCode()
+	{
+		return gameCode;
+	}
+	public UUID getGameID()
+	{
+		return gameID;
+	}
+	public Optional<UUID> getGroupId()
+	{
+		return Optional.ofNullable(groupID);
+	}
+	public int getTaskCount()
+	{
+		return taskCount;
+	}
+	public Map<UUID, List<Entry<UUID, Double>>> getPlayerTasks()
+	{
+		return playerTasks;
+	}
+	public List<UUID> getSpectatorIDs()
+	{
+		return spectatorIDs;
+	}
+	public Set<UUID> getParticipantIDs()
+	{
+		Set<UUID> ret = new HashSet<>(playerTasks.keySet());
+		ret.addAll(spectatorIDs);
+		return ret;
+	}
+	public void replay(Game game)
+	{
+		progress.forEach(step -> step.accept(game));
+	}
+
+	void addProgress(Consumer<Game> step)
+	{
+		progress.add(step);
+	}
+	void addRecord(byte[] record)
+	{
+		records.add(record);
+	}
+	List<byte[]> getRecords()
+	{
+		return records;
+	}
+}
@@ -0,0 +1,87 @@
+package com.projteam.competico.service.game;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import com.projteam.competico.domain.game.Lobby;
+
+//Lobbies a random player can join right now, ordered by the average rating of their players.
+//Lookups never block, updates are serialized so a lobby is never indexed under two ratings at once.
+class LobbyRatingIndex
+{
+	private final NavigableMap<Key, Lobby> lobbiesByRating;
+	private final Map<Lobby, Key> keys;
+
+	LobbyRatingIndex()
+	{
+		lobbiesByRating = new ConcurrentSkipListMap<>();
+		keys = new ConcurrentHashMap<>();
+	}
+
+	synchronized void put(Lobby lobby, double rating)
+	{
+		Key key = new Key(rating, lobby.getGameCode());
+		Key previous = keys.put(lobby, key);
+		if (previous != null)
+			lobbiesByRating.remove(previous, lobby);
+		lobbiesByRating.put(key, lobby);
+	}
+	synchronized void remove(Lobby lobby)
+	{
+		Key previous = keys.remove(lobby);
+		if (previous != null)
+			lobbiesByRating.remove(previous, lobby);
+	}
+	Optional<Lobby> findClosest(double targetRating)
+	{
+		Key target = new Key(targetRating, "");
+		Map.Entry<Key, Lobby> above = lobbiesByRating.ceilingEntry(target);
+		Map.Entry<Key, Lobby> below = lobbiesByRating.lowerEntry(target);
+		if (above == null)
+			return Optional.ofNullable(below).map(e -> e.getValue());
+		if (below == null)
+			return Optional.of(above.getValue());
+		return Optional.of(((above.getKey().rating - targetRating) <= (targetRating - below.getKey().rating))?
+				above.getValue():
+				below.getValue());
+	}
+	boolean contains(Lobby lobby)
+	{
+		return keys.containsKey(lobby);
+	}
+	int size()
+	{
+		return keys.size();
+	}
+
+	private static final class Key implements Comparable<Key>
+	{
+		private final double rating;
+		private final String gameCode;
+
+		private Key(double rating, String gameCode)
+		{
+			this.rating = rating;
+			this.gameCode = gameCode;
+		}
+
+		@Override
+		public int compareTo(Key other)
+		{
+			int ret = Double.compare(rating, other.rating);
+			return (ret != 0)?ret:gameCode.compareTo(other.gameCode);
+		}
+		@Override
+		public boolean equals(Object other)
+		{
+			return (other instanceof Key) && (compareTo((Key) other) == 0);
+		}
+		@Override
+		public int hashCode()
+		{
+			return 31 * Double.hashCode(rating) + gameCode.hashCode();
+		}
+	}
+}
@@ -5,29 +5,29 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.function.Supplier;
 import javax.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import com.projteam.competico.dao.game.TaskSetDAO;
 import com.projteam.competico.domain.Account;
 import com.projteam.competico.domain.game.Lobby;
+import com.projteam.competico.domain.game.PlayerRef;
+import com.projteam.competico.domain.game.RatingProfile;
 import com.projteam.competico.domain.game.TaskSet;
 import com.projteam.competico.domain.group.Group;
 import com.projteam.competico.dto.lobby.LobbyOptionsDTO;
 import com.projteam.competico.service.AccountService;
+import com.projteam.competico.service.CodeAllocator;
+import com.projteam.competico.service.game.PresenceIndex.Role;
 import com.projteam.competico.service.group.GroupService;
-import com.projteam.competico.utils.Initializable;
 
 @Service
 public class LobbyService
@@ -37,41 +37,39 @@ public class LobbyService
 	private GroupService groupServ;
 	
 	private TaskSetDAO tsDao;
+	private LobbyStreamService lobbyStream;
+	private ExpiryScheduler expiry;
+	private CodeAllocator codes;
+	private PresenceIndex presence;
 	
 	private Map<String, Lobby> lobbies;
 	private Set<String> lobbyCodesAllowingRandomPlayers;
+	private LobbyRatingIndex randomLobbies;
 
-	private final char[] gameCodeChars;
-	private static final int GAME_CODE_LENGTH = 8;
-	private static final int MAX_GAME_CODE_REROLL_COUNT = 1000;
 	private static final long MAX_TIME_SINCE_LAST_INTERACTION_MILLI = 120000;
-	private static final int[][] RANDOM_LOBBY_SEARCH_PLAN =
-	{
-		{25, 5},
-		{50, 10},
-		{100, 20},
-		{250, 50}
-	};
 	
 	@Autowired
 	public LobbyService(AccountService accServ,
 			PlayerDataService pdServ,
 			GroupService groupServ,
-			TaskSetDAO tsDao)
+			TaskSetDAO tsDao,
+			LobbyStreamService lobbyStream,
+			ExpiryScheduler expiry,
+			CodeAllocator codes,
+			PresenceIndex presence)
 	{
 		lobbies = syncMap();
 		lobbyCodesAllowingRandomPlayers = syncSet();
-		
-		gameCodeChars = IntStream.range(0, 256)
-			.filter(LobbyService::isValidGameCodeChar)
-			.mapToObj(c -> Character.toString((char) c))
-            .collect(Collectors.joining())
-            .toCharArray();
+		randomLobbies = new LobbyRatingIndex();
 		
 		this.accServ = accServ;
 		this.pdServ = pdServ;
 		this.groupServ = groupServ;
 		this.tsDao = tsDao;
+		this.lobbyStream = lobbyStream;
+		this.expiry = expiry;
+		this.codes = codes;
+		this.presence = presence;
 	}
 	
 	public String createLobby()
@@ -82,18 +80,16 @@ public class LobbyService
 	{
 		Objects.requireNonNull(host);
 		
-		String gameCode = generateGameCode();
-		
-		for (int i = 0; i < MAX_GAME_CODE_REROLL_COUNT; i++)
-		{
-			if (lobbies.containsKey(gameCode))
-				gameCode = generateGameCode();
-		}
+		String gameCode = codes.allocateGameCode();
 		
+		Lobby lobby = new Lobby(gameCode, host);
+		rateHost(lobby);
 		synchronized (lobbies)
 		{
-			lobbies.put(gameCode, new Lobby(gameCode, host));
+			lobbies.put(gameCode, lobby);
 		}
+		presence.enterLobby(host.getId(), gameCode, Role.HOST);
+		trackHost(lobby);
 		
 		return gameCode;
 	}
@@ -111,18 +107,16 @@ public class LobbyService
 				.orElseThrow(() -> new IllegalArgumentException("GROUP_NOT_FOUND"));
 		UUID groupId = group.getId();
 		
-		String gameCode = generateGameCode();
-		
-		for (int i = 0; i < MAX_GAME_CODE_REROLL_COUNT; i++)
-		{
-			if (lobbies.containsKey(gameCode))
-				gameCode = generateGameCode();
-		}
+		String gameCode = codes.allocateGameCode();
 		
+		Lobby lobby = new Lobby(gameCode, host, groupId, groupCode);
+		rateHost(lobby);
 		synchronized (lobbies)
 		{
-			lobbies.put(gameCode, new Lobby(gameCode, host, groupId, groupCode));
+			lobbies.put(gameCode, lobby);
 		}
+		presence.enterLobby(host.getId(), gameCode, Role.HOST);
+		trackHost(lobby);
 		
 		groupServ.addGroupLobby(groupCode, gameCode);
 		
@@ -137,12 +131,20 @@ public class LobbyService
 	{
 		if (!isHost(gameCode, requestSource))
 			return false;
+		Lobby lobby;
 		synchronized (lobbies)
 		{
 			lobbyCodesAllowingRandomPlayers.remove(gameCode);
-			lobbies.remove(gameCode);
-			return true;
+			lobby = lobbies.remove(gameCode);
+		}
+		if (lobby != null)
+		{
+			updateRandomLobby(lobby);
+			leaveLobby(lobby);
+			codes.release(gameCode);
 		}
+		lobbyStream.lobbyClosed(gameCode);
+		return true;
 	}
 	public boolean lobbyExists(String gameCode)
 	{
@@ -155,6 +157,18 @@ public class LobbyService
 				.filter(lobby -> lobby.containsPlayerOrHost(account))
 				.map(lobby -> lobby.hasAnthingChanged(account.getId()));
 	}
+	//Lobby codes are never reused by a running instance, so the code and version identify the status
+	public Optional<String> getStatusTag(String gameCode)
+	{
+		return Optional.ofNullable(lobbies.get(gameCode))
+				.map(lobby -> gameCode + "." + lobby.getVersion());
+	}
+	public Optional<SseEmitter> subscribeToLobby(String gameCode, Account account, Supplier<?> snapshot)
+	{
+		return Optional.ofNullable(lobbies.get(gameCode))
+				.filter(lobby -> lobby.containsPlayerOrHost(account))
+				.map(lobby -> lobbyStream.subscribe(lobby, snapshot));
+	}
 	
 	public boolean addPlayer(String gameCode)
 	{
@@ -164,8 +178,16 @@ public class LobbyService
 	public boolean addPlayer(String gameCode, Account player)
 	{
 		Lobby lobby = lobbies.get(gameCode);
-		if (lobby != null)
-			return lobby.addPlayer(player);
+		if ((lobby == null) || lobby.containsPlayerOrHost(player) || !lobby.canAcceptPlayer())
+			return false;
+		//The rating is snapshotted once here, so nothing reading the lobby has to look it up again
+		if (lobby.addPlayer(player, getRating(player.getId())))
+		{
+			presence.enterLobby(player.getId(), gameCode, Role.PLAYER);
+			trackPlayer(lobby, player.getId());
+			updateRandomLobby(lobby);
+			return true;
+		}
 		return false;
 	}
 	public boolean removePlayer(String gameCode)
@@ -176,18 +198,26 @@ public class LobbyService
 	public boolean removePlayer(String gameCode, Account player)
 	{
 		Lobby lobby = lobbies.get(gameCode);
-		if (lobby != null)
-			return lobby.removePlayer(player);
+		if ((lobby != null) && lobby.removePlayer(player))
+		{
+			presence.leaveLobby(player.getId(), gameCode);
+			updateRandomLobby(lobby);
+			return true;
+		}
 		return false;
 	}
 	public boolean removePlayer(String gameCode, Account requestSource, Account player)
 	{
 		Lobby lobby = lobbies.get(gameCode);
-		if (lobby != null)
-			return lobby.removePlayer(player, requestSource);
+		if ((lobby != null) && lobby.removePlayer(player, requestSource))
+		{
+			presence.leaveLobby(player.getId(), gameCode);
+			updateRandomLobby(lobby);
+			return true;
+		}
 		return false;
 	}
-	public List<Account> getPlayers(String gameCode)
+	public List<PlayerRef> getPlayers(String gameCode)
 	{
 		return Optional.ofNullable(lobbies.get(gameCode))
 			.map(lobby -> lobby.getPlayers())
@@ -213,9 +243,9 @@ public class LobbyService
 	{
 		return lobbies.get(gameCode).getTasksetNames();
 	}
-	public List<TaskSet> getTasksets(String gameCode)
+	public List<UUID> getTasksetIDs(String gameCode)
 	{
-		return lobbies.get(gameCode).getTasksets();
+		return lobbies.get(gameCode).getTasksetIDs();
 	}
 	@Transactional
 	public void setTasksets(String gameCode, List<String> tasksets)
@@ -225,22 +255,26 @@ public class LobbyService
 	@Transactional
 	public void setTasksets(String gameCode, List<String> tasksets, Account acc)
 	{
-		List<TaskSet> tsList = tsDao.findAllByNameInAndLecturerID(tasksets, acc.getId())
-				.stream()
-				.map(ts -> Initializable.init(ts))
-				.collect(Collectors.toList());
+		List<TaskSet> tsList = tsDao.findAllByNameInAndLecturerID(tasksets, acc.getId());
 		lobbies.get(gameCode).setTasksets(tsList);
+		lobbyStream.markChanged(gameCode);
 	}
 	public boolean allowRandomPlayers(String gameCode, boolean allow, Account requestSource)
 	{
 		if (!isHost(gameCode, requestSource))
 			return false;
-		if (allow)
-			return lobbyCodesAllowingRandomPlayers.add(gameCode);
-		else
-			return lobbyCodesAllowingRandomPlayers.remove(gameCode);
+		boolean ret = allow?
+				lobbyCodesAllowingRandomPlayers.add(gameCode):
+				lobbyCodesAllowingRandomPlayers.remove(gameCode);
+		Optional.ofNullable(lobbies.get(gameCode))
+			.ifPresent(lobby ->
+			{
+				lobby.optionsChanged();
+				updateRandomLobby(lobby);
+			});
+		return ret;
 	}
-	public Account getHost(String gameCode)
+	public PlayerRef getHost(String gameCode)
 	{
 		Lobby lobby = lobbies.get(gameCode);
 		if (lobby == null)
@@ -262,50 +296,33 @@ public class LobbyService
 	{
 		return lobbyCodesAllowingRandomPlayers.contains(gameCode);
 	}
+	public Optional<RatingProfile> getRatingProfile(String gameCode)
+	{
+		return Optional.ofNullable(lobbies.get(gameCode))
+				.map(lobby -> lobby.getRatingProfile());
+	}
 	public double getAverageRating(String gameCode)
 	{
-		return getPlayers(gameCode)
-				.stream()
-				.map(p -> pdServ.getPlayerData(p))
-				.mapToInt(pd -> pd.map(playerData -> playerData.getRating())
-						.orElse(PlayerDataService.DEFAULT_RATING))
-				.average()
-				.orElse(PlayerDataService.DEFAULT_RATING);
+		return getRatingProfile(gameCode)
+				.orElse(RatingProfile.EMPTY)
+				.getAverage(PlayerDataService.DEFAULT_RATING);
 	}
 	public String getRandomLobby(Account player)
 	{
 		Objects.requireNonNull(player);
 		
-		return getRandomLobby(pdServ.getPlayerData(player)
-				.map(pd -> pd.getRating())
-				.orElse(PlayerDataService.DEFAULT_RATING));
+		return getRandomLobby(getRating(player.getId()));
 	}
+	//The open lobby whose players are rated closest to the target, null if none has room left
 	public String getRandomLobby(int targetRating)
 	{
-		if (lobbyCodesAllowingRandomPlayers.isEmpty())
-			return null;
-		List<String> lobbyCodesToChooseFrom = new ArrayList<>(lobbyCodesAllowingRandomPlayers);
-		int size = lobbyCodesToChooseFrom.size();
-		Random rand = new Random();
-		
-		for (int[] plan: RANDOM_LOBBY_SEARCH_PLAN)
-		{
-			int delta = plan[0];
-			int limit = plan[1];
-			for (int i = 0; i < limit; i++)
-			{
-				String lobbyCode = lobbyCodesToChooseFrom.get(rand.nextInt(size));
-				double avgRating = getAverageRating(lobbyCode);
-				if (avgRating <= delta)
-					return lobbyCode;
-			}
-		}
-		
-		return lobbyCodesToChooseFrom.get(rand.nextInt(size));
+		return randomLobbies.findClosest(targetRating)
+				.map(lobby -> lobby.getGameCode())
+				.orElse(null);
 	}
 	public int getGameCodeLength()
 	{
-		return GAME_CODE_LENGTH;
+		return CodeAllocator.GAME_CODE_LENGTH;
 	}
 	public boolean isLobbyFull(String gameCode)
 	{
@@ -315,6 +332,13 @@ public class LobbyService
 	{
 		return lobbies.size();
 	}
+	public List<String> getLobbyCodes()
+	{
+		synchronized (lobbies)
+		{
+			return new ArrayList<>(lobbies.keySet());
+		}
+	}
 	public int getRandomAccessibleLobbyCount()
 	{
 		return lobbyCodesAllowingRandomPlayers.size();
@@ -325,25 +349,17 @@ public class LobbyService
 		return accServ.getAuthenticatedAccount()
 				.orElseThrow(() -> new IllegalArgumentException("Not authenticated."));
 	}
-	private static boolean isValidGameCodeChar(int c)
-	{
-		return ((c >= '0') && (c <= '9'))
-				|| ((c >= 'a') && (c <= 'z'))
-				|| ((c >= 'A') && (c <= 'Z'));
-	}
 
 	public Optional<String> getLobbyForAccount(Account acc)
 	{
-		return lobbies.entrySet()
-				.stream()
-				.filter(e -> e.getValue().containsPlayerOrHost(acc))
-				.map(e ->
+		return presence.findLobby(acc.getId())
+				.map(p -> lobbies.get(p.getGameCode()))
+				.filter(lobby -> lobby.containsPlayerOrHost(acc))
+				.map(lobby ->
 				{
-					e.getValue().noteInteraction(acc);
-					return e;
-				})
-				.map(e -> e.getKey())
-				.findAny();
+					lobby.noteInteraction(acc);
+					return lobby.getGameCode();
+				});
 	}
 
 	public boolean updateOptions(String gameCode, LobbyOptionsDTO options)
@@ -361,6 +377,9 @@ public class LobbyService
 				lobbyCodesAllowingRandomPlayers.add(gameCode);
 			else
 				lobbyCodesAllowingRandomPlayers.remove(gameCode);
+			lobby.optionsChanged();
+			updateRandomLobby(lobby);
+			lobbyStream.markChanged(gameCode);
 			return true;
 		}
 		return false;
@@ -372,32 +391,95 @@ public class LobbyService
 		if (lobby == null)
 			return;
 		lobby.markInactive(acc);
+		if (lobby.isHost(acc))
+			expiry.schedule(System.nanoTime(), now -> checkHost(lobby));
+		else
+			expiry.schedule(System.nanoTime(), now -> checkPlayer(lobby, acc.getId()));
+	}
+	
+	private void trackHost(Lobby lobby)
+	{
+		lobby.getInactivityDeadline(lobby.getHost().getId(), MAX_TIME_SINCE_LAST_INTERACTION_MILLI)
+			.ifPresent(deadline -> expiry.schedule(deadline, now -> checkHost(lobby)));
+	}
+	private void trackPlayer(Lobby lobby, UUID playerID)
+	{
+		lobby.getInactivityDeadline(playerID, MAX_TIME_SINCE_LAST_INTERACTION_MILLI)
+			.ifPresent(deadline -> expiry.schedule(deadline, now -> checkPlayer(lobby, playerID)));
 	}
-	@Scheduled(fixedDelay = 30000)
-	public void removeInactive()
+	private long checkHost(Lobby lobby)
 	{
+		if (lobbies.get(lobby.getGameCode()) != lobby)
+			return ExpiryScheduler.NO_DEADLINE;
+		if (lobby.isInactive(MAX_TIME_SINCE_LAST_INTERACTION_MILLI))
+		{
+			closeInactiveLobby(lobby);
+			return ExpiryScheduler.NO_DEADLINE;
+		}
+		return lobby.getInactivityDeadline(lobby.getHost().getId(), MAX_TIME_SINCE_LAST_INTERACTION_MILLI)
+				.orElse(ExpiryScheduler.NO_DEADLINE);
+	}
+	private long checkPlayer(Lobby lobby, UUID playerID)
+	{
+		if (lobbies.get(lobby.getGameCode()) != lobby)
+			return ExpiryScheduler.NO_DEADLINE;
+		if (lobby.removeIfInactive(playerID, MAX_TIME_SINCE_LAST_INTERACTION_MILLI))
+		{
+			presence.leaveLobby(playerID, lobby.getGameCode());
+			updateRandomLobby(lobby);
+			return ExpiryScheduler.NO_DEADLINE;
+		}
+		if (!lobby.containsPlayer(playerID))
+			return ExpiryScheduler.NO_DEADLINE;
+		return lobby.getInactivityDeadline(playerID, MAX_TIME_SINCE_LAST_INTERACTION_MILLI)
+				.orElse(ExpiryScheduler.NO_DEADLINE);
+	}
+	private void closeInactiveLobby(Lobby lobby)
+	{
+		String gameCode = lobby.getGameCode();
 		synchronized (lobbies)
 		{
-			Iterator<Lobby> it = lobbies.values().iterator();
-			while (it.hasNext())
-			{
-				Lobby lobby = it.next();
-				if (lobby.isInactive(MAX_TIME_SINCE_LAST_INTERACTION_MILLI))
-				{
-					it.remove();
-					lobbyCodesAllowingRandomPlayers.remove(lobby.getGameCode());
-				}
-				else
-					lobby.removeInactivePlayers(MAX_TIME_SINCE_LAST_INTERACTION_MILLI);
-			}
+			if (!lobbies.remove(gameCode, lobby))
+				return;
+			lobbyCodesAllowingRandomPlayers.remove(gameCode);
 		}
+		updateRandomLobby(lobby);
+		leaveLobby(lobby);
+		codes.release(gameCode);
+		expiry.execute(() -> lobbyStream.lobbyClosed(gameCode));
 	}
-	
-	private String generateGameCode()
+	private void leaveLobby(Lobby lobby)
+	{
+		String gameCode = lobby.getGameCode();
+		presence.leaveLobby(lobby.getHost().getId(), gameCode);
+		lobby.getPlayers()
+			.forEach(player -> presence.leaveLobby(player.getId(), gameCode));
+	}
+	//Keeps the lobby indexed under its current rating while random players can join it.
+	//The lobby lock orders this against other updates of the same lobby, so a closed lobby is never re-added.
+	private void updateRandomLobby(Lobby lobby)
+	{
+		String gameCode = lobby.getGameCode();
+		synchronized (lobby)
+		{
+			if ((lobbies.get(gameCode) == lobby)
+					&& lobbyCodesAllowingRandomPlayers.contains(gameCode)
+					&& lobby.canAcceptPlayer())
+				randomLobbies.put(lobby, lobby.getRatingProfile()
+						.getAverage(PlayerDataService.DEFAULT_RATING));
+			else
+				randomLobbies.remove(lobby);
+		}
+	}
+	private void rateHost(Lobby lobby)
+	{
+		if (lobby.getHost().hasRole(Account.PLAYER_ROLE))
+			lobby.rateHost(getRating(lobby.getHost().getId()));
+	}
+	private int getRating(UUID accountID)
 	{
-		return new Random().ints(GAME_CODE_LENGTH, 0, gameCodeChars.length)
-			.mapToObj(i -> Character.toString(gameCodeChars[i]))
-	        .collect(Collectors.joining());
+		return pdServ.getRatings(List.of(accountID))
+				.getOrDefault(accountID, PlayerDataService.DEFAULT_RATING);
 	}
 	
 	private static <T, U> Map<T, U> syncMap()
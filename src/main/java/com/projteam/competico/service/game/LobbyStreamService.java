@@ -0,0 +1,148 @@
+package com.projteam.competico.service.game;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import com.projteam.competico.domain.game.Lobby;
+
+@Service
+public class LobbyStreamService
+{
+	private final Map<String, LobbyStream> streams;
+	private final Set<String> pendingLobbies;
+
+	public static final String LOBBY_EVENT = "lobby";
+	public static final String GAME_STARTED_EVENT = "gameStarted";
+	public static final String CLOSED_EVENT = "closed";
+	private static final long STREAM_TIMEOUT_MILLI = 3600000;
+	private static final long COALESCE_INTERVAL_MILLI = 250;
+
+	public LobbyStreamService()
+	{
+		streams = new ConcurrentHashMap<>();
+		pendingLobbies = ConcurrentHashMap.newKeySet();
+	}
+
+	public SseEmitter subscribe(Lobby lobby, Supplier<?> snapshot)
+	{
+		String gameCode = lobby.getGameCode();
+		SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLI);
+		LobbyStream stream = streams.computeIfAbsent(gameCode, code -> new LobbyStream(snapshot));
+		lobby.setChangeListener(() -> markChanged(gameCode));
+		emitter.onCompletion(() -> stream.emitters.remove(emitter));
+		emitter.onTimeout(() -> stream.emitters.remove(emitter));
+		emitter.onError(e -> stream.emitters.remove(emitter));
+		stream.add(emitter);
+		return emitter;
+	}
+	public void markChanged(String gameCode)
+	{
+		if (streams.containsKey(gameCode))
+			pendingLobbies.add(gameCode);
+	}
+	public void gameStarting(String gameCode)
+	{
+		LobbyStream stream = streams.get(gameCode);
+		if (stream != null)
+			stream.gameStarting = true;
+	}
+	public void gameStartAborted(String gameCode)
+	{
+		LobbyStream stream = streams.get(gameCode);
+		if (stream != null)
+			stream.gameStarting = false;
+	}
+	public void gameStarted(String gameCode, UUID gameID)
+	{
+		pendingLobbies.remove(gameCode);
+		LobbyStream stream = streams.remove(gameCode);
+		if (stream != null)
+			stream.close(GAME_STARTED_EVENT, Map.of("gameID", gameID));
+	}
+	public void lobbyClosed(String gameCode)
+	{
+		LobbyStream stream = streams.get(gameCode);
+		//A lobby turning into a game is closed by gameStarted instead
+		if ((stream == null) || stream.gameStarting)
+			return;
+		pendingLobbies.remove(gameCode);
+		if (streams.remove(gameCode, stream))
+			stream.close(CLOSED_EVENT, Map.of("gameCode", gameCode));
+	}
+	public int getSubscriberCount(String gameCode)
+	{
+		LobbyStream stream = streams.get(gameCode);
+		return (stream == null)?0:stream.emitters.size();
+	}
+
+	@Scheduled(fixedDelay = COALESCE_INTERVAL_MILLI)
+	public void pushPendingChanges()
+	{
+		for (String gameCode: pendingLobbies)
+		{
+			pendingLobbies.remove(gameCode);
+			LobbyStream stream = streams.get(gameCode);
+			if (stream != null)
+				stream.push();
+		}
+	}
+
+	private static class LobbyStream
+	{
+		private final Supplier<?> snapshot;
+		private final List<SseEmitter> emitters;
+		private volatile boolean gameStarting;
+
+		private LobbyStream(Supplier<?> snapshot)
+		{
+			this.snapshot = snapshot;
+			emitters = new CopyOnWriteArrayList<>();
+			gameStarting = false;
+		}
+
+		private synchronized void add(SseEmitter emitter)
+		{
+			if (send(emitter, LOBBY_EVENT, snapshot.get()))
+				emitters.add(emitter);
+		}
+		private synchronized void push()
+		{
+			Object data = snapshot.get();
+			emitters.forEach(emitter -> send(emitter, LOBBY_EVENT, data));
+		}
+		private synchronized void close(String eventName, Object data)
+		{
+			emitters.forEach(emitter ->
+			{
+				if (send(emitter, eventName, data))
+					emitter.complete();
+			});
+			emitters.clear();
+		}
+		private boolean send(SseEmitter emitter, String eventName, Object data)
+		{
+			try
+			{
+				emitter.send(SseEmitter.event()
+						.name(eventName)
+						.data(data, MediaType.APPLICATION_JSON));
+				return true;
+			}
+			catch (IOException | IllegalStateException e)
+			{
+				emitters.remove(emitter);
+				emitter.completeWithError(e);
+				return false;
+			}
+		}
+	}
+}
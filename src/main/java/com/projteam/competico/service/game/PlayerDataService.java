@@ -3,9 +3,14 @@ package com.projteam.competico.service.game;
 import static com.projteam.competico.domain.Account.PLAYER_ROLE;
 import static com.projteam.competico.utils.Initializable.init;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import javax.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -18,6 +23,7 @@ import com.projteam.competico.domain.Account;
 import com.projteam.competico.domain.game.PlayerData;
 import com.projteam.competico.dto.game.LeaderboardEntryDTO;
 import com.projteam.competico.service.AccountService;
+import com.projteam.competico.service.game.rating.RatingAlgorithm;
 import com.projteam.competico.utils.OffsetBasedPageRequest;
 
 @Service
@@ -25,16 +31,19 @@ public class PlayerDataService
 {
 	private PlayerDataDAO playerDataDao;
 	private AccountService accountService;
+	private RatingAlgorithm ratingAlgorithm;
 	
 	public static final int DEFAULT_RATING = 1000;
 	public static final int LEADERBOARD_SNIPPET_SIZE = 5;
 	
 	@Autowired
 	public PlayerDataService(PlayerDataDAO playerDataDao,
-			AccountService accountService)
+			AccountService accountService,
+			RatingAlgorithm ratingAlgorithm)
 	{
 		this.playerDataDao = playerDataDao;
 		this.accountService = accountService;
+		this.ratingAlgorithm = ratingAlgorithm;
 	}
 	
 	@Transactional
@@ -56,6 +65,17 @@ public class PlayerDataService
 		return Optional.of(pd);
 	}
 	@Transactional
+	public Map<UUID, Integer> getRatings(Collection<UUID> accountIDs)
+	{
+		if (accountIDs.isEmpty())
+			return Map.of();
+		
+		Map<UUID, Integer> ret = new HashMap<>();
+		playerDataDao.findAllByAccountIDs(accountIDs)
+			.forEach(pd -> ret.put(pd.getAccount().getId(), pd.getRating()));
+		return ret;
+	}
+	@Transactional
 	public PlayerData savePlayerData(PlayerData pd)
 	{
 		if (pd == null)
@@ -67,6 +87,44 @@ public class PlayerDataService
 		return playerDataDao.save(pd);
 	}
 	
+	@Transactional
+	public void updateRatings(Map<UUID, Long> totalScores)
+	{
+		if (totalScores.isEmpty())
+			return;
+		
+		Map<UUID, PlayerData> playerDataMap = new HashMap<>();
+		playerDataDao.findAllByAccountIDs(totalScores.keySet())
+			.forEach(pd -> playerDataMap.put(pd.getAccount().getId(), pd));
+		
+		//First game of a player, create the missing rows along with the rating update
+		Set<UUID> missingIDs = totalScores.keySet()
+				.stream()
+				.filter(id -> !playerDataMap.containsKey(id))
+				.collect(Collectors.toSet());
+		if (!missingIDs.isEmpty())
+			accountService.findAllByID(missingIDs)
+				.stream()
+				.filter(acc -> acc.hasRole(PLAYER_ROLE))
+				.forEach(acc -> playerDataMap.put(acc.getId(),
+						new PlayerData(UUID.randomUUID(), acc, DEFAULT_RATING)));
+		
+		Map<UUID, Integer> ratings = new HashMap<>();
+		playerDataMap.forEach((id, pd) -> ratings.put(id, pd.getRating()));
+		Map<UUID, Integer> newRatings = ratingAlgorithm.computeNewRatings(ratings, totalScores);
+		
+		List<PlayerData> changed = new ArrayList<>();
+		playerDataMap.forEach((id, pd) ->
+		{
+			Integer newRating = newRatings.get(id);
+			if (newRating == null)
+				return;
+			pd.setRating(newRating);
+			changed.add(pd);
+		});
+		playerDataDao.saveAll(changed);
+	}
+	
 	@Transactional
 	public List<LeaderboardEntryDTO> getTopLeaderboard()
 	{
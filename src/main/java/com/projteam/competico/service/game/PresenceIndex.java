@@ -0,0 +1,92 @@
+package com.projteam.competico.service.game;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+//Which lobby and which game every account is currently in, kept up to date by joins, leaves,
+//game starts and ends, so finding an account's lobby or game does not scan all of them.
+//Entries are only hints, callers still check the lobby or game they point to.
+@Component
+public class PresenceIndex
+{
+	public enum Role
+	{
+		HOST,
+		PLAYER,
+		SPECTATOR
+	}
+
+	private final Map<UUID, Presence> lobbyPresence;
+	private final Map<UUID, Presence> gamePresence;
+
+	public PresenceIndex()
+	{
+		lobbyPresence = new ConcurrentHashMap<>();
+		gamePresence = new ConcurrentHashMap<>();
+	}
+
+	public void enterLobby(UUID accountID, String gameCode, Role role)
+	{
+		lobbyPresence.put(accountID, new Presence(gameCode, role));
+	}
+	public void leaveLobby(UUID accountID, String gameCode)
+	{
+		leave(lobbyPresence, accountID, gameCode);
+	}
+	public Optional<Presence> findLobby(UUID accountID)
+	{
+		return Optional.ofNullable(lobbyPresence.get(accountID));
+	}
+
+	public void enterGame(UUID accountID, String gameCode, Role role)
+	{
+		gamePresence.put(accountID, new Presence(gameCode, role));
+	}
+	public void leaveGame(UUID accountID, String gameCode)
+	{
+		leave(gamePresence, accountID, gameCode);
+	}
+	public Optional<Presence> findGame(UUID accountID)
+	{
+		return Optional.ofNullable(gamePresence.get(accountID));
+	}
+
+	public int getLobbyPresenceCount()
+	{
+		return lobbyPresence.size();
+	}
+	public int getGamePresenceCount()
+	{
+		return gamePresence.size();
+	}
+
+	//Leaving an old lobby or game must not forget a newer one the account has entered since
+	private static void leave(Map<UUID, Presence> presence, UUID accountID, String gameCode)
+	{
+		presence.computeIfPresent(accountID, (id, p) -> p.gameCode.equals(gameCode)?null:p);
+	}
+
+	public static final class Presence
+	{
+		private final String gameCode;
+		private final Role role;
+
+		private Presence(String gameCode, Role role)
+		{
+			this.gameCode = gameCode;
+			this.role = role;
+		}
+
+		public String getGameCode()
+		{
+			return gameCode;
+		}
+		public Role getRole()
+		{
+			return role;
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package com.projteam.competico.service.game;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import com.projteam.competico.domain.game.Game;
+import com.projteam.competico.dto.game.GameResultTotalDuringGameDTO;
+
+@Service
+public class ScoreboardStreamService
+{
+	private final Map<UUID, GameStream> streams;
+	private final Set<UUID> pendingGames;
+
+	public static final String SCORES_EVENT = "scores";
+	public static final String DELTA_EVENT = "delta";
+	public static final String FINISHED_EVENT = "finished";
+	private static final long STREAM_TIMEOUT_MILLI = 3600000;
+	private static final long COALESCE_INTERVAL_MILLI = 500;
+
+	public ScoreboardStreamService()
+	{
+		streams = new ConcurrentHashMap<>();
+		pendingGames = ConcurrentHashMap.newKeySet();
+	}
+
+	public SseEmitter subscribe(Game game)
+	{
+		SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLI);
+		GameStream stream = streams.computeIfAbsent(game.getID(), id -> new GameStream(game));
+		emitter.onCompletion(() -> stream.emitters.remove(emitter));
+		emitter.onTimeout(() -> stream.emitters.remove(emitter));
+		emitter.onError(e -> stream.emitters.remove(emitter));
+		stream.add(emitter);
+		return emitter;
+	}
+	public void markChanged(Game game)
+	{
+		if (streams.containsKey(game.getID()))
+			pendingGames.add(game.getID());
+	}
+	public void gameEnded(Game game)
+	{
+		UUID gameID = game.getID();
+		pendingGames.remove(gameID);
+		GameStream stream = streams.remove(gameID);
+		if (stream != null)
+			stream.close();
+	}
+	public int getSubscriberCount(UUID gameID)
+	{
+		GameStream stream = streams.get(gameID);
+		return (stream == null)?0:stream.emitters.size();
+	}
+
+	@Scheduled(fixedDelay = COALESCE_INTERVAL_MILLI)
+	public void pushPendingChanges()
+	{
+		for (UUID gameID: pendingGames)
+		{
+			pendingGames.remove(gameID);
+			GameStream stream = streams.get(gameID);
+			if (stream != null)
+				stream.push();
+		}
+	}
+
+	private static class GameStream
+	{
+		private final Game game;
+		private final List<SseEmitter> emitters;
+		private Map<UUID, GameResultTotalDuringGameDTO> lastPushed;
+
+		private GameStream(Game game)
+		{
+			this.game = game;
+			emitters = new CopyOnWriteArrayList<>();
+			lastPushed = game.getCurrentResultsWithIDs();
+		}
+
+		private synchronized void add(SseEmitter emitter)
+		{
+			//The snapshot is never older than lastPushed, so every later delta applies cleanly on top of it
+			if (send(emitter, SCORES_EVENT, game.getCurrentResults()))
+				emitters.add(emitter);
+		}
+		private synchronized void push()
+		{
+			Map<UUID, GameResultTotalDuringGameDTO> current = game.getCurrentResultsWithIDs();
+			List<GameResultTotalDuringGameDTO> changed = current.entrySet()
+					.stream()
+					.filter(e -> lastPushed.get(e.getKey()) != e.getValue())
+					.map(e -> e.getValue())
+					.collect(Collectors.toList());
+			lastPushed = current;
+			if (changed.isEmpty())
+				return;
+
+			Map<String, Object> delta = Map.of(
+					"changed", changed,
+					"ranking", game.getCurrentResults()
+						.stream()
+						.map(r -> r.getUsername())
+						.collect(Collectors.toList()));
+			emitters.forEach(emitter -> send(emitter, DELTA_EVENT, delta));
+		}
+		private synchronized void close()
+		{
+			push();
+			emitters.forEach(emitter ->
+			{
+				if (send(emitter, FINISHED_EVENT, game.getID()))
+					emitter.complete();
+			});
+			emitters.clear();
+		}
+		private boolean send(SseEmitter emitter, String eventName, Object data)
+		{
+			try
+			{
+				emitter.send(SseEmitter.event()
+						.name(eventName)
+						.data(data, MediaType.APPLICATION_JSON));
+				return true;
+			}
+			catch (IOException | IllegalStateException e)
+			{
+				emitters.remove(emitter);
+				emitter.completeWithError(e);
+				return false;
+			}
+		}
+	}
+}
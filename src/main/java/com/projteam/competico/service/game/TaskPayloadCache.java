@@ -0,0 +1,120 @@
+package com.projteam.competico.service.game;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.projteam.competico.domain.game.tasks.Task;
+import com.projteam.competico.service.game.tasks.TaskCache;
+
+//Show payloads of tasks serialized once, so serving the current task only writes the per-player numbers
+@Component
+public class TaskPayloadCache
+{
+	//Show DTOs shuffle their content, each player gets one of these fixed shuffles
+	public static final int PAYLOAD_VARIANTS = 4;
+
+	private static final String TASK_NUMBER_FIELD = "currentTaskNumber";
+	private static final String TASK_COUNT_FIELD = "taskCount";
+
+	private final ObjectMapper mapper;
+	private final int maxSize;
+	private final Map<UUID, Payloads> payloads;
+
+	@Autowired
+	public TaskPayloadCache(ObjectMapper mapper,
+			@Value("${app.tasks.payload-cache.size:4096}") int maxSize)
+	{
+		this.mapper = mapper;
+		this.maxSize = maxSize;
+		payloads = new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+	public byte[] getTaskInfo(Task task, int variant, int currentTaskNumber, int taskCount)
+	{
+		byte[] body = getBody(task, Math.floorMod(variant, PAYLOAD_VARIANTS));
+		byte[] header = ("{\"" + TASK_NUMBER_FIELD + "\":" + currentTaskNumber
+				+ ",\"" + TASK_COUNT_FIELD + "\":" + taskCount + ",")
+				.getBytes(StandardCharsets.UTF_8);
+
+		byte[] ret = Arrays.copyOf(header, header.length + body.length);
+		System.arraycopy(body, 0, ret, header.length, body.length);
+		return ret;
+	}
+	public synchronized int size()
+	{
+		return payloads.size();
+	}
+
+	private byte[] getBody(Task task, int variant)
+	{
+		//Instances of the same revision share their payloads, whichever game loaded them
+		long revision = task.getRevision();
+		if (revision == TaskCache.NO_REVISION)
+			return serializeBody(task);
+		synchronized (this)
+		{
+			Payloads cached = payloads.get(task.getId());
+			if ((cached != null) && (cached.revision == revision) && (cached.bodies[variant] != null))
+				return cached.bodies[variant];
+		}
+		byte[] body = serializeBody(task);
+		synchronized (this)
+		{
+			Payloads cached = payloads.get(task.getId());
+			//Games started before an edit keep their older revision, it is not cached over the newer one
+			if ((cached != null) && (cached.revision > revision))
+				return body;
+			if ((cached == null) || (cached.revision != revision))
+			{
+				cached = new Payloads(revision);
+				payloads.put(task.getId(), cached);
+
+				var it = payloads.values().iterator();
+				while ((payloads.size() > maxSize) && it.hasNext())
+				{
+					it.next();
+					it.remove();
+				}
+			}
+			if (cached.bodies[variant] == null)
+				cached.bodies[variant] = body;
+			return cached.bodies[variant];
+		}
+	}
+	//The task info without its per-player fields and without the opening brace
+	private byte[] serializeBody(Task task)
+	{
+		ObjectNode taskInfo = mapper.valueToTree(task.prepareTaskInfo(0, 0));
+		taskInfo.remove(TASK_NUMBER_FIELD);
+		taskInfo.remove(TASK_COUNT_FIELD);
+		try
+		{
+			byte[] json = mapper.writeValueAsBytes(taskInfo);
+			return Arrays.copyOfRange(json, 1, json.length);
+		}
+		catch (JsonProcessingException e)
+		{
+			throw new IllegalStateException("Cannot serialize task " + task.getId(), e);
+		}
+	}
+
+	private static class Payloads
+	{
+		private final long revision;
+		private final byte[][] bodies;
+
+		private Payloads(long revision)
+		{
+			this.revision = revision;
+			bodies = new byte[PAYLOAD_VARIANTS][];
+		}
+	}
+}
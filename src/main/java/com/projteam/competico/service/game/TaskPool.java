@@ -0,0 +1,173 @@
+package com.projteam.competico.service.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import com.projteam.competico.domain.game.tasks.Task;
+
+//Immutable once built, so task lists for every player can be drawn from it concurrently
+public class TaskPool
+{
+	private final Task[][] typeTasks;
+	private final double[][] cumulativeWeights;
+	private final double[] typeWeights;
+
+	private static final double DUPLICATE_ACCEPTANCE = 0.25;
+	private static final int DUPLICATE_RETRY_LIMIT = 10;
+
+	public TaskPool(List<List<Task>> tasksets, double targetDifficulty)
+	{
+		//Every taskset is equally likely to be drawn from, then every task within it
+		Map<UUID, Task> tasks = new LinkedHashMap<>();
+		Map<UUID, Double> selectionWeights = new LinkedHashMap<>();
+		long tasksetCount = tasksets.stream()
+				.filter(ts -> !ts.isEmpty())
+				.count();
+		for (List<Task> taskset: tasksets)
+		{
+			for (Task task: taskset)
+			{
+				tasks.putIfAbsent(task.getId(), task);
+				selectionWeights.merge(task.getId(),
+						1.0 / (tasksetCount * taskset.size()),
+						Double::sum);
+			}
+		}
+
+		Map<UUID, Double> weights = new LinkedHashMap<>();
+		tasks.forEach((id, task) -> weights.put(id, selectionWeights.get(id)
+				* difficultyAcceptance(task.getDifficulty(), targetDifficulty)));
+		if (weights.values().stream().allMatch(w -> w <= 0))
+			weights.putAll(selectionWeights);
+
+		Map<String, List<Task>> byType = new LinkedHashMap<>();
+		tasks.values().forEach(task -> byType
+				.computeIfAbsent(task.getClass().getName(), k -> new ArrayList<>())
+				.add(task));
+
+		int typeCount = byType.size();
+		typeTasks = new Task[typeCount][];
+		cumulativeWeights = new double[typeCount][];
+		typeWeights = new double[typeCount];
+		int type = 0;
+		for (List<Task> typeList: byType.values())
+		{
+			typeTasks[type] = typeList.toArray(new Task[0]);
+			cumulativeWeights[type] = new double[typeList.size()];
+			double sum = 0;
+			for (int i = 0; i < typeList.size(); i++)
+			{
+				sum += weights.get(typeList.get(i).getId());
+				cumulativeWeights[type][i] = sum;
+			}
+			typeWeights[type] = sum;
+			type++;
+		}
+	}
+
+	public boolean isEmpty()
+	{
+		return typeTasks.length == 0;
+	}
+
+	public List<Task> drawTaskList(int taskCount, Random rand)
+	{
+		List<Task> ret = new ArrayList<>();
+		int[] typeCounts = new int[typeTasks.length];
+		Set<UUID> taskIDs = new HashSet<>();
+		int lastType = -1;
+
+		for (int i = 0; i < taskCount; i++)
+		{
+			int type = drawType(typeCounts, i, lastType, rand);
+			Task task = drawTask(type, taskIDs, rand);
+
+			ret.add(task);
+			typeCounts[type]++;
+			taskIDs.add(task.getId());
+			lastType = type;
+		}
+		return ret;
+	}
+
+	private int drawType(int[] typeCounts, int drawnCount, int lastType, Random rand)
+	{
+		//Less frequent types are preferred, and the same type is never drawn twice in a row if avoidable
+		double total = Math.max(drawnCount, 1);
+		double[] weights = new double[typeTasks.length];
+		for (int type = 0; type < typeTasks.length; type++)
+		{
+			if (type == lastType)
+				continue;
+			int count = typeCounts[type];
+			int position = 0;
+			for (int other: typeCounts)
+				if (other < count)
+					position += other;
+			weights[type] = typeWeights[type] * 0.75 * (1 - (position / total));
+		}
+		if (Arrays.stream(weights).allMatch(w -> w <= 0))
+		{
+			if (lastType >= 0)
+				weights[lastType] = typeWeights[lastType];
+			if (Arrays.stream(weights).allMatch(w -> w <= 0))
+				Arrays.fill(weights, 1);
+		}
+		return drawIndex(cumulate(weights), rand);
+	}
+	private Task drawTask(int type, Set<UUID> taskIDs, Random rand)
+	{
+		Task[] candidates = typeTasks[type];
+		double[] cumulative = cumulativeWeights[type];
+		Task task = null;
+		for (int i = 0; i < DUPLICATE_RETRY_LIMIT; i++)
+		{
+			task = candidates[(typeWeights[type] > 0)?
+					drawIndex(cumulative, rand):
+					rand.nextInt(candidates.length)];
+			if (!taskIDs.contains(task.getId())
+					|| (rand.nextDouble() < DUPLICATE_ACCEPTANCE))
+				break;
+		}
+		return task;
+	}
+
+	private static double difficultyAcceptance(double difficulty, double targetDifficulty)
+	{
+		double diffDelta = Math.abs(difficulty - targetDifficulty);
+		return Math.max(0, Math.min(1, GameService.sigmoid(diffDelta / 100, -1, 0.75)));
+	}
+	private static double[] cumulate(double[] weights)
+	{
+		double[] ret = new double[weights.length];
+		double sum = 0;
+		for (int i = 0; i < weights.length; i++)
+		{
+			sum += weights[i];
+			ret[i] = sum;
+		}
+		return ret;
+	}
+	private static int drawIndex(double[] cumulative, Random rand)
+	{
+		//Smallest index whose cumulative weight exceeds the target, zero-weight entries are never hit
+		double target = rand.nextDouble() * cumulative[cumulative.length - 1];
+		int low = 0;
+		int high = cumulative.length - 1;
+		while (low < high)
+		{
+			int mid = (low + high) >>> 1;
+			if (cumulative[mid] > target)
+				high = mid;
+			else
+				low = mid + 1;
+		}
+		return low;
+	}
+}
@@ -4,19 +4,23 @@ import java.io.IOException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import javax.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -46,6 +50,7 @@ import com.projteam.competico.dto.game.tasks.create.TaskDTO;
 import com.projteam.competico.dto.game.tasks.create.WordConnectDTO;
 import com.projteam.competico.dto.game.tasks.create.WordFillDTO;
 import com.projteam.competico.service.AccountService;
+import com.projteam.competico.service.game.tasks.TaskDirectory;
 import com.projteam.competico.service.game.tasks.TaskService;
 import com.projteam.competico.service.game.tasks.mappers.GenericTaskMapper;
 import com.projteam.competico.utils.Initializable;
@@ -66,6 +71,10 @@ public class TaskSetDataService
 	private TaskSetDAO tsDao;
 	private TaskInfoDAO tiDao;
 	
+	private GlobalTaskCatalog catalog;
+	private TaskDirectory taskDirectory;
+	private final AtomicLong revision;
+	
 	private final ObjectMapper mapperByField;
 	
 	private static final String DEFAULT_TASKSET_NAME = "default";
@@ -80,7 +89,9 @@ public class TaskSetDataService
 			GenericTaskMapper taskMapper,
 			GlobalTaskDAO gtDao,
 			TaskSetDAO tsDao,
-			TaskInfoDAO tiDao)
+			TaskInfoDAO tiDao,
+			GlobalTaskCatalog catalog,
+			TaskDirectory taskDirectory)
 	{
 		taskServices = new ArrayList<>(taskServiceList);
 		accountService = accServ;
@@ -88,6 +99,9 @@ public class TaskSetDataService
 		this.gtDao = gtDao;
 		this.tsDao = tsDao;
 		this.tiDao = tiDao; 
+		this.catalog = catalog;
+		this.taskDirectory = taskDirectory;
+		revision = new AtomicLong();
 		
 		initTaskNameMaps();
 		
@@ -123,6 +137,7 @@ public class TaskSetDataService
 					else
 						ts.genericSave(task);
 				}
+				taskDirectory.register(task.getId(), ts);
 				return;
 			}
 		}
@@ -170,6 +185,7 @@ public class TaskSetDataService
 	{
 		if (!acc.hasRole(Account.LECTURER_ROLE))
 			throw new IllegalArgumentException("NOT_LECTURER");
+		tasksetsChanged();
 		
 		List<UUID> ret = new ArrayList<>();
 		
@@ -325,19 +341,18 @@ public class TaskSetDataService
 			throw new IllegalArgumentException("NOT_LECTURER");
 		String name = validateTasksetName(tasksetName);
 		
-		return taskListToDTO(init(tsDao.findByNameAndLecturerID(
+		List<UUID> taskIds = init(tsDao.findByNameAndLecturerID(
 					name, account.getId()))
 				.map(ts -> ts.getTaskInfos()
 						.stream()
 						.map(ti -> ti.getTaskID())
 						.collect(Collectors.toList()))
-				.orElse(List.of())
+				.orElse(List.of());
+		Map<UUID, Task> tasks = findTasksById(taskIds);
+		return taskListToDTO(taskIds
 				.stream()
-				.flatMap(id -> 
-				{
-					Task t = Initializable.init(findTaskById(id));
-					return (t == null)?Stream.empty():Stream.of(t);
-				})
+				.map(id -> tasks.get(id))
+				.filter(t -> t != null)
 				.collect(Collectors.toList()));
 	}
 	@Transactional
@@ -350,16 +365,14 @@ public class TaskSetDataService
 	{
 		if (!account.hasRole(Account.LECTURER_ROLE))
 			throw new IllegalArgumentException("NOT_LECTURER");
-		return tsDao.findAllByLecturerID(account.getId())
+		List<TaskSet> tasksets = tsDao.findAllByLecturerID(account.getId());
+		Map<UUID, Task> tasks = findTasksById(getTaskIds(tasksets));
+		return tasksets
 				.stream()
 				.map(ts -> Map.entry(ts.getName(), ts.getTaskInfos()
 						.stream()
-						.map(ti -> ti.getTaskID())
-						.flatMap(id -> 
-						{
-							Task t = Initializable.init(findTaskById(id));
-							return (t == null)?Stream.empty():Stream.of(t);
-						})
+						.map(ti -> tasks.get(ti.getTaskID()))
+						.filter(t -> t != null)
 						.collect(Collectors.toList())))
 				.collect(Collectors.toMap(en -> en.getKey(), en -> taskListToDTO(en.getValue())));
 	}
@@ -374,7 +387,9 @@ public class TaskSetDataService
 		if (!account.hasRole(Account.LECTURER_ROLE))
 			throw new IllegalArgumentException("NOT_LECTURER");
 		ensureDefaultTasksetExists(account);
-		return tsDao.findAllByLecturerID(account.getId())
+		List<TaskSet> tasksets = tsDao.findAllByLecturerID(account.getId());
+		Map<UUID, Task> tasks = findTasksById(getTaskIds(tasksets));
+		return tasksets
 				.stream()
 				.collect(Collectors.toMap(TaskSet::getName, ts ->
 				{
@@ -382,7 +397,7 @@ public class TaskSetDataService
 						.stream()
 						.map(ti -> Map.of(
 							"taskID", ti.getTaskID().toString(),
-							"taskName", getTaskDtoName(taskMapper.toDTO(findTaskById(ti.getTaskID()))),
+							"taskName", getTaskDtoName(taskMapper.toDTO(tasks.get(ti.getTaskID()))),
 							"creationDate", DATE_FORMAT.format(ti.getCreationDate())
 						))
 						.collect(Collectors.toList());
@@ -400,13 +415,17 @@ public class TaskSetDataService
 			throw new IllegalArgumentException("NOT_LECTURER");
 		String name = validateTasksetName(tasksetName);
 		
-		return tsDao.findByNameAndLecturerID(name, account.getId())
+		List<TaskSet> tasksets = tsDao.findByNameAndLecturerID(name, account.getId())
+				.stream()
+				.collect(Collectors.toList());
+		Map<UUID, Task> tasks = findTasksById(getTaskIds(tasksets));
+		return tasksets
 				.stream()
 				.flatMap(ts -> ts.getTaskInfos()
 						.stream()
 						.map(ti -> Map.of(
 							"taskID", ti.getTaskID().toString(),
-							"taskName", getTaskDtoName(taskMapper.toDTO(findTaskById(ti.getTaskID()))),
+							"taskName", getTaskDtoName(taskMapper.toDTO(tasks.get(ti.getTaskID()))),
 							"creationDate", DATE_FORMAT.format(ti.getCreationDate()))))
 				.collect(Collectors.toList());
 	}
@@ -440,6 +459,20 @@ public class TaskSetDataService
 			.map(ti -> findTaskById(ti.getTaskID()));
 	}
 	@Transactional
+	public List<List<Task>> getTasksByTaskset(Collection<UUID> tasksetIds)
+	{
+		List<TaskSet> tasksets = tsDao.findAllById(tasksetIds);
+		Map<UUID, Task> tasks = findTasksById(getTaskIds(tasksets));
+		return tasksets.stream()
+				.map(ts -> ts.getTaskInfos()
+						.stream()
+						.map(ti -> tasks.get(ti.getTaskID()))
+						.filter(t -> t != null)
+						.collect(Collectors.toList()))
+				.filter(list -> !list.isEmpty())
+				.collect(Collectors.toList());
+	}
+	@Transactional
 	public boolean removeTask(UUID id)
 	{
 		return removeTask(id, getAccount());
@@ -449,17 +482,11 @@ public class TaskSetDataService
 	{
 		if (!account.hasRole(Account.LECTURER_ROLE))
 			throw new IllegalArgumentException("NOT_LECTURER");
+		tasksetsChanged();
 		UUID lectId = account.getId();
 		
-		TaskService tService = null;
-		for (TaskService tServ: taskServices)
-		{
-			if (tServ.genericExistsById(id))
-			{
-				tService = tServ;
-				break;
-			}
-		}
+		TaskService tService = taskDirectory.findService(id)
+				.orElse(null);
 		if (tService == null)
 			return false;
 		
@@ -481,9 +508,11 @@ public class TaskSetDataService
 		
 		if (gtDao.existsById(id))
 			gtDao.deleteById(id);
+		removeFromCatalog(List.of(id));
 		gtDao.flush();
 		
 		tService.genericDeleteById(id);
+		taskDirectory.unregister(id);
 		return true;
 	}
 	@Transactional
@@ -496,6 +525,7 @@ public class TaskSetDataService
 	{
 		if (!acc.hasRole(Account.LECTURER_ROLE))
 			throw new IllegalArgumentException("NOT_LECTURER");
+		tasksetsChanged();
 		ensureDefaultTasksetExists(acc);
 		String name = validateTasksetName(tasksetName);
 		if (name.equals(DEFAULT_TASKSET_NAME))
@@ -526,17 +556,14 @@ public class TaskSetDataService
 			{
 				if (gtDao.existsById(tiId))
 					gtDao.deleteById(tiId);
-				for (TaskService tServ: taskServices)
-				{
-					if (tServ.genericExistsById(tiId))
-					{
-						tServ.genericDeleteById(tiId);
-						break;
-					}
-				}
+				taskDirectory.findService(tiId)
+					.ifPresent(tServ -> tServ.genericDeleteById(tiId));
+				taskDirectory.unregister(tiId);
 				tiDao.deleteById(tiId);
 			});
 		
+		removeFromCatalog(taskInfoIds);
+		
 		gtDao.flush();
 		tiDao.flush();
 		
@@ -570,6 +597,8 @@ public class TaskSetDataService
 	{
 		if (!account.hasRole(Account.LECTURER_ROLE))
 			throw new IllegalArgumentException("NOT_LECTURER");
+		tasksetsChanged();
+		List<UUID> removedIDs = new ArrayList<>();
 		tsDao.findAllByLecturerID(account.getId())
 			.forEach(ts ->
 		{
@@ -580,17 +609,14 @@ public class TaskSetDataService
 				UUID id = ti.getTaskID();
 				if (gtDao.existsById(id))
 					gtDao.deleteById(id);
-				for (TaskService tServ: taskServices)
-				{
-					if (tServ.genericExistsById(id))
-					{
-						tServ.genericDeleteById(id);
-						break;
-					}
-				}
+				removedIDs.add(id);
+				taskDirectory.findService(id)
+					.ifPresent(tServ -> tServ.genericDeleteById(id));
+				taskDirectory.unregister(id);
 				tiDao.deleteById(id);
 			});
 		});
+		removeFromCatalog(removedIDs);
 		
 		gtDao.flush();
 		tiDao.flush();
@@ -606,6 +632,7 @@ public class TaskSetDataService
 	{
 		if (!acc.hasRole(Account.LECTURER_ROLE))
 			throw new IllegalArgumentException("NOT_LECTURER");
+		tasksetsChanged();
 		String name = validateTasksetName(tasksetName);
 		
 		TaskSet ts = tsDao.findByNameAndLecturerID(name, acc.getId())
@@ -619,16 +646,14 @@ public class TaskSetDataService
 			UUID id = ti.getTaskID();
 			if (gtDao.existsById(id))
 				gtDao.deleteById(id);
-			for (TaskService tServ: taskServices)
-			{
-				if (tServ.genericExistsById(id))
-				{
-					tServ.genericDeleteById(id);
-					break;
-				}
-			}
+			taskDirectory.findService(id)
+				.ifPresent(tServ -> tServ.genericDeleteById(id));
+			taskDirectory.unregister(id);
 			tiDao.deleteById(id);
 		});
+		removeFromCatalog(tis.stream()
+				.map(ti -> ti.getTaskID())
+				.collect(Collectors.toList()));
 		
 		tsDao.flush();
 		gtDao.flush();
@@ -644,6 +669,7 @@ public class TaskSetDataService
 	{
 		if (!acc.hasRole(Account.LECTURER_ROLE))
 			throw new IllegalArgumentException("NOT_LECTURER");
+		tasksetsChanged();
 		
 		return replaceTaskById(taskId, taskDtoJsonToTask(taskData), true);
 	}
@@ -680,6 +706,7 @@ public class TaskSetDataService
 	{
 		if (!acc.hasRole(Account.LECTURER_ROLE))
 			throw new IllegalArgumentException("NOT_LECTURER");
+		tasksetsChanged();
 		String newName = validateTasksetName(newTasksetName);
 		UUID lecturerId = acc.getId();
 		
@@ -718,13 +745,54 @@ public class TaskSetDataService
 	
 	private Task findTaskById(UUID id)
 	{
-		for (TaskService tServ: taskServices)
-		{
-			Task t = tServ.genericFindById(id);
-			if (t != null)
-				return t;
-		}
-		return null;
+		return taskDirectory.findTask(id)
+				.orElse(null);
+	}
+	private Map<UUID, Task> findTasksById(Collection<UUID> ids)
+	{
+		return taskDirectory.findTasks(ids);
+	}
+	private static Set<UUID> getTaskIds(Collection<TaskSet> tasksets)
+	{
+		return tasksets
+				.stream()
+				.flatMap(ts -> ts.getTaskInfos().stream())
+				.map(ti -> ti.getTaskID())
+				.collect(Collectors.toSet());
+	}
+	private void tasksetsChanged()
+	{
+		//Bumped only once the change is visible, so a plan read at the new revision never holds stale tasks
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+			{
+				@Override
+				public void afterCommit()
+				{
+					revision.incrementAndGet();
+				}
+			});
+		else
+			revision.incrementAndGet();
+	}
+	private void removeFromCatalog(Collection<UUID> removed)
+	{
+		updateCatalog(List.of(), removed);
+	}
+	//Applied in one batch once the change commits, so a rollback never leaves the catalog without its tasks
+	private void updateCatalog(Collection<Task> changed, Collection<UUID> removed)
+	{
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+			{
+				@Override
+				public void afterCommit()
+				{
+					catalog.update(changed, removed);
+				}
+			});
+		else
+			catalog.update(changed, removed);
 	}
 	private boolean replaceTaskById(UUID id, Task task, boolean flush)
 	{
@@ -738,6 +806,8 @@ public class TaskSetDataService
 						ts.genericReplaceAndFlush(id, task);
 					else
 						ts.genericReplace(id, task);
+					if (catalog.contains(id))
+						updateCatalog(List.of(Initializable.init(ts.genericFindById(id))), List.of());
 					return true;
 				}
 			}
@@ -751,6 +821,10 @@ public class TaskSetDataService
 			.map(t -> taskMapper.toDTO(t))
 			.collect(Collectors.toList());
 	}
+	public long getRevision()
+	{
+		return revision.get();
+	}
 	public String getTaskDtoName(TaskDTO dto)
 	{
 		return taskDtoClassNameToName.get(dto.getClass().getName());
@@ -0,0 +1,74 @@
+package com.projteam.competico.service.game.rating;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PairwiseEloRating implements RatingAlgorithm
+{
+	public static final int GAME_VALUE = 32;
+	
+	@Override
+	public Map<UUID, Integer> computeNewRatings(Map<UUID, Integer> ratings, Map<UUID, Long> totalScores)
+	{
+		/*
+		 * O(n^2) time complexity, but way better accuracy than
+		 * just running the algorithm against 1 player higher and 1 player lower.
+		 * Still, better algorithms should be possible.
+		 * 
+		 * Idea 1: compute the average rating of the game (once outside of the loop), 
+		 * compute the expected result from that and the current player's rating,
+		 * use his overall position as the actual result (mapped to [-1, 1]).
+		 * 
+		 * Total completion should also be a factor in computing the rating:
+		 * - A player with 0% completion should never win rating
+		 * - A player with 100% completion should never lose rating
+		 * - The implementation must not introduce any
+		 * noticeable inflation or deflation to the system
+		 */
+		
+		Map<UUID, Integer> newRatings = new HashMap<>();
+		
+		for (Entry<UUID, Integer> player: ratings.entrySet())
+		{
+			UUID playerID = player.getKey();
+			Long playerScore = totalScores.get(playerID);
+			if (playerScore == null)
+				continue;
+			int playerRating = player.getValue();
+			
+			double scoreDeltaTotal = 0;
+			int eligibleOpponentsCount = 0;
+			for (Entry<UUID, Integer> opponent: ratings.entrySet())
+			{
+				UUID opponentID = opponent.getKey();
+				Long opponentScore = totalScores.get(opponentID);
+				if (opponentID.equals(playerID) || (opponentScore == null))
+					continue;
+				
+				int opponentRating = opponent.getValue();
+				
+				double real = (
+						Math.signum(
+							playerScore
+							- opponentScore)
+						+ 1) / 2.0;
+				double expected = 1 / (1 + Math.pow(10,
+						(opponentRating - playerRating) / 400.0));
+				
+				scoreDeltaTotal += (real - expected);
+				eligibleOpponentsCount++;
+			}
+			
+			if (eligibleOpponentsCount == 0)
+				continue;
+			
+			newRatings.put(playerID, (int) Math.round(playerRating +
+					GAME_VALUE * (scoreDeltaTotal / eligibleOpponentsCount)));
+		}
+		return newRatings;
+	}
+}
@@ -0,0 +1,14 @@
+package com.projteam.competico.service.game.rating;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface RatingAlgorithm
+{
+	/*
+	 * Receives the current ratings of every rated participant and the total scores
+	 * of all participants, returns the new ratings of those whose rating changed.
+	 * Participants without a rating take no part in the computation.
+	 */
+	public Map<UUID, Integer> computeNewRatings(Map<UUID, Integer> ratings, Map<UUID, Long> totalScores);
+}
@@ -1,5 +1,6 @@
 package com.projteam.competico.service.game.tasks;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -20,14 +21,17 @@ public class ChoiceWordFillService implements TaskService
 	private ChoiceWordFillDAO cwfDao;
 	private ChoiceWordFillElementDAO cwfeDao;
 	private ChoiceWordFillElementWordChoiceDAO cwfewcDao;
+	private TaskCache taskCache;
 	
 	public ChoiceWordFillService(ChoiceWordFillDAO cwfDao,
 			ChoiceWordFillElementDAO cwfeDao,
-			ChoiceWordFillElementWordChoiceDAO cwfewcDao)
+			ChoiceWordFillElementWordChoiceDAO cwfewcDao,
+			TaskCache taskCache)
 	{
 		this.cwfDao = cwfDao;
 		this.cwfeDao = cwfeDao;
 		this.cwfewcDao = cwfewcDao;
+		this.taskCache = taskCache;
 	}
 
 	@Override
@@ -40,7 +44,7 @@ public class ChoiceWordFillService implements TaskService
 	@Transactional
 	public Task genericFindById(UUID taskId)
 	{
-		return findById(taskId);
+		return taskCache.get(taskId, ChoiceWordFill.class, this::findById);
 	}
 	private ChoiceWordFill findById(UUID taskId)
 	{
@@ -65,6 +69,21 @@ public class ChoiceWordFillService implements TaskService
 	}
 	@Override
 	@Transactional
+	public List<UUID> genericFindAllIds()
+	{
+		return cwfDao.findAllIds();
+	}
+	@Override
+	@Transactional
+	public List<Task> genericFindAllById(Collection<UUID> taskIds)
+	{
+		return taskCache.getAll(taskIds, ChoiceWordFill.class, ids -> cwfDao.findAllById(ids)
+				.stream()
+				.map(t -> (Task) Initializable.init(t))
+				.collect(Collectors.toList()));
+	}
+	@Override
+	@Transactional
 	public void genericSave(Task task)
 	{
 		save(task, false);
@@ -89,6 +108,7 @@ public class ChoiceWordFillService implements TaskService
 	}
 	private void replace(UUID taskId, Task task, boolean flush)
 	{
+		taskCache.invalidate(taskId);
 		ensureApplicable(task);
 		ChoiceWordFill newTask = (ChoiceWordFill) task;
 		ChoiceWordFill oldTask = findById(taskId);
@@ -130,6 +150,7 @@ public class ChoiceWordFillService implements TaskService
 	private void save(Task task, boolean flush)
 	{
 		ensureApplicable(task);
+		taskCache.invalidate(task.getId());
 		ChoiceWordFill cwf = (ChoiceWordFill) task;
 		ChoiceWordFillElement cwfe = cwf.getContent();
 		if (flush)
@@ -150,6 +171,7 @@ public class ChoiceWordFillService implements TaskService
 	@Transactional
 	public void genericDeleteById(UUID id)
 	{
+		taskCache.invalidate(id);
 		ChoiceWordFill cwf = cwfDao.findById(id).orElse(null);
 		if (cwf == null)
 			return;
@@ -1,5 +1,6 @@
 package com.projteam.competico.service.game.tasks;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -14,10 +15,13 @@ import com.projteam.competico.utils.Initializable;
 public class ChronologicalOrderService implements TaskService
 {
 	private ChronologicalOrderDAO coDao;
+	private TaskCache taskCache;
 	
-	public ChronologicalOrderService(ChronologicalOrderDAO coDao)
+	public ChronologicalOrderService(ChronologicalOrderDAO coDao,
+			TaskCache taskCache)
 	{
 		this.coDao = coDao;
+		this.taskCache = taskCache;
 	}
 
 	@Override
@@ -30,7 +34,7 @@ public class ChronologicalOrderService implements TaskService
 	@Transactional
 	public Task genericFindById(UUID taskId)
 	{
-		return findById(taskId);
+		return taskCache.get(taskId, ChronologicalOrder.class, this::findById);
 	}
 	private ChronologicalOrder findById(UUID taskId)
 	{
@@ -55,6 +59,21 @@ public class ChronologicalOrderService implements TaskService
 	}
 	@Override
 	@Transactional
+	public List<UUID> genericFindAllIds()
+	{
+		return coDao.findAllIds();
+	}
+	@Override
+	@Transactional
+	public List<Task> genericFindAllById(Collection<UUID> taskIds)
+	{
+		return taskCache.getAll(taskIds, ChronologicalOrder.class, ids -> coDao.findAllById(ids)
+				.stream()
+				.map(t -> (Task) Initializable.init(t))
+				.collect(Collectors.toList()));
+	}
+	@Override
+	@Transactional
 	public void genericReplace(UUID taskId, Task task)
 	{
 		replace(taskId, task, false);
@@ -67,6 +86,7 @@ public class ChronologicalOrderService implements TaskService
 	}
 	private void replace(UUID taskId, Task task, boolean flush)
 	{
+		taskCache.invalidate(taskId);
 		ensureApplicable(task);
 		ChronologicalOrder newTask = (ChronologicalOrder) task;
 		ChronologicalOrder oldTask = findById(taskId);
@@ -102,6 +122,7 @@ public class ChronologicalOrderService implements TaskService
 	private void save(Task task, boolean flush)
 	{
 		ensureApplicable(task);
+		taskCache.invalidate(task.getId());
 		if (flush)
 			coDao.saveAndFlush((ChronologicalOrder) task);
 		else
@@ -111,6 +132,7 @@ public class ChronologicalOrderService implements TaskService
 	@Transactional
 	public void genericDeleteById(UUID id)
 	{
+		taskCache.invalidate(id);
 		coDao.deleteById(id);
 	}
 	@Override
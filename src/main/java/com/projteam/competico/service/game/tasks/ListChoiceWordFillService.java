@@ -1,5 +1,6 @@
 package com.projteam.competico.service.game.tasks;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -20,14 +21,17 @@ public class ListChoiceWordFillService implements TaskService
 	private ListChoiceWordFillDAO lcwfDao;
 	private ChoiceWordFillElementDAO cwfeDao;
 	private ChoiceWordFillElementWordChoiceDAO cwfewcDao;
+	private TaskCache taskCache;
 	
 	public ListChoiceWordFillService(ListChoiceWordFillDAO lcwfDao,
 			ChoiceWordFillElementDAO cwfeDao,
-			ChoiceWordFillElementWordChoiceDAO cwfewcDao)
+			ChoiceWordFillElementWordChoiceDAO cwfewcDao,
+			TaskCache taskCache)
 	{
 		this.lcwfDao = lcwfDao;
 		this.cwfeDao = cwfeDao;
 		this.cwfewcDao = cwfewcDao;
+		this.taskCache = taskCache;
 	}
 	
 	@Override
@@ -40,7 +44,7 @@ public class ListChoiceWordFillService implements TaskService
 	@Transactional
 	public Task genericFindById(UUID taskId)
 	{
-		return findById(taskId);
+		return taskCache.get(taskId, ListChoiceWordFill.class, this::findById);
 	}
 	private ListChoiceWordFill findById(UUID taskId)
 	{
@@ -65,6 +69,21 @@ public class ListChoiceWordFillService implements TaskService
 	}
 	@Override
 	@Transactional
+	public List<UUID> genericFindAllIds()
+	{
+		return lcwfDao.findAllIds();
+	}
+	@Override
+	@Transactional
+	public List<Task> genericFindAllById(Collection<UUID> taskIds)
+	{
+		return taskCache.getAll(taskIds, ListChoiceWordFill.class, ids -> lcwfDao.findAllById(ids)
+				.stream()
+				.map(t -> (Task) Initializable.init(t))
+				.collect(Collectors.toList()));
+	}
+	@Override
+	@Transactional
 	public void genericReplace(UUID taskId, Task task)
 	{
 		replace(taskId, task, false);
@@ -77,6 +96,7 @@ public class ListChoiceWordFillService implements TaskService
 	}
 	private void replace(UUID taskId, Task task, boolean flush)
 	{
+		taskCache.invalidate(taskId);
 		ensureApplicable(task);
 		ListChoiceWordFill newTask = (ListChoiceWordFill) task;
 		ListChoiceWordFill oldTask = findById(taskId);
@@ -125,6 +145,7 @@ public class ListChoiceWordFillService implements TaskService
 	private void save(Task task, boolean flush)
 	{
 		ensureApplicable(task);
+		taskCache.invalidate(task.getId());
 		ListChoiceWordFill lcwf = (ListChoiceWordFill) task;
 		for (ChoiceWordFillElement cwfe: lcwf.getRows())
 		{
@@ -149,6 +170,7 @@ public class ListChoiceWordFillService implements TaskService
 	@Transactional
 	public void genericDeleteById(UUID id)
 	{
+		taskCache.invalidate(id);
 		ListChoiceWordFill lcwf = lcwfDao.findById(id).orElse(null);
 		if (lcwf == null)
 			return;
@@ -1,5 +1,6 @@
 package com.projteam.competico.service.game.tasks;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -17,12 +18,15 @@ public class ListSentenceFormingService implements TaskService
 {
 	private ListSentenceFormingDAO lsfDao;
 	private SentenceFormingElementDAO sfeDao;
+	private TaskCache taskCache;
 	
 	public ListSentenceFormingService(ListSentenceFormingDAO lsfDao,
-			SentenceFormingElementDAO sfeDao)
+			SentenceFormingElementDAO sfeDao,
+			TaskCache taskCache)
 	{
 		this.lsfDao = lsfDao;
 		this.sfeDao = sfeDao;
+		this.taskCache = taskCache;
 	}
 	
 	@Override
@@ -35,7 +39,7 @@ public class ListSentenceFormingService implements TaskService
 	@Transactional
 	public Task genericFindById(UUID taskId)
 	{
-		return findById(taskId);
+		return taskCache.get(taskId, ListSentenceForming.class, this::findById);
 	}
 	private ListSentenceForming findById(UUID taskId)
 	{
@@ -60,6 +64,21 @@ public class ListSentenceFormingService implements TaskService
 	}
 	@Override
 	@Transactional
+	public List<UUID> genericFindAllIds()
+	{
+		return lsfDao.findAllIds();
+	}
+	@Override
+	@Transactional
+	public List<Task> genericFindAllById(Collection<UUID> taskIds)
+	{
+		return taskCache.getAll(taskIds, ListSentenceForming.class, ids -> lsfDao.findAllById(ids)
+				.stream()
+				.map(t -> (Task) Initializable.init(t))
+				.collect(Collectors.toList()));
+	}
+	@Override
+	@Transactional
 	public void genericReplace(UUID taskId, Task task)
 	{
 		replace(taskId, task, false);
@@ -72,6 +91,7 @@ public class ListSentenceFormingService implements TaskService
 	}
 	private void replace(UUID taskId, Task task, boolean flush)
 	{
+		taskCache.invalidate(taskId);
 		ensureApplicable(task);
 		ListSentenceForming newTask = (ListSentenceForming) task;
 		ListSentenceForming oldTask = findById(taskId);
@@ -113,6 +133,7 @@ public class ListSentenceFormingService implements TaskService
 	private void save(Task task, boolean flush)
 	{
 		ensureApplicable(task);
+		taskCache.invalidate(task.getId());
 		ListSentenceForming lsf = (ListSentenceForming) task;
 		if (flush)
 		{
@@ -130,6 +151,7 @@ public class ListSentenceFormingService implements TaskService
 	@Transactional
 	public void genericDeleteById(UUID id)
 	{
+		taskCache.invalidate(id);
 		ListSentenceForming lsf = lsfDao.findById(id).orElse(null);
 		if (lsf == null)
 			return;
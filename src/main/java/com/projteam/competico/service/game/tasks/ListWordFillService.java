@@ -1,5 +1,6 @@
 package com.projteam.competico.service.game.tasks;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -17,12 +18,15 @@ public class ListWordFillService implements TaskService
 {
 	private ListWordFillDAO lwfDao;
 	private WordFillElementDAO wfeDao;
+	private TaskCache taskCache;
 	
 	public ListWordFillService(ListWordFillDAO lwfDao,
-			WordFillElementDAO wfeDao)
+			WordFillElementDAO wfeDao,
+			TaskCache taskCache)
 	{
 		this.lwfDao = lwfDao;
 		this.wfeDao = wfeDao;
+		this.taskCache = taskCache;
 	}
 	
 	@Override
@@ -35,7 +39,7 @@ public class ListWordFillService implements TaskService
 	@Transactional
 	public Task genericFindById(UUID taskId)
 	{
-		return findById(taskId);
+		return taskCache.get(taskId, ListWordFill.class, this::findById);
 	}
 	private ListWordFill findById(UUID taskId)
 	{
@@ -60,6 +64,21 @@ public class ListWordFillService implements TaskService
 	}
 	@Override
 	@Transactional
+	public List<UUID> genericFindAllIds()
+	{
+		return lwfDao.findAllIds();
+	}
+	@Override
+	@Transactional
+	public List<Task> genericFindAllById(Collection<UUID> taskIds)
+	{
+		return taskCache.getAll(taskIds, ListWordFill.class, ids -> lwfDao.findAllById(ids)
+				.stream()
+				.map(t -> (Task) Initializable.init(t))
+				.collect(Collectors.toList()));
+	}
+	@Override
+	@Transactional
 	public void genericReplace(UUID taskId, Task task)
 	{
 		replace(taskId, task, false);
@@ -72,6 +91,7 @@ public class ListWordFillService implements TaskService
 	}
 	private void replace(UUID taskId, Task task, boolean flush)
 	{
+		taskCache.invalidate(taskId);
 		ensureApplicable(task);
 		ListWordFill newTask = (ListWordFill) task;
 		ListWordFill oldTask = findById(taskId);
@@ -112,6 +132,7 @@ public class ListWordFillService implements TaskService
 	private void save(Task task, boolean flush)
 	{
 		ensureApplicable(task);
+		taskCache.invalidate(task.getId());
 		ListWordFill lwf = (ListWordFill) task;
 		if (flush)
 		{
@@ -129,6 +150,7 @@ public class ListWordFillService implements TaskService
 	@Transactional
 	public void genericDeleteById(UUID id)
 	{
+		taskCache.invalidate(id);
 		ListWordFill lwf = lwfDao.findById(id).orElse(null);
 		if (lwf == null)
 			return;
@@ -1,5 +1,6 @@
 package com.projteam.competico.service.game.tasks;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -17,12 +18,15 @@ public class OptionSelectService implements TaskService
 {
 	private OptionSelectDAO osDao;
 	private OptionSelectElementDAO oseDao;
+	private TaskCache taskCache;
 
 	public OptionSelectService(OptionSelectDAO osDao,
-			OptionSelectElementDAO oseDao)
+			OptionSelectElementDAO oseDao,
+			TaskCache taskCache)
 	{
 		this.osDao = osDao;
 		this.oseDao = oseDao;
+		this.taskCache = taskCache;
 	}
 
 	@Override
@@ -35,7 +39,7 @@ public class OptionSelectService implements TaskService
 	@Transactional
 	public Task genericFindById(UUID taskId)
 	{
-		return findById(taskId);
+		return taskCache.get(taskId, OptionSelect.class, this::findById);
 	}
 	private OptionSelect findById(UUID taskId)
 	{
@@ -60,6 +64,21 @@ public class OptionSelectService implements TaskService
 	}
 	@Override
 	@Transactional
+	public List<UUID> genericFindAllIds()
+	{
+		return osDao.findAllIds();
+	}
+	@Override
+	@Transactional
+	public List<Task> genericFindAllById(Collection<UUID> taskIds)
+	{
+		return taskCache.getAll(taskIds, OptionSelect.class, ids -> osDao.findAllById(ids)
+				.stream()
+				.map(t -> (Task) Initializable.init(t))
+				.collect(Collectors.toList()));
+	}
+	@Override
+	@Transactional
 	public void genericReplace(UUID taskId, Task task)
 	{
 		replace(taskId, task, false);
@@ -72,6 +91,7 @@ public class OptionSelectService implements TaskService
 	}
 	private void replace(UUID taskId, Task task, boolean flush)
 	{
+		taskCache.invalidate(taskId);
 		ensureApplicable(task);
 		OptionSelect newTask = (OptionSelect) task;
 		OptionSelect oldTask = findById(taskId);
@@ -120,6 +140,7 @@ public class OptionSelectService implements TaskService
 	private void save(Task task, boolean flush)
 	{
 		ensureApplicable(task);
+		taskCache.invalidate(task.getId());
 		OptionSelect os = (OptionSelect) task;
 		if (flush)
 		{
@@ -136,6 +157,7 @@ public class OptionSelectService implements TaskService
 	@Transactional
 	public void genericDeleteById(UUID id)
 	{
+		taskCache.invalidate(id);
 		OptionSelect os = osDao.findById(id).orElse(null);
 		if (os == null)
 			return;
@@ -0,0 +1,146 @@
+package com.projteam.competico.service.game.tasks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.projteam.competico.domain.game.tasks.Task;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+//Initialized task entities shared by every task service, and by every game, as read-only instances
+@Component
+public class TaskCache
+{
+	private final Map<UUID, Task> tasks;
+	private final int maxSize;
+	//Bumped on every invalidation, so a load that raced with a change is not cached
+	private long generation;
+	//Revisions of the tasks changed since startup, every other task is still at its first one
+	private final Map<UUID, Long> revisions;
+
+	//Instances that did not come through the cache, their content could be of any revision
+	public static final long NO_REVISION = 0;
+	public static final long FIRST_REVISION = 1;
+
+	private final Counter hits;
+	private final Counter misses;
+	private final Counter evictions;
+
+	@Autowired
+	public TaskCache(@Value("${app.tasks.cache.size:4096}") int maxSize,
+			MeterRegistry meterRegistry)
+	{
+		this.maxSize = maxSize;
+		tasks = new LinkedHashMap<>(16, 0.75f, true);
+		revisions = new HashMap<>();
+
+		meterRegistry.gauge("competico.tasks.cache.size", this, cache -> cache.size());
+		hits = meterRegistry.counter("competico.tasks.cache.hits");
+		misses = meterRegistry.counter("competico.tasks.cache.misses");
+		evictions = meterRegistry.counter("competico.tasks.cache.evictions");
+	}
+
+	public Task get(UUID taskId, Class<? extends Task> type, Function<UUID, ? extends Task> loader)
+	{
+		long loadGeneration;
+		synchronized (this)
+		{
+			Task cached = tasks.get(taskId);
+			if (cached != null)
+			{
+				hits.increment();
+				//Task IDs are unique across all types, so a task cached under another type is not in this one
+				return type.isInstance(cached)?cached:null;
+			}
+			loadGeneration = generation;
+		}
+		misses.increment();
+		Task ret = loader.apply(taskId);
+		if (ret != null)
+			put(List.of(ret), loadGeneration);
+		return ret;
+	}
+	public List<Task> getAll(Collection<UUID> taskIds, Class<? extends Task> type,
+			Function<Collection<UUID>, List<Task>> loader)
+	{
+		List<Task> ret = new ArrayList<>();
+		Set<UUID> missingIDs = new LinkedHashSet<>();
+		long loadGeneration;
+		synchronized (this)
+		{
+			for (UUID taskId: taskIds)
+			{
+				Task cached = tasks.get(taskId);
+				if (cached == null)
+					missingIDs.add(taskId);
+				else if (type.isInstance(cached))
+					ret.add(cached);
+			}
+			loadGeneration = generation;
+		}
+		hits.increment(taskIds.size() - missingIDs.size());
+		if (missingIDs.isEmpty())
+			return ret;
+
+		misses.increment(missingIDs.size());
+		List<Task> loaded = loader.apply(missingIDs);
+		put(loaded, loadGeneration);
+		ret.addAll(loaded);
+		return ret;
+	}
+	public void invalidate(UUID taskId)
+	{
+		remove(taskId);
+		//Readers may reload the old state until the change commits, so it is dropped again afterwards
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+			{
+				@Override
+				public void afterCompletion(int status)
+				{
+					remove(taskId);
+				}
+			});
+	}
+	public synchronized int size()
+	{
+		return tasks.size();
+	}
+
+	private synchronized void put(List<Task> loaded, long loadGeneration)
+	{
+		if (loadGeneration != generation)
+			return;
+		loaded.forEach(task ->
+		{
+			task.setRevision(revisions.getOrDefault(task.getId(), FIRST_REVISION));
+			tasks.put(task.getId(), task);
+		});
+
+		var it = tasks.values().iterator();
+		while ((tasks.size() > maxSize) && it.hasNext())
+		{
+			it.next();
+			it.remove();
+			evictions.increment();
+		}
+	}
+	private synchronized void remove(UUID taskId)
+	{
+		generation++;
+		tasks.remove(taskId);
+		revisions.put(taskId, FIRST_REVISION + generation);
+	}
+}
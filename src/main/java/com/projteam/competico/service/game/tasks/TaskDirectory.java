@@ -0,0 +1,118 @@
+package com.projteam.competico.service.game.tasks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import com.projteam.competico.domain.game.tasks.Task;
+import lombok.extern.slf4j.Slf4j;
+
+//Which task service stores each task, so a task ID is looked up in exactly one table
+@Component
+@Slf4j
+public class TaskDirectory
+{
+	private final List<TaskService> taskServices;
+	private final Map<UUID, TaskService> directory;
+
+	@Autowired
+	public TaskDirectory(List<TaskService> taskServiceList)
+	{
+		taskServices = new ArrayList<>(taskServiceList);
+		directory = new ConcurrentHashMap<>();
+	}
+
+	@EventListener(ContextRefreshedEvent.class)
+	public void load()
+	{
+		for (TaskService taskServ: taskServices)
+			taskServ.genericFindAllIds()
+				.forEach(id -> directory.put(id, taskServ));
+		log.info("Loaded {} task locations", directory.size());
+	}
+	public void register(UUID taskId, TaskService taskServ)
+	{
+		directory.put(taskId, taskServ);
+	}
+	public void unregister(UUID taskId)
+	{
+		directory.remove(taskId);
+	}
+
+	public Optional<TaskService> findService(UUID taskId)
+	{
+		TaskService ret = directory.get(taskId);
+		if (ret != null)
+			return Optional.of(ret);
+
+		//Not seen since the directory was loaded, every table has to be asked once
+		for (TaskService taskServ: taskServices)
+		{
+			if (taskServ.genericExistsById(taskId))
+			{
+				register(taskId, taskServ);
+				return Optional.of(taskServ);
+			}
+		}
+		return Optional.empty();
+	}
+	public Optional<Task> findTask(UUID taskId)
+	{
+		TaskService taskServ = directory.get(taskId);
+		if (taskServ != null)
+			return Optional.ofNullable(taskServ.genericFindById(taskId));
+
+		for (TaskService ts: taskServices)
+		{
+			Task ret = ts.genericFindById(taskId);
+			if (ret != null)
+			{
+				register(taskId, ts);
+				return Optional.of(ret);
+			}
+		}
+		return Optional.empty();
+	}
+	public Map<UUID, Task> findTasks(Collection<UUID> taskIds)
+	{
+		Map<TaskService, List<UUID>> byService = new LinkedHashMap<>();
+		Set<UUID> unknownIDs = new HashSet<>();
+		for (UUID id: taskIds)
+		{
+			TaskService taskServ = directory.get(id);
+			if (taskServ == null)
+				unknownIDs.add(id);
+			else
+				byService.computeIfAbsent(taskServ, k -> new ArrayList<>()).add(id);
+		}
+
+		Map<UUID, Task> ret = new HashMap<>();
+		byService.forEach((taskServ, ids) -> taskServ.genericFindAllById(ids)
+				.forEach(t -> ret.put(t.getId(), t)));
+
+		for (TaskService taskServ: taskServices)
+		{
+			if (unknownIDs.isEmpty())
+				break;
+			taskServ.genericFindAllById(unknownIDs)
+				.forEach(t ->
+				{
+					ret.put(t.getId(), t);
+					register(t.getId(), taskServ);
+				});
+			unknownIDs.removeAll(ret.keySet());
+		}
+		return ret;
+	}
+}
@@ -1,5 +1,6 @@
 package com.projteam.competico.service.game.tasks;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import com.projteam.competico.domain.game.tasks.Task;
@@ -11,6 +12,8 @@ public interface TaskService
 	public void genericSave(Task task);
 	public void genericSaveAndFlush(Task task);
 	public List<Task> genericFindAll();
+	public List<Task> genericFindAllById(Collection<UUID> taskIds);
+	public List<UUID> genericFindAllIds();
 	public long count();
 	public void flush();
 	public boolean canAccept(Task task);
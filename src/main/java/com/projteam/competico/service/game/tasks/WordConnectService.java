@@ -1,5 +1,6 @@
 package com.projteam.competico.service.game.tasks;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -14,10 +15,13 @@ import com.projteam.competico.utils.Initializable;
 public class WordConnectService implements TaskService
 {
 	private WordConnectDAO wcDao;
+	private TaskCache taskCache;
 	
-	public WordConnectService(WordConnectDAO wcDao)
+	public WordConnectService(WordConnectDAO wcDao,
+			TaskCache taskCache)
 	{
 		this.wcDao = wcDao;
+		this.taskCache = taskCache;
 	}
 
 	@Override
@@ -30,7 +34,7 @@ public class WordConnectService implements TaskService
 	@Transactional
 	public Task genericFindById(UUID taskId)
 	{
-		return findById(taskId);
+		return taskCache.get(taskId, WordConnect.class, this::findById);
 	}
 	private WordConnect findById(UUID taskId)
 	{
@@ -55,6 +59,21 @@ public class WordConnectService implements TaskService
 	}
 	@Override
 	@Transactional
+	public List<UUID> genericFindAllIds()
+	{
+		return wcDao.findAllIds();
+	}
+	@Override
+	@Transactional
+	public List<Task> genericFindAllById(Collection<UUID> taskIds)
+	{
+		return taskCache.getAll(taskIds, WordConnect.class, ids -> wcDao.findAllById(ids)
+				.stream()
+				.map(t -> (Task) Initializable.init(t))
+				.collect(Collectors.toList()));
+	}
+	@Override
+	@Transactional
 	public void genericReplace(UUID taskId, Task task)
 	{
 		replace(taskId, task, false);
@@ -67,6 +86,7 @@ public class WordConnectService implements TaskService
 	}
 	private void replace(UUID taskId, Task task, boolean flush)
 	{
+		taskCache.invalidate(taskId);
 		ensureApplicable(task);
 		WordConnect newTask = (WordConnect) task;
 		WordConnect oldTask = findById(taskId);
@@ -101,6 +121,7 @@ public class WordConnectService implements TaskService
 	private void save(Task task, boolean flush)
 	{
 		ensureApplicable(task);
+		taskCache.invalidate(task.getId());
 		WordConnect wc = (WordConnect) task;
 		if (flush)
 			wcDao.saveAndFlush(wc);
@@ -111,6 +132,7 @@ public class WordConnectService implements TaskService
 	@Transactional
 	public void genericDeleteById(UUID id)
 	{
+		taskCache.invalidate(id);
 		wcDao.deleteById(id);
 	}
 	@Override
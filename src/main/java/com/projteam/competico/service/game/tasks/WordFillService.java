@@ -1,5 +1,6 @@
 package com.projteam.competico.service.game.tasks;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -17,12 +18,15 @@ public class WordFillService implements TaskService
 {
 	private WordFillDAO wfDao;
 	private WordFillElementDAO wfeDao;
+	private TaskCache taskCache;
 	
 	public WordFillService(WordFillDAO wfDao,
-			WordFillElementDAO wfeDao)
+			WordFillElementDAO wfeDao,
+			TaskCache taskCache)
 	{
 		this.wfDao = wfDao;
 		this.wfeDao = wfeDao;
+		this.taskCache = taskCache;
 	}
 
 	@Override
@@ -35,7 +39,7 @@ public class WordFillService implements TaskService
 	@Transactional
 	public Task genericFindById(UUID taskId)
 	{
-		return findById(taskId);
+		return taskCache.get(taskId, WordFill.class, this::findById);
 	}
 	private WordFill findById(UUID taskId)
 	{
@@ -60,6 +64,21 @@ public class WordFillService implements TaskService
 	}
 	@Override
 	@Transactional
+	public List<UUID> genericFindAllIds()
+	{
+		return wfDao.findAllIds();
+	}
+	@Override
+	@Transactional
+	public List<Task> genericFindAllById(Collection<UUID> taskIds)
+	{
+		return taskCache.getAll(taskIds, WordFill.class, ids -> wfDao.findAllById(ids)
+				.stream()
+				.map(t -> (Task) Initializable.init(t))
+				.collect(Collectors.toList()));
+	}
+	@Override
+	@Transactional
 	public void genericReplace(UUID taskId, Task task)
 	{
 		replace(taskId, task, false);
@@ -72,6 +91,7 @@ public class WordFillService implements TaskService
 	}
 	private void replace(UUID taskId, Task task, boolean flush)
 	{
+		taskCache.invalidate(taskId);
 		ensureApplicable(task);
 		WordFill newTask = (WordFill) task;
 		WordFill oldTask = findById(taskId);
@@ -118,6 +138,7 @@ public class WordFillService implements TaskService
 	private void save(Task task, boolean flush)
 	{
 		ensureApplicable(task);
+		taskCache.invalidate(task.getId());
 		WordFill wf = (WordFill) task;
 		if (flush)
 		{
@@ -134,6 +155,7 @@ public class WordFillService implements TaskService
 	@Transactional
 	public void genericDeleteById(UUID id)
 	{
+		taskCache.invalidate(id);
 		WordFill wf = wfDao.findById(id).orElse(null);
 		WordFillElement wfe = wf.getContent();
 		wfDao.deleteById(id);
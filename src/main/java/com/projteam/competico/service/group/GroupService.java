@@ -10,11 +10,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
@@ -40,6 +38,7 @@ import com.projteam.competico.dto.group.GroupLobbyDTO;
 import com.projteam.competico.dto.group.GroupMessageDTO;
 import com.projteam.competico.dto.group.GroupMessageFullDTO;
 import com.projteam.competico.service.AccountService;
+import com.projteam.competico.service.CodeAllocator;
 import com.projteam.competico.service.game.GameService;
 import com.projteam.competico.service.game.LobbyService;
 import com.projteam.competico.utils.Initializable;
@@ -54,12 +53,10 @@ public class GroupService
 	
 	private AccountService accServ;
 	private LobbyService lobbyServ;
+	private CodeAllocator codes;
 	
 	private Map<String, Set<String>> groupLobbies;
 	
-	private final char[] groupCodeChars;
-	private static final int GROUP_CODE_LENGTH = 9;
-	private static final int MAX_GROUP_CODE_REROLL_COUNT = 1000;
 	private static final String GROUP_NAME_REGEX =
 			"^[a-zA-Z0-9ąĄłŁśŚćĆńŃóÓżŻźŹęĘ ./<>?;:\"'`!@#$%^&*\\(\\)\\[\\]\\{\\}_+=|\\\\-]{2,32}$";
 	
@@ -72,7 +69,8 @@ public class GroupService
 			GroupGameResultDAO ggrDao,
 			GroupJoinRequestDAO gjrDao,
 			GroupMessageDAO gmDao,
-			@Lazy LobbyService lobbyServ)
+			@Lazy LobbyService lobbyServ,
+			CodeAllocator codes)
 	{
 		this.accServ = accServ;
 		this.groupDao = groupDao;
@@ -80,12 +78,7 @@ public class GroupService
 		this.gjrDao = gjrDao;
 		this.gmDao = gmDao;
 		this.lobbyServ = lobbyServ;
-		
-		groupCodeChars = IntStream.range(0, 256)
-				.filter(GroupService::isValidGroupCodeChar)
-				.mapToObj(c -> Character.toString((char) c))
-	            .collect(Collectors.joining())
-	            .toCharArray();
+		this.codes = codes;
 		
 		groupLobbies = new HashMap<>();
 	}
@@ -107,7 +100,7 @@ public class GroupService
 		if (groupDao.existsByNameAndLecturers_id(name, creatorId))
 			throw new IllegalArgumentException("DUPLICATE_GROUP_NAME");
 		
-		String code = getAvailableGroupCode();
+		String code = codes.allocateGroupCode(c -> !groupDao.existsByGroupCode(c));
 		
 		Group group = new Group(UUID.randomUUID(), name, code, List.of(creator));
 		
@@ -841,23 +834,6 @@ public class GroupService
 		}
 	}
 	
-	private String getAvailableGroupCode()
-	{
-		for (int i = 0; i < MAX_GROUP_CODE_REROLL_COUNT; i++)
-		{
-			String code = generateGroupCode();
-			if (!groupDao.existsByGroupCode(code))
-				return code;
-		}
-		
-		throw new IllegalArgumentException("CANNOT_GENERATE_GROUP_CODE");
-	}
-	private String generateGroupCode()
-	{
-		return new Random().ints(GROUP_CODE_LENGTH, 0, groupCodeChars.length)
-			.mapToObj(i -> Character.toString(groupCodeChars[i]))
-	        .collect(Collectors.joining());
-	}
 	private boolean groupContainsAccount(Group group, Account acc)
 	{
 		UUID accId = acc.getId();
@@ -880,12 +856,6 @@ public class GroupService
 			return groupName;
 		throw new IllegalArgumentException("INVALID_GROUP_NAME");
 	}
-	private static boolean isValidGroupCodeChar(int c)
-	{
-		return ((c >= '0') && (c <= '9'))
-				|| ((c >= 'a') && (c <= 'z'))
-				|| ((c >= 'A') && (c <= 'Z'));
-	}
 	
 	private Account getAccount()
 	{
@@ -37,9 +37,7 @@ const GameResultsLogic = ( playerInfo_, gameID_, debug_) => {
         self.gameID
       );
       //then
-      ajaxCheckTotalScoreChanges(
-        (changeOccurred) => {self.checkTotalScoreChanges(changeOccurred)},
-        self.gameID)
+      self.streamTotalScores();
     }
    
     self.setPesonalResult = (myScore) => {
@@ -339,6 +337,48 @@ const GameResultsLogic = ( playerInfo_, gameID_, debug_) => {
       
       }
     }
+    self.streamTotalScores = () => {
+
+      if ( !window.EventSource ) {
+        self.pollTotalScoreChanges();
+        return;
+      }
+
+      var scoreStream = new EventSource("/api/v1/scores/"+self.gameID+"/total/stream");
+
+      scoreStream.addEventListener("scores", (event) => {
+        self.setAllResults(JSON.parse(event.data));
+      });
+      scoreStream.addEventListener("delta", (event) => {
+        var delta = JSON.parse(event.data);
+        var resultsByUsername = {};
+        (self.allResults || []).forEach((result) => {resultsByUsername[result.username] = result});
+        delta.changed.forEach((result) => {resultsByUsername[result.username] = result});
+        self.setAllResults(delta.ranking
+          .map((username) => resultsByUsername[username])
+          .filter((result) => result));
+      });
+      scoreStream.addEventListener("finished", () => {
+        scoreStream.close();
+        ajaxGetTotalGameResults(
+          (gameData)=>{self.setAllResults(gameData)},
+          self.gameID
+        );
+      });
+      scoreStream.onerror = () => {
+        if (self.debug)
+          console.warn("scoreStream error, falling back to polling");
+        scoreStream.close();
+        self.pollTotalScoreChanges();
+      };
+    }
+
+    self.pollTotalScoreChanges = () => {
+      ajaxCheckTotalScoreChanges(
+        (changeOccurred) => {self.checkTotalScoreChanges(changeOccurred)},
+        self.gameID)
+    }
+
     /*       event listeners          */
     if ($("#btnLeave").length)
       $("#btnLeave").on("click",()=>{
@@ -361,6 +361,7 @@ const LobbyModule = (function(deps = {}) {
     self.gameStarted;
   
     self.ajaxLobbyLoopTimeout;
+    self.lobbyStream = null;
     self.lobbyCode;
     self.nickname;
     self.username;
@@ -462,10 +463,7 @@ const LobbyModule = (function(deps = {}) {
       });
       
       listenersSetup();
-      Ajax.ajaxConnectionLoop(
-          self.lobbyCode,
-          (data)=>{self.updateCheck(data)}
-        );
+      self.connectLobbyUpdates();
       
       if (successfulCreationCallback)
           successfulCreationCallback(self);
@@ -486,11 +484,12 @@ const LobbyModule = (function(deps = {}) {
               self.lobbyCode,
               (data) => {
 
-                self.ajaxLobbyLoopTimeout = setTimeout(()=>{
-                  Ajax.ajaxConnectionLoop(
-                    self.lobbyCode,
-                    (data_)=>{self.updateCheck(data_)}
-                  )},1000);
+                if (!self.lobbyStream)
+                  self.ajaxLobbyLoopTimeout = setTimeout(()=>{
+                    Ajax.ajaxConnectionLoop(
+                      self.lobbyCode,
+                      (data_)=>{self.updateCheck(data_)}
+                    )},1000);
                 self.hideModal();
 
               });
@@ -814,6 +813,48 @@ const LobbyModule = (function(deps = {}) {
       }
     }
   
+    self.connectLobbyUpdates = () => {
+
+      if ( !deps.window.EventSource ) {
+        self.pollLobbyUpdates();
+        return;
+      }
+
+      self.lobbyStream = new deps.window.EventSource("/api/v1/lobby/" + self.lobbyCode + "/stream");
+
+      self.lobbyStream.addEventListener("lobby", (event) => {
+        self.lobbySetupAfterChange(JSON.parse(event.data));
+      });
+      self.lobbyStream.addEventListener("gameStarted", (event) => {
+        self.closeLobbyStream();
+        self.updateCheck({gameStarted: true, gameID: JSON.parse(event.data).gameID});
+      });
+      self.lobbyStream.addEventListener("closed", () => {
+        self.closeLobbyStream();
+        self.pollLobbyUpdates();
+      });
+      self.lobbyStream.onerror = () => {
+        if (debug)
+          console.warn("lobbyStream error, falling back to polling");
+        self.closeLobbyStream();
+        self.pollLobbyUpdates();
+      };
+    }
+
+    self.closeLobbyStream = () => {
+      if (self.lobbyStream) {
+        self.lobbyStream.close();
+        self.lobbyStream = null;
+      }
+    }
+
+    self.pollLobbyUpdates = () => {
+      Ajax.ajaxConnectionLoop(
+          self.lobbyCode,
+          (data)=>{self.updateCheck(data)}
+        );
+    }
+  
     self.updateCheck = (data) => {
   
       self.ajaxLobbyLoopTimeout = setTimeout(()=>{
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -13,10 +14,14 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,9 +35,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -46,12 +53,12 @@ import com.projteam.competico.dto.game.GameResultPersonalDTO;
 import com.projteam.competico.dto.game.GameResultTotalDTO;
 import com.projteam.competico.dto.game.GameResultTotalDuringGameDTO;
 import com.projteam.competico.dto.game.LeaderboardEntryDTO;
-import com.projteam.competico.dto.game.tasks.show.TaskInfoDTO;
 import com.projteam.competico.service.AccountService;
 import com.projteam.competico.service.game.GameService;
 import com.projteam.competico.service.game.GameTaskDataService;
 import com.projteam.competico.service.game.LobbyService;
 import com.projteam.competico.service.game.PlayerDataService;
+import com.projteam.competico.service.game.TaskPayloadCache;
 
 @SpringBootTest
 @ContextConfiguration(name = "API-tests")
@@ -118,21 +125,56 @@ public class GameAPITests
 		
 		Task task = new WordFill(UUID.randomUUID(), "Test instruction", List.of(),
 				new WordFillElement(UUID.randomUUID(), text, emptySpaces, false, possibleAnswers), 100);
-		TaskInfoDTO taskInfo = task.prepareTaskInfo(taskNumber, taskNumber * 2);
+		byte[] payload = new TaskPayloadCache(mapper, 1)
+				.getTaskInfo(task, 0, taskNumber, taskNumber * 2);
 		
 		when(gameService.hasGameFinished(gameCode)).thenReturn(false);
-		when(gameService.getCurrentTaskInfo(gameCode)).thenReturn(taskInfo);
+		when(gameService.getCurrentTaskPayload(gameCode)).thenReturn(payload);
 		
 		String res = mvc.perform(get("/api/v1/game/" + gameCode + "/tasks/current"))
 			.andExpect(status().isOk())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+			.andExpect(jsonPath("$.currentTaskNumber", is(taskNumber)))
+			.andExpect(jsonPath("$.taskCount", is(taskNumber * 2)))
+			.andExpect(jsonPath("$.taskName", is("WordFill")))
 			.andReturn()
 			.getResponse()
 			.getContentAsString();
 		
-		assertEquals(mapper.readTree(res), mapper.valueToTree(taskInfo));
+		assertEquals(mapper.readTree(payload), mapper.readTree(res));
 		
 		verify(gameService, times(1)).hasGameFinished(gameCode);
-		verify(gameService, times(1)).getCurrentTaskInfo(gameCode);
+		verify(gameService, times(1)).getCurrentTaskTag(gameCode);
+		verify(gameService, times(1)).getCurrentTaskPayload(gameCode);
+		verifyNoMoreInteractions(gameService);
+	}
+	@Test
+	public void shouldTagCurrentTask() throws Exception
+	{
+		String gameCode = "gameCode";
+		when(gameService.hasGameFinished(gameCode)).thenReturn(false);
+		when(gameService.getCurrentTaskTag(gameCode)).thenReturn(Optional.of("task.1"));
+		when(gameService.getCurrentTaskPayload(gameCode)).thenReturn("{}".getBytes());
+		
+		mvc.perform(get("/api/v1/game/" + gameCode + "/tasks/current"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"task.1\""))
+			.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+	}
+	@Test
+	public void shouldNotBuildCurrentTaskWhenItDidNotChange() throws Exception
+	{
+		String gameCode = "gameCode";
+		when(gameService.hasGameFinished(gameCode)).thenReturn(false);
+		when(gameService.getCurrentTaskTag(gameCode)).thenReturn(Optional.of("task.1"));
+		
+		mvc.perform(get("/api/v1/game/" + gameCode + "/tasks/current")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"task.1\""))
+			.andExpect(status().isNotModified())
+			.andExpect(content().string(""));
+		
+		verify(gameService, times(1)).hasGameFinished(gameCode);
+		verify(gameService, times(1)).getCurrentTaskTag(gameCode);
 		verifyNoMoreInteractions(gameService);
 	}
 	@Test
@@ -156,6 +198,14 @@ public class GameAPITests
 		
 		List<String> answers = List.of("abc", "def", "ghi", "jkl");
 		TaskAnswer answer = new WordFillAnswer(answers);
+		List<JsonNode> received = new ArrayList<>();
+		
+		when(gameService.acceptAnswer(eq(gameCode), any(InputStream.class)))
+			.thenAnswer(inv ->
+			{
+				received.add(mapper.readTree(inv.getArgument(1, InputStream.class)));
+				return true;
+			});
 		
 		mvc.perform(post("/api/v1/game/" + gameCode + "/tasks/answer")
 				.contentType(APPLICATION_JSON_UTF8)
@@ -163,8 +213,8 @@ public class GameAPITests
 						.toString()))
 			.andExpect(status().isOk());
 		
-		verify(gameService, times(1)).acceptAnswer(eq(gameCode), 
-				(JsonNode) eq(mapper.valueToTree(answer)));
+		assertEquals(List.of(mapper.valueToTree(answer)), received);
+		verify(gameService, times(1)).acceptAnswer(eq(gameCode), any(InputStream.class));
 		verifyNoMoreInteractions(gameService);
 	}
 	@Test
@@ -174,14 +224,14 @@ public class GameAPITests
 		
 		Mockito.doThrow(JsonProcessingException.class)
 			.when(gameService)
-			.acceptAnswer(eq(gameCode), (JsonNode) any());
+			.acceptAnswer(eq(gameCode), any(InputStream.class));
 		
 		mvc.perform(post("/api/v1/game/" + gameCode + "/tasks/answer")
 				.contentType(APPLICATION_JSON_UTF8)
 				.content("{}"))
 			.andExpect(status().isBadRequest());
 		
-		verify(gameService, times(1)).acceptAnswer(eq(gameCode), (JsonNode) any());
+		verify(gameService, times(1)).acceptAnswer(eq(gameCode), any(InputStream.class));
 		verifyNoMoreInteractions(gameService);
 	}
 	@Test
@@ -234,6 +284,69 @@ public class GameAPITests
 		assertEquals(mapper.treeToValue(json.get(1), grClass), grt2);
 	}
 	@Test
+	public void shouldNotBuildResultsWhenTheyDidNotChange() throws Exception
+	{
+		UUID gameID = UUID.randomUUID();
+		when(gameService.getCurrentResultsTag(gameID)).thenReturn(Optional.of(gameID + ".3"));
+		
+		mvc.perform(get("/api/v1/scores/" + gameID + "/total")
+				.header(HttpHeaders.IF_NONE_MATCH, "W/\"other\", \"" + gameID + ".3\""))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"" + gameID + ".3\""));
+		
+		verify(gameService, times(1)).getCurrentResultsTag(gameID);
+		verifyNoMoreInteractions(gameService);
+	}
+	@Test
+	public void shouldGetResultsWhenTheyChanged() throws Exception
+	{
+		UUID gameID = UUID.randomUUID();
+		when(gameService.getCurrentResultsTag(gameID)).thenReturn(Optional.of(gameID + ".4"));
+		when(gameService.getCurrentResults(gameID)).thenReturn(Optional.of(List.of()));
+		
+		mvc.perform(get("/api/v1/scores/" + gameID + "/total")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"" + gameID + ".3\""))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"" + gameID + ".4\""))
+			.andExpect(jsonPath("$", hasSize(0)));
+	}
+	@Test
+	public void shouldNotLoadSavedResultsAgain() throws Exception
+	{
+		UUID gameID = UUID.randomUUID();
+		when(gameService.getSavedResultsTag(gameID)).thenReturn(Optional.of(gameID + ".final"));
+		
+		mvc.perform(get("/api/v1/scores/" + gameID + "/total")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"" + gameID + ".final\""))
+			.andExpect(status().isNotModified());
+		
+		verify(gameService, never()).getCurrentResults(gameID);
+		verify(gameService, never()).getResults(gameID);
+	}
+	@Test
+	public void shouldNotTagMissingResults() throws Exception
+	{
+		UUID gameID = UUID.randomUUID();
+		when(gameService.getSavedResultsTag(gameID)).thenReturn(Optional.of(gameID + ".final"));
+		when(gameService.getResults(gameID)).thenReturn(Optional.empty());
+		
+		mvc.perform(get("/api/v1/scores/" + gameID + "/total"))
+			.andExpect(status().isOk())
+			.andExpect(header().doesNotExist(HttpHeaders.ETAG));
+	}
+	@Test
+	public void shouldNotReportUnknownGameAsUnchanged() throws Exception
+	{
+		UUID gameID = UUID.randomUUID();
+		when(gameService.getSavedResultsTag(gameID)).thenReturn(Optional.empty());
+		when(gameService.getResults(gameID)).thenReturn(Optional.empty());
+		
+		mvc.perform(get("/api/v1/scores/" + gameID + "/total")
+				.header(HttpHeaders.IF_NONE_MATCH, "\"" + gameID + ".final\""))
+			.andExpect(status().isOk())
+			.andExpect(header().doesNotExist(HttpHeaders.ETAG));
+	}
+	@Test
 	public void shouldGetPersonalResults() throws Exception
 	{
 		UUID gameID = UUID.randomUUID();
@@ -303,6 +416,34 @@ public class GameAPITests
 		verifyNoMoreInteractions(gameService);
 	}
 	
+	@Test
+	public void shouldStreamTotalResults() throws Exception
+	{
+		UUID gameID = UUID.randomUUID();
+		
+		when(gameService.subscribeToScoreboard(gameID)).thenReturn(Optional.of(new SseEmitter()));
+		
+		mvc.perform(get("/api/v1/scores/" + gameID + "/total/stream"))
+			.andExpect(status().isOk())
+			.andExpect(request().asyncStarted());
+		
+		verify(gameService, times(1)).subscribeToScoreboard(gameID);
+		verifyNoMoreInteractions(gameService);
+	}
+	@Test
+	public void shouldNotStreamTotalResultsIfGameNotExists() throws Exception
+	{
+		UUID gameID = UUID.randomUUID();
+		
+		when(gameService.subscribeToScoreboard(gameID)).thenReturn(Optional.empty());
+		
+		mvc.perform(get("/api/v1/scores/" + gameID + "/total/stream"))
+			.andExpect(status().isNotFound());
+		
+		verify(gameService, times(1)).subscribeToScoreboard(gameID);
+		verifyNoMoreInteractions(gameService);
+	}
+	
 	@Test
 	public void shouldNoteInteractionSuccessfully() throws Exception
 	{
@@ -2,6 +2,8 @@ package com.projteam.competico.api;
 
 import static com.projteam.competico.domain.Account.PLAYER_ROLE;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -11,7 +13,9 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import java.nio.charset.Charset;
 import java.util.List;
@@ -25,12 +29,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.testcontainers.shaded.com.fasterxml.jackson.core.JsonProcessingException;
 import org.testcontainers.shaded.com.fasterxml.jackson.databind.ObjectMapper;
 import com.projteam.competico.domain.Account;
+import com.projteam.competico.domain.game.PlayerRef;
 import com.projteam.competico.dto.lobby.LobbyOptionsDTO;
 import com.projteam.competico.service.AccountService;
 import com.projteam.competico.service.game.GameService;
@@ -126,14 +133,44 @@ public class LobbyAPITests
 		when(lobbyService.getMaximumPlayerCount(gameCode)).thenReturn(20);
 		when(lobbyService.getMaximumPlayerCount(gameCode)).thenReturn(20);
 		Account host = mockHost(PLAYER_ROLE);
-		when(lobbyService.getHost(gameCode)).thenReturn(host);
-		when(lobbyService.getPlayers(gameCode)).thenReturn(List.of(host));
+		when(lobbyService.getHost(gameCode)).thenReturn(PlayerRef.of(host));
+		when(lobbyService.getPlayers(gameCode)).thenReturn(List.of(PlayerRef.of(host)));
 		
 		mvc.perform(get("/api/v1/lobby/" + gameCode))
 			.andExpect(status().isOk())
 			.andExpect(jsonPath("$.exists", is(true)));
 	}
 	@Test
+	public void shouldTagLobbyStatus() throws Exception
+	{
+		String gameCode = "gameCode";
+		when(lobbyService.getStatusTag(gameCode)).thenReturn(Optional.of(gameCode + ".2"));
+		when(lobbyService.lobbyExists(gameCode)).thenReturn(true);
+		Account host = mockHost(PLAYER_ROLE);
+		when(lobbyService.getHost(gameCode)).thenReturn(PlayerRef.of(host));
+		when(lobbyService.getPlayers(gameCode)).thenReturn(List.of(PlayerRef.of(host)));
+		
+		mvc.perform(get("/api/v1/lobby/" + gameCode)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"" + gameCode + ".1\""))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"" + gameCode + ".2\""))
+			.andExpect(jsonPath("$.exists", is(true)));
+	}
+	@Test
+	public void shouldNotBuildLobbyStatusWhenItDidNotChange() throws Exception
+	{
+		String gameCode = "gameCode";
+		when(lobbyService.getStatusTag(gameCode)).thenReturn(Optional.of(gameCode + ".2"));
+		
+		mvc.perform(get("/api/v1/lobby/" + gameCode)
+				.header(HttpHeaders.IF_NONE_MATCH, "\"" + gameCode + ".2\""))
+			.andExpect(status().isNotModified())
+			.andExpect(content().string(""));
+		
+		verify(lobbyService, times(1)).getStatusTag(gameCode);
+		verifyNoMoreInteractions(lobbyService);
+	}
+	@Test
 	public void whenLobbyDoesNotExistShouldInformAboutIt() throws Exception
 	{
 		String gameCode = "gameCode";
@@ -256,6 +293,38 @@ public class LobbyAPITests
 		verifyNoMoreInteractions(lobbyService);
 	}
 	
+	@Test
+	public void shouldStreamLobbyStatus() throws Exception
+	{
+		String gameCode = "gameCode";
+		Account host = mockHost(PLAYER_ROLE);
+		when(accountService.getAuthenticatedAccount()).thenReturn(Optional.of(host));
+		when(lobbyService.subscribeToLobby(eq(gameCode), eq(host), any()))
+			.thenReturn(Optional.of(new SseEmitter()));
+		
+		mvc.perform(get("/api/v1/lobby/" + gameCode + "/stream"))
+			.andExpect(status().isOk())
+			.andExpect(request().asyncStarted());
+		
+		verify(lobbyService, times(1)).subscribeToLobby(eq(gameCode), eq(host), any());
+		verifyNoMoreInteractions(lobbyService);
+	}
+	@Test
+	public void shouldNotStreamLobbyStatusIfLobbyNotExists() throws Exception
+	{
+		String gameCode = "gameCode";
+		Account host = mockHost(PLAYER_ROLE);
+		when(accountService.getAuthenticatedAccount()).thenReturn(Optional.of(host));
+		when(lobbyService.subscribeToLobby(eq(gameCode), eq(host), any()))
+			.thenReturn(Optional.empty());
+		
+		mvc.perform(get("/api/v1/lobby/" + gameCode + "/stream"))
+			.andExpect(status().isNotFound());
+		
+		verify(lobbyService, times(1)).subscribeToLobby(eq(gameCode), eq(host), any());
+		verifyNoMoreInteractions(lobbyService);
+	}
+	
 	@Test
 	public void shouldRemovePlayerSuccessfully() throws Exception
 	{
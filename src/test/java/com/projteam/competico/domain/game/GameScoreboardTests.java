@@ -0,0 +1,157 @@
+package com.projteam.competico.domain.game;
+
+import static com.projteam.competico.domain.Account.PLAYER_ROLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import com.projteam.competico.domain.Account;
+import com.projteam.competico.domain.game.tasks.Task;
+import com.projteam.competico.dto.game.GameResultTotalDuringGameDTO;
+
+public class GameScoreboardTests
+{
+	@Test
+	public void scoreboardStartsEmpty()
+	{
+		Account player1 = mockAccount();
+		Account player2 = mockAccount();
+		Game game = mockGame(2, player1, player2);
+
+		List<GameResultTotalDuringGameDTO> results = game.getCurrentResults();
+
+		assertEquals(2, results.size());
+		assertTrue(results.stream().allMatch(r -> r.getTotalScore() == 0));
+		assertEquals(0, game.getCurrentResultsWithIDs().get(player1.getId()).getTotalScore());
+	}
+	@Test
+	public void scoreboardIsRankedAfterAdvancing()
+	{
+		Account player1 = mockAccount();
+		Account player2 = mockAccount();
+		Account player3 = mockAccount();
+		Game game = mockGame(2, player1, player2, player3);
+
+		game.advance(player3, 0, 0.5);
+		game.advance(player2, 0, 1);
+		game.advance(player1, 0, 0.25);
+
+		assertEquals(List.of(player2.getUsername(), player3.getUsername(), player1.getUsername()),
+				usernames(game.getCurrentResults()));
+
+		game.advance(player1, 1, 1);
+
+		assertEquals(List.of(player1.getUsername(), player2.getUsername(), player3.getUsername()),
+				usernames(game.getCurrentResults()));
+	}
+	@Test
+	public void scoreboardMatchesPerTaskScores()
+	{
+		Account player = mockAccount();
+		Game game = mockGame(2, player);
+
+		game.advance(player, 0, 0.5);
+		game.advance(player, 1, 1);
+
+		GameResultTotalDuringGameDTO result = game.getCurrentResultsWithIDs().get(player.getId());
+		long expectedScore = (long) game.getPersonalResults(player)
+				.stream()
+				.mapToDouble(r -> Game.calculateScore(
+						r.getCompletion(), r.getDifficulty(), r.getTimeTaken()))
+				.sum();
+		assertEquals(expectedScore, result.getTotalScore());
+		assertTrue(result.isHasFinished());
+		assertFalse(result.isRemovedForInactivity());
+	}
+	@Test
+	public void repeatedAnswerIsScoredOnlyOnce() throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try
+		{
+			for (int attempt = 0; attempt < 100; attempt++)
+			{
+				Account player = mockAccount();
+				Game game = mockGame(2, player);
+				CountDownLatch start = new CountDownLatch(1);
+				Callable<Boolean> answer = () ->
+				{
+					start.await();
+					return game.advance(player, 0, 1);
+				};
+
+				Future<Boolean> first = executor.submit(answer);
+				Future<Boolean> second = executor.submit(answer);
+				start.countDown();
+
+				assertTrue(first.get() ^ second.get());
+				assertEquals(1, game.getCurrentTaskNumber(player));
+				assertFalse(game.getCurrentResultsWithIDs().get(player.getId()).isHasFinished());
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+	@Test
+	public void scoreboardShowsRemovedPlayers()
+	{
+		Account player1 = mockAccount();
+		Account player2 = mockAccount();
+		Game game = mockGame(1, player1, player2);
+
+		game.advance(player1, 0, 1);
+		game.markInactive(player2);
+		game.removeIfInactive(player2.getId(), 1000);
+
+		Map<UUID, GameResultTotalDuringGameDTO> results = game.getCurrentResultsWithIDs();
+		assertFalse(results.get(player1.getId()).isRemovedForInactivity());
+		assertTrue(results.get(player2.getId()).isRemovedForInactivity());
+		assertTrue(game.hasGameFinished());
+	}
+
+	//---Helpers---
+
+	private static Game mockGame(int taskCount, Account... players)
+	{
+		Task task = mock(Task.class);
+		when(task.getDifficulty()).thenReturn(100.0);
+		List<Task> tasks = Collections.nCopies(taskCount, task);
+		List<PlayerRef> playerList = Stream.of(players)
+				.map(p -> PlayerRef.of(p))
+				.collect(Collectors.toList());
+		return new Game(playerList, List.of(), taskCount, playerList.stream()
+				.collect(Collectors.toMap(p -> p.getId(), p -> tasks)));
+	}
+	private static List<String> usernames(List<GameResultTotalDuringGameDTO> results)
+	{
+		return results.stream()
+				.map(r -> r.getUsername())
+				.collect(Collectors.toList());
+	}
+	private static Account mockAccount()
+	{
+		UUID id = UUID.randomUUID();
+		return new Account.Builder()
+				.withID(id)
+				.withEmail(id + "@test.pl")
+				.withUsername("Test" + id)
+				.withPassword("QWERTY")
+				.withRoles(List.of(PLAYER_ROLE))
+				.build();
+	}
+}
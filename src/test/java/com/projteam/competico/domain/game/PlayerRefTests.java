@@ -0,0 +1,87 @@
+package com.projteam.competico.domain.game;
+
+import static com.projteam.competico.domain.Account.LECTURER_ROLE;
+import static com.projteam.competico.domain.Account.PLAYER_ROLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import com.projteam.competico.domain.Account;
+
+public class PlayerRefTests
+{
+	@Test
+	public void keepsTheAccountsDetails()
+	{
+		Account account = mockAccount(List.of(PLAYER_ROLE));
+		PlayerRef ref = PlayerRef.of(account);
+
+		assertEquals(account.getId(), ref.getId());
+		assertEquals(account.getUsername(), ref.getUsername());
+		assertEquals(account.getNickname(), ref.getNickname());
+		assertTrue(ref.refersTo(account));
+	}
+	@Test
+	public void keepsTheAccountsRoles()
+	{
+		PlayerRef player = PlayerRef.of(mockAccount(List.of(PLAYER_ROLE)));
+		PlayerRef lecturer = PlayerRef.of(mockAccount(List.of(LECTURER_ROLE)));
+		PlayerRef both = PlayerRef.of(mockAccount(List.of(LECTURER_ROLE, PLAYER_ROLE)));
+
+		assertTrue(player.hasRole(PLAYER_ROLE));
+		assertFalse(player.hasRole(LECTURER_ROLE));
+		assertEquals(List.of(LECTURER_ROLE), lecturer.getRoles());
+		assertEquals(List.of(PLAYER_ROLE, LECTURER_ROLE), both.getRoles());
+		assertFalse(both.hasRole("ADMIN"));
+	}
+	@Test
+	public void isEqualByAccountID()
+	{
+		Account account = mockAccount(List.of(PLAYER_ROLE));
+		PlayerRef before = PlayerRef.of(account);
+		account.setNickname("Renamed");
+		PlayerRef after = PlayerRef.of(account);
+
+		assertEquals(before, after);
+		assertEquals(before.hashCode(), after.hashCode());
+		assertNotEquals(before, PlayerRef.of(mockAccount(List.of(PLAYER_ROLE))));
+	}
+	@Test
+	public void renamedPlayersStayInTheirLobbyAndGame()
+	{
+		Account host = mockAccount(List.of(LECTURER_ROLE));
+		Account player = mockAccount(List.of(PLAYER_ROLE));
+		Lobby lobby = new Lobby("gameCode", host);
+		lobby.addPlayer(player, 1000);
+		Game game = new Game(List.of(PlayerRef.of(player)), List.of(PlayerRef.of(host)),
+				1, Map.of(player.getId(), List.of()));
+
+		player.setNickname("Renamed");
+		host.setNickname("Renamed host");
+
+		assertTrue(lobby.containsPlayer(player));
+		assertTrue(lobby.isHost(host));
+		assertTrue(game.containsPlayer(player));
+		assertTrue(game.containsSpectator(host));
+		assertTrue(lobby.removePlayer(player));
+	}
+
+	//---Helpers---
+
+	private static Account mockAccount(List<String> roles)
+	{
+		UUID id = UUID.randomUUID();
+		return new Account.Builder()
+				.withID(id)
+				.withEmail(id + "@test.pl")
+				.withUsername("user" + id)
+				.withNickname("nickname")
+				.withPassword("QWERTY")
+				.withRoles(roles)
+				.build();
+	}
+}
@@ -0,0 +1,356 @@
+package com.projteam.competico.domain.game.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import com.projteam.competico.domain.game.tasks.ChoiceWordFillElement.WordChoice;
+import com.projteam.competico.domain.game.tasks.WordFillElement.EmptySpace;
+import com.projteam.competico.domain.game.tasks.answers.ChoiceWordFillAnswer;
+import com.projteam.competico.domain.game.tasks.answers.ChronologicalOrderAnswer;
+import com.projteam.competico.domain.game.tasks.answers.ListChoiceWordFillAnswer;
+import com.projteam.competico.domain.game.tasks.answers.ListSentenceFormingAnswer;
+import com.projteam.competico.domain.game.tasks.answers.ListWordFillAnswer;
+import com.projteam.competico.domain.game.tasks.answers.OptionSelectAnswer;
+import com.projteam.competico.domain.game.tasks.answers.WordConnectAnswer;
+import com.projteam.competico.domain.game.tasks.answers.WordFillAnswer;
+
+//Compiled answer keys have to grade exactly like the original per-answer implementations
+public class AnswerKeyEquivalenceTests
+{
+	private static final int CASES = 500;
+	private static final List<String> WORDS = List.of("abc", "def", "ghi", "jkl");
+
+	@Test
+	public void chronologicalOrderGradesLikeBefore()
+	{
+		Random random = new Random(1);
+		for (int i = 0; i < CASES; i++)
+		{
+			List<String> correct = randomRow(random, false);
+			List<String> answers = randomAnswer(random, correct);
+			ChronologicalOrder co = new ChronologicalOrder(UUID.randomUUID(),
+					"Test instruction", List.of(), correct, 1);
+
+			assertEquals(outcome(() -> legacySequenceScore(correct, answers)),
+					outcome(() -> co.acceptAnswer(new ChronologicalOrderAnswer(answers))));
+		}
+	}
+	@Test
+	public void optionSelectGradesLikeBefore()
+	{
+		Random random = new Random(2);
+		for (int i = 0; i < CASES; i++)
+		{
+			List<String> correct = randomRow(random, false);
+			List<String> answers = randomAnswer(random, correct);
+			OptionSelect os = new OptionSelect(UUID.randomUUID(),
+					"Test instruction", List.of(),
+					new OptionSelectElement(UUID.randomUUID(), "Lorem ipsum", correct, List.of("xyz")), 1);
+
+			assertEquals(outcome(() -> legacySequenceScore(correct, answers)),
+					outcome(() -> os.acceptAnswer(new OptionSelectAnswer(answers))));
+		}
+	}
+	@Test
+	public void wordFillGradesLikeBefore()
+	{
+		Random random = new Random(3);
+		for (int i = 0; i < CASES; i++)
+		{
+			List<String> correct = randomRow(random, false);
+			List<String> answers = randomAnswer(random, correct);
+			WordFill wf = new WordFill(UUID.randomUUID(),
+					"Test instruction", List.of(),
+					new WordFillElement(UUID.randomUUID(), List.of("Lorem ipsum"),
+							emptySpaces(correct), false, WORDS), 1);
+
+			assertEquals(outcome(() -> legacySequenceScore(correct, answers)),
+					outcome(() -> wf.acceptAnswer(new WordFillAnswer(answers))));
+		}
+	}
+	@Test
+	public void choiceWordFillGradesLikeBefore()
+	{
+		Random random = new Random(4);
+		for (int i = 0; i < CASES; i++)
+		{
+			List<String> correct = randomRow(random, false);
+			List<String> answers = randomAnswer(random, correct);
+			ChoiceWordFill cwf = new ChoiceWordFill(UUID.randomUUID(),
+					"Test instruction", List.of(),
+					new ChoiceWordFillElement(UUID.randomUUID(), List.of("Lorem ipsum"),
+							wordChoices(correct), false), 1);
+
+			assertEquals(outcome(() -> legacySequenceScore(correct, answers)),
+					outcome(() -> cwf.acceptAnswer(new ChoiceWordFillAnswer(answers))));
+		}
+	}
+	@Test
+	public void listWordFillGradesLikeBefore()
+	{
+		Random random = new Random(5);
+		for (int i = 0; i < CASES; i++)
+		{
+			List<List<String>> correct = randomRows(random);
+			List<List<String>> answers = randomRowsAnswer(random, correct);
+			ListWordFill lwf = new ListWordFill(UUID.randomUUID(),
+					"Test instruction", List.of(),
+					correct.stream()
+						.map(row -> new WordFillElement(UUID.randomUUID(), List.of("Lorem ipsum"),
+								emptySpaces(row), false, WORDS))
+						.collect(Collectors.toList()), 1);
+
+			assertEquals(outcome(() -> legacyRowsScore(correct, answers)),
+					outcome(() -> lwf.acceptAnswer(new ListWordFillAnswer(answers))));
+		}
+	}
+	@Test
+	public void listChoiceWordFillGradesLikeBefore()
+	{
+		Random random = new Random(6);
+		for (int i = 0; i < CASES; i++)
+		{
+			List<List<String>> correct = randomRows(random);
+			List<List<String>> answers = randomRowsAnswer(random, correct);
+			ListChoiceWordFill lcwf = new ListChoiceWordFill(UUID.randomUUID(),
+					"Test instruction", List.of(),
+					correct.stream()
+						.map(row -> new ChoiceWordFillElement(UUID.randomUUID(), List.of("Lorem ipsum"),
+								wordChoices(row), false))
+						.collect(Collectors.toList()), 1);
+
+			assertEquals(outcome(() -> legacyRowsScore(correct, answers)),
+					outcome(() -> lcwf.acceptAnswer(new ListChoiceWordFillAnswer(answers))));
+		}
+	}
+	@Test
+	public void listSentenceFormingGradesLikeBefore()
+	{
+		Random random = new Random(7);
+		for (int i = 0; i < CASES; i++)
+		{
+			List<List<String>> correct = randomRows(random);
+			List<List<String>> answers = randomRowsAnswer(random, correct);
+			ListSentenceForming lsf = new ListSentenceForming(UUID.randomUUID(),
+					"Test instruction", List.of(),
+					correct.stream()
+						.map(row -> new SentenceFormingElement(UUID.randomUUID(), row))
+						.collect(Collectors.toList()), 1);
+
+			assertEquals(outcome(() -> legacyRowsScore(correct, answers)),
+					outcome(() -> lsf.acceptAnswer(new ListSentenceFormingAnswer(answers))));
+		}
+	}
+	@Test
+	public void wordConnectGradesLikeBefore()
+	{
+		Random random = new Random(8);
+		for (int i = 0; i < CASES; i++)
+		{
+			List<String> leftWords = randomRow(random, false);
+			List<String> rightWords = randomRow(random, false);
+			Map<Integer, Integer> correctMapping = new HashMap<>();
+			int mappingSize = random.nextInt(leftWords.size() + 2);
+			for (int j = 0; j < mappingSize; j++)
+				correctMapping.put(random.nextInt(leftWords.size() + 2) - 1,
+						random.nextInt(8) == 0?null:(random.nextInt(rightWords.size() + 2) - 1));
+			Map<String, String> answerMapping = null;
+			if (random.nextInt(20) != 0)
+			{
+				answerMapping = new HashMap<>();
+				int answerSize = random.nextInt(leftWords.size() + 2);
+				for (int j = 0; j < answerSize; j++)
+					answerMapping.put(randomWord(random, true), randomWord(random, true));
+			}
+			Map<String, String> answer = answerMapping;
+			WordConnect wc = new WordConnect(UUID.randomUUID(),
+					"Test instruction", List.of(),
+					leftWords, rightWords, correctMapping, 1);
+
+			assertEquals(outcome(() -> legacyWordConnectScore(leftWords, rightWords, correctMapping, answer)),
+					outcome(() -> wc.acceptAnswer(new WordConnectAnswer(answer))));
+		}
+	}
+	@Test
+	public void gradesWithReplacedContent()
+	{
+		ChronologicalOrder co = new ChronologicalOrder(UUID.randomUUID(),
+				"Test instruction", List.of(), List.of("abc", "def"), 1);
+		ChronologicalOrderAnswer coa = new ChronologicalOrderAnswer(List.of("def", "abc"));
+
+		assertEquals(0, co.acceptAnswer(coa));
+		co.setSentences(List.of("def", "abc"));
+		assertEquals(1, co.acceptAnswer(coa));
+	}
+
+	//---Helpers---
+
+	private static Object outcome(Supplier<Double> grading)
+	{
+		try
+		{
+			return grading.get();
+		}
+		catch (RuntimeException e)
+		{
+			return e.getClass();
+		}
+	}
+	private static String randomWord(Random random, boolean allowNull)
+	{
+		int i = random.nextInt(WORDS.size() + (allowNull?2:1));
+		if (i == WORDS.size())
+			return "xyz";
+		if (i > WORDS.size())
+			return null;
+		return WORDS.get(i);
+	}
+	private static List<String> randomRow(Random random, boolean allowNull)
+	{
+		List<String> ret = new ArrayList<>();
+		int size = random.nextInt(5);
+		for (int i = 0; i < size; i++)
+			ret.add(randomWord(random, allowNull));
+		return ret;
+	}
+	private static List<String> randomAnswer(Random random, List<String> correct)
+	{
+		if (random.nextInt(20) == 0)
+			return null;
+		if (random.nextInt(4) == 0)
+			return randomRow(random, true);
+		List<String> ret = new ArrayList<>();
+		for (String word: correct)
+			ret.add(random.nextBoolean()?word:randomWord(random, true));
+		return ret;
+	}
+	private static List<List<String>> randomRows(Random random)
+	{
+		List<List<String>> ret = new ArrayList<>();
+		int size = random.nextInt(4);
+		for (int i = 0; i < size; i++)
+			ret.add(randomRow(random, false));
+		return ret;
+	}
+	private static List<List<String>> randomRowsAnswer(Random random, List<List<String>> correct)
+	{
+		if (random.nextInt(20) == 0)
+			return null;
+		List<List<String>> ret = new ArrayList<>();
+		for (List<String> row: correct)
+		{
+			if (random.nextInt(10) == 0)
+				ret.add(null);
+			ret.add(randomAnswer(random, row));
+		}
+		if (random.nextInt(10) == 0)
+			ret.add(randomRow(random, true));
+		return ret;
+	}
+	private static List<EmptySpace> emptySpaces(List<String> answers)
+	{
+		return answers.stream()
+				.map(ans -> new EmptySpace(ans))
+				.collect(Collectors.toList());
+	}
+	private static List<WordChoice> wordChoices(List<String> answers)
+	{
+		return answers.stream()
+				.map(ans -> new WordChoice(UUID.randomUUID(), ans, List.of("xyz")))
+				.collect(Collectors.toList());
+	}
+
+	private static double legacySequenceScore(List<String> correct, List<String> ansList)
+	{
+		Iterator<String> iter = correct.iterator();
+
+		if (ansList == null)
+			return 0;
+
+		int aL = ansList.size();
+
+		if (aL != correct.size())
+			return 0;
+		if (aL == 0)
+			return 1;
+
+		long score = 0;
+
+		for (String s: ansList)
+		{
+			if (iter.next().equals(s))
+				score++;
+		}
+
+		return ((double) score) / aL;
+	}
+	private static double legacyRowsScore(List<List<String>> correct, List<List<String>> answers)
+	{
+		if (answers == null)
+			return 0;
+
+		Iterator<List<String>> iter = correct.iterator();
+
+		long l = correct.stream()
+				.mapToLong(row -> row.size())
+				.sum();
+		if (l == 0)
+			return 1;
+
+		long score = 0;
+
+		for (List<String> row: answers)
+		{
+			if (row == null)
+				continue;
+			List<String> currList = iter.next();
+			if (row.size() != currList.size())
+				continue;
+			Iterator<String> currIt = currList.iterator();
+			for (String ans: row)
+			{
+				if (currIt.next().equals(ans))
+					score++;
+			}
+		}
+
+		return ((double) score) / l;
+	}
+	private static double legacyWordConnectScore(List<String> leftWords, List<String> rightWords,
+			Map<Integer, Integer> correctMapping, Map<String, String> answerMapping)
+	{
+		if (answerMapping == null)
+			return 0;
+
+		int l = correctMapping.size();
+		if (l == 0)
+			return 1;
+
+		long score = 0;
+
+		for (Entry<String, String> e: answerMapping.entrySet())
+		{
+			Integer leftIndex = Optional.ofNullable(e.getKey())
+					.map(s -> leftWords.indexOf(s))
+					.orElse(-1);
+			Integer rightIndex = Optional.ofNullable(e.getValue())
+					.map(s -> rightWords.indexOf(s))
+					.orElse(-1);
+			if (correctMapping.containsKey(leftIndex)
+					&& (correctMapping.get(leftIndex) == rightIndex))
+				score++;
+		}
+
+		return ((double) score) / l;
+	}
+}
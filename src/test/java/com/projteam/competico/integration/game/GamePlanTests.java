@@ -0,0 +1,69 @@
+package com.projteam.competico.integration.game;
+
+import static com.projteam.competico.domain.Account.PLAYER_ROLE;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import com.projteam.competico.config.SecurityContextConfig;
+import com.projteam.competico.domain.Account;
+import com.projteam.competico.service.game.GameService;
+import com.projteam.competico.service.game.LobbyService;
+
+//Plans have to be prepared on the application's own schedule, nothing here prewarms them by hand
+@SpringBootTest
+@ContextConfiguration(name = "Integration-tests")
+@AutoConfigureMockMvc(addFilters = false)
+public class GamePlanTests
+{
+	private @MockBean SecurityContextConfig secConf;
+	
+	private @Autowired LobbyService lobbyService;
+	private @Autowired GameService gameService;
+	
+	private static final long PREPARE_TIMEOUT_MILLI = 5000;
+	
+	@Test
+	public void plansArePreparedWhileLobbiesForm() throws Exception
+	{
+		Account host = mockAccount();
+		Account player = mockAccount();
+		String gameCode = lobbyService.createLobby(host);
+		assertTrue(lobbyService.addPlayer(gameCode, player));
+		
+		awaitGamePlan(gameCode);
+		
+		assertTrue(gameService.createGameFromLobby(gameCode, host));
+		assertFalse(gameService.hasGamePlan(gameCode));
+	}
+	
+	//---Helpers---
+	
+	private void awaitGamePlan(String gameCode) throws Exception
+	{
+		long deadline = System.currentTimeMillis() + PREPARE_TIMEOUT_MILLI;
+		while (!gameService.hasGamePlan(gameCode))
+		{
+			assertTrue(System.currentTimeMillis() < deadline, "No plan within " + PREPARE_TIMEOUT_MILLI + "ms");
+			Thread.sleep(20);
+		}
+	}
+	private static Account mockAccount()
+	{
+		UUID id = UUID.randomUUID();
+		return new Account.Builder()
+				.withID(id)
+				.withEmail(id + "@test.pl")
+				.withUsername("Test" + id)
+				.withNickname("Test" + id)
+				.withPassword("QWERTY")
+				.withRoles(List.of(PLAYER_ROLE))
+				.build();
+	}
+}
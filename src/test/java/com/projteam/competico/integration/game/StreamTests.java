@@ -0,0 +1,123 @@
+package com.projteam.competico.integration.game;
+
+import static com.projteam.competico.domain.Account.PLAYER_ROLE;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import com.projteam.competico.config.SecurityContextConfig;
+import com.projteam.competico.domain.Account;
+import com.projteam.competico.domain.game.Game;
+import com.projteam.competico.domain.game.PlayerRef;
+import com.projteam.competico.domain.game.tasks.Task;
+import com.projteam.competico.service.game.GameRegistry;
+import com.projteam.competico.service.game.LobbyService;
+import com.projteam.competico.service.game.LobbyStreamService;
+import com.projteam.competico.service.game.ScoreboardStreamService;
+
+//Nothing here pushes pending changes by hand, they have to reach subscribers on the application's own schedule
+@SpringBootTest
+@ContextConfiguration(name = "Integration-tests")
+@AutoConfigureMockMvc(addFilters = false)
+public class StreamTests
+{
+	@Autowired
+	private MockMvc mvc;
+
+	private @MockBean SecurityContextConfig secConf;
+
+	private @Autowired GameRegistry games;
+	private @Autowired ScoreboardStreamService scoreboardStream;
+	private @Autowired LobbyService lobbyService;
+
+	private static final long PUSH_TIMEOUT_MILLI = 5000;
+
+	@Test
+	public void scoreboardChangesReachSubscribers() throws Exception
+	{
+		Account player = mockAccount();
+		Task task = mock(Task.class);
+		when(task.getDifficulty()).thenReturn(100.0);
+		Game game = new Game(List.of(PlayerRef.of(player)), List.of(),
+				1, Map.of(player.getId(), List.of(task)));
+		String gameCode = "stream" + game.getID();
+		assertTrue(games.register(gameCode, game));
+		switchAccount(player);
+
+		MvcResult stream = mvc.perform(get("/api/v1/scores/" + game.getID() + "/total/stream"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		awaitEvent(stream, "event:" + ScoreboardStreamService.SCORES_EVENT);
+
+		game.advance(player, 0, 1);
+		scoreboardStream.markChanged(game);
+
+		awaitEvent(stream, "event:" + ScoreboardStreamService.DELTA_EVENT);
+		games.remove(gameCode, game);
+	}
+	@Test
+	public void lobbyChangesReachSubscribers() throws Exception
+	{
+		Account host = mockAccount();
+		Account player = mockAccount();
+		String gameCode = lobbyService.createLobby(host);
+		switchAccount(host);
+
+		MvcResult stream = mvc.perform(get("/api/v1/lobby/" + gameCode + "/stream"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		awaitEvent(stream, "event:" + LobbyStreamService.LOBBY_EVENT);
+
+		assertTrue(lobbyService.addPlayer(gameCode, player));
+
+		awaitEvent(stream, player.getUsername());
+		lobbyService.deleteLobby(gameCode, host);
+	}
+
+	//---Helpers---
+
+	private void awaitEvent(MvcResult stream, String event) throws Exception
+	{
+		long deadline = System.currentTimeMillis() + PUSH_TIMEOUT_MILLI;
+		while (!stream.getResponse().getContentAsString().contains(event))
+		{
+			assertTrue(System.currentTimeMillis() < deadline, "No " + event + " within " + PUSH_TIMEOUT_MILLI + "ms");
+			Thread.sleep(20);
+		}
+	}
+	private void switchAccount(Account account)
+	{
+		SecurityContext sec = mock(SecurityContext.class);
+		Authentication auth = mock(Authentication.class);
+		when(auth.getPrincipal()).thenReturn(account);
+		when(auth.isAuthenticated()).thenReturn(true);
+		when(sec.getAuthentication()).thenReturn(auth);
+		when(secConf.getContext()).thenReturn(sec);
+	}
+	private static Account mockAccount()
+	{
+		UUID id = UUID.randomUUID();
+		return new Account.Builder()
+				.withID(id)
+				.withEmail(id + "@test.pl")
+				.withUsername("Test" + id)
+				.withNickname("Test" + id)
+				.withPassword("QWERTY")
+				.withRoles(List.of(PLAYER_ROLE))
+				.build();
+	}
+}
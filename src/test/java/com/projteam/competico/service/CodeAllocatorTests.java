@@ -0,0 +1,127 @@
+package com.projteam.competico.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CodeAllocatorTests
+{
+	private CodeAllocator codes;
+
+	@BeforeEach
+	public void setup()
+	{
+		codes = new CodeAllocator(new Random(1));
+	}
+
+	@Test
+	public void gameCodesAreAlphanumericOfTheRightLength()
+	{
+		for (int i = 0; i < 1000; i++)
+		{
+			String code = codes.allocateGameCode();
+			assertEquals(CodeAllocator.GAME_CODE_LENGTH, code.length());
+			assertTrue(code.matches("[0-9a-zA-Z]+"));
+		}
+	}
+	@Test
+	public void groupCodesAreAlphanumericOfTheRightLength()
+	{
+		for (int i = 0; i < 1000; i++)
+		{
+			String code = codes.allocateGroupCode(c -> true);
+			assertEquals(CodeAllocator.GROUP_CODE_LENGTH, code.length());
+			assertTrue(code.matches("[0-9a-zA-Z]+"));
+		}
+	}
+	@Test
+	public void consecutiveCodesDoNotRepeat()
+	{
+		Set<String> issued = new HashSet<>();
+		for (int i = 0; i < 100000; i++)
+			assertTrue(issued.add(codes.allocateGameCode()));
+		assertEquals(100000, codes.getReservedCount());
+	}
+	@Test
+	public void consecutiveCodesDoNotLookSequential()
+	{
+		String first = codes.allocateGameCode();
+		String second = codes.allocateGameCode();
+
+		assertNotEquals(first.substring(0, CodeAllocator.GAME_CODE_LENGTH - 1),
+				second.substring(0, CodeAllocator.GAME_CODE_LENGTH - 1));
+	}
+	@Test
+	public void concurrentAllocationsAreUnique() throws Exception
+	{
+		Set<String> issued = ConcurrentHashMap.newKeySet();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try
+		{
+			List<Future<Boolean>> results = pool.invokeAll(IntStream.range(0, 8)
+					.mapToObj(t -> (Callable<Boolean>) () ->
+					{
+						boolean unique = true;
+						for (int i = 0; i < 10000; i++)
+							unique &= issued.add(codes.allocateGameCode());
+						return unique;
+					})
+					.collect(Collectors.toList()), 1, TimeUnit.MINUTES);
+			for (Future<Boolean> result: results)
+				assertTrue(result.get());
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+		assertEquals(80000, issued.size());
+	}
+	@Test
+	public void skipsReservedCodes()
+	{
+		CodeAllocator same = new CodeAllocator(new Random(1));
+		String taken = same.allocateGameCode();
+
+		assertTrue(codes.reserve(taken));
+		assertNotEquals(taken, codes.allocateGameCode());
+	}
+	@Test
+	public void releasedCodesCanBeReservedAgain()
+	{
+		String code = codes.allocateGameCode();
+
+		assertFalse(codes.reserve(code));
+		codes.release(code);
+		assertFalse(codes.isReserved(code));
+		assertTrue(codes.reserve(code));
+	}
+	@Test
+	public void skipsGroupCodesThatAreTaken()
+	{
+		CodeAllocator same = new CodeAllocator(new Random(1));
+		String taken = same.allocateGroupCode(c -> true);
+
+		assertNotEquals(taken, codes.allocateGroupCode(c -> !c.equals(taken)));
+	}
+	@Test
+	public void failsWhenNoGroupCodeIsFree()
+	{
+		assertThrows(IllegalArgumentException.class, () -> codes.allocateGroupCode(c -> false));
+	}
+}
@@ -0,0 +1,105 @@
+package com.projteam.competico.service.game;
+
+import static com.projteam.competico.service.game.ExpiryScheduler.NO_DEADLINE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ExpirySchedulerTests
+{
+	private List<Runnable> finalized;
+	private ExpiryScheduler scheduler;
+
+	@BeforeEach
+	public void setup()
+	{
+		finalized = new ArrayList<>();
+		scheduler = new ExpiryScheduler(finalized::add);
+	}
+
+	@Test
+	public void expiresEntriesPastTheirDeadline()
+	{
+		AtomicInteger checks = new AtomicInteger();
+		scheduler.schedule(System.nanoTime(), now ->
+		{
+			checks.incrementAndGet();
+			return NO_DEADLINE;
+		});
+
+		scheduler.expireDue();
+
+		assertEquals(1, checks.get());
+		assertEquals(0, scheduler.size());
+	}
+	@Test
+	public void keepsEntriesBeforeTheirDeadline()
+	{
+		AtomicInteger checks = new AtomicInteger();
+		scheduler.schedule(System.nanoTime() + TimeUnit.MINUTES.toNanos(1), now ->
+		{
+			checks.incrementAndGet();
+			return NO_DEADLINE;
+		});
+
+		scheduler.expireDue();
+
+		assertEquals(0, checks.get());
+		assertEquals(1, scheduler.size());
+	}
+	@Test
+	public void reschedulesEntriesThatAreNotDueYet()
+	{
+		AtomicInteger checks = new AtomicInteger();
+		scheduler.schedule(System.nanoTime(), now ->
+		{
+			checks.incrementAndGet();
+			return now + TimeUnit.MINUTES.toNanos(1);
+		});
+
+		scheduler.expireDue();
+		scheduler.expireDue();
+
+		assertEquals(1, checks.get());
+		assertEquals(1, scheduler.size());
+	}
+	@Test
+	public void dropsEntriesThatFailToCheck()
+	{
+		scheduler.schedule(System.nanoTime(), now ->
+		{
+			throw new IllegalStateException();
+		});
+
+		scheduler.expireDue();
+
+		assertEquals(0, scheduler.size());
+	}
+	@Test
+	public void finalizesOnTheFinalizer()
+	{
+		AtomicInteger runs = new AtomicInteger();
+
+		scheduler.execute(runs::incrementAndGet);
+
+		assertEquals(0, runs.get());
+		assertEquals(1, finalized.size());
+		finalized.get(0).run();
+		assertEquals(1, runs.get());
+	}
+	@Test
+	public void finalizerSurvivesFailingTasks()
+	{
+		scheduler.execute(() ->
+		{
+			throw new IllegalStateException();
+		});
+
+		finalized.get(0).run();
+		assertEquals(1, finalized.size());
+	}
+}
@@ -0,0 +1,277 @@
+package com.projteam.competico.service.game;
+
+import static com.projteam.competico.domain.Account.PLAYER_ROLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.projteam.competico.domain.Account;
+import com.projteam.competico.domain.game.Game;
+import com.projteam.competico.domain.game.PlayerRef;
+import com.projteam.competico.domain.game.tasks.Task;
+import com.projteam.competico.domain.game.tasks.WordConnect;
+
+public class GameJournalTests
+{
+	@TempDir Path journalDir;
+
+	private GameJournal journal;
+
+	private static final int JOURNAL_SIZE = 4096;
+
+	@BeforeEach
+	public void setup()
+	{
+		journal = openJournal();
+	}
+	@AfterEach
+	public void cleanup()
+	{
+		journal.close();
+	}
+
+	@Test
+	public void runningGameIsRecoveredAfterCrash()
+	{
+		Account player1 = mockPlayer();
+		Account player2 = mockPlayer();
+		Map<UUID, List<Task>> taskMap = mockTaskMap(player1, player2);
+		Game game = new Game(refs(player1, player2), List.of(), 2, taskMap);
+		journal.gameCreated("gameCode", game, refs(player1, player2), List.of(), taskMap);
+		game.setProgressListener(journal);
+
+		game.advance(player1, 0, 0.5);
+		game.advance(player1, 1, 1);
+		game.advance(player2, 0, 1);
+
+		JournaledGame jg = recoverSingleGame(openJournal());
+		assertEquals("gameCode", jg.getGameCode());
+		assertEquals(game.getID(), jg.getGameID());
+		assertEquals(Optional.empty(), jg.getGroupId());
+		assertEquals(2, jg.getTaskCount());
+		assertEquals(taskMap.get(player1.getId()).get(1).getId(),
+				jg.getPlayerTasks().get(player1.getId()).get(1).getKey());
+
+		Game restored = Game.restore(jg.getGameID(), refs(player1, player2), List.of(),
+				jg.getTaskCount(), taskMap, jg.getGroupId());
+		jg.replay(restored);
+
+		assertTrue(restored.hasGameFinishedFor(player1));
+		assertEquals(1, restored.getCurrentTaskNumber(player2));
+		assertEquals(game.getCurrentResults(), restored.getCurrentResults());
+	}
+	@Test
+	public void waitsUntilJournaledAnswersAreFlushed()
+	{
+		Account player = mockPlayer();
+		Map<UUID, List<Task>> taskMap = mockTaskMap(player);
+		Game game = new Game(refs(player), List.of(), 2, taskMap);
+		journal.gameCreated("gameCode", game, refs(player), List.of(), taskMap);
+		game.setProgressListener(journal);
+		game.advance(player, 0, 1);
+
+		assertTimeoutPreemptively(Duration.ofSeconds(1), () -> journal.awaitFlush());
+	}
+	@Test
+	public void closedJournalDoesNotWait()
+	{
+		journal.close();
+
+		assertTimeoutPreemptively(Duration.ofMillis(100), () -> journal.awaitFlush());
+	}
+	@Test
+	public void removedPlayersStayRemovedAfterRecovery()
+	{
+		Account player1 = mockPlayer();
+		Account player2 = mockPlayer();
+		Map<UUID, List<Task>> taskMap = mockTaskMap(player1, player2);
+		Game game = new Game(refs(player1, player2), List.of(), 2, taskMap);
+		journal.gameCreated("gameCode", game, refs(player1, player2), List.of(), taskMap);
+		game.setProgressListener(journal);
+
+		game.markInactive(player2);
+		game.removeIfInactive(player2.getId(), 60000);
+
+		JournaledGame jg = recoverSingleGame(openJournal());
+		Game restored = Game.restore(jg.getGameID(), refs(player1, player2), List.of(),
+				jg.getTaskCount(), taskMap, jg.getGroupId());
+		jg.replay(restored);
+
+		assertTrue(restored.isPlayerActive(player1));
+		assertFalse(restored.isPlayerActive(player2));
+	}
+	@Test
+	public void endedGamesAreNotRecovered()
+	{
+		Account player = mockPlayer();
+		Map<UUID, List<Task>> taskMap = mockTaskMap(player);
+		Game game = new Game(refs(player), List.of(), 2, taskMap);
+		journal.gameCreated("gameCode", game, refs(player), List.of(), taskMap);
+
+		journal.gameEnded(game.getID());
+
+		assertTrue(openJournal().takeRecoveredGames().isEmpty());
+	}
+	@Test
+	public void journalIsCompactedWhenFull()
+	{
+		Account player = mockPlayer();
+		Map<UUID, List<Task>> taskMap = mockTaskMap(player);
+
+		for (int i = 0; i < 100; i++)
+		{
+			Game game = new Game(refs(player), List.of(), 2, taskMap);
+			journal.gameCreated("gameCode" + i, game, refs(player), List.of(), taskMap);
+			journal.gameEnded(game.getID());
+		}
+		Game game = new Game(refs(player), List.of(), 2, taskMap);
+		journal.gameCreated("lastGame", game, refs(player), List.of(), taskMap);
+
+		assertEquals("lastGame", recoverSingleGame(openJournal()).getGameCode());
+	}
+	@Test
+	public void journalIsCheckpointedInTheBackground() throws Exception
+	{
+		Account player = mockPlayer();
+		Map<UUID, List<Task>> taskMap = mockTaskMap(player);
+
+		//Past the checkpoint threshold, but nowhere near full
+		for (int i = 0; i < 25; i++)
+		{
+			Game game = new Game(refs(player), List.of(), 2, taskMap);
+			journal.gameCreated("endedGame" + i, game, refs(player), List.of(), taskMap);
+			journal.gameEnded(game.getID());
+		}
+		Game game = new Game(refs(player), List.of(), 2, taskMap);
+		journal.gameCreated("lastGame", game, refs(player), List.of(), taskMap);
+
+		Path journalFile = journalDir.resolve("games.journal");
+		long deadline = System.currentTimeMillis() + 5000;
+		while (new String(Files.readAllBytes(journalFile), StandardCharsets.ISO_8859_1).contains("endedGame"))
+		{
+			assertTrue(System.currentTimeMillis() < deadline, "Journal was not checkpointed");
+			Thread.sleep(20);
+		}
+
+		game.setProgressListener(journal);
+		game.advance(player, 0, 1);
+		JournaledGame jg = recoverSingleGame(openJournal());
+		assertEquals("lastGame", jg.getGameCode());
+		Game restored = Game.restore(jg.getGameID(), refs(player), List.of(),
+				jg.getTaskCount(), taskMap, jg.getGroupId());
+		jg.replay(restored);
+		assertEquals(1, restored.getCurrentTaskNumber(player));
+	}
+	@Test
+	public void tornRecordIsIgnored() throws IOException
+	{
+		Account player = mockPlayer();
+		Map<UUID, List<Task>> taskMap = mockTaskMap(player);
+		Game game = new Game(refs(player), List.of(), 2, taskMap);
+		journal.gameCreated("gameCode", game, refs(player), List.of(), taskMap);
+		game.setProgressListener(journal);
+		game.advance(player, 0, 1);
+		journal.close();
+
+		try (RandomAccessFile file = new RandomAccessFile(
+				journalDir.resolve("games.journal").toFile(), "rw"))
+		{
+			//Corrupt the last byte of the advance record
+			long offset = 0;
+			int lastLength = 0;
+			while (true)
+			{
+				file.seek(offset);
+				int length = file.readInt();
+				if (length == 0)
+					break;
+				lastLength = length;
+				offset += 8 + length;
+			}
+			file.seek(offset - 1);
+			byte last = file.readByte();
+			file.seek(offset - 1);
+			file.writeByte(~last);
+			assertTrue(lastLength > 0);
+		}
+
+		JournaledGame jg = recoverSingleGame(openJournal());
+		Game restored = Game.restore(jg.getGameID(), refs(player), List.of(),
+				jg.getTaskCount(), taskMap, jg.getGroupId());
+		jg.replay(restored);
+
+		assertEquals(0, restored.getCurrentTaskNumber(player));
+	}
+
+	//---Helpers---
+
+	private static List<PlayerRef> refs(Account... accounts)
+	{
+		return Stream.of(accounts)
+				.map(acc -> PlayerRef.of(acc))
+				.collect(Collectors.toList());
+	}
+	private GameJournal openJournal()
+	{
+		GameJournal ret = new GameJournal(true, journalDir.toString(), JOURNAL_SIZE);
+		ret.open();
+		return ret;
+	}
+	private static JournaledGame recoverSingleGame(GameJournal journal)
+	{
+		try
+		{
+			List<JournaledGame> recovered = journal.takeRecoveredGames();
+			assertEquals(1, recovered.size());
+			return recovered.get(0);
+		}
+		finally
+		{
+			journal.close();
+		}
+	}
+	private static Map<UUID, List<Task>> mockTaskMap(Account... players)
+	{
+		return List.of(players)
+				.stream()
+				.collect(Collectors.toMap(p -> p.getId(),
+						p -> IntStream.range(0, 2)
+							.mapToObj(i -> mockTask())
+							.collect(Collectors.toList())));
+	}
+	private static Task mockTask()
+	{
+		return new WordConnect(UUID.randomUUID(),
+				"Test instruction", List.of(),
+				List.of("a", "b"), List.of("A", "B"),
+				Map.of(0, 0, 1, 1), 100);
+	}
+	private static Account mockPlayer()
+	{
+		UUID id = UUID.randomUUID();
+		return new Account.Builder()
+				.withID(id)
+				.withEmail(id + "@test.pl")
+				.withUsername("Test" + id)
+				.withPassword("QWERTY")
+				.withRoles(List.of(PLAYER_ROLE))
+				.build();
+	}
+}
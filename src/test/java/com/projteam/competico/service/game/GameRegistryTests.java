@@ -0,0 +1,145 @@
+package com.projteam.competico.service.game;
+
+import static com.projteam.competico.domain.Account.LECTURER_ROLE;
+import static com.projteam.competico.domain.Account.PLAYER_ROLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.projteam.competico.domain.Account;
+import com.projteam.competico.domain.game.Game;
+import com.projteam.competico.domain.game.PlayerRef;
+import com.projteam.competico.service.CodeAllocator;
+
+public class GameRegistryTests
+{
+	private CodeAllocator codes;
+	private PresenceIndex presence;
+	private GameRegistry registry;
+
+	@BeforeEach
+	public void setup()
+	{
+		codes = new CodeAllocator();
+		presence = new PresenceIndex();
+		registry = new GameRegistry(codes, presence);
+	}
+
+	@Test
+	public void canFindGameByCodeAndID()
+	{
+		Game game = mockGame(mockAccount(PLAYER_ROLE));
+
+		assertTrue(registry.register("gameCode", game));
+
+		assertTrue(registry.contains("gameCode"));
+		assertSame(game, registry.get("gameCode"));
+		assertEquals(Optional.of(game), registry.findByID(game.getID()));
+		assertEquals(Optional.of("gameCode"), registry.findGameCodeByID(game.getID()));
+	}
+	@Test
+	public void cannotRegisterTwoGamesWithTheSameCode()
+	{
+		Game game = mockGame(mockAccount(PLAYER_ROLE));
+		Game otherGame = mockGame(mockAccount(PLAYER_ROLE));
+
+		assertTrue(registry.register("gameCode", game));
+		assertFalse(registry.register("gameCode", otherGame));
+
+		assertSame(game, registry.get("gameCode"));
+		assertTrue(registry.findByID(otherGame.getID()).isEmpty());
+	}
+	@Test
+	public void canFindGameForPlayersAndSpectators()
+	{
+		Account player = mockAccount(PLAYER_ROLE);
+		Account lecturer = mockAccount(LECTURER_ROLE);
+		Game game = new Game(refs(player), refs(lecturer), 1, Map.of(player.getId(), List.of()));
+
+		registry.register("gameCode", game);
+
+		assertEquals(Optional.of("gameCode"), registry.findGameCodeForAccount(player.getId()));
+		assertEquals(Optional.of("gameCode"), registry.findGameCodeForAccount(lecturer.getId()));
+		assertTrue(registry.findGameCodeForAccount(UUID.randomUUID()).isEmpty());
+		assertEquals(PresenceIndex.Role.PLAYER, presence.findGame(player.getId()).get().getRole());
+		assertEquals(PresenceIndex.Role.SPECTATOR, presence.findGame(lecturer.getId()).get().getRole());
+	}
+	@Test
+	public void removingGameClearsIndexes()
+	{
+		Account player = mockAccount(PLAYER_ROLE);
+		Game game = mockGame(player);
+		registry.register("gameCode", game);
+
+		assertTrue(registry.remove("gameCode", game));
+
+		assertFalse(registry.contains("gameCode"));
+		assertTrue(registry.findByID(game.getID()).isEmpty());
+		assertTrue(registry.findGameCodeForAccount(player.getId()).isEmpty());
+		assertEquals(0, registry.size());
+	}
+	@Test
+	public void gameCodesStayReservedWhileTheGameIsRegistered()
+	{
+		Game game = mockGame(mockAccount(PLAYER_ROLE));
+
+		registry.register("gameCode", game);
+		assertTrue(codes.isReserved("gameCode"));
+		registry.remove("gameCode", game);
+		assertFalse(codes.isReserved("gameCode"));
+	}
+	@Test
+	public void removingFinishedGameKeepsNewerGameOfPlayer()
+	{
+		Account player = mockAccount(PLAYER_ROLE);
+		Game oldGame = mockGame(player);
+		Game newGame = mockGame(player);
+		registry.register("oldCode", oldGame);
+		registry.register("newCode", newGame);
+
+		registry.remove("oldCode", oldGame);
+
+		assertEquals(Optional.of("newCode"), registry.findGameCodeForAccount(player.getId()));
+	}
+	@Test
+	public void cannotRemoveDifferentGameWithTheSameCode()
+	{
+		Game game = mockGame(mockAccount(PLAYER_ROLE));
+		registry.register("gameCode", game);
+
+		assertFalse(registry.remove("gameCode", mockGame(mockAccount(PLAYER_ROLE))));
+		assertTrue(registry.contains("gameCode"));
+	}
+
+	//---Helpers---
+
+	private static List<PlayerRef> refs(Account... accounts)
+	{
+		return Stream.of(accounts)
+				.map(acc -> PlayerRef.of(acc))
+				.collect(Collectors.toList());
+	}
+	private static Game mockGame(Account player)
+	{
+		return new Game(refs(player), List.of(), 1, Map.of(player.getId(), List.of()));
+	}
+	private static Account mockAccount(String role)
+	{
+		UUID id = UUID.randomUUID();
+		return new Account.Builder()
+				.withID(id)
+				.withEmail(id + "@test.pl")
+				.withUsername("Test" + id)
+				.withPassword("QWERTY")
+				.withRoles(List.of(role))
+				.build();
+	}
+}
@@ -0,0 +1,166 @@
+package com.projteam.competico.service.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import com.projteam.competico.dao.group.GroupDAO;
+import com.projteam.competico.domain.game.FinishedGame;
+import com.projteam.competico.domain.game.GameResult;
+import com.projteam.competico.domain.game.PlayerResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class GameResultWriterTests
+{
+	private @Mock EntityManager entityManager;
+	private @Mock GroupDAO groupDao;
+	private @Mock PlayerDataService pdService;
+	private @Mock GameJournal journal;
+	private @Mock PlatformTransactionManager transactionManager;
+
+	private MeterRegistry meterRegistry;
+	private GameResultWriter resultWriter;
+
+	@BeforeEach
+	public void setup()
+	{
+		MockitoAnnotations.initMocks(this);
+		meterRegistry = new SimpleMeterRegistry();
+		resultWriter = new GameResultWriter(entityManager, groupDao,
+				pdService, journal, transactionManager, meterRegistry);
+	}
+
+	@Test
+	public void writesQueuedResultsBeforeShuttingDown()
+	{
+		resultWriter.start();
+		List<FinishedGame> games = List.of(mockFinishedGame(), mockFinishedGame(), mockFinishedGame());
+
+		games.forEach(fg -> resultWriter.submit(fg));
+		resultWriter.drain();
+
+		assertEquals(0, resultWriter.getQueueSize());
+		assertEquals(3, meterRegistry.counter("competico.results.written").count());
+		games.forEach(fg ->
+		{
+			verify(pdService).updateRatings(fg.getTotalScores());
+			assertTrue(resultWriter.findPending(fg.getGameID()).isEmpty());
+		});
+	}
+	@Test
+	public void writesOnCallerThreadWhenNotRunning()
+	{
+		FinishedGame fg = mockFinishedGame();
+
+		resultWriter.submit(fg);
+
+		verify(entityManager).persist(fg.getGameResult());
+		fg.getGameResult().getResults().values().forEach(pr -> verify(entityManager).persist(pr));
+		assertEquals(1, meterRegistry.counter("competico.results.writtenByCaller").count());
+		assertTrue(resultWriter.findPending(fg.getGameID()).isEmpty());
+		verify(journal).gameEnded(fg.getGameID());
+	}
+	@Test
+	public void retriesFailedWrites()
+	{
+		FinishedGame fg = mockFinishedGame();
+		doThrow(new IllegalStateException("Connection lost"))
+			.doNothing()
+			.when(entityManager).persist(any(GameResult.class));
+
+		resultWriter.submit(fg);
+
+		verify(entityManager, times(2)).persist(fg.getGameResult());
+		assertEquals(1, meterRegistry.counter("competico.results.retries").count());
+		assertEquals(1, meterRegistry.counter("competico.results.written").count());
+	}
+	@Test
+	public void keepsResultsThatFailedEveryAttempt()
+	{
+		FinishedGame fg = mockFinishedGame();
+		doThrow(new IllegalStateException("Connection lost"))
+			.when(entityManager).persist(any(GameResult.class));
+
+		resultWriter.submit(fg);
+
+		assertEquals(1, meterRegistry.counter("competico.results.failed").count());
+		assertTrue(resultWriter.findPending(fg.getGameID()).isPresent());
+		verify(journal, never()).gameEnded(fg.getGameID());
+	}
+	@Test
+	public void writesFailedResultsAfterBackoff()
+	{
+		FinishedGame fg = mockFinishedGame();
+		doThrow(new IllegalStateException("Connection lost"))
+			.doThrow(new IllegalStateException("Connection lost"))
+			.doThrow(new IllegalStateException("Connection lost"))
+			.doNothing()
+			.when(entityManager).persist(any(GameResult.class));
+		resultWriter.submit(fg);
+
+		resultWriter.retryFailedResults(System.currentTimeMillis());
+		verify(entityManager, times(3)).persist(fg.getGameResult());
+
+		resultWriter.retryFailedResults(Long.MAX_VALUE - 1);
+
+		verify(entityManager, times(4)).persist(fg.getGameResult());
+		assertTrue(resultWriter.findPending(fg.getGameID()).isEmpty());
+		verify(journal).gameEnded(fg.getGameID());
+	}
+	@Test
+	public void dropsUnjournaledResultsAfterRepeatedFailures()
+	{
+		FinishedGame fg = mockFinishedGame();
+		when(journal.isEnabled()).thenReturn(false);
+		doThrow(new IllegalStateException("Connection lost"))
+			.when(entityManager).persist(any(GameResult.class));
+		resultWriter.submit(fg);
+
+		while (resultWriter.findPending(fg.getGameID()).isPresent())
+			resultWriter.retryFailedResults(Long.MAX_VALUE - 1);
+
+		assertEquals(1, meterRegistry.counter("competico.results.dropped").count());
+		verify(journal, never()).gameEnded(fg.getGameID());
+	}
+	@Test
+	public void retriesJournaledResultsUntilWritten()
+	{
+		FinishedGame fg = mockFinishedGame();
+		when(journal.isEnabled()).thenReturn(true);
+		doThrow(new IllegalStateException("Connection lost"))
+			.when(entityManager).persist(any(GameResult.class));
+		resultWriter.submit(fg);
+
+		for (int i = 0; i < 5; i++)
+			resultWriter.retryFailedResults(Long.MAX_VALUE - 1);
+
+		assertTrue(resultWriter.findPending(fg.getGameID()).isPresent());
+		assertEquals(0, meterRegistry.counter("competico.results.dropped").count());
+	}
+
+	//---Helpers---
+
+	private static FinishedGame mockFinishedGame()
+	{
+		UUID playerID = UUID.randomUUID();
+		GameResult gr = new GameResult(UUID.randomUUID());
+		gr.addResult(new PlayerResult(UUID.randomUUID(), playerID,
+				Map.of(0, 1.0), Map.of(0, 100.0), Map.of(0, 1000l), false));
+		return new FinishedGame(gr, Optional.empty(), Map.of(playerID, 200l));
+	}
+}
@@ -7,13 +7,23 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -25,32 +35,43 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.projteam.competico.dao.game.GameResultDAO;
-import com.projteam.competico.dao.game.PlayerResultDAO;
 import com.projteam.competico.domain.Account;
 import com.projteam.competico.domain.game.GameResult;
 import com.projteam.competico.domain.game.PlayerData;
 import com.projteam.competico.domain.game.PlayerResult;
+import com.projteam.competico.domain.game.PlayerRef;
+import com.projteam.competico.domain.game.RatingProfile;
+import com.projteam.competico.domain.game.TaskInfo;
+import com.projteam.competico.domain.game.TaskSet;
 import com.projteam.competico.domain.game.tasks.Task;
 import com.projteam.competico.domain.game.tasks.WordConnect;
 import com.projteam.competico.domain.game.tasks.answers.WordFillAnswer;
 import com.projteam.competico.dto.game.GameResultPersonalDTO;
 import com.projteam.competico.dto.game.GameResultTotalDuringGameDTO;
 import com.projteam.competico.service.AccountService;
+import com.projteam.competico.service.CodeAllocator;
 
 public class GameServiceTests
 {
 	private @Mock AccountService accountService;
 	private @Mock LobbyService lobbyService;
-	private @Mock PlayerResultDAO prDAO;
 	private @Mock GameResultDAO grDAO;
 	private @Mock GameTaskDataService gtdService;
+	private @Mock TaskSetDataService tsdService;
 	private @Mock PlayerDataService pdService;
+	private @Spy GameRegistry gameRegistry = new GameRegistry(new CodeAllocator(), new PresenceIndex());
+	private @Mock ScoreboardStreamService scoreboardStream;
+	private @Mock LobbyStreamService lobbyStream;
+	private @Mock GameResultWriter resultWriter;
+	private @Mock GameJournal journal;
+	private @Spy TaskPayloadCache payloadCache = new TaskPayloadCache(new ObjectMapper(), 16);
+	private @Spy ExpiryScheduler expiryScheduler = new ExpiryScheduler(Runnable::run);
 	
 	private @InjectMocks GameService gameService;
 	
@@ -76,8 +97,8 @@ public class GameServiceTests
 				.filter(a -> a.hasRole(PLAYER_ROLE))
 				.collect(Collectors.toList());
 		when(lobbyService.lobbyExists(gameCode)).thenReturn(true);
-		when(lobbyService.getPlayers(gameCode)).thenReturn(players);
-		when(lobbyService.getHost(gameCode)).thenReturn(host);
+		when(lobbyService.getPlayers(gameCode)).thenReturn(refs(players));
+		when(lobbyService.getHost(gameCode)).thenReturn(PlayerRef.of(host));
 		when(lobbyService.isHost(gameCode, host)).thenReturn(true);
 		when(lobbyService.deleteLobby(gameCode, host)).thenReturn(true);
 		when(gtdService.generateRandomTask(anyDouble()))
@@ -96,8 +117,8 @@ public class GameServiceTests
 				.collect(Collectors.toList());
 		when(accountService.getAuthenticatedAccount()).thenReturn(Optional.of(host));
 		when(lobbyService.lobbyExists(gameCode)).thenReturn(true);
-		when(lobbyService.getPlayers(gameCode)).thenReturn(players);
-		when(lobbyService.getHost(gameCode)).thenReturn(host);
+		when(lobbyService.getPlayers(gameCode)).thenReturn(refs(players));
+		when(lobbyService.getHost(gameCode)).thenReturn(PlayerRef.of(host));
 		when(lobbyService.isHost(gameCode, host)).thenReturn(true);
 		when(lobbyService.deleteLobby(gameCode, host)).thenReturn(true);
 		when(gtdService.generateRandomTask(anyDouble()))
@@ -116,8 +137,8 @@ public class GameServiceTests
 				.collect(Collectors.toList());
 		when(accountService.getAuthenticatedAccount()).thenReturn(Optional.of(host));
 		when(lobbyService.lobbyExists(gameCode)).thenReturn(false);
-		when(lobbyService.getPlayers(gameCode)).thenReturn(players);
-		when(lobbyService.getHost(gameCode)).thenReturn(host);
+		when(lobbyService.getPlayers(gameCode)).thenReturn(refs(players));
+		when(lobbyService.getHost(gameCode)).thenReturn(PlayerRef.of(host));
 		when(lobbyService.isHost(gameCode, host)).thenReturn(true);
 		when(lobbyService.deleteLobby(gameCode, host)).thenReturn(true);
 		
@@ -134,8 +155,8 @@ public class GameServiceTests
 				.collect(Collectors.toList());
 		when(accountService.getAuthenticatedAccount()).thenReturn(Optional.of(host));
 		when(lobbyService.lobbyExists(gameCode)).thenReturn(true);
-		when(lobbyService.getPlayers(gameCode)).thenReturn(players);
-		when(lobbyService.getHost(gameCode)).thenReturn(host);
+		when(lobbyService.getPlayers(gameCode)).thenReturn(refs(players));
+		when(lobbyService.getHost(gameCode)).thenReturn(PlayerRef.of(host));
 		when(lobbyService.isHost(gameCode, host)).thenReturn(true);
 		when(lobbyService.deleteLobby(gameCode, host)).thenReturn(false);
 		when(gtdService.generateRandomTask(anyDouble()))
@@ -150,7 +171,7 @@ public class GameServiceTests
 		String gameCode = "gameCode";
 		when(lobbyService.lobbyExists(gameCode)).thenReturn(true);
 		when(lobbyService.getPlayers(gameCode)).thenReturn(List.of());
-		when(lobbyService.getHost(gameCode)).thenReturn(host);
+		when(lobbyService.getHost(gameCode)).thenReturn(PlayerRef.of(host));
 		when(lobbyService.isHost(gameCode, host)).thenReturn(true);
 		when(lobbyService.deleteLobby(gameCode, host)).thenReturn(true);
 		
@@ -166,8 +187,8 @@ public class GameServiceTests
 				.filter(a -> a.hasRole(PLAYER_ROLE))
 				.collect(Collectors.toList());
 		when(lobbyService.lobbyExists(gameCode)).thenReturn(true);
-		when(lobbyService.getPlayers(gameCode)).thenReturn(players);
-		when(lobbyService.getHost(gameCode)).thenReturn(host);
+		when(lobbyService.getPlayers(gameCode)).thenReturn(refs(players));
+		when(lobbyService.getHost(gameCode)).thenReturn(PlayerRef.of(host));
 		when(lobbyService.isHost(gameCode, host)).thenReturn(true);
 		when(lobbyService.deleteLobby(gameCode, host)).thenReturn(true);
 		when(gtdService.generateRandomTask(anyDouble()))
@@ -186,8 +207,8 @@ public class GameServiceTests
 				.filter(a -> a.hasRole(PLAYER_ROLE))
 				.collect(Collectors.toList());
 		when(lobbyService.lobbyExists(gameCode)).thenReturn(true);
-		when(lobbyService.getPlayers(gameCode)).thenReturn(players);
-		when(lobbyService.getHost(gameCode)).thenReturn(host);
+		when(lobbyService.getPlayers(gameCode)).thenReturn(refs(players));
+		when(lobbyService.getHost(gameCode)).thenReturn(PlayerRef.of(host));
 		when(lobbyService.isHost(gameCode, host)).thenReturn(true);
 		when(lobbyService.deleteLobby(gameCode, host)).thenReturn(true);
 		
@@ -236,6 +257,22 @@ public class GameServiceTests
 	}
 	@ParameterizedTest
 	@MethodSource({"mockPlayerHostAndPlayer", "mockLecturerHostAndPlayer"})
+	public void canGetCurrentTaskPayload(Account host, Account player) throws IOException
+	{
+		when(gtdService.generateRandomTask(anyDouble()))
+			.thenReturn(mockTask());
+		
+		String gameCode = "gameCode";
+		createGameFromLobby(gameCode, host, player);
+		
+		JsonNode payload = new ObjectMapper().readTree(gameService.getCurrentTaskPayload(gameCode, player));
+		assertEquals(0, payload.get("currentTaskNumber").asInt());
+		assertEquals(gameService.getTaskCount(gameCode, player), payload.get("taskCount").asInt());
+		assertEquals("WordConnect", payload.get("taskName").asText());
+		assertNull(gameService.getCurrentTaskPayload("otherGameCode", player));
+	}
+	@ParameterizedTest
+	@MethodSource({"mockPlayerHostAndPlayer", "mockLecturerHostAndPlayer"})
 	public void cannotGetCurrentTaskInfoIfGameDoesNotExist(Account host, Account player)
 	{
 		String gameCode = "gameCode";
@@ -627,6 +664,7 @@ public class GameServiceTests
 							null:RETURNS_DEFAULTS.answer(inv)));
 		
 		assertTrue(success);
+		verify(journal).awaitFlush();
 	}
 	@ParameterizedTest
 	@MethodSource({"mockPlayerHostAndTwoPlayers", "mockLecturerHostAndTwoPlayers"})
@@ -655,7 +693,7 @@ public class GameServiceTests
 	@ParameterizedTest
 	@MethodSource({"mockPlayerHostAndTwoPlayers", "mockLecturerHostAndTwoPlayers"})
 	public void cannotAcceptRawAnswerIfGameDoesNotExist(
-			Account host, Account player, Account otherPlayer) throws JsonProcessingException
+			Account host, Account player, Account otherPlayer) throws IOException
 	{
 		when(accountService.getAuthenticatedAccount())
 			.thenReturn(Optional.of(player));
@@ -667,7 +705,7 @@ public class GameServiceTests
 		String wrongGameCode = gameCode + "wrong";
 		
 		boolean success = gameService.acceptAnswer(wrongGameCode,
-				JsonNodeFactory.instance.objectNode());
+				answerStream("{}"));
 		
 		assertFalse(success);
 	}
@@ -715,7 +753,49 @@ public class GameServiceTests
 		createGameFromLobby(gameCode, host, player, otherPlayer);
 		
 		assertThrows(NullPointerException.class,
-				() -> gameService.acceptAnswer(gameCode, (JsonNode) null));
+				() -> gameService.acceptAnswer(gameCode, answerStream("null")));
+	}
+	@ParameterizedTest
+	@MethodSource({"mockPlayerHostAndTwoPlayers", "mockLecturerHostAndTwoPlayers"})
+	public void canAcceptStreamedAnswer(
+			Account host, Account player, Account otherPlayer) throws IOException
+	{
+		when(gtdService.generateRandomTask(anyDouble()))
+			.thenReturn(mockTask());
+		
+		String gameCode = "gameCode";
+		createGameFromLobby(gameCode, host, player, otherPlayer);
+		
+		boolean success = gameService.acceptAnswer(gameCode,
+				answerStream("{\"answerMapping\": {\"data mining\": \"eksploracja danych\"}}"), player);
+		
+		assertTrue(success);
+		assertEquals(1, gameService.getTaskNumber(gameCode, player));
+		assertEquals(0, gameService.getTaskNumber(gameCode, otherPlayer));
+	}
+	@ParameterizedTest
+	@MethodSource({"mockPlayerHostAndTwoPlayers", "mockLecturerHostAndTwoPlayers"})
+	public void cannotAcceptMalformedStreamedAnswer(
+			Account host, Account player, Account otherPlayer)
+	{
+		when(gtdService.generateRandomTask(anyDouble()))
+			.thenReturn(mockTask());
+		
+		String gameCode = "gameCode";
+		createGameFromLobby(gameCode, host, player, otherPlayer);
+		
+		assertThrows(IOException.class,
+				() -> gameService.acceptAnswer(gameCode,
+						answerStream("{\"answerMapping\": [\"data mining\"]}"), player));
+		assertEquals(0, gameService.getTaskNumber(gameCode, player));
+	}
+	@ParameterizedTest
+	@MethodSource({"mockPlayerHostAndTwoPlayers", "mockLecturerHostAndTwoPlayers"})
+	public void cannotAcceptStreamedAnswerIfGameDoesNotExist(
+			Account host, Account player, Account otherPlayer) throws IOException
+	{
+		assertFalse(gameService.acceptAnswer("gameCode",
+				answerStream("{}"), player));
 	}
 	
 	@ParameterizedTest
@@ -784,6 +864,65 @@ public class GameServiceTests
 	}
 	@ParameterizedTest
 	@MethodSource({"mockPlayerHostAndTwoPlayers", "mockLecturerHostAndTwoPlayers"})
+	public void resultsTagChangesOnlyWhenResultsChange(
+			Account host, Account player, Account otherPlayer)
+	{
+		when(accountService.getAuthenticatedAccount())
+			.thenReturn(Optional.of(player));
+		when(gtdService.generateRandomTask(anyDouble()))
+			.thenReturn(mockTask());
+		
+		String gameCode = "gameCode";
+		createGameFromLobby(gameCode, host, player, otherPlayer);
+		UUID gameID = gameService.getGameID(gameCode);
+		String tag = gameService.getCurrentResultsTag(gameID).get();
+		
+		gameService.getCurrentResults(gameID);
+		gameService.haveResultsChanged(gameID);
+		assertEquals(Optional.of(tag), gameService.getCurrentResultsTag(gameID));
+		
+		gameService.acceptAnswer(gameCode,
+				mock(gameService.getCurrentAnswerClass(
+						gameCode, player),
+						inv ->
+							isCollectionOrMap(inv.getMethod()
+									.getReturnType())?
+							null:RETURNS_DEFAULTS.answer(inv)));
+		
+		assertNotEquals(Optional.of(tag), gameService.getCurrentResultsTag(gameID));
+		assertTrue(gameService.getCurrentResultsTag(UUID.randomUUID()).isEmpty());
+		assertTrue(gameService.getSavedResultsTag(UUID.randomUUID()).isEmpty());
+	}
+	@ParameterizedTest
+	@MethodSource({"mockPlayerHostAndTwoPlayers", "mockLecturerHostAndTwoPlayers"})
+	public void currentTaskTagFollowsThePlayersTask(
+			Account host, Account player, Account otherPlayer)
+	{
+		when(accountService.getAuthenticatedAccount())
+			.thenReturn(Optional.of(player));
+		when(gtdService.generateRandomTask(anyDouble()))
+			.thenReturn(mockTask());
+		
+		String gameCode = "gameCode";
+		createGameFromLobby(gameCode, host, player, otherPlayer);
+		String tag = gameService.getCurrentTaskTag(gameCode, player).get();
+		
+		assertEquals(Optional.of(tag), gameService.getCurrentTaskTag(gameCode, player));
+		assertNotEquals(Optional.of(tag), gameService.getCurrentTaskTag(gameCode, otherPlayer));
+		
+		gameService.acceptAnswer(gameCode,
+				mock(gameService.getCurrentAnswerClass(
+						gameCode, player),
+						inv ->
+							isCollectionOrMap(inv.getMethod()
+									.getReturnType())?
+							null:RETURNS_DEFAULTS.answer(inv)));
+		
+		assertNotEquals(Optional.of(tag), gameService.getCurrentTaskTag(gameCode, player));
+		assertTrue(gameService.getCurrentTaskTag("otherCode", player).isEmpty());
+	}
+	@ParameterizedTest
+	@MethodSource({"mockPlayerHostAndTwoPlayers", "mockLecturerHostAndTwoPlayers"})
 	public void cannotCheckIfResultsChangedIfGameDoesNotExist(
 			Account host, Account player, Account otherPlayer)
 	{
@@ -822,7 +961,7 @@ public class GameServiceTests
 			.thenReturn(mockTask());
 		createGameFromLobby(gameCode, host, player, otherPlayer);
 		
-		gameService.removeInactive();
+		expiryScheduler.expireDue();
 
 		assertTrue(gameService.gameExists(gameCode));
 		assertTrue(gameService.isPlayerActive(gameCode, host));
@@ -839,7 +978,7 @@ public class GameServiceTests
 			.thenReturn(mockTask());
 		createGameFromLobby(gameCode, host, player, otherPlayer);
 		
-		gameService.removeInactive();
+		expiryScheduler.expireDue();
 
 		assertTrue(gameService.gameExists(gameCode));
 		assertTrue(gameService.isPlayerActive(gameCode, player));
@@ -857,7 +996,7 @@ public class GameServiceTests
 		
 		gameService.markInactive(gameCode, player);
 		
-		gameService.removeInactive();
+		expiryScheduler.expireDue();
 
 		assertTrue(gameService.gameExists(gameCode));
 		assertTrue(gameService.isPlayerActive(gameCode, host));
@@ -876,7 +1015,7 @@ public class GameServiceTests
 		
 		gameService.markInactive(gameCode, player);
 		
-		gameService.removeInactive();
+		expiryScheduler.expireDue();
 		
 		assertTrue(gameService.gameExists(gameCode));
 		assertFalse(gameService.isPlayerActive(gameCode, player));
@@ -896,7 +1035,7 @@ public class GameServiceTests
 		gameService.markInactive(gameCode, player);
 		gameService.markInactive(gameCode, otherPlayer);
 		
-		gameService.removeInactive();
+		expiryScheduler.expireDue();
 		
 		assertFalse(gameService.gameExists(gameCode));
 	}
@@ -913,7 +1052,7 @@ public class GameServiceTests
 		gameService.markInactive(gameCode, player);
 		gameService.markInactive(gameCode, otherPlayer);
 		
-		gameService.removeInactive();
+		expiryScheduler.expireDue();
 		
 		assertFalse(gameService.gameExists(gameCode));
 	}
@@ -929,7 +1068,7 @@ public class GameServiceTests
 		
 		gameService.markInactive(gameCode, host);
 		
-		gameService.removeInactive();
+		expiryScheduler.expireDue();
 
 		assertTrue(gameService.gameExists(gameCode));
 		assertFalse(gameService.isPlayerActive(gameCode, host));
@@ -949,7 +1088,7 @@ public class GameServiceTests
 		gameService.markInactive(gameCode, player);
 		gameService.noteInteraction(gameCode, player);
 		
-		gameService.removeInactive();
+		expiryScheduler.expireDue();
 
 		assertTrue(gameService.gameExists(gameCode));
 		assertTrue(gameService.isPlayerActive(gameCode, host));
@@ -969,7 +1108,7 @@ public class GameServiceTests
 		gameService.markInactive(gameCode, player);
 		gameService.noteInteraction(gameCode, player);
 		
-		gameService.removeInactive();
+		expiryScheduler.expireDue();
 		
 		assertTrue(gameService.gameExists(gameCode));
 		assertTrue(gameService.isPlayerActive(gameCode, player));
@@ -1143,6 +1282,122 @@ public class GameServiceTests
 	{
 		return List.of(Arguments.of(mockHost(LECTURER_ROLE)));
 	}
+	@Test
+	public void canRestoreJournaledGame()
+	{
+		Account player1 = mockPlayer("Player1");
+		Account player2 = mockPlayer("Player2");
+		JournaledGame jg = new JournaledGame("gameCode", UUID.randomUUID(), null, 2);
+		jg.getPlayerTasks().put(player1.getId(), List.of(
+				Map.entry(UUID.randomUUID(), 100.0), Map.entry(UUID.randomUUID(), 100.0)));
+		jg.getPlayerTasks().put(player2.getId(), List.of(
+				Map.entry(UUID.randomUUID(), 100.0), Map.entry(UUID.randomUUID(), 100.0)));
+		jg.addProgress(game -> game.restoreAdvance(player1.getId(), 0, 1, 1000));
+		
+		when(journal.takeRecoveredGames()).thenReturn(List.of(jg));
+		when(accountService.findAllByID(any())).thenReturn(List.of(player1, player2));
+		when(gtdService.findTask(any())).thenReturn(Optional.of(mockTask()));
+		
+		gameService.restoreJournaledGames();
+		
+		assertTrue(gameService.gameExists("gameCode"));
+		assertEquals(jg.getGameID(), gameService.getGameID("gameCode"));
+		assertEquals(1, gameService.getTaskNumber("gameCode", player1));
+		assertEquals(0, gameService.getTaskNumber("gameCode", player2));
+	}
+	@Test
+	public void journaledGameWithMissingTaskIsNotRestored()
+	{
+		Account player = mockPlayer("Player");
+		UUID existingTaskID = UUID.randomUUID();
+		JournaledGame jg = new JournaledGame("gameCode", UUID.randomUUID(), null, 2);
+		jg.getPlayerTasks().put(player.getId(), List.of(
+				Map.entry(existingTaskID, 100.0), Map.entry(UUID.randomUUID(), 100.0)));
+		
+		when(journal.takeRecoveredGames()).thenReturn(List.of(jg));
+		when(accountService.findAllByID(any())).thenReturn(List.of(player));
+		when(gtdService.findTask(existingTaskID)).thenReturn(Optional.of(mockTask()));
+		
+		gameService.restoreJournaledGames();
+		
+		assertFalse(gameService.gameExists("gameCode"));
+		verify(journal).gameEnded(jg.getGameID());
+		verify(gtdService, never()).defaultTask(anyDouble());
+	}
+	@Test
+	public void finishedJournaledGameIsNotRestored()
+	{
+		JournaledGame jg = new JournaledGame("gameCode", UUID.randomUUID(), null, 2);
+		
+		when(journal.takeRecoveredGames()).thenReturn(List.of(jg));
+		when(grDAO.existsById(jg.getGameID())).thenReturn(true);
+		
+		gameService.restoreJournaledGames();
+		
+		assertFalse(gameService.gameExists("gameCode"));
+		verify(journal).gameEnded(jg.getGameID());
+	}
+	@Test
+	public void startsGameFromPrewarmedPlan()
+	{
+		String gameCode = "gameCode";
+		Account host = mockHost(PLAYER_ROLE);
+		Account player = mockPlayer("Player");
+		mockLobby(gameCode, host, List.of(host, player));
+		
+		gameService.prewarmGamePlans();
+		clearInvocations(pdService, gtdService);
+		
+		assertTrue(gameService.createGameFromLobby(gameCode, host));
+		verifyNoInteractions(pdService, gtdService);
+	}
+	@Test
+	public void prewarmedPlanUsesRatingsSnapshottedByTheLobby()
+	{
+		String gameCode = "gameCode";
+		Account host = mockHost(PLAYER_ROLE);
+		Account player = mockPlayer("Player");
+		mockLobby(gameCode, host, List.of(host));
+		when(lobbyService.getRatingProfile(gameCode))
+			.thenReturn(Optional.of(new RatingProfile(1, 1000, 1000, 1000)));
+		
+		gameService.prewarmGamePlans();
+		when(lobbyService.getPlayers(gameCode)).thenReturn(refs(List.of(host, player)));
+		when(lobbyService.getRatingProfile(gameCode))
+			.thenReturn(Optional.of(new RatingProfile(2, 2500, 1000, 1500)));
+		gameService.prewarmGamePlans();
+		
+		verify(lobbyService, times(2)).getRatingProfile(gameCode);
+		verifyNoInteractions(pdService);
+		assertTrue(gameService.createGameFromLobby(gameCode, host));
+		assertTrue(gameRegistry.get(gameCode).isPlayerActive(player));
+	}
+	@Test
+	public void prewarmedPlanReloadsChangedTasksets()
+	{
+		String gameCode = "gameCode";
+		Account host = mockHost(LECTURER_ROLE);
+		Account player = mockPlayer("Player");
+		Task task = mockTask();
+		TaskSet ts = new TaskSet(UUID.randomUUID(), "taskset", host.getId(),
+				Set.of(new TaskInfo(task.getId())));
+		mockLobby(gameCode, host, List.of(player));
+		when(lobbyService.getTasksetIDs(gameCode)).thenReturn(List.of(ts.getId()));
+		when(tsdService.getTasksByTaskset(List.of(ts.getId())))
+			.thenReturn(List.of(List.of(task)));
+		
+		gameService.prewarmGamePlans();
+		gameService.prewarmGamePlans();
+		verify(tsdService, times(1)).getTasksByTaskset(any());
+		
+		when(tsdService.getRevision()).thenReturn(1l);
+		gameService.prewarmGamePlans();
+		verify(tsdService, times(2)).getTasksByTaskset(any());
+		
+		assertTrue(gameService.createGameFromLobby(gameCode, host));
+		assertEquals(task, gameRegistry.get(gameCode).getCurrentTask(player));
+	}
+	
 	public static List<Arguments> mockPlayerHostAndPlayer()
 	{
 		Account host = mockHost(PLAYER_ROLE);
@@ -1192,6 +1447,17 @@ public class GameServiceTests
 	
 	//---Helpers---
 	
+	private static List<PlayerRef> refs(List<Account> accounts)
+	{
+		return accounts.stream()
+				.map(acc -> PlayerRef.of(acc))
+				.collect(Collectors.toList());
+	}
+	private static InputStream answerStream(String answer)
+	{
+		return new ByteArrayInputStream(answer.getBytes(StandardCharsets.UTF_8));
+	}
+	
 	private static Account mockHost(String role)
 	{
 		return new Account.Builder()
@@ -1245,8 +1511,8 @@ public class GameServiceTests
 				.filter(a -> a.hasRole(PLAYER_ROLE))
 				.collect(Collectors.toList());
 		when(lobbyService.lobbyExists(gameCode)).thenReturn(true);
-		when(lobbyService.getPlayers(gameCode)).thenReturn(players);
-		when(lobbyService.getHost(gameCode)).thenReturn(host);
+		when(lobbyService.getPlayers(gameCode)).thenReturn(refs(players));
+		when(lobbyService.getHost(gameCode)).thenReturn(PlayerRef.of(host));
 		when(lobbyService.isHost(gameCode, host)).thenReturn(true);
 		when(lobbyService.deleteLobby(gameCode, host)).thenReturn(true);
 		
@@ -1254,6 +1520,17 @@ public class GameServiceTests
 		
 		return players.size();
 	}
+	private void mockLobby(String gameCode, Account host, List<Account> players)
+	{
+		when(lobbyService.getLobbyCodes()).thenReturn(List.of(gameCode));
+		when(lobbyService.lobbyExists(gameCode)).thenReturn(true);
+		when(lobbyService.getPlayers(gameCode)).thenReturn(refs(players));
+		when(lobbyService.getHost(gameCode)).thenReturn(PlayerRef.of(host));
+		when(lobbyService.isHost(gameCode, host)).thenReturn(true);
+		when(lobbyService.deleteLobby(gameCode, host)).thenReturn(true);
+		when(gtdService.generateRandomTask(anyDouble()))
+			.thenReturn(mockTask());
+	}
 	private Task mockTask()
 	{
 		List<String> leftWords1 = List.of("data mining", "pattern identification", "quantitative modelling", "class label", "class membership", "explanatory variable", "variable", "fault-tolerant", "spurious pattern", "outlier");
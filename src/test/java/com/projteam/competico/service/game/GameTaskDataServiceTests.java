@@ -6,6 +6,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -33,6 +36,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.projteam.competico.dao.game.GlobalTaskDAO;
 import com.projteam.competico.dao.game.TaskInfoDAO;
 import com.projteam.competico.domain.Account;
+import com.projteam.competico.domain.game.GlobalTask;
 import com.projteam.competico.domain.game.tasks.ChoiceWordFill;
 import com.projteam.competico.domain.game.tasks.ChoiceWordFillElement;
 import com.projteam.competico.domain.game.tasks.ChronologicalOrder;
@@ -69,6 +73,8 @@ import com.projteam.competico.service.game.tasks.ListChoiceWordFillService;
 import com.projteam.competico.service.game.tasks.ListSentenceFormingService;
 import com.projteam.competico.service.game.tasks.ListWordFillService;
 import com.projteam.competico.service.game.tasks.OptionSelectService;
+import com.projteam.competico.service.game.tasks.TaskDirectory;
+import com.projteam.competico.service.game.tasks.TaskService;
 import com.projteam.competico.service.game.tasks.WordConnectService;
 import com.projteam.competico.service.game.tasks.WordFillService;
 import com.projteam.competico.service.game.tasks.mappers.GenericTaskMapper;
@@ -105,6 +111,7 @@ class GameTaskDataServiceTests
 	
 	private @Mock GlobalTaskDAO gtDao;
 	private @Mock TaskInfoDAO tiDao;
+	private @Spy GlobalTaskCatalog catalog;
 	
 	private GenericTaskMapper taskMapper;
 	
@@ -122,12 +129,14 @@ class GameTaskDataServiceTests
 				lsfMapper, lwfMapper, osMapper,
 				wcMapper, wfMapper));
 		
-		gtdServ = new GameTaskDataService(List.of(
-					cwfServ, coServ, lcwfServ,
-					lsfServ, lwfServ, osServ,
-					wcServ, wfServ),
+		List<TaskService> taskServices = List.of(
+				cwfServ, coServ, lcwfServ,
+				lsfServ, lwfServ, osServ,
+				wcServ, wfServ);
+		gtdServ = new GameTaskDataService(taskServices,
 				aServ, taskMapper,
-				gtDao, tiDao);
+				gtDao, tiDao, catalog,
+				new TaskDirectory(taskServices));
 	}
 	
 	@ParameterizedTest
@@ -180,6 +189,32 @@ class GameTaskDataServiceTests
 		assertThrows(IllegalStateException.class, () ->
 				gtdServ.saveTask(task));
 	}
+	@Test
+	public void shouldGenerateRandomTaskFromCatalog()
+	{
+		WordConnect wcTask = mockWordConnect();
+		WordFill wfTask = mockWordFill();
+		when(gtDao.findAll())
+			.thenReturn(List.of(new GlobalTask(wcTask.getId()), new GlobalTask(wfTask.getId())));
+		when(wcServ.genericFindAllById(anyCollection()))
+			.thenReturn(List.of(wcTask));
+		when(wfServ.genericFindAllById(anyCollection()))
+			.thenReturn(List.of(wfTask));
+		
+		gtdServ.refreshGlobalTaskCatalog();
+		
+		assertEquals(2, catalog.size());
+		for (int i = 0; i < 10; i++)
+			assertThat(List.of(wcTask, wfTask), hasItem(gtdServ.generateRandomTask(100)));
+		verify(gtDao, never()).count();
+	}
+	@Test
+	public void shouldGenerateDefaultTaskWhenCatalogIsEmpty()
+	{
+		catalog.rebuild(List.of());
+		
+		assertNotNull(gtdServ.generateRandomTask(100));
+	}
 	
 	@ParameterizedTest
 	@MethodSource("mockTaskDTOsWithNames")
@@ -0,0 +1,119 @@
+package com.projteam.competico.service.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.projteam.competico.domain.game.tasks.Task;
+import com.projteam.competico.domain.game.tasks.WordConnect;
+import com.projteam.competico.domain.game.tasks.WordFill;
+
+public class GlobalTaskCatalogTests
+{
+	private GlobalTaskCatalog catalog;
+	private Random rand;
+
+	@BeforeEach
+	public void setup()
+	{
+		catalog = new GlobalTaskCatalog();
+		rand = new Random(0);
+	}
+
+	@Test
+	public void picksTasksWithinDifficultyBand()
+	{
+		List<Task> tasks = IntStream.range(0, 100)
+				.mapToObj(i -> (Task) mockWordConnect(i * 10))
+				.collect(Collectors.toList());
+		catalog.rebuild(tasks);
+
+		for (int i = 0; i < 100; i++)
+		{
+			double difficulty = catalog.pickNear(500, rand).get().getDifficulty();
+			assertTrue(Math.abs(difficulty - 500) <= GlobalTaskCatalog.DIFFICULTY_BAND);
+		}
+	}
+	@Test
+	public void widensTowardsClosestTasksWhenBandIsSparse()
+	{
+		List<Task> tasks = IntStream.range(0, 20)
+				.mapToObj(i -> (Task) mockWordConnect(i * 1000))
+				.collect(Collectors.toList());
+		catalog.rebuild(tasks);
+
+		Set<Double> picked = new HashSet<>();
+		for (int i = 0; i < 500; i++)
+			picked.add(catalog.pickNear(0, rand).get().getDifficulty());
+
+		assertEquals(GlobalTaskCatalog.MIN_CANDIDATES, picked.size());
+		assertTrue(picked.stream().allMatch(d -> d < GlobalTaskCatalog.MIN_CANDIDATES * 1000));
+	}
+	@Test
+	public void picksOnlyRequestedTaskType()
+	{
+		catalog.rebuild(List.of(mockWordConnect(100), mockWordFill(100), mockWordConnect(300)));
+
+		for (int i = 0; i < 20; i++)
+			assertTrue(catalog.pickNear(100, WordFill.class, rand).get() instanceof WordFill);
+		assertEquals(Optional.empty(), catalog.pickNear(100, Task.class, rand));
+	}
+	@Test
+	public void reflectsAddedAndRemovedTasks()
+	{
+		Task task = mockWordConnect(100);
+		assertEquals(Optional.empty(), catalog.pickNear(100, rand));
+
+		catalog.put(task);
+		assertTrue(catalog.contains(task.getId()));
+		assertEquals(Optional.of(task), catalog.pickNear(100, rand));
+
+		catalog.remove(task.getId());
+		assertFalse(catalog.contains(task.getId()));
+		assertEquals(Optional.empty(), catalog.pickNear(100, rand));
+	}
+	@Test
+	public void appliesBatchedChangesTogether()
+	{
+		Task kept = mockWordConnect(100);
+		Task removed1 = mockWordConnect(100);
+		Task removed2 = mockWordFill(100);
+		catalog.rebuild(List.of(kept, removed1, removed2));
+		Task added = mockWordFill(300);
+
+		catalog.update(List.of(added), List.of(removed1.getId(), removed2.getId(), UUID.randomUUID()));
+
+		assertEquals(2, catalog.size());
+		assertTrue(catalog.contains(kept.getId()));
+		assertTrue(catalog.contains(added.getId()));
+		assertFalse(catalog.contains(removed1.getId()));
+		assertEquals(Optional.of(added), catalog.pickNear(300, WordFill.class, rand));
+	}
+
+	//---Helpers---
+
+	private static WordConnect mockWordConnect(double difficulty)
+	{
+		return new WordConnect(UUID.randomUUID(),
+				"Test instruction", List.of(),
+				List.of("a", "b"), List.of("A", "B"),
+				Map.of(0, 0, 1, 1), difficulty);
+	}
+	private static WordFill mockWordFill(double difficulty)
+	{
+		WordFill ret = GameTaskDataServiceTests.mockWordFill();
+		ret.setId(UUID.randomUUID());
+		ret.setDifficulty(difficulty);
+		return ret;
+	}
+}
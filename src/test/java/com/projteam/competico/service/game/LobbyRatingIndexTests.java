@@ -0,0 +1,105 @@
+package com.projteam.competico.service.game;
+
+import static com.projteam.competico.domain.Account.LECTURER_ROLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.projteam.competico.domain.Account;
+import com.projteam.competico.domain.game.Lobby;
+
+public class LobbyRatingIndexTests
+{
+	private LobbyRatingIndex index;
+
+	@BeforeEach
+	public void setup()
+	{
+		index = new LobbyRatingIndex();
+	}
+
+	@Test
+	public void findsNothingWhenEmpty()
+	{
+		assertTrue(index.findClosest(1000).isEmpty());
+	}
+	@Test
+	public void findsTheLobbyClosestInRating()
+	{
+		Lobby low = mockLobby("low");
+		Lobby mid = mockLobby("mid");
+		Lobby high = mockLobby("high");
+		index.put(low, 500);
+		index.put(mid, 1000);
+		index.put(high, 1500);
+
+		assertEquals(Optional.of(low), index.findClosest(0));
+		assertEquals(Optional.of(low), index.findClosest(700));
+		assertEquals(Optional.of(mid), index.findClosest(800));
+		assertEquals(Optional.of(mid), index.findClosest(1000));
+		assertEquals(Optional.of(high), index.findClosest(1300));
+		assertEquals(Optional.of(high), index.findClosest(5000));
+	}
+	@Test
+	public void keepsLobbiesWithEqualRatings()
+	{
+		Lobby first = mockLobby("first");
+		Lobby second = mockLobby("second");
+		index.put(first, 1000);
+		index.put(second, 1000);
+
+		assertEquals(2, index.size());
+		index.remove(first);
+		assertEquals(Optional.of(second), index.findClosest(1000));
+	}
+	@Test
+	public void movesLobbiesWhenTheirRatingChanges()
+	{
+		Lobby lobby = mockLobby("lobby");
+		Lobby other = mockLobby("other");
+		index.put(lobby, 500);
+		index.put(other, 1000);
+		index.put(lobby, 1500);
+
+		assertEquals(2, index.size());
+		assertEquals(Optional.of(other), index.findClosest(500));
+		assertEquals(Optional.of(lobby), index.findClosest(1400));
+	}
+	@Test
+	public void removedLobbiesAreNotFound()
+	{
+		Lobby lobby = mockLobby("lobby");
+		index.put(lobby, 1000);
+		index.remove(lobby);
+
+		assertFalse(index.contains(lobby));
+		assertTrue(index.findClosest(1000).isEmpty());
+	}
+	@Test
+	public void removingAClosedLobbyKeepsItsSuccessor()
+	{
+		Lobby closed = mockLobby("gameCode");
+		Lobby reopened = mockLobby("gameCode");
+		index.put(closed, 1000);
+		index.put(reopened, 1000);
+		index.remove(closed);
+
+		assertEquals(Optional.of(reopened), index.findClosest(1000));
+	}
+
+	//---Helpers---
+
+	private static Lobby mockLobby(String gameCode)
+	{
+		return new Lobby(gameCode, new Account.Builder()
+				.withID(UUID.randomUUID())
+				.withEmail(gameCode + "@test.pl")
+				.withUsername(gameCode)
+				.withRoles(List.of(LECTURER_ROLE))
+				.build());
+	}
+}
@@ -1,6 +1,7 @@
 package com.projteam.competico.service.game;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -9,9 +10,13 @@ import static com.projteam.competico.domain.Account.LECTURER_ROLE;
 import static com.projteam.competico.domain.Account.PLAYER_ROLE;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -25,17 +30,25 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import com.projteam.competico.domain.Account;
 import com.projteam.competico.domain.game.PlayerData;
+import com.projteam.competico.domain.game.PlayerRef;
+import com.projteam.competico.domain.game.RatingProfile;
 import com.projteam.competico.dto.lobby.LobbyOptionsDTO;
 import com.projteam.competico.service.AccountService;
+import com.projteam.competico.service.CodeAllocator;
 
 @RunWith(MockitoJUnitRunner.class)
 public class LobbyServiceTests
 {
 	private @Mock AccountService accountService;
 	private @Mock PlayerDataService pdService;
+	private @Mock LobbyStreamService lobbyStream;
+	private @Spy ExpiryScheduler expiryScheduler = new ExpiryScheduler(Runnable::run);
+	private @Spy CodeAllocator codeAllocator = new CodeAllocator();
+	private @Spy PresenceIndex presence = new PresenceIndex();
 	
 	private @InjectMocks LobbyService lobbyService;
 	
@@ -91,7 +104,7 @@ public class LobbyServiceTests
 		
 		assertTrue(lobbyService.isHost(gameCode, host));
 		assertTrue(lobbyService.isHost(gameCode));
-		assertTrue(lobbyService.getHost(gameCode).equals(host));
+		assertTrue(lobbyService.getHost(gameCode).refersTo(host));
 	}
 	@Test
 	public void hostPlayerAppearsInList()
@@ -105,7 +118,7 @@ public class LobbyServiceTests
 				.build();
 		String gameCode = lobbyService.createLobby(host);
 		
-		assertTrue(lobbyService.getPlayers(gameCode).contains(host));
+		assertTrue(lobbyService.getPlayers(gameCode).contains(PlayerRef.of(host)));
 	}
 	@Test
 	public void hostLecturerDoesNotAppearInList()
@@ -119,7 +132,7 @@ public class LobbyServiceTests
 				.build();
 		String gameCode = lobbyService.createLobby(host);
 		
-		assertFalse(lobbyService.getPlayers(gameCode).contains(host));
+		assertFalse(lobbyService.getPlayers(gameCode).contains(PlayerRef.of(host)));
 	}
 	@ParameterizedTest
 	@MethodSource("mockHosts")
@@ -171,6 +184,7 @@ public class LobbyServiceTests
 		assertTrue(lobbyService.getPlayers(gameCode)
 				.containsAll(mockPlayers.stream()
 						.limit(maxPlayerCount)
+						.map(player -> PlayerRef.of(player))
 						.collect(Collectors.toList())));
 	}
 	@ParameterizedTest
@@ -192,7 +206,7 @@ public class LobbyServiceTests
 			.limit(maxPlayerCount)
 			.forEach(player -> assertFalse(lobbyService
 					.getPlayers(gameCode)
-					.contains(player)));
+					.contains(PlayerRef.of(player))));
 	}
 	@ParameterizedTest
 	@MethodSource({"mockPlayerHostAndPlayers", "mockLecturerHostAndPlayers"})
@@ -209,7 +223,7 @@ public class LobbyServiceTests
 				assertTrue(lobbyService.removePlayer(gameCode, player));
 				assertFalse(lobbyService
 						.getPlayers(gameCode)
-						.contains(player));
+						.contains(PlayerRef.of(player)));
 			});
 	}
 	
@@ -228,7 +242,7 @@ public class LobbyServiceTests
 		
 		assertTrue(lobbyService.isLobbyFull(gameCode));
 		assertFalse(lobbyService.addPlayer(gameCode, mockPlayer));
-		assertFalse(lobbyService.getPlayers(gameCode).contains(mockPlayer));
+		assertFalse(lobbyService.getPlayers(gameCode).contains(PlayerRef.of(mockPlayer)));
 	}
 	
 	@ParameterizedTest
@@ -248,6 +262,16 @@ public class LobbyServiceTests
 	}
 	@ParameterizedTest
 	@MethodSource("mockHosts")
+	public void deletingLobbyClosesItsStream(Account host)
+	{
+		String gameCode = lobbyService.createLobby(host);
+
+		lobbyService.deleteLobby(gameCode, host);
+		
+		verify(lobbyStream).lobbyClosed(gameCode);
+	}
+	@ParameterizedTest
+	@MethodSource("mockHosts")
 	public void canDeleteOwnLobbiesWithAuthenticatedAccount(Account host)
 	{
 		String gameCode = lobbyService.createLobby(host);
@@ -310,7 +334,7 @@ public class LobbyServiceTests
 		when(accountService.getAuthenticatedAccount()).thenReturn(Optional.of(player));
 		
 		assertTrue(lobbyService.addPlayer(gameCode));
-		assertTrue(lobbyService.getPlayers(gameCode).contains(player));
+		assertTrue(lobbyService.getPlayers(gameCode).contains(PlayerRef.of(player)));
 	}
 	@ParameterizedTest
 	@MethodSource("mockHosts")
@@ -325,7 +349,7 @@ public class LobbyServiceTests
 		when(accountService.getAuthenticatedAccount()).thenReturn(Optional.empty());
 		
 		assertThrows(IllegalArgumentException.class, () -> lobbyService.addPlayer(gameCode));
-		assertFalse(lobbyService.getPlayers(gameCode).contains(player));
+		assertFalse(lobbyService.getPlayers(gameCode).contains(PlayerRef.of(player)));
 	}
 	@ParameterizedTest
 	@MethodSource("mockHosts")
@@ -342,7 +366,7 @@ public class LobbyServiceTests
 		lobbyService.addPlayer(gameCode, player);
 		
 		assertTrue(lobbyService.removePlayer(gameCode));
-		assertFalse(lobbyService.getPlayers(gameCode).contains(player));
+		assertFalse(lobbyService.getPlayers(gameCode).contains(PlayerRef.of(player)));
 	}
 	@ParameterizedTest
 	@MethodSource("mockHosts")
@@ -359,7 +383,7 @@ public class LobbyServiceTests
 		lobbyService.addPlayer(gameCode, player);
 		
 		assertThrows(IllegalArgumentException.class, () -> lobbyService.removePlayer(gameCode));
-		assertTrue(lobbyService.getPlayers(gameCode).contains(player));
+		assertTrue(lobbyService.getPlayers(gameCode).contains(PlayerRef.of(player)));
 	}
 	
 	@ParameterizedTest
@@ -374,7 +398,7 @@ public class LobbyServiceTests
 		lobbyService.addPlayer(gameCode, player);
 		
 		assertTrue(lobbyService.removePlayer(gameCode, host, player));
-		assertFalse(lobbyService.getPlayers(gameCode).contains(player));
+		assertFalse(lobbyService.getPlayers(gameCode).contains(PlayerRef.of(player)));
 	}
 	@ParameterizedTest
 	@MethodSource("mockHosts")
@@ -397,8 +421,8 @@ public class LobbyServiceTests
 		lobbyService.addPlayer(gameCode, otherPlayer);
 		
 		assertFalse(lobbyService.removePlayer(gameCode, otherPlayer, player));
-		assertTrue(lobbyService.getPlayers(gameCode).contains(player));
-		assertTrue(lobbyService.getPlayers(gameCode).contains(otherPlayer));
+		assertTrue(lobbyService.getPlayers(gameCode).contains(PlayerRef.of(player)));
+		assertTrue(lobbyService.getPlayers(gameCode).contains(PlayerRef.of(otherPlayer)));
 	}
 	@ParameterizedTest
 	@MethodSource("mockHosts")
@@ -420,8 +444,8 @@ public class LobbyServiceTests
 		lobbyService.addPlayer(gameCode, player);
 		
 		assertFalse(lobbyService.removePlayer(gameCode, otherPlayer, player));
-		assertTrue(lobbyService.getPlayers(gameCode).contains(player));
-		assertFalse(lobbyService.getPlayers(gameCode).contains(otherPlayer));
+		assertTrue(lobbyService.getPlayers(gameCode).contains(PlayerRef.of(player)));
+		assertFalse(lobbyService.getPlayers(gameCode).contains(PlayerRef.of(otherPlayer)));
 	}
 	
 	@ParameterizedTest
@@ -449,6 +473,131 @@ public class LobbyServiceTests
 		assertNull(lobbyService.getRandomLobby(player));
 	}
 	
+	@Test
+	public void randomLobbyIsTheOneClosestInRating()
+	{
+		Account lowHost = mockHost(LECTURER_ROLE);
+		Account highHost = mockHost(LECTURER_ROLE);
+		Account lowPlayer = mockPlayer("LowPlayer");
+		Account highPlayer = mockPlayer("HighPlayer");
+		when(pdService.getRatings(List.of(lowPlayer.getId()))).thenReturn(Map.of(lowPlayer.getId(), 500));
+		when(pdService.getRatings(List.of(highPlayer.getId()))).thenReturn(Map.of(highPlayer.getId(), 1500));
+		
+		String lowCode = lobbyService.createLobby(lowHost);
+		String highCode = lobbyService.createLobby(highHost);
+		lobbyService.allowRandomPlayers(lowCode, true, lowHost);
+		lobbyService.allowRandomPlayers(highCode, true, highHost);
+		lobbyService.addPlayer(lowCode, lowPlayer);
+		lobbyService.addPlayer(highCode, highPlayer);
+		
+		assertEquals(lowCode, lobbyService.getRandomLobby(600));
+		assertEquals(highCode, lobbyService.getRandomLobby(1100));
+		assertEquals(highCode, lobbyService.getRandomLobby(3000));
+	}
+	@Test
+	public void randomLobbyLookupDoesNotReadPlayerData()
+	{
+		Account host = mockHost(LECTURER_ROLE);
+		String gameCode = lobbyService.createLobby(host);
+		lobbyService.allowRandomPlayers(gameCode, true, host);
+		lobbyService.addPlayer(gameCode, mockPlayer("Player"));
+		clearInvocations(pdService);
+		
+		assertEquals(gameCode, lobbyService.getRandomLobby(PlayerDataService.DEFAULT_RATING));
+		verifyNoInteractions(pdService);
+	}
+	@Test
+	public void fullLobbiesAreNotOfferedToRandomPlayers()
+	{
+		Account host = mockHost(LECTURER_ROLE);
+		Account player = mockPlayer("Player");
+		String gameCode = lobbyService.createLobby(host);
+		lobbyService.updateOptions(gameCode, new LobbyOptionsDTO(1, true), host);
+		
+		assertEquals(gameCode, lobbyService.getRandomLobby(PlayerDataService.DEFAULT_RATING));
+		assertTrue(lobbyService.addPlayer(gameCode, player));
+		assertNull(lobbyService.getRandomLobby(PlayerDataService.DEFAULT_RATING));
+		assertTrue(lobbyService.removePlayer(gameCode, player));
+		assertEquals(gameCode, lobbyService.getRandomLobby(PlayerDataService.DEFAULT_RATING));
+	}
+	@Test
+	public void lobbyKeepsTheRatingsPlayersJoinedWith()
+	{
+		Account host = mockHost(PLAYER_ROLE);
+		Account player1 = mockPlayer("Player1");
+		Account player2 = mockPlayer("Player2");
+		when(pdService.getRatings(List.of(host.getId()))).thenReturn(Map.of(host.getId(), 1000));
+		when(pdService.getRatings(List.of(player1.getId()))).thenReturn(Map.of(player1.getId(), 700));
+		when(pdService.getRatings(List.of(player2.getId()))).thenReturn(Map.of(player2.getId(), 1600));
+		
+		String gameCode = lobbyService.createLobby(host);
+		lobbyService.addPlayer(gameCode, player1);
+		lobbyService.addPlayer(gameCode, player2);
+		
+		RatingProfile profile = lobbyService.getRatingProfile(gameCode).get();
+		assertEquals(3, profile.getCount());
+		assertEquals(1100, profile.getAverage(0));
+		assertEquals(700, profile.getMin());
+		assertEquals(1600, profile.getMax());
+		assertEquals(900, profile.getSpread());
+		
+		lobbyService.removePlayer(gameCode, player1);
+		profile = lobbyService.getRatingProfile(gameCode).get();
+		assertEquals(2, profile.getCount());
+		assertEquals(1300, profile.getAverage(0));
+		assertEquals(1000, profile.getMin());
+	}
+	@Test
+	public void ratingProfileDoesNotReadPlayerData()
+	{
+		Account host = mockHost(LECTURER_ROLE);
+		String gameCode = lobbyService.createLobby(host);
+		lobbyService.addPlayer(gameCode, mockPlayer("Player"));
+		clearInvocations(pdService);
+		
+		assertEquals(PlayerDataService.DEFAULT_RATING, lobbyService.getAverageRating(gameCode));
+		assertEquals(1, lobbyService.getRatingProfile(gameCode).get().getCount());
+		verifyNoInteractions(pdService);
+	}
+	@Test
+	public void emptyLobbyHasTheDefaultRating()
+	{
+		String gameCode = lobbyService.createLobby(mockHost(LECTURER_ROLE));
+		
+		assertTrue(lobbyService.getRatingProfile(gameCode).get().isEmpty());
+		assertEquals(PlayerDataService.DEFAULT_RATING, lobbyService.getAverageRating(gameCode));
+	}
+		@Test
+	public void lobbyCodesStayReservedUntilTheLobbyCloses()
+	{
+		Account host = mockHost(LECTURER_ROLE);
+		String gameCode = lobbyService.createLobby(host);
+		
+		assertTrue(codeAllocator.isReserved(gameCode));
+		assertTrue(lobbyService.deleteLobby(gameCode, host));
+		assertFalse(codeAllocator.isReserved(gameCode));
+	}
+		@Test
+	public void closedLobbiesAreNotOfferedToRandomPlayers()
+	{
+		Account host = mockHost(LECTURER_ROLE);
+		String gameCode = lobbyService.createLobby(host);
+		lobbyService.allowRandomPlayers(gameCode, true, host);
+		
+		assertTrue(lobbyService.deleteLobby(gameCode, host));
+		assertNull(lobbyService.getRandomLobby(PlayerDataService.DEFAULT_RATING));
+	}
+	@Test
+	public void lobbiesClosedToRandomPlayersAreNotOffered()
+	{
+		Account host = mockHost(LECTURER_ROLE);
+		String gameCode = lobbyService.createLobby(host);
+		lobbyService.allowRandomPlayers(gameCode, true, host);
+		lobbyService.allowRandomPlayers(gameCode, false, host);
+		
+		assertNull(lobbyService.getRandomLobby(PlayerDataService.DEFAULT_RATING));
+	}
+	
 	@ParameterizedTest
 	@MethodSource({"mockPlayerHostAndPlayer", "mockLecturerHostAndPlayer"})
 	public void canFindLobbyThePlayerIsIn(Account mockHost, Account mockPlayer)
@@ -458,7 +607,58 @@ public class LobbyServiceTests
 		
 		assertEquals(lobbyService.getLobbyForAccount(mockPlayer).orElse(null), gameCode);
 	}
-	@ParameterizedTest
+	@Test
+	public void canFindLobbyTheAccountHosts()
+	{
+		Account host = mockHost(LECTURER_ROLE);
+		String gameCode = lobbyService.createLobby(host);
+		
+		assertEquals(Optional.of(gameCode), lobbyService.getLobbyForAccount(host));
+		assertEquals(PresenceIndex.Role.HOST, presence.findLobby(host.getId()).get().getRole());
+	}
+	@Test
+	public void cannotFindLobbyThePlayerLeft()
+	{
+		Account host = mockHost(LECTURER_ROLE);
+		Account player = mockPlayer("Player");
+		String gameCode = lobbyService.createLobby(host);
+		lobbyService.addPlayer(gameCode, player);
+		
+		lobbyService.removePlayer(gameCode, player);
+		
+		assertTrue(lobbyService.getLobbyForAccount(player).isEmpty());
+		assertTrue(presence.findLobby(player.getId()).isEmpty());
+	}
+	@Test
+	public void cannotFindLobbyAfterItCloses()
+	{
+		Account host = mockHost(LECTURER_ROLE);
+		Account player = mockPlayer("Player");
+		String gameCode = lobbyService.createLobby(host);
+		lobbyService.addPlayer(gameCode, player);
+		
+		lobbyService.deleteLobby(gameCode, host);
+		
+		assertTrue(lobbyService.getLobbyForAccount(host).isEmpty());
+		assertTrue(lobbyService.getLobbyForAccount(player).isEmpty());
+		assertEquals(0, presence.getLobbyPresenceCount());
+	}
+	@Test
+	public void findsTheLobbyThePlayerJoinedLast()
+	{
+		Account player = mockPlayer("Player");
+		Account host1 = mockHost(LECTURER_ROLE);
+		Account host2 = mockHost(LECTURER_ROLE);
+		String gameCode1 = lobbyService.createLobby(host1);
+		String gameCode2 = lobbyService.createLobby(host2);
+		lobbyService.addPlayer(gameCode1, player);
+		lobbyService.addPlayer(gameCode2, player);
+		
+		lobbyService.deleteLobby(gameCode1, host1);
+		
+		assertEquals(Optional.of(gameCode2), lobbyService.getLobbyForAccount(player));
+	}
+		@ParameterizedTest
 	@MethodSource("mockHosts")
 	public void cannotFindLobbyIfPlayerIsNotInOne(Account player)
 	{
@@ -555,6 +755,45 @@ public class LobbyServiceTests
 		assertTrue(lobbyService.hasAnythingChanged(gameCode, player1).orElse(false));
 	}
 	@ParameterizedTest
+	@MethodSource({"mockPlayerHostAndTwoPlayers", "mockLecturerHostAndTwoPlayers"})
+	public void readingLobbyStatusDoesNotChangeItsTag(Account host, Account player1, Account player2)
+	{
+		String gameCode = lobbyService.createLobby(host);
+		lobbyService.addPlayer(gameCode, player1);
+		String tag = lobbyService.getStatusTag(gameCode).get();
+		
+		lobbyService.getPlayers(gameCode);
+		lobbyService.hasAnythingChanged(gameCode, player1);
+		lobbyService.getLobbyForAccount(player1);
+		assertEquals(Optional.of(tag), lobbyService.getStatusTag(gameCode));
+		
+		lobbyService.addPlayer(gameCode, player2);
+		assertNotEquals(Optional.of(tag), lobbyService.getStatusTag(gameCode));
+	}
+	@ParameterizedTest
+	@MethodSource("mockHosts")
+	public void changingLobbyOptionsChangesItsTag(Account host)
+	{
+		String gameCode = lobbyService.createLobby(host);
+		String created = lobbyService.getStatusTag(gameCode).get();
+		
+		lobbyService.allowRandomPlayers(gameCode, true, host);
+		String allowed = lobbyService.getStatusTag(gameCode).get();
+		assertNotEquals(created, allowed);
+		
+		lobbyService.updateOptions(gameCode, new LobbyOptionsDTO(10, true), host);
+		assertNotEquals(allowed, lobbyService.getStatusTag(gameCode).get());
+	}
+	@ParameterizedTest
+	@MethodSource("mockHosts")
+	public void deletedLobbyHasNoTag(Account host)
+	{
+		String gameCode = lobbyService.createLobby(host);
+		lobbyService.deleteLobby(gameCode, host);
+		
+		assertTrue(lobbyService.getStatusTag(gameCode).isEmpty());
+	}
+	@ParameterizedTest
 	@MethodSource("mockHostAndSettings")
 	public void changingLobbySettingsAffectsReturnedValues(
 			Account host, LobbyOptionsDTO options)
@@ -654,13 +893,13 @@ public class LobbyServiceTests
 		lobbyService.addPlayer(gameCode, player1);
 		lobbyService.addPlayer(gameCode, player2);
 		
-		lobbyService.removeInactive();
+		expiryScheduler.expireDue();
 		
 		assertTrue(lobbyService.lobbyExists(gameCode));
 		assertTrue(lobbyService.isHost(gameCode, host));
-		List<Account> players = lobbyService.getPlayers(gameCode);
-		assertTrue(players.contains(player1));
-		assertTrue(players.contains(player2));
+		List<PlayerRef> players = lobbyService.getPlayers(gameCode);
+		assertTrue(players.contains(PlayerRef.of(player1)));
+		assertTrue(players.contains(PlayerRef.of(player2)));
 	}
 	@ParameterizedTest
 	@MethodSource({"mockPlayerHostAndTwoPlayers", "mockLecturerHostAndTwoPlayers"})
@@ -672,13 +911,13 @@ public class LobbyServiceTests
 		
 		lobbyService.markInactive(gameCode, playerToRemove);
 		
-		lobbyService.removeInactive();
+		expiryScheduler.expireDue();
 		
 		assertTrue(lobbyService.lobbyExists(gameCode));
 		assertTrue(lobbyService.isHost(gameCode, host));
-		List<Account> players = lobbyService.getPlayers(gameCode);
-		assertFalse(players.contains(playerToRemove));
-		assertTrue(players.contains(playerToStay));
+		List<PlayerRef> players = lobbyService.getPlayers(gameCode);
+		assertFalse(players.contains(PlayerRef.of(playerToRemove)));
+		assertTrue(players.contains(PlayerRef.of(playerToStay)));
 	}
 	@ParameterizedTest
 	@MethodSource({"mockPlayerHostAndTwoPlayers", "mockLecturerHostAndTwoPlayers"})
@@ -691,13 +930,13 @@ public class LobbyServiceTests
 		lobbyService.markInactive(gameCode, playerToRemove1);
 		lobbyService.markInactive(gameCode, playerToRemove2);
 		
-		lobbyService.removeInactive();
+		expiryScheduler.expireDue();
 		
 		assertTrue(lobbyService.lobbyExists(gameCode));
 		assertTrue(lobbyService.isHost(gameCode, host));
-		List<Account> players = lobbyService.getPlayers(gameCode);
-		assertFalse(players.contains(playerToRemove1));
-		assertFalse(players.contains(playerToRemove2));
+		List<PlayerRef> players = lobbyService.getPlayers(gameCode);
+		assertFalse(players.contains(PlayerRef.of(playerToRemove1)));
+		assertFalse(players.contains(PlayerRef.of(playerToRemove2)));
 	}
 	@ParameterizedTest
 	@MethodSource({"mockPlayerHostAndTwoPlayers", "mockLecturerHostAndTwoPlayers"})
@@ -709,7 +948,7 @@ public class LobbyServiceTests
 		
 		lobbyService.markInactive(gameCode, host);
 		
-		lobbyService.removeInactive();
+		expiryScheduler.expireDue();
 		
 		assertFalse(lobbyService.lobbyExists(gameCode));
 	}
@@ -724,13 +963,13 @@ public class LobbyServiceTests
 		lobbyService.markInactive(gameCode, playerToStay1);
 		lobbyService.hasAnythingChanged(gameCode, playerToStay1);
 		
-		lobbyService.removeInactive();
+		expiryScheduler.expireDue();
 		
 		assertTrue(lobbyService.lobbyExists(gameCode));
 		assertTrue(lobbyService.isHost(gameCode, host));
-		List<Account> players = lobbyService.getPlayers(gameCode);
-		assertTrue(players.contains(playerToStay1));
-		assertTrue(players.contains(playerToStay2));
+		List<PlayerRef> players = lobbyService.getPlayers(gameCode);
+		assertTrue(players.contains(PlayerRef.of(playerToStay1)));
+		assertTrue(players.contains(PlayerRef.of(playerToStay2)));
 	}
 	@ParameterizedTest
 	@MethodSource({"mockPlayerHostAndTwoPlayers", "mockLecturerHostAndTwoPlayers"})
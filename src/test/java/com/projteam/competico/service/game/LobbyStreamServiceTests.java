@@ -0,0 +1,88 @@
+package com.projteam.competico.service.game;
+
+import static com.projteam.competico.domain.Account.PLAYER_ROLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.projteam.competico.domain.Account;
+import com.projteam.competico.domain.game.Lobby;
+
+public class LobbyStreamServiceTests
+{
+	private LobbyStreamService lobbyStream;
+
+	@BeforeEach
+	public void setup()
+	{
+		lobbyStream = new LobbyStreamService();
+	}
+
+	@Test
+	public void canSubscribeToLobby()
+	{
+		Lobby lobby = new Lobby("gameCode", mockAccount());
+
+		assertNotNull(lobbyStream.subscribe(lobby, () -> Map.of("exists", true)));
+		assertNotNull(lobbyStream.subscribe(lobby, () -> Map.of("exists", true)));
+
+		assertEquals(2, lobbyStream.getSubscriberCount("gameCode"));
+	}
+	@Test
+	public void lobbyChangesArePushedOncePerInterval()
+	{
+		Lobby lobby = new Lobby("gameCode", mockAccount());
+		AtomicInteger snapshotCount = new AtomicInteger();
+		lobbyStream.subscribe(lobby, () -> snapshotCount.incrementAndGet());
+
+		lobby.addPlayer(mockAccount(), PlayerDataService.DEFAULT_RATING);
+		lobby.addPlayer(mockAccount(), PlayerDataService.DEFAULT_RATING);
+		lobbyStream.pushPendingChanges();
+		lobbyStream.pushPendingChanges();
+
+		assertEquals(2, snapshotCount.get());
+	}
+	@Test
+	public void closingLobbyRemovesSubscribers()
+	{
+		Lobby lobby = new Lobby("gameCode", mockAccount());
+		lobbyStream.subscribe(lobby, () -> Map.of("exists", true));
+
+		lobbyStream.lobbyClosed("gameCode");
+
+		assertEquals(0, lobbyStream.getSubscriberCount("gameCode"));
+	}
+	@Test
+	public void startingGameKeepsStreamOpenUntilGameStarted()
+	{
+		Lobby lobby = new Lobby("gameCode", mockAccount());
+		lobbyStream.subscribe(lobby, () -> Map.of("exists", true));
+
+		lobbyStream.gameStarting("gameCode");
+		lobbyStream.lobbyClosed("gameCode");
+
+		assertEquals(1, lobbyStream.getSubscriberCount("gameCode"));
+
+		lobbyStream.gameStarted("gameCode", UUID.randomUUID());
+
+		assertEquals(0, lobbyStream.getSubscriberCount("gameCode"));
+	}
+
+	//---Helpers---
+
+	private static Account mockAccount()
+	{
+		UUID id = UUID.randomUUID();
+		return new Account.Builder()
+				.withID(id)
+				.withEmail(id + "@test.pl")
+				.withUsername("Test" + id)
+				.withPassword("QWERTY")
+				.withRoles(List.of(PLAYER_ROLE))
+				.build();
+	}
+}
@@ -2,15 +2,23 @@ package com.projteam.competico.service.game;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -18,11 +26,13 @@ import com.projteam.competico.dao.game.PlayerDataDAO;
 import com.projteam.competico.domain.Account;
 import com.projteam.competico.domain.game.PlayerData;
 import com.projteam.competico.service.AccountService;
+import com.projteam.competico.service.game.rating.PairwiseEloRating;
 
 class PlayerDataServiceTests
 {
 	private @Mock PlayerDataDAO playerDataDao;
 	private @Mock AccountService accountService;
+	private @Spy PairwiseEloRating ratingAlgorithm;
 	
 	private @InjectMocks PlayerDataService pdService;
 	
@@ -97,6 +107,55 @@ class PlayerDataServiceTests
 		assertNotNull(pdService.savePlayerData(pd));
 	}
 	
+	@Test
+	public void canUpdateRatingsWithSingleQuery()
+	{
+		PlayerData winner = new PlayerData(UUID.randomUUID(), mockAccount(Account.PLAYER_ROLE), 1000);
+		PlayerData loser = new PlayerData(UUID.randomUUID(), mockAccount(Account.PLAYER_ROLE), 1400);
+		Map<UUID, Long> totalScores = Map.of(
+				winner.getAccount().getId(), 500l,
+				loser.getAccount().getId(), 100l);
+		
+		when(playerDataDao.findAllByAccountIDs(totalScores.keySet()))
+			.thenReturn(List.of(winner, loser));
+		
+		pdService.updateRatings(totalScores);
+		
+		assertEquals(1029, winner.getRating());
+		assertEquals(1371, loser.getRating());
+		verify(playerDataDao).saveAll(anyCollection());
+		verify(accountService, never()).findAllByID(any());
+		verify(accountService, never()).findByID(any());
+	}
+	@Test
+	public void updateRatingsCreatesMissingPlayerData()
+	{
+		PlayerData existing = new PlayerData(UUID.randomUUID(), mockAccount(Account.PLAYER_ROLE), 1000);
+		Account newPlayer = mockAccount(Account.PLAYER_ROLE);
+		Account lecturer = mockAccount(Account.LECTURER_ROLE);
+		Map<UUID, Long> totalScores = Map.of(
+				existing.getAccount().getId(), 100l,
+				newPlayer.getId(), 500l,
+				lecturer.getId(), 900l);
+		
+		when(playerDataDao.findAllByAccountIDs(totalScores.keySet()))
+			.thenReturn(List.of(existing));
+		when(accountService.findAllByID(Set.of(newPlayer.getId(), lecturer.getId())))
+			.thenReturn(List.of(newPlayer, lecturer));
+		
+		pdService.updateRatings(totalScores);
+		
+		assertEquals(984, existing.getRating());
+		verify(playerDataDao).saveAll(argThat(pds ->
+		{
+			List<PlayerData> list = new ArrayList<>();
+			pds.forEach(list::add);
+			return (list.size() == 2)
+					&& list.stream().anyMatch(pd -> pd.getAccount().equals(newPlayer)
+						&& (pd.getRating() == 1016));
+		}));
+	}
+	
 	@Test
 	public void canGetTopLeaderboard()
 	{
@@ -0,0 +1,73 @@
+package com.projteam.competico.service.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.projteam.competico.service.game.PresenceIndex.Presence;
+import com.projteam.competico.service.game.PresenceIndex.Role;
+
+public class PresenceIndexTests
+{
+	private PresenceIndex presence;
+
+	@BeforeEach
+	public void setup()
+	{
+		presence = new PresenceIndex();
+	}
+
+	@Test
+	public void findsTheLobbyAndGameAnAccountIsIn()
+	{
+		UUID accountID = UUID.randomUUID();
+
+		presence.enterLobby(accountID, "lobbyCode", Role.HOST);
+		presence.enterGame(accountID, "gameCode", Role.SPECTATOR);
+
+		Presence lobby = presence.findLobby(accountID).get();
+		Presence game = presence.findGame(accountID).get();
+		assertEquals("lobbyCode", lobby.getGameCode());
+		assertEquals(Role.HOST, lobby.getRole());
+		assertEquals("gameCode", game.getGameCode());
+		assertEquals(Role.SPECTATOR, game.getRole());
+	}
+	@Test
+	public void forgetsLobbiesAndGamesThatWereLeft()
+	{
+		UUID accountID = UUID.randomUUID();
+		presence.enterLobby(accountID, "lobbyCode", Role.PLAYER);
+		presence.enterGame(accountID, "gameCode", Role.PLAYER);
+
+		presence.leaveLobby(accountID, "lobbyCode");
+		presence.leaveGame(accountID, "gameCode");
+
+		assertTrue(presence.findLobby(accountID).isEmpty());
+		assertTrue(presence.findGame(accountID).isEmpty());
+		assertEquals(0, presence.getLobbyPresenceCount());
+		assertEquals(0, presence.getGamePresenceCount());
+	}
+	@Test
+	public void leavingAnOlderLobbyKeepsTheNewerOne()
+	{
+		UUID accountID = UUID.randomUUID();
+		presence.enterLobby(accountID, "oldCode", Role.PLAYER);
+		presence.enterLobby(accountID, "newCode", Role.PLAYER);
+
+		presence.leaveLobby(accountID, "oldCode");
+
+		assertEquals("newCode", presence.findLobby(accountID).get().getGameCode());
+	}
+	@Test
+	public void leavingAnOlderGameKeepsTheNewerOne()
+	{
+		UUID accountID = UUID.randomUUID();
+		presence.enterGame(accountID, "oldCode", Role.PLAYER);
+		presence.enterGame(accountID, "newCode", Role.PLAYER);
+
+		presence.leaveGame(accountID, "oldCode");
+
+		assertEquals("newCode", presence.findGame(accountID).get().getGameCode());
+	}
+}
@@ -0,0 +1,99 @@
+package com.projteam.competico.service.game;
+
+import static com.projteam.competico.domain.Account.PLAYER_ROLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.projteam.competico.domain.Account;
+import com.projteam.competico.domain.game.Game;
+import com.projteam.competico.domain.game.PlayerRef;
+import com.projteam.competico.domain.game.tasks.Task;
+
+public class ScoreboardStreamServiceTests
+{
+	private ScoreboardStreamService scoreboardStream;
+
+	@BeforeEach
+	public void setup()
+	{
+		scoreboardStream = new ScoreboardStreamService();
+	}
+
+	@Test
+	public void canSubscribeToGame()
+	{
+		Game game = mockGame(mockAccount());
+
+		assertNotNull(scoreboardStream.subscribe(game));
+		assertNotNull(scoreboardStream.subscribe(game));
+
+		assertEquals(2, scoreboardStream.getSubscriberCount(game.getID()));
+	}
+	@Test
+	public void canPushChangesToSubscribers()
+	{
+		Account player = mockAccount();
+		Game game = mockGame(player);
+		scoreboardStream.subscribe(game);
+
+		game.advance(player, 0, 1);
+		scoreboardStream.markChanged(game);
+		scoreboardStream.pushPendingChanges();
+
+		assertEquals(1, scoreboardStream.getSubscriberCount(game.getID()));
+	}
+	@Test
+	public void endingGameRemovesSubscribers()
+	{
+		Game game = mockGame(mockAccount());
+		scoreboardStream.subscribe(game);
+
+		scoreboardStream.gameEnded(game);
+
+		assertEquals(0, scoreboardStream.getSubscriberCount(game.getID()));
+	}
+	@Test
+	public void markingGameWithoutSubscribersDoesNothing()
+	{
+		Game game = mockGame(mockAccount());
+
+		scoreboardStream.markChanged(game);
+		scoreboardStream.pushPendingChanges();
+
+		assertEquals(0, scoreboardStream.getSubscriberCount(game.getID()));
+	}
+
+	//---Helpers---
+
+	private static List<PlayerRef> refs(Account... accounts)
+	{
+		return Stream.of(accounts)
+				.map(acc -> PlayerRef.of(acc))
+				.collect(Collectors.toList());
+	}
+	private static Game mockGame(Account player)
+	{
+		Task task = mock(Task.class);
+		when(task.getDifficulty()).thenReturn(100.0);
+		return new Game(refs(player), List.of(), 1, Map.of(player.getId(), List.of(task)));
+	}
+	private static Account mockAccount()
+	{
+		UUID id = UUID.randomUUID();
+		return new Account.Builder()
+				.withID(id)
+				.withEmail(id + "@test.pl")
+				.withUsername("Test" + id)
+				.withPassword("QWERTY")
+				.withRoles(List.of(PLAYER_ROLE))
+				.build();
+	}
+}
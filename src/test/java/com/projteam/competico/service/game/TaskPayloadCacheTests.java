@@ -0,0 +1,125 @@
+package com.projteam.competico.service.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.projteam.competico.domain.game.tasks.Task;
+import com.projteam.competico.domain.game.tasks.WordConnect;
+import com.projteam.competico.service.game.tasks.TaskCache;
+
+public class TaskPayloadCacheTests
+{
+	private ObjectMapper mapper;
+	private TaskPayloadCache payloadCache;
+
+	@BeforeEach
+	public void setup()
+	{
+		mapper = new ObjectMapper();
+		payloadCache = new TaskPayloadCache(mapper, 2);
+	}
+
+	@Test
+	public void payloadMatchesTaskInfo() throws IOException
+	{
+		Task task = mockTask(UUID.randomUUID());
+
+		JsonNode payload = mapper.readTree(payloadCache.getTaskInfo(task, 0, 3, 7));
+		ObjectNode expected = mapper.valueToTree(task.prepareTaskInfo(3, 7));
+
+		assertEquals(3, payload.get("currentTaskNumber").asInt());
+		assertEquals(7, payload.get("taskCount").asInt());
+		expected.remove("task");
+		((ObjectNode) payload).remove("task");
+		assertEquals(expected, payload);
+	}
+	@Test
+	public void serializesTaskOncePerVariant() throws IOException
+	{
+		Task task = spy(mockTask(UUID.randomUUID()));
+
+		JsonNode first = mapper.readTree(payloadCache.getTaskInfo(task, 1, 0, 5));
+		JsonNode second = mapper.readTree(payloadCache.getTaskInfo(task, 1, 4, 5));
+
+		assertEquals(first.get("task"), second.get("task"));
+		assertEquals(4, second.get("currentTaskNumber").asInt());
+		verify(task, times(1)).prepareTaskInfo(anyInt(), anyInt());
+	}
+	@Test
+	public void sharesPayloadsBetweenInstancesOfTheSameRevision()
+	{
+		UUID taskId = UUID.randomUUID();
+		Task task = spy(mockTask(taskId));
+		Task reloaded = spy(mockTask(taskId));
+
+		payloadCache.getTaskInfo(task, 0, 0, 5);
+		payloadCache.getTaskInfo(reloaded, 0, 0, 5);
+		payloadCache.getTaskInfo(task, 0, 0, 5);
+
+		verify(task, times(1)).prepareTaskInfo(anyInt(), anyInt());
+		verify(reloaded, never()).prepareTaskInfo(anyInt(), anyInt());
+		assertEquals(1, payloadCache.size());
+	}
+	@Test
+	public void reserializesEditedTask()
+	{
+		UUID taskId = UUID.randomUUID();
+		Task task = spy(mockTask(taskId));
+		Task edited = spy(mockTask(taskId));
+		edited.setRevision(TaskCache.FIRST_REVISION + 1);
+
+		payloadCache.getTaskInfo(task, 0, 0, 5);
+		payloadCache.getTaskInfo(edited, 0, 0, 5);
+		payloadCache.getTaskInfo(edited, 0, 0, 5);
+		payloadCache.getTaskInfo(task, 0, 0, 5);
+
+		verify(edited, times(1)).prepareTaskInfo(anyInt(), anyInt());
+		verify(task, times(2)).prepareTaskInfo(anyInt(), anyInt());
+		assertEquals(1, payloadCache.size());
+	}
+	@Test
+	public void doesNotCacheTasksWithoutRevision()
+	{
+		Task task = spy(mockTask(UUID.randomUUID()));
+		task.setRevision(TaskCache.NO_REVISION);
+
+		payloadCache.getTaskInfo(task, 0, 0, 5);
+		payloadCache.getTaskInfo(task, 0, 0, 5);
+
+		verify(task, times(2)).prepareTaskInfo(anyInt(), anyInt());
+		assertEquals(0, payloadCache.size());
+	}
+	@Test
+	public void evictsLeastRecentlyUsedPayloads()
+	{
+		payloadCache.getTaskInfo(mockTask(UUID.randomUUID()), 0, 0, 5);
+		payloadCache.getTaskInfo(mockTask(UUID.randomUUID()), 0, 0, 5);
+		payloadCache.getTaskInfo(mockTask(UUID.randomUUID()), 0, 0, 5);
+
+		assertEquals(2, payloadCache.size());
+	}
+
+	//---Helpers---
+
+	private static Task mockTask(UUID taskId)
+	{
+		Task ret = new WordConnect(taskId,
+				"Test instruction", List.of(),
+				List.of("a", "b"), List.of("A", "B"),
+				Map.of(0, 0, 1, 1), 100);
+		ret.setRevision(TaskCache.FIRST_REVISION);
+		return ret;
+	}
+}
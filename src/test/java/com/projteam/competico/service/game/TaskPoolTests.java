@@ -0,0 +1,91 @@
+package com.projteam.competico.service.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import com.projteam.competico.domain.game.tasks.Task;
+import com.projteam.competico.domain.game.tasks.WordConnect;
+import com.projteam.competico.domain.game.tasks.WordFill;
+
+public class TaskPoolTests
+{
+	@Test
+	public void emptyTasksetsGiveEmptyPool()
+	{
+		assertTrue(new TaskPool(List.of(), 100).isEmpty());
+		assertTrue(new TaskPool(List.of(List.of()), 100).isEmpty());
+	}
+	@Test
+	public void drawsRequestedNumberOfTasksFromPool()
+	{
+		List<Task> taskset1 = mockTasks(10);
+		List<Task> taskset2 = mockTasks(3);
+		Set<Task> all = Set.copyOf(IntStream.range(0, 2)
+				.mapToObj(i -> (i == 0)?taskset1:taskset2)
+				.flatMap(l -> l.stream())
+				.collect(Collectors.toList()));
+		TaskPool pool = new TaskPool(List.of(taskset1, taskset2), 100);
+		Random rand = new Random(1);
+		
+		for (int i = 0; i < 50; i++)
+		{
+			List<Task> tasks = pool.drawTaskList(7, rand);
+			assertEquals(7, tasks.size());
+			assertTrue(all.containsAll(tasks));
+		}
+	}
+	@Test
+	public void sameTypeIsNotDrawnTwiceInARow()
+	{
+		TaskPool pool = new TaskPool(List.of(mockTasks(20)), 100);
+		Random rand = new Random(2);
+		
+		for (int i = 0; i < 50; i++)
+		{
+			List<Task> tasks = pool.drawTaskList(7, rand);
+			for (int j = 1; j < tasks.size(); j++)
+				assertNotEquals(tasks.get(j - 1).getClass(), tasks.get(j).getClass());
+		}
+	}
+	@Test
+	public void singleTypePoolCanRepeatType()
+	{
+		List<Task> taskset = mockTasks(10)
+				.stream()
+				.filter(t -> t instanceof WordConnect)
+				.collect(Collectors.toList());
+		TaskPool pool = new TaskPool(List.of(taskset), 100);
+		
+		assertEquals(6, pool.drawTaskList(6, new Random(3)).size());
+	}
+	
+	//---Helpers---
+	
+	private static List<Task> mockTasks(int count)
+	{
+		return IntStream.range(0, count)
+				.mapToObj(i -> (i % 2 == 0)?mockWordConnect(50 + i * 10):mockWordFill(50 + i * 10))
+				.collect(Collectors.toList());
+	}
+	private static Task mockWordConnect(double difficulty)
+	{
+		return new WordConnect(UUID.randomUUID(),
+				"Test instruction", List.of(),
+				List.of("a", "b"), List.of("A", "B"),
+				Map.of(0, 0, 1, 1), difficulty);
+	}
+	private static Task mockWordFill(double difficulty)
+	{
+		return new WordFill(UUID.randomUUID(),
+				"Test instruction", List.of(),
+				null, difficulty);
+	}
+}
@@ -2,15 +2,19 @@ package com.projteam.competico.service.game;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,6 +28,8 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 import org.springframework.web.multipart.MultipartFile;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -31,6 +37,8 @@ import com.projteam.competico.dao.game.GlobalTaskDAO;
 import com.projteam.competico.dao.game.TaskInfoDAO;
 import com.projteam.competico.dao.game.TaskSetDAO;
 import com.projteam.competico.domain.Account;
+import com.projteam.competico.domain.game.TaskInfo;
+import com.projteam.competico.domain.game.TaskSet;
 import com.projteam.competico.domain.game.tasks.ChoiceWordFill;
 import com.projteam.competico.domain.game.tasks.ChoiceWordFillElement;
 import com.projteam.competico.domain.game.tasks.ChronologicalOrder;
@@ -68,6 +76,8 @@ import com.projteam.competico.service.game.tasks.ListChoiceWordFillService;
 import com.projteam.competico.service.game.tasks.ListSentenceFormingService;
 import com.projteam.competico.service.game.tasks.ListWordFillService;
 import com.projteam.competico.service.game.tasks.OptionSelectService;
+import com.projteam.competico.service.game.tasks.TaskDirectory;
+import com.projteam.competico.service.game.tasks.TaskService;
 import com.projteam.competico.service.game.tasks.WordConnectService;
 import com.projteam.competico.service.game.tasks.WordFillService;
 import com.projteam.competico.service.game.tasks.mappers.GenericTaskMapper;
@@ -105,6 +115,7 @@ class TaskSetDataServiceTests
 	private @Mock GlobalTaskDAO gtDao;
 	private @Mock TaskSetDAO tsDao;
 	private @Mock TaskInfoDAO tiDao;
+	private @Mock GlobalTaskCatalog catalog;
 	
 	private GenericTaskMapper taskMapper;
 	
@@ -122,12 +133,14 @@ class TaskSetDataServiceTests
 				lsfMapper, lwfMapper, osMapper,
 				wcMapper, wfMapper));
 		
-		tsdServ = new TaskSetDataService(List.of(
-					cwfServ, coServ, lcwfServ,
-					lsfServ, lwfServ, osServ,
-					wcServ, wfServ),
+		List<TaskService> taskServices = List.of(
+				cwfServ, coServ, lcwfServ,
+				lsfServ, lwfServ, osServ,
+				wcServ, wfServ);
+		tsdServ = new TaskSetDataService(taskServices,
 				aServ, taskMapper,
-				gtDao, tsDao, tiDao);
+				gtDao, tsDao, tiDao, catalog,
+				new TaskDirectory(taskServices));
 		
 		when(cwfServ.canAccept(any()))
 			.thenCallRealMethod();
@@ -336,6 +349,56 @@ class TaskSetDataServiceTests
 		
 		assertDoesNotThrow(() -> tsdServ.removeAllTasks());
 	}
+	@Test
+	public void shouldChangeRevisionWhenTasksAreRemoved()
+	{
+		long revision = tsdServ.getRevision();
+		
+		tsdServ.removeAllTasks(mockLecturer());
+		
+		assertNotEquals(revision, tsdServ.getRevision());
+	}
+	@Test
+	public void shouldRemoveAllTasksFromCatalogAtOnce()
+	{
+		Account lecturer = mockLecturer();
+		List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+		when(tsDao.findAllByLecturerID(lecturer.getId())).thenReturn(List.of(
+				new TaskSet(UUID.randomUUID(), "taskset1", lecturer.getId(),
+						Set.of(new TaskInfo(ids.get(0)), new TaskInfo(ids.get(1)))),
+				new TaskSet(UUID.randomUUID(), "taskset2", lecturer.getId(),
+						Set.of(new TaskInfo(ids.get(2))))));
+		
+		tsdServ.removeAllTasks(lecturer);
+		
+		ArgumentCaptor<Collection<UUID>> removedCap = ArgumentCaptor.forClass(Collection.class);
+		verify(catalog).update(eq(List.of()), removedCap.capture());
+		assertEquals(Set.copyOf(ids), Set.copyOf(removedCap.getValue()));
+		verify(catalog, never()).remove(any());
+	}
+	@Test
+	public void shouldRemoveTasksFromCatalogOnlyAfterCommit()
+	{
+		Account lecturer = mockLecturer();
+		UUID id = UUID.randomUUID();
+		when(tsDao.findAllByLecturerID(lecturer.getId())).thenReturn(List.of(
+				new TaskSet(UUID.randomUUID(), "taskset", lecturer.getId(),
+						Set.of(new TaskInfo(id)))));
+		
+		TransactionSynchronizationManager.initSynchronization();
+		try
+		{
+			tsdServ.removeAllTasks(lecturer);
+			verify(catalog, never()).update(any(), any());
+			
+			TransactionSynchronizationUtils.triggerAfterCommit();
+			verify(catalog).update(List.of(), List.of(id));
+		}
+		finally
+		{
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
 	
 	@ParameterizedTest
 	@MethodSource("mockTasksetDTOs")
@@ -359,6 +422,28 @@ class TaskSetDataServiceTests
 		
 		assertTrue(ret.isEmpty());
 	}
+	@Test
+	public void shouldGetTasksByTasksetInBulk()
+	{
+		ChoiceWordFill cwf = mockChoiceWordFill();
+		WordConnect wc = mockWordConnect();
+		UUID missingId = UUID.randomUUID();
+		TaskSet taskset1 = new TaskSet(UUID.randomUUID(), "taskset1", UUID.randomUUID(),
+				Set.of(new TaskInfo(cwf.getId()), new TaskInfo(wc.getId())));
+		TaskSet taskset2 = new TaskSet(UUID.randomUUID(), "taskset2", UUID.randomUUID(),
+				Set.of(new TaskInfo(missingId)));
+		List<UUID> tasksetIds = List.of(taskset1.getId(), taskset2.getId());
+		
+		when(tsDao.findAllById(tasksetIds)).thenReturn(List.of(taskset1, taskset2));
+		when(cwfServ.genericFindAllById(any())).thenReturn(List.of(cwf));
+		when(wcServ.genericFindAllById(any())).thenReturn(List.of(wc));
+		
+		List<List<Task>> ret = tsdServ.getTasksByTaskset(tasksetIds);
+		
+		assertEquals(1, ret.size());
+		assertEquals(Set.of(cwf, wc), Set.copyOf(ret.get(0)));
+		verify(cwfServ, never()).genericFindById(any());
+	}
 	
 	//---Verifiers---
 	
@@ -0,0 +1,71 @@
+package com.projteam.competico.service.game.rating;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PairwiseEloRatingTests
+{
+	private PairwiseEloRating ratingAlgorithm;
+	
+	@BeforeEach
+	public void setup()
+	{
+		ratingAlgorithm = new PairwiseEloRating();
+	}
+	
+	@Test
+	public void winnerGainsAndLoserLosesRating()
+	{
+		UUID winner = UUID.randomUUID();
+		UUID loser = UUID.randomUUID();
+		
+		var res = ratingAlgorithm.computeNewRatings(
+				Map.of(winner, 1000, loser, 1000),
+				Map.of(winner, 500l, loser, 100l));
+		
+		assertEquals(1016, res.get(winner));
+		assertEquals(984, res.get(loser));
+	}
+	@Test
+	public void usesOpponentRatingForExpectedResult()
+	{
+		UUID underdog = UUID.randomUUID();
+		UUID favourite = UUID.randomUUID();
+		
+		var res = ratingAlgorithm.computeNewRatings(
+				Map.of(underdog, 1000, favourite, 1400),
+				Map.of(underdog, 500l, favourite, 100l));
+		
+		assertEquals(1029, res.get(underdog));
+		assertEquals(1371, res.get(favourite));
+	}
+	@Test
+	public void drawBetweenEqualPlayersKeepsRatings()
+	{
+		UUID p1 = UUID.randomUUID();
+		UUID p2 = UUID.randomUUID();
+		
+		var res = ratingAlgorithm.computeNewRatings(
+				Map.of(p1, 1200, p2, 1200),
+				Map.of(p1, 300l, p2, 300l));
+		
+		assertEquals(1200, res.get(p1));
+		assertEquals(1200, res.get(p2));
+	}
+	@Test
+	public void unratedParticipantsAreIgnored()
+	{
+		UUID rated = UUID.randomUUID();
+		UUID unrated = UUID.randomUUID();
+		
+		var res = ratingAlgorithm.computeNewRatings(
+				Map.of(rated, 1000),
+				Map.of(rated, 100l, unrated, 500l));
+		
+		assertTrue(res.isEmpty());
+	}
+}
@@ -0,0 +1,145 @@
+package com.projteam.competico.service.game.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.projteam.competico.domain.game.tasks.Task;
+import com.projteam.competico.domain.game.tasks.WordConnect;
+import com.projteam.competico.domain.game.tasks.WordFill;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TaskCacheTests
+{
+	private MeterRegistry meterRegistry;
+	private TaskCache taskCache;
+	private List<UUID> loadedIDs;
+
+	private static final int CACHE_SIZE = 3;
+
+	@BeforeEach
+	public void setup()
+	{
+		meterRegistry = new SimpleMeterRegistry();
+		taskCache = new TaskCache(CACHE_SIZE, meterRegistry);
+		loadedIDs = new ArrayList<>();
+	}
+
+	@Test
+	public void sharesLoadedTask()
+	{
+		Task task = mockTask();
+
+		Task first = taskCache.get(task.getId(), WordConnect.class, id -> load(task));
+		Task second = taskCache.get(task.getId(), WordConnect.class, id -> load(task));
+
+		assertSame(first, second);
+		assertEquals(1, loadedIDs.size());
+		assertEquals(1, meterRegistry.counter("competico.tasks.cache.hits").count());
+		assertEquals(1, meterRegistry.counter("competico.tasks.cache.misses").count());
+	}
+	@Test
+	public void doesNotLoadTaskCachedUnderAnotherType()
+	{
+		Task task = mockTask();
+		taskCache.get(task.getId(), WordConnect.class, id -> load(task));
+
+		assertNull(taskCache.get(task.getId(), WordFill.class, id -> null));
+		assertEquals(1, loadedIDs.size());
+	}
+	@Test
+	public void evictsLeastRecentlyUsedTasks()
+	{
+		List<Task> tasks = List.of(mockTask(), mockTask(), mockTask(), mockTask());
+		tasks.subList(0, CACHE_SIZE)
+			.forEach(task -> taskCache.get(task.getId(), WordConnect.class, id -> load(task)));
+		taskCache.get(tasks.get(0).getId(), WordConnect.class, id -> load(tasks.get(0)));
+
+		taskCache.get(tasks.get(3).getId(), WordConnect.class, id -> load(tasks.get(3)));
+		loadedIDs.clear();
+		taskCache.get(tasks.get(0).getId(), WordConnect.class, id -> load(tasks.get(0)));
+		taskCache.get(tasks.get(1).getId(), WordConnect.class, id -> load(tasks.get(1)));
+
+		assertEquals(List.of(tasks.get(1).getId()), loadedIDs);
+		assertEquals(CACHE_SIZE, taskCache.size());
+		assertEquals(2, meterRegistry.counter("competico.tasks.cache.evictions").count());
+	}
+	@Test
+	public void reloadsInvalidatedTask()
+	{
+		Task task = mockTask();
+		taskCache.get(task.getId(), WordConnect.class, id -> load(task));
+
+		taskCache.invalidate(task.getId());
+		taskCache.get(task.getId(), WordConnect.class, id -> load(task));
+
+		assertEquals(2, loadedIDs.size());
+	}
+	@Test
+	public void keepsRevisionAcrossEvictionButNotAcrossEdits()
+	{
+		Task task = mockTask();
+		Task reloaded = mockTask(task.getId());
+		Task edited = mockTask(task.getId());
+		taskCache.get(task.getId(), WordConnect.class, id -> load(task));
+		List.of(mockTask(), mockTask(), mockTask())
+			.forEach(t -> taskCache.get(t.getId(), WordConnect.class, id -> load(t)));
+
+		taskCache.get(task.getId(), WordConnect.class, id -> load(reloaded));
+		taskCache.invalidate(task.getId());
+		taskCache.get(task.getId(), WordConnect.class, id -> load(edited));
+
+		assertEquals(TaskCache.FIRST_REVISION, task.getRevision());
+		assertEquals(task.getRevision(), reloaded.getRevision());
+		assertNotEquals(task.getRevision(), edited.getRevision());
+	}
+	@Test
+	public void bulkLoadsOnlyMissingTasks()
+	{
+		Task cached = mockTask();
+		Task missing = mockTask();
+		taskCache.get(cached.getId(), WordConnect.class, id -> load(cached));
+		loadedIDs.clear();
+
+		List<Task> ret = taskCache.getAll(List.of(cached.getId(), missing.getId()),
+				WordConnect.class, ids -> loadAll(ids, List.of(cached, missing)));
+
+		assertEquals(2, ret.size());
+		assertEquals(List.of(missing.getId()), loadedIDs);
+	}
+
+	//---Helpers---
+
+	private Task load(Task task)
+	{
+		loadedIDs.add(task.getId());
+		return task;
+	}
+	private List<Task> loadAll(Collection<UUID> ids, List<Task> tasks)
+	{
+		loadedIDs.addAll(ids);
+		return tasks.stream()
+				.filter(task -> ids.contains(task.getId()))
+				.collect(Collectors.toList());
+	}
+	private static Task mockTask()
+	{
+		return mockTask(UUID.randomUUID());
+	}
+	private static Task mockTask(UUID taskId)
+	{
+		return new WordConnect(taskId,
+				"Test instruction", List.of(),
+				List.of("a", "b"), List.of("A", "B"),
+				Map.of(0, 0, 1, 1), 100);
+	}
+}
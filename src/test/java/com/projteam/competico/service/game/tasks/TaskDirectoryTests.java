@@ -0,0 +1,98 @@
+package com.projteam.competico.service.game.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import com.projteam.competico.domain.game.tasks.Task;
+import com.projteam.competico.domain.game.tasks.WordConnect;
+
+public class TaskDirectoryTests
+{
+	private @Mock WordConnectService wcServ;
+	private @Mock WordFillService wfServ;
+
+	private TaskDirectory taskDirectory;
+
+	@BeforeEach
+	public void setup()
+	{
+		MockitoAnnotations.initMocks(this);
+		taskDirectory = new TaskDirectory(List.of(wfServ, wcServ));
+	}
+
+	@Test
+	public void looksUpLoadedTaskInItsServiceOnly()
+	{
+		Task task = mockTask();
+		when(wfServ.genericFindAllIds())
+			.thenReturn(List.of());
+		when(wcServ.genericFindAllIds())
+			.thenReturn(List.of(task.getId()));
+		when(wcServ.genericFindById(task.getId()))
+			.thenReturn(task);
+		taskDirectory.load();
+
+		assertSame(task, taskDirectory.findTask(task.getId()).get());
+		verify(wfServ, never()).genericFindById(any());
+	}
+	@Test
+	public void remembersServiceOfUnknownTask()
+	{
+		Task task = mockTask();
+		when(wcServ.genericExistsById(task.getId()))
+			.thenReturn(true);
+
+		assertSame(wcServ, taskDirectory.findService(task.getId()).get());
+		assertSame(wcServ, taskDirectory.findService(task.getId()).get());
+		verify(wfServ, times(1)).genericExistsById(task.getId());
+	}
+	@Test
+	public void forgetsUnregisteredTask()
+	{
+		Task task = mockTask();
+		taskDirectory.register(task.getId(), wcServ);
+		taskDirectory.unregister(task.getId());
+
+		assertTrue(taskDirectory.findService(task.getId()).isEmpty());
+	}
+	@Test
+	public void bulkLoadsTasksFromTheirServices()
+	{
+		Task known = mockTask();
+		Task unknown = mockTask();
+		taskDirectory.register(known.getId(), wcServ);
+		when(wcServ.genericFindAllById(anyCollection()))
+			.thenReturn(List.of(known))
+			.thenReturn(List.of(unknown));
+		when(wfServ.genericFindAllById(anyCollection()))
+			.thenReturn(List.of());
+
+		Map<UUID, Task> ret = taskDirectory.findTasks(List.of(known.getId(), unknown.getId()));
+
+		assertEquals(Map.of(known.getId(), known, unknown.getId(), unknown), ret);
+		assertSame(wcServ, taskDirectory.findService(unknown.getId()).get());
+	}
+
+	//---Helpers---
+
+	private static Task mockTask()
+	{
+		return new WordConnect(UUID.randomUUID(),
+				"Test instruction", List.of(),
+				List.of("a", "b"), List.of("A", "B"),
+				Map.of(0, 0, 1, 1), 100);
+	}
+}
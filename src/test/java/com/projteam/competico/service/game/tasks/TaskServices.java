@@ -21,6 +21,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import com.projteam.competico.dao.game.tasks.ChoiceWordFillDAO;
 import com.projteam.competico.dao.game.tasks.ChoiceWordFillElementDAO;
 import com.projteam.competico.dao.game.tasks.ChoiceWordFillElementWordChoiceDAO;
@@ -49,6 +50,7 @@ import com.projteam.competico.domain.game.tasks.WordFill;
 import com.projteam.competico.domain.game.tasks.WordFillElement;
 import com.projteam.competico.domain.game.tasks.ChoiceWordFillElement.WordChoice;
 import com.projteam.competico.domain.game.tasks.WordFillElement.EmptySpace;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 public class TaskServices
 {
@@ -66,6 +68,8 @@ public class TaskServices
 	private @Mock WordFillDAO wfDao;
 	private @Mock WordFillElementDAO wfeDao;
 	
+	private @Spy TaskCache taskCache = new TaskCache(100, new SimpleMeterRegistry());
+	
 	private @InjectMocks ChoiceWordFillService cwfService;
 	private @InjectMocks ChronologicalOrderService coService;
 	private @InjectMocks ListChoiceWordFillService lcwfService;
@@ -18,6 +18,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.data.domain.PageImpl;
 import com.projteam.competico.dao.group.GroupDAO;
 import com.projteam.competico.dao.group.GroupGameResultDAO;
@@ -31,6 +32,7 @@ import com.projteam.competico.domain.group.GroupGameResult;
 import com.projteam.competico.domain.group.GroupJoinRequest;
 import com.projteam.competico.domain.group.GroupMessage;
 import com.projteam.competico.service.AccountService;
+import com.projteam.competico.service.CodeAllocator;
 
 class GroupServiceTests
 {
@@ -39,6 +41,7 @@ class GroupServiceTests
 	private @Mock GroupJoinRequestDAO gjrDao;
 	private @Mock GroupMessageDAO gmDao;
 	private @Mock AccountService accServ;
+	private @Spy CodeAllocator codeAllocator = new CodeAllocator();
 	
 	private @InjectMocks GroupService groupServ;
 	